@@ -22,7 +22,10 @@ package org.sonar.cxx.checks.file;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import javax.annotation.Nullable;
@@ -44,6 +47,8 @@ import org.sonar.cxx.visitors.CxxCharsetAwareVisitor;
 @NoSqale
 public class FileEncodingCheck extends SquidCheck<Grammar> implements CxxCharsetAwareVisitor {
 
+  private static final int BUFFER_SIZE = 8192;
+
   private Charset charset = StandardCharsets.UTF_8;
 
   @Override
@@ -53,13 +58,32 @@ public class FileEncodingCheck extends SquidCheck<Grammar> implements CxxCharset
 
   @Override
   public void visitFile(@Nullable AstNode astNode) {
-    try {
-      Files.readAllLines(getContext().getFile().toPath(), charset);
-    } catch (IOException e) {
+    if (!canDecode()) {
       getContext().createFileViolation(this,
         "Not all characters of the file can be encoded with the predefined charset "
         + charset.name() + ".");
     }
   }
 
+  /**
+   * The bytes of the file are decoded in chunks without keeping the text: the decoder reports malformed input and
+   * unmappable characters, U+FFFD in the file itself is a valid character.
+   */
+  private boolean canDecode() {
+    var decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+    try (var reader = new InputStreamReader(Files.newInputStream(getContext().getFile().toPath()), decoder)) {
+      var buffer = new char[BUFFER_SIZE];
+      while (reader.read(buffer) != -1) {
+        // only decode
+      }
+      return true;
+    } catch (CharacterCodingException e) {
+      return false;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
 }
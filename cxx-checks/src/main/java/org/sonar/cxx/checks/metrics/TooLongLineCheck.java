@@ -67,7 +67,7 @@ public class TooLongLineCheck extends SquidCheck<Grammar> {
   @Override
   public void visitFile(@Nullable AstNode astNode) {
     var nr = 0;
-    for (var line : getContext().getInputFileLines()) {
+    for (var line : getContext().getInputFileSource().getLines()) {
       ++nr;
       long length = line.chars().filter(c -> c == '\t').count();
       length = line.length() + length * (tabWidth - 1);
@@ -88,7 +88,7 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
       String fileContent = getContext().getInputFileContent();
       checkRegularExpression(fileContent);
     } else {
-      if (!matches(expectedLines, getContext().getInputFileLines())) {
+      if (!matches(expectedLines, getContext().getInputFileSource().getLines())) {
         getContext().createFileViolation(this, MESSAGE);
       }
     }
@@ -109,16 +109,16 @@ public class FileHeaderCheck extends SquidCheck<Grammar> {
     }
   }
 
-  private static boolean matches(String[] expectedLines, List<String> lines) {
+  private static boolean matches(String[] expectedLines, List<CharSequence> lines) {
     var result = false;
 
     if (expectedLines.length <= lines.size()) {
       result = true;
 
-      Iterator<String> it = lines.iterator();
+      Iterator<CharSequence> it = lines.iterator();
       for (var expectedLine : expectedLines) {
-        String line = it.next();
-        if (!line.equals(expectedLine)) {
+        CharSequence line = it.next();
+        if (!expectedLine.contentEquals(line)) {
           result = false;
           break;
         }
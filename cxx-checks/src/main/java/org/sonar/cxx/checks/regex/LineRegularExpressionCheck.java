@@ -110,7 +110,7 @@ public class LineRegularExpressionCheck extends SquidCheck<Grammar> {
   public void visitFile(@Nullable AstNode fileNode) {
     if (compare(invertFilePattern, matchFile())) {
       var nr = 0;
-      for (var line : getContext().getInputFileLines()) {
+      for (var line : getContext().getInputFileSource().getLines()) {
         var matcher = pattern.matcher(line);
         ++nr;
         if (compare(invertRegularExpression, matcher.find())) {
@@ -78,4 +78,28 @@ class FileEncodingCheckTest {
       .noMore();
   }
 
+  @Test
+  @SuppressWarnings("squid:S2699") // ... verify contains the assertion
+  void testInvalidFileUtf8Encoding() throws IOException {
+    Charset charset = StandardCharsets.UTF_8;
+    var squidConfig = new CxxSquidConfiguration("", charset);
+    var tester = CxxFileTesterHelper.create("src/test/resources/checks/InvalidUtf8.cc", ".", charset);
+    SourceFile file = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig, check);
+    CheckMessagesVerifier.verify(file.getCheckMessages())
+      .next().withMessage("Not all characters of the file can be encoded with the predefined charset " + charset.name()
+        + ".")
+      .noMore();
+  }
+
+  @Test
+  @SuppressWarnings("squid:S2699") // ... verify contains the assertion
+  void testReplacementCharacterUtf8Encoding() throws IOException {
+    var squidConfig = new CxxSquidConfiguration("", StandardCharsets.UTF_8);
+    var tester = CxxFileTesterHelper.create("src/test/resources/checks/ReplacementCharacter.cc", ".",
+      StandardCharsets.UTF_8);
+    SourceFile file = CxxAstScanner.scanSingleInputFileConfig(tester.asInputFile(), squidConfig, check);
+    CheckMessagesVerifier.verify(file.getCheckMessages())
+      .noMore();
+  }
+
 }
@@ -0,0 +1,2 @@
+// invalid UTF-8 sequence: (
+int i = 0;
@@ -0,0 +1,2 @@
+// replacement character: �
+int i = 0;
@@ -19,20 +19,36 @@
  */
 package org.sonar.cxx.postjobs;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.sonar.api.batch.postjob.PostJob;
 import org.sonar.api.batch.postjob.PostJobContext;
 import org.sonar.api.batch.postjob.PostJobDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.sonar.cxx.preprocessor.CxxPreprocessor;
-import org.sonar.cxx.visitors.CxxParseErrorLoggerVisitor;
+import org.sonar.cxx.CxxAnalysisRun;
 
+/**
+ * Reports the statistics of the analyses (sensor runs) at the end of the scan: include directive errors, syntax
+ * errors and cache statistics.
+ */
 public class FinalReport implements PostJob {
 
   private static final String DEBUG_INFO_MSG
     = "Turn debug info on to get more details (sonar-scanner -X -Dsonar.verbose=true ...).";
   private static final Logger LOG = LoggerFactory.getLogger(FinalReport.class);
 
+  private final List<CxxAnalysisRun> analysisRuns = new CopyOnWriteArrayList<>();
+
+  /**
+   * Add a finished analysis, its statistics are reported by {@link #execute}.
+   *
+   * @param analysisRun the finished analysis
+   */
+  public void add(CxxAnalysisRun analysisRun) {
+    analysisRuns.add(analysisRun);
+  }
+
   @Override
   public void describe(PostJobDescriptor descriptor) {
     descriptor.name("Final report");
@@ -40,8 +56,10 @@ public class FinalReport implements PostJob {
 
   @Override
   public void execute(PostJobContext context) {
-    CxxPreprocessor.finalReport();
-    CxxParseErrorLoggerVisitor.finalReport();
+    for (var analysisRun : analysisRuns) {
+      analysisRun.finalReport();
+    }
+    analysisRuns.clear();
 
     if (!LOG.isDebugEnabled()) {
       LOG.info(DEBUG_INFO_MSG);
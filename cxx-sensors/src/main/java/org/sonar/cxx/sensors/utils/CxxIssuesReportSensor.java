@@ -21,18 +21,26 @@ package org.sonar.cxx.sensors.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.PropertyType;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.sensor.issue.NewIssue;
 import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+import org.sonar.api.config.PropertyDefinition;
+import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.cxx.utils.CxxReportIssue;
 import org.sonar.cxx.utils.CxxReportLocation;
@@ -46,6 +54,9 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
   private static final Logger LOG = LoggerFactory.getLogger(CxxIssuesReportSensor.class);
 
   public static final String DEFAULT_UNKNOWN_RULE_KEY = "unknown";
+  public static final String RULES_CACHE_PATH_KEY = "sonar.cxx.rules.cache.path";
+  public static final String RULES_CACHE_TTL_KEY = "sonar.cxx.rules.cache.ttl";
+  private static final int DEFAULT_RULES_CACHE_TTL = 1440;
 
   private final HashSet<CxxReportIssue> uniqueIssues = new HashSet<>();
   private int savedNewIssues = 0;
@@ -61,6 +72,33 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
   protected CxxIssuesReportSensor() {
   }
 
+  public static List<PropertyDefinition> properties() {
+    return Collections.unmodifiableList(Arrays.asList(
+      PropertyDefinition.builder(RULES_CACHE_PATH_KEY)
+        .name("Rules Cache")
+        .description("""
+          Directory caching the rules downloaded from the server by the report sensors between analyses. The path \
+          may be either absolute or relative to the project base directory. By default the rules are downloaded \
+          for each analysis.""")
+        .category(CxxReportSensor.CATEGORY)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .build(),
+      PropertyDefinition.builder(RULES_CACHE_TTL_KEY)
+        .defaultValue(Integer.toString(DEFAULT_RULES_CACHE_TTL))
+        .name("Rules Cache Time To Live")
+        .description("""
+          Time in minutes the rules in `sonar.cxx.rules.cache.path` are used without any request to the server. \
+          After this time the server is asked whether the rules changed, unchanged rules are not downloaded again \
+          (default is `1440`).""")
+        .category(CxxReportSensor.CATEGORY)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build()
+    ));
+  }
+
   /**
    * Set WebApi access object.
    *
@@ -85,6 +123,8 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
         .or(() -> context.config().get("sonar.login")) // deprecated: can be removed in future
         .orElse(System.getenv("SONAR_TOKEN"));
 
+      webApi.setCache(getRulesCacheDir(), Duration.ofMinutes(
+        context.config().getInt(RULES_CACHE_TTL_KEY).orElse(DEFAULT_RULES_CACHE_TTL)));
       downloadRulesFromServer(url, authenticationToken);
     }
     List<File> reports = getReports(getReportPathsKey());
@@ -93,6 +133,15 @@ public abstract class CxxIssuesReportSensor extends CxxReportSensor {
     }
   }
 
+  @CheckForNull
+  private Path getRulesCacheDir() {
+    Optional<String> path = context.config().get(RULES_CACHE_PATH_KEY);
+    if (path.isEmpty() || path.get().isBlank()) {
+      return null;
+    }
+    return context.fileSystem().resolvePath(path.get().trim()).toPath();
+  }
+
   private void downloadRulesFromServer(String url, String authenticationToken) {
     try {
       LOG.info("Downloading rules for '{}' from server '{}'", getRuleRepositoryKey(), url);
@@ -0,0 +1,221 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.rule.RuleStatus;
+import org.sonar.api.server.rule.RuleParamType;
+import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader.ParamStruct;
+import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader.RuleStruct;
+
+/**
+ * Compact binary form of a rules definition XML file.
+ *
+ * The XML files of the repositories are compiled at build time ({@link #main(String[])}), reading the index avoids
+ * parsing the XML file each time the repositories are defined. The descriptions are stored after all other rule
+ * properties in one block. Rules are created with the same code as for the XML file
+ * ({@link RulesDefinitionXmlLoader}).
+ */
+public final class RulesDefinitionIndex {
+
+  /**
+   * File extension of an index, replaces the extension '.xml' of the rules definition file.
+   */
+  public static final String EXTENSION = ".bin";
+
+  private static final int MAGIC = 0x43585852; // "CXXR"
+  private static final int FORMAT_VERSION = 1;
+
+  private RulesDefinitionIndex() {
+  }
+
+  /**
+   * Compiles all rules definition XML files of a directory (the files next to 'rules.xsd') to indexes in the same
+   * directory.
+   *
+   * @param args directories of the XML files
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    for (var arg : args) {
+      try (var xmls = Files.newDirectoryStream(Path.of(arg), "*.xml")) {
+        for (var xml : xmls) {
+          try (var reader = Files.newBufferedReader(xml, StandardCharsets.UTF_8);
+               var output = Files.newOutputStream(xml.resolveSibling(getIndexName(xml.getFileName().toString())))) {
+            write(reader, output);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Name of the index of a rules definition XML file.
+   *
+   * @param xmlName name of the XML file
+   * @return name of the index
+   */
+  public static String getIndexName(String xmlName) {
+    return xmlName.replaceFirst("\\.xml$", "") + EXTENSION;
+  }
+
+  /**
+   * Compiles a rules definition XML file.
+   *
+   * @param xml the rules definition XML file
+   * @param output stream for the index, not closed by the method
+   * @throws IOException if the index cannot be written
+   * @throws IllegalStateException if the XML file is invalid
+   */
+  public static void write(Reader xml, OutputStream output) throws IOException {
+    var rules = new ArrayList<RuleStruct>();
+    RulesDefinitionXmlLoader.parse(xml, rules::add);
+
+    var out = new DataOutputStream(new BufferedOutputStream(output));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeInt(rules.size());
+    for (var rule : rules) {
+      writeString(out, rule.key);
+      writeString(out, rule.name);
+      writeString(out, rule.descriptionFormat);
+      writeString(out, rule.internalKey);
+      writeString(out, rule.severity);
+      writeString(out, rule.type);
+      writeString(out, rule.status.name());
+      out.writeBoolean(rule.template);
+      writeString(out, rule.gapDescription);
+      writeString(out, rule.debtRemediationFunction);
+      writeString(out, rule.remediationFunctionBaseEffort);
+      writeString(out, rule.remediationFunctionGapMultiplier);
+      out.writeInt(rule.params.size());
+      for (var param : rule.params) {
+        writeString(out, param.key);
+        writeString(out, param.description);
+        writeString(out, param.defaultValue);
+        writeString(out, param.type.toString());
+      }
+      writeStrings(out, rule.tags);
+      writeStrings(out, rule.deprecatedKeys);
+    }
+    for (var rule : rules) {
+      writeString(out, rule.description);
+    }
+    out.flush();
+  }
+
+  /**
+   * Creates the rules of an index in the repository.
+   *
+   * @param repo repository to add the rules to
+   * @param input the index, not closed by the method
+   * @throws IOException if the index cannot be read or has an unknown format
+   */
+  public static void load(RulesDefinition.NewRepository repo, InputStream input) throws IOException {
+    var in = new DataInputStream(new BufferedInputStream(input));
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+      throw new IOException("Unknown format of rules definition index for repository " + repo.key());
+    }
+    int size = in.readInt();
+    var rules = new ArrayList<RuleStruct>(size);
+    for (int i = 0; i < size; i++) {
+      var rule = new RuleStruct();
+      rule.key = readString(in);
+      rule.name = readString(in);
+      rule.descriptionFormat = readString(in);
+      rule.internalKey = readString(in);
+      rule.severity = readString(in);
+      rule.type = readString(in);
+      rule.status = RuleStatus.valueOf(readString(in));
+      rule.template = in.readBoolean();
+      rule.gapDescription = readString(in);
+      rule.debtRemediationFunction = readString(in);
+      rule.remediationFunctionBaseEffort = readString(in);
+      rule.remediationFunctionGapMultiplier = readString(in);
+      int params = in.readInt();
+      for (int j = 0; j < params; j++) {
+        var param = new ParamStruct();
+        param.key = readString(in);
+        param.description = readString(in);
+        param.defaultValue = readString(in);
+        param.type = RuleParamType.parse(readString(in));
+        rule.params.add(param);
+      }
+      readStrings(in, rule.tags);
+      readStrings(in, rule.deprecatedKeys);
+      rules.add(rule);
+    }
+    for (var rule : rules) {
+      rule.description = readString(in);
+      RulesDefinitionXmlLoader.buildRule(repo, rule);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      var bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+    out.writeInt(values.size());
+    for (var value : values) {
+      writeString(out, value);
+    }
+  }
+
+  @CheckForNull
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    var bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void readStrings(DataInputStream in, List<String> values) throws IOException {
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      values.add(readString(in));
+    }
+  }
+
+}
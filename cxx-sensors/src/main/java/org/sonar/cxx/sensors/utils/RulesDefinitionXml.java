@@ -71,10 +71,8 @@ public class RulesDefinitionXml implements RulesDefinition {
     var repository = context.createRepository(repositoryKey, repositoryLanguage)
       .setName(repositoryName);
 
-    var xmlLoader = new RulesDefinitionXmlLoader();
     if (!"".equals(repositoryFile)) {
-      var xmlStream = getClass().getResourceAsStream(repositoryFile);
-      xmlLoader.load(repository, xmlStream, encoding);
+      loadRepositoryFile(repository, encoding);
 
       for (var userExtensionXml : getExtensions(repositoryKey, "xml")) {
         try (var input = java.nio.file.Files.newInputStream(userExtensionXml.toPath())) {
@@ -95,6 +93,22 @@ public class RulesDefinitionXml implements RulesDefinition {
     repository.done();
   }
 
+  private void loadRepositoryFile(NewRepository repository, Charset encoding) {
+    // index compiled from the XML file at build time, the XML file is the fallback
+    var indexStream = getClass().getResourceAsStream(RulesDefinitionIndex.getIndexName(repositoryFile));
+    if (indexStream != null) {
+      try (indexStream) {
+        RulesDefinitionIndex.load(repository, indexStream);
+        return;
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot load Rules Definitions index of repository " + repositoryKey, e);
+      }
+    }
+    var xmlLoader = new RulesDefinitionXmlLoader();
+    var xmlStream = getClass().getResourceAsStream(repositoryFile);
+    xmlLoader.load(repository, xmlStream, encoding);
+  }
+
   public List<File> getExtensions(String dirName, @Nullable String... suffixes) {
     var dir = new File(fileSystem.getHomeDir(), "extensions/rules/" + dirName);
     var files = new ArrayList<File>();
@@ -22,24 +22,44 @@ package org.sonar.cxx.sensors.utils;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SonarServerWebApi {
 
   private static final Logger LOG = LoggerFactory.getLogger(SonarServerWebApi.class);
+  private static final int PAGE_SIZE = 500;
+
+  // one client for all requests: connections are reused between the pages, the repositories and the sensors
+  private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
   private final ObjectMapper objectMapper = new ObjectMapper();
 
   protected String serverUrl = "http://localhost:9000";
   protected String authorization = "";
+  private Path cacheDir = null;
+  private Duration cacheTtl = Duration.ZERO;
 
   /**
    * Set URL of the SonarQube server.
@@ -63,6 +83,22 @@ public class SonarServerWebApi {
     return this;
   }
 
+  /**
+   * Set directory to cache the downloaded rules between analyses.
+   *
+   * Rules younger than the time to live are read from the cache without any request. Older rules are validated with
+   * the ETag or Last-Modified header of the server and downloaded again only if they changed.
+   *
+   * @param cacheDir directory of the cache, null to disable the cache
+   * @param cacheTtl time to live of the cached rules
+   * @return return current object
+   */
+  public SonarServerWebApi setCache(@Nullable Path cacheDir, Duration cacheTtl) {
+    this.cacheDir = cacheDir;
+    this.cacheTtl = cacheTtl;
+    return this;
+  }
+
   /**
    * Get list with rule keys from server.
    *
@@ -75,20 +111,48 @@ public class SonarServerWebApi {
   public List<Rule> getRules(String language, String tag)
     throws IOException {
 
-    int p = 0;
-    int total;
-    List<Rule> rules = new ArrayList<>();
-    String requestURL = createUrl(serverUrl, "api/rules/search?f=deprecatedKeys&ps=500", language, tag);
-    do {
-      p++;
-      ApiRulesSearchResponse res = objectMapper.readValue(
-        get(requestURL + p, authorization),
-        ApiRulesSearchResponse.class
-      );
-      rules.addAll(res.rules());
-      total = res.total();
-    } while (total - p * 500 > 0);
+    String requestURL = createUrl(serverUrl, "api/rules/search?f=deprecatedKeys&ps=" + PAGE_SIZE, language, tag);
+    Path cacheFile = getCacheFile(requestURL);
+    CacheEntry cached = readCache(cacheFile);
+    if (cached != null && System.currentTimeMillis() - cached.timestamp() < cacheTtl.toMillis()) {
+      LOG.debug("Rules for '{}' were read from cache '{}'", tag, cacheFile);
+      return cached.rules();
+    }
 
+    var request = newRequest(requestURL + 1, authorization);
+    if (cached != null) {
+      if (cached.etag() != null) {
+        request.header("If-None-Match", cached.etag());
+      }
+      if (cached.lastModified() != null) {
+        request.header("If-Modified-Since", cached.lastModified());
+      }
+    }
+    var response = send(request.build());
+    if (cached != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+      LOG.debug("Rules for '{}' in cache '{}' are up to date", tag, cacheFile);
+      writeCache(cacheFile, new CacheEntry(System.currentTimeMillis(), cached.etag(), cached.lastModified(),
+        cached.rules()));
+      return cached.rules();
+    }
+
+    var first = parse(response);
+    List<Rule> rules = new ArrayList<>(first.rules());
+
+    // the remaining pages are requested concurrently once the number of rules is known
+    int pages = (first.total() + PAGE_SIZE - 1) / PAGE_SIZE;
+    var futures = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+    for (int p = 2; p <= pages; p++) {
+      futures.add(CLIENT.sendAsync(newRequest(requestURL + p, authorization).build(), BodyHandlers.ofString()));
+    }
+    for (var future : futures) {
+      rules.addAll(parse(join(future)).rules());
+    }
+
+    writeCache(cacheFile, new CacheEntry(System.currentTimeMillis(),
+      response.headers().firstValue("ETag").orElse(null),
+      response.headers().firstValue("Last-Modified").orElse(null),
+      rules));
     return rules;
   }
 
@@ -116,25 +180,87 @@ public class SonarServerWebApi {
    * @throws IOException if an I/O error occurs when sending or receiving
    */
   public static String get(String uri, String authorization) throws IOException {
-    HttpClient client = HttpClient.newHttpClient();
-    HttpRequest request = HttpRequest.newBuilder()
+    return send(newRequest(uri, authorization).build()).body();
+  }
+
+  private static HttpRequest.Builder newRequest(String uri, String authorization) {
+    return HttpRequest.newBuilder()
       .uri(URI.create(uri))
-      .header("Authorization", authorization)
-      .build();
+      .header("Authorization", authorization);
+  }
 
+  private static HttpResponse<String> send(HttpRequest request) throws IOException {
     try {
       long start = System.currentTimeMillis();
-      HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+      HttpResponse<String> response = CLIENT.send(request, BodyHandlers.ofString());
       long finish = System.currentTimeMillis();
       LOG.debug("{} {} {} | time={}ms", response.request().method(), response.statusCode(), response.request().uri(),
         finish - start);
-      return response.body();
+      return response;
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new IOException(e);
     }
   }
 
+  private static HttpResponse<String> join(CompletableFuture<HttpResponse<String>> future) throws IOException {
+    try {
+      var response = future.join();
+      LOG.debug("{} {} {}", response.request().method(), response.statusCode(), response.request().uri());
+      return response;
+    } catch (CompletionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private ApiRulesSearchResponse parse(HttpResponse<String> response) throws IOException {
+    if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+      throw new IOException("Unexpected status " + response.statusCode() + " for " + response.request().uri());
+    }
+    return objectMapper.readValue(response.body(), ApiRulesSearchResponse.class);
+  }
+
+  @CheckForNull
+  private Path getCacheFile(String requestURL) {
+    if (cacheDir == null) {
+      return null;
+    }
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(requestURL.getBytes(StandardCharsets.UTF_8));
+      return cacheDir.resolve("rules-" + HexFormat.of().formatHex(digest) + ".json");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @CheckForNull
+  private CacheEntry readCache(@Nullable Path cacheFile) {
+    if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(cacheFile.toFile(), CacheEntry.class);
+    } catch (IOException e) {
+      LOG.debug("Cannot read rules cache '{}': {}", cacheFile, e.getMessage());
+      return null;
+    }
+  }
+
+  private void writeCache(@Nullable Path cacheFile, CacheEntry entry) {
+    if (cacheFile == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      // write a temporary file first: sensors running at the same time never read a partially written cache
+      var tempFile = Files.createTempFile(cacheFile.getParent(), "rules-", ".tmp");
+      objectMapper.writeValue(tempFile.toFile(), entry);
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOG.warn("Cannot write rules cache '{}': {}", cacheFile, e.getMessage());
+    }
+  }
+
   @JsonIgnoreProperties(ignoreUnknown = true)
   public static record ApiRulesSearchResponse(int total, int p, int ps, List<Rule> rules) {
 
@@ -155,4 +281,9 @@ public class SonarServerWebApi {
 
   }
 
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record CacheEntry(long timestamp, @Nullable String etag, @Nullable String lastModified, List<Rule> rules) {
+
+  }
+
 }
@@ -24,6 +24,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.List;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
 import static org.assertj.core.api.Assertions.*;
@@ -38,9 +39,10 @@ import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.postjob.PostJobContext;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.cxx.CxxAnalysisRun;
 import org.sonar.cxx.CxxAstScanner;
-import org.sonar.cxx.preprocessor.CxxPreprocessor;
-import org.sonar.cxx.visitors.CxxParseErrorLoggerVisitor;
+import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.squidbridge.SquidAstVisitor;
 
 class FinalReportTest {
 
@@ -61,17 +63,45 @@ class FinalReportTest {
     InputFile inputFile = createInputFile(dir + "/syntaxerror.cc", ".", Charset.defaultCharset());
     context.fileSystem().add(inputFile);
 
-    CxxParseErrorLoggerVisitor.resetReport();
-    CxxPreprocessor.resetReport();
-    CxxAstScanner.scanSingleInputFile(inputFile);
+    var analysisRun = new CxxAnalysisRun();
+    CxxAstScanner.create(new CxxSquidConfiguration(), analysisRun, 1, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile));
 
     var postjob = new FinalReport();
+    postjob.add(analysisRun);
     postjob.execute(postJobContext);
 
     var log = logTester.logs(Level.WARN);
     assertThat(log).hasSize(2);
-    assertThat(log.get(0)).contains("include directive error(s)");
+    assertThat(log.get(0)).contains("1 include directive error(s)");
     assertThat(log.get(1)).contains("syntax error(s) detected");
+    assertThat(logTester.logs(Level.INFO)).anyMatch(l -> l.contains("Turn debug info on"));
+  }
+
+  @Test
+  void finalReportWithoutAnalysisTest() {
+    var postjob = new FinalReport();
+    postjob.execute(postJobContext);
+
+    assertThat(logTester.logs(Level.WARN)).isEmpty();
+    assertThat(logTester.logs(Level.INFO)).anyMatch(l -> l.contains("Turn debug info on"));
+  }
+
+  @Test
+  void analysisIsReportedOnceTest() throws IOException {
+    var dir = "src/test/resources/org/sonar/cxx/postjobs";
+    InputFile inputFile = createInputFile(dir + "/syntaxerror.cc", ".", Charset.defaultCharset());
+    var analysisRun = new CxxAnalysisRun();
+    CxxAstScanner.create(new CxxSquidConfiguration(), analysisRun, 1, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile));
+
+    var postjob = new FinalReport();
+    postjob.add(analysisRun);
+    postjob.execute(postJobContext);
+    logTester.clear();
+    postjob.execute(postJobContext);
+
+    assertThat(logTester.logs(Level.WARN)).isEmpty();
   }
 
   private static DefaultInputFile createInputFile(String fileName, String basePath, Charset charset)
@@ -21,6 +21,7 @@ package org.sonar.cxx.sensors.clangtidy;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import static org.assertj.core.api.Assertions.*;
@@ -31,6 +32,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.sonar.api.batch.fs.internal.DefaultFileSystem;
 import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
@@ -40,6 +42,7 @@ import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.Issue;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
 import org.sonar.cxx.sensors.utils.CxxReportSensor;
 import org.sonar.cxx.sensors.utils.SonarServerWebApi;
 import org.sonar.cxx.sensors.utils.TestUtils;
@@ -348,6 +351,28 @@ class CxxClangTidySensorTest {
     assertThat(issuesList.get(0).ruleKey().rule()).isEqualTo("clang-diagnostic-c++20-compat");
   }
 
+  @Test
+  void rulesCache() throws IOException {
+    var context = SensorContextTester.create(fs.baseDir());
+    settings.setProperty(
+      CxxClangTidySensor.REPORT_PATH_KEY,
+      "clang-tidy-reports/cpd.report-map-deprecated.txt"
+    );
+    settings.setProperty(CxxIssuesReportSensor.RULES_CACHE_PATH_KEY, "rules-cache");
+    settings.setProperty(CxxIssuesReportSensor.RULES_CACHE_TTL_KEY, 10);
+    context.setSettings(settings);
+
+    var webApi = mock(SonarServerWebApi.class);
+    when(webApi.setServerUrl(any())).thenCallRealMethod();
+    when(webApi.setAuthenticationToken(any())).thenCallRealMethod();
+    when(webApi.getRules(any(), any())).thenReturn(List.of());
+
+    var sensor = new CxxClangTidySensor().setWebApi(webApi);
+    sensor.execute(context);
+
+    verify(webApi).setCache(fs.baseDir().toPath().resolve("rules-cache"), Duration.ofMinutes(10));
+  }
+
   @Test
   void unkownRuleId() throws IOException {
     var context = SensorContextTester.create(fs.baseDir());
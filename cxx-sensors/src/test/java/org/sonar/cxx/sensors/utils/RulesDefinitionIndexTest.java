@@ -0,0 +1,137 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sensors.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.api.server.rule.RulesDefinition;
+
+class RulesDefinitionIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "/clangsa.xml", "/clangtidy.xml", "/compiler-gcc.xml", "/compiler-vc.xml", "/cppcheck.xml", "/drmemory.xml",
+    "/infer.xml", "/pclint.xml", "/rats.xml", "/valgrind.xml", "/vera++.xml",
+    "/org/sonar/cxx/sensors/utils/RulesDefinitionXmlLoader/rules.xml"
+  })
+  void sameRulesAsXml(String resource) throws IOException {
+    var fromXml = new RulesDefinition.Context();
+    var xmlRepository = fromXml.createRepository("repo", "cxx");
+    new RulesDefinitionXmlLoader().load(xmlRepository, getClass().getResourceAsStream(resource),
+                                        StandardCharsets.UTF_8);
+    xmlRepository.done();
+
+    var output = new ByteArrayOutputStream();
+    try (var reader = new InputStreamReader(getClass().getResourceAsStream(resource), StandardCharsets.UTF_8)) {
+      RulesDefinitionIndex.write(reader, output);
+    }
+    var fromIndex = new RulesDefinition.Context();
+    var indexRepository = fromIndex.createRepository("repo", "cxx");
+    RulesDefinitionIndex.load(indexRepository, new ByteArrayInputStream(output.toByteArray()));
+    indexRepository.done();
+
+    var expected = fromXml.repository("repo").rules();
+    var actual = fromIndex.repository("repo").rules();
+    assertThat(actual).hasSameSizeAs(expected);
+    for (var expectedRule : expected) {
+      var rule = fromIndex.repository("repo").rule(expectedRule.key());
+      assertThat(rule).isNotNull();
+      assertThat(rule.name()).isEqualTo(expectedRule.name());
+      assertThat(rule.htmlDescription()).isEqualTo(expectedRule.htmlDescription());
+      assertThat(rule.severity()).isEqualTo(expectedRule.severity());
+      assertThat(rule.template()).isEqualTo(expectedRule.template());
+      assertThat(rule.status()).isEqualTo(expectedRule.status());
+      assertThat(rule.internalKey()).isEqualTo(expectedRule.internalKey());
+      assertThat(rule.type()).isEqualTo(expectedRule.type());
+      assertThat(rule.tags()).isEqualTo(expectedRule.tags());
+      assertThat(rule.gapDescription()).isEqualTo(expectedRule.gapDescription());
+      assertThat(rule.debtRemediationFunction()).isEqualTo(expectedRule.debtRemediationFunction());
+      assertThat(rule.deprecatedRuleKeys()).isEqualTo(expectedRule.deprecatedRuleKeys());
+      assertThat(rule.params()).hasSameSizeAs(expectedRule.params());
+      for (var expectedParam : expectedRule.params()) {
+        var param = rule.param(expectedParam.key());
+        assertThat(param.description()).isEqualTo(expectedParam.description());
+        assertThat(param.defaultValue()).isEqualTo(expectedParam.defaultValue());
+        assertThat(param.type()).isEqualTo(expectedParam.type());
+      }
+    }
+  }
+
+  @Test
+  void compileFiles() throws IOException {
+    Files.writeString(tempDir.resolve("rules.xml"),
+                      "<rules><rule><key>key1</key><name>Name</name><description>Desc</description></rule></rules>");
+
+    Files.writeString(tempDir.resolve("rules.xsd"), "<xs:schema/>");
+
+    RulesDefinitionIndex.main(new String[]{tempDir.toString()});
+
+    var index = tempDir.resolve("rules" + RulesDefinitionIndex.EXTENSION);
+    assertThat(index).exists();
+    assertThat(tempDir.resolve("rules.xsd" + RulesDefinitionIndex.EXTENSION)).doesNotExist();
+    var context = new RulesDefinition.Context();
+    var repository = context.createRepository("repo", "cxx");
+    try (var input = Files.newInputStream(index)) {
+      RulesDefinitionIndex.load(repository, input);
+    }
+    repository.done();
+    var rule = context.repository("repo").rule("key1");
+    assertThat(rule.name()).isEqualTo("Name");
+    assertThat(rule.htmlDescription()).isEqualTo("Desc");
+  }
+
+  @Test
+  void indexName() {
+    assertThat(RulesDefinitionIndex.getIndexName("/clangtidy.xml")).isEqualTo("/clangtidy.bin");
+    assertThat(RulesDefinitionIndex.getIndexName("/vera++.xml")).isEqualTo("/vera++.bin");
+  }
+
+  @Test
+  void invalidXml() {
+    var output = new ByteArrayOutputStream();
+    assertThatThrownBy(() -> RulesDefinitionIndex.write(new StringReader("<rules><rule>"), output))
+      .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void unknownFormat() {
+    var context = new RulesDefinition.Context();
+    var repository = context.createRepository("repo", "cxx");
+    var input = new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    assertThatThrownBy(() -> RulesDefinitionIndex.load(repository, input))
+      .isInstanceOf(IOException.class)
+      .hasMessageContaining("repo");
+  }
+
+}
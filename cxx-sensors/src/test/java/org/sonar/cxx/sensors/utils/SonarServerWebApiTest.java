@@ -19,17 +19,101 @@
  */
 package org.sonar.cxx.sensors.utils;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import static org.mockito.ArgumentMatchers.any;
-import org.mockito.MockedStatic;
-import static org.mockito.Mockito.mockStatic;
-import org.mockito.invocation.InvocationOnMock;
+import org.junit.jupiter.api.io.TempDir;
 
 class SonarServerWebApiTest {
 
+  private static final String RULES = """
+    {
+      "total":1,
+      "p":1,
+      "ps":500,
+      "rules":[
+        {
+          "key":"clangtidy:clang-diagnostic-c++11-narrowing-const-reference",
+          "type":"CODE_SMELL",
+          "deprecatedKeys":{
+            "deprecatedKey":[
+              "ClangTidy:clang-diagnostic-c++11-narrowing-const-reference"
+            ]
+          },
+          "impacts":[
+            {
+              "softwareQuality":"MAINTAINABILITY",
+              "severity":"HIGH"
+            }
+          ]
+        },
+        {
+          "key":"clangtidy:clang-diagnostic-c++20-compat",
+          "type":"CODE_SMELL",
+          "deprecatedKeys":{
+            "deprecatedKey":[
+              "ClangTidy:clang-diagnostic-c++20-compat",
+              "clangtidy:clang-diagnostic-c++2a-compat"
+            ]
+          },
+          "impacts":[
+            {
+              "softwareQuality":"MAINTAINABILITY",
+              "severity":"LOW"
+            }
+          ]
+        }
+      ],
+      "paging":{
+        "pageIndex":1,
+        "pageSize":500,
+        "total":1
+      }
+    }
+    """;
+
+  @TempDir
+  Path tempDir;
+
+  private HttpServer server;
+  private final List<HttpExchange> requests = new CopyOnWriteArrayList<>();
+  private volatile String etag = "\"v1\"";
+  private volatile String body = RULES;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/api/rules/search", exchange -> {
+      requests.add(exchange);
+      if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+      }
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.stop(0);
+  }
+
   @Test
   void ruleTest() {
     var rule = new SonarServerWebApi.Rule("key", null);
@@ -40,87 +124,133 @@ class SonarServerWebApiTest {
 
   @Test
   void getRulesTest() throws IOException {
+    var sonarServerWebApi = new SonarServerWebApi()
+      .setServerUrl(serverUrl())
+      .setAuthenticationToken("token");
 
-    try (MockedStatic<SonarServerWebApi> sonarServerWebApiMock = mockStatic(
-      SonarServerWebApi.class,
-      InvocationOnMock::callRealMethod)) {
-
-      sonarServerWebApiMock.when(() -> SonarServerWebApi.get(any(), any()))
-        .thenReturn("""
-        {
-          "total":1,
-          "p":1,
-          "ps":500,
-          "rules":[
-            {
-              "key":"clangtidy:clang-diagnostic-c++11-narrowing-const-reference",
-              "type":"CODE_SMELL",
-              "deprecatedKeys":{
-                "deprecatedKey":[
-                  "ClangTidy:clang-diagnostic-c++11-narrowing-const-reference"
-                ]
-              },
-              "impacts":[
-                {
-                  "softwareQuality":"MAINTAINABILITY",
-                  "severity":"HIGH"
-                }
-              ]
-            },
-            {
-              "key":"clangtidy:clang-diagnostic-c++20-compat",
-              "type":"CODE_SMELL",
-              "deprecatedKeys":{
-                "deprecatedKey":[
-                  "ClangTidy:clang-diagnostic-c++20-compat",
-                  "clangtidy:clang-diagnostic-c++2a-compat"
-                ]
-              },
-              "impacts":[
-                {
-                  "softwareQuality":"MAINTAINABILITY",
-                  "severity":"LOW"
-                }
-              ]
-            }
-          ],
-          "paging":{
-            "pageIndex":1,
-            "pageSize":500,
-            "total":1
-          }
-        }
-        """
-        );
-
-      var sonarServerWebApi = new SonarServerWebApi()
-        .setServerUrl("http://localhost:9000")
-        .setAuthenticationToken("token");
-
-      List<SonarServerWebApi.Rule> rules = sonarServerWebApi.getRules("cxx", "clangtidy");
-      var rule1 = new SonarServerWebApi.Rule(
-        "clangtidy:clang-diagnostic-c++11-narrowing-const-reference",
-        new SonarServerWebApi.DeprecatedKeys(
-          List.of(
-            "ClangTidy:clang-diagnostic-c++11-narrowing-const-reference"
-          )
+    List<SonarServerWebApi.Rule> rules = sonarServerWebApi.getRules("cxx", "clangtidy");
+    var rule1 = new SonarServerWebApi.Rule(
+      "clangtidy:clang-diagnostic-c++11-narrowing-const-reference",
+      new SonarServerWebApi.DeprecatedKeys(
+        List.of(
+          "ClangTidy:clang-diagnostic-c++11-narrowing-const-reference"
         )
-      );
-      var rule2 = new SonarServerWebApi.Rule(
-        "clangtidy:clang-diagnostic-c++20-compat",
-        new SonarServerWebApi.DeprecatedKeys(
-          List.of(
-            "ClangTidy:clang-diagnostic-c++20-compat",
-            "clangtidy:clang-diagnostic-c++2a-compat"
-          )
+      )
+    );
+    var rule2 = new SonarServerWebApi.Rule(
+      "clangtidy:clang-diagnostic-c++20-compat",
+      new SonarServerWebApi.DeprecatedKeys(
+        List.of(
+          "ClangTidy:clang-diagnostic-c++20-compat",
+          "clangtidy:clang-diagnostic-c++2a-compat"
         )
-      );
+      )
+    );
+
+    assertThat(rules)
+      .hasSize(2)
+      .contains(rule1)
+      .contains(rule2);
+    assertThat(requests).hasSize(1);
+    assertThat(requests.get(0).getRequestURI().getQuery())
+      .contains("language=cxx")
+      .contains("tags=clangtidy")
+      .contains("p=1");
+    assertThat(requests.get(0).getRequestHeaders().getFirst("Authorization")).isEqualTo("Basic dG9rZW46");
+  }
+
+  @Test
+  void getRulesPagesTest() throws IOException {
+    server.removeContext("/api/rules/search");
+    server.createContext("/api/rules/search", exchange -> {
+      requests.add(exchange);
+      var page = exchange.getRequestURI().getQuery().replaceAll(".*&p=(\\d+).*", "$1");
+      var bytes = ("{\"total\":1001,\"p\":" + page + ",\"ps\":500,\"rules\":[{\"key\":\"rule" + page + "\"}]}")
+        .getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, bytes.length);
+      exchange.getResponseBody().write(bytes);
+      exchange.close();
+    });
+
+    var rules = new SonarServerWebApi().setServerUrl(serverUrl() + "/").getRules("cxx", "clangtidy");
+
+    assertThat(rules).extracting(SonarServerWebApi.Rule::key).containsExactly("rule1", "rule2", "rule3");
+    assertThat(requests).hasSize(3);
+  }
+
+  @Test
+  void cacheTest() throws IOException {
+    var sonarServerWebApi = new SonarServerWebApi()
+      .setServerUrl(serverUrl())
+      .setCache(tempDir, Duration.ofHours(1));
+
+    var rules = sonarServerWebApi.getRules("cxx", "clangtidy");
+    assertThat(rules).hasSize(2);
+    assertThat(requests).hasSize(1);
+
+    // cache is shared with other instances, no request within time to live
+    var cachedRules = new SonarServerWebApi()
+      .setServerUrl(serverUrl())
+      .setCache(tempDir, Duration.ofHours(1))
+      .getRules("cxx", "clangtidy");
+    assertThat(cachedRules).isEqualTo(rules);
+    assertThat(requests).hasSize(1);
+
+    // other repository is not cached
+    sonarServerWebApi.getRules("cxx", "clangsa");
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void cacheRevalidationTest() throws IOException {
+    var sonarServerWebApi = new SonarServerWebApi()
+      .setServerUrl(serverUrl())
+      .setCache(tempDir, Duration.ZERO);
 
-      assertThat(rules)
-        .hasSize(2)
-        .contains(rule1)
-        .contains(rule2);
+    var rules = sonarServerWebApi.getRules("cxx", "clangtidy");
+    assertThat(rules).hasSize(2);
+
+    // not modified
+    assertThat(sonarServerWebApi.getRules("cxx", "clangtidy")).isEqualTo(rules);
+    assertThat(requests).hasSize(2);
+    assertThat(requests.get(1).getRequestHeaders().getFirst("If-None-Match")).isEqualTo("\"v1\"");
+
+    // modified
+    etag = "\"v2\"";
+    body = "{\"total\":1,\"p\":1,\"ps\":500,\"rules\":[{\"key\":\"clangtidy:new\"}]}";
+    assertThat(sonarServerWebApi.getRules("cxx", "clangtidy"))
+      .extracting(SonarServerWebApi.Rule::key)
+      .containsExactly("clangtidy:new");
+    assertThat(requests).hasSize(3);
+  }
+
+  @Test
+  void invalidCacheTest() throws IOException {
+    var sonarServerWebApi = new SonarServerWebApi()
+      .setServerUrl(serverUrl())
+      .setCache(tempDir, Duration.ofHours(1));
+    sonarServerWebApi.getRules("cxx", "clangtidy");
+    try (var files = Files.list(tempDir)) {
+      for (var file : files.toList()) {
+        Files.writeString(file, "invalid");
+      }
     }
+
+    assertThat(sonarServerWebApi.getRules("cxx", "clangtidy")).hasSize(2);
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void errorStatusTest() {
+    var sonarServerWebApi = new SonarServerWebApi().setServerUrl(serverUrl() + "/unknown");
+
+    assertThatThrownBy(() -> sonarServerWebApi.getRules("cxx", "clangtidy"))
+      .isInstanceOf(IOException.class)
+      .hasMessageContaining("404");
+  }
+
+  private String serverUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
   }
 
 }
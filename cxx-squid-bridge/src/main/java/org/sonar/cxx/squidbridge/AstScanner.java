@@ -23,6 +23,7 @@
  */
 package org.sonar.cxx.squidbridge; // cxx: in use
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import com.google.common.base.Throwables;
@@ -34,15 +35,26 @@ import com.sonar.cxx.sslr.impl.Parser;
 import com.sonar.cxx.sslr.impl.ast.AstWalker;
 import java.io.File;
 import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.squidbridge.api.AnalysisException;
+import org.sonar.cxx.squidbridge.api.SourceCode;
 import org.sonar.cxx.squidbridge.api.SourceCodeSearchEngine;
 import org.sonar.cxx.squidbridge.api.SourceCodeTreeDecorator;
+import org.sonar.cxx.squidbridge.api.SourceFile;
 import org.sonar.cxx.squidbridge.api.SourceProject;
 import org.sonar.cxx.squidbridge.indexer.SquidIndex;
 import org.sonar.cxx.squidbridge.measures.MetricDef;
@@ -59,6 +71,10 @@ public class AstScanner<G extends Grammar> {
   private final SquidIndex indexer = new SquidIndex();
   private final MetricDef[] metrics;
   private final MetricDef filesMetric;
+  private final int threads;
+  private final Supplier<AstScanner<G>> workerFactory;
+  @CheckForNull
+  private Consumer<SourceFile> sourceFileCallback;
 
   protected AstScanner(Builder<G> builder) {
     this.visitors = Lists.newArrayList(builder.visitors);
@@ -70,6 +86,9 @@ public class AstScanner<G extends Grammar> {
     this.context.setCommentAnalyser(builder.commentAnalyser);
     this.metrics = builder.metrics;
     this.filesMetric = builder.filesMetric;
+    this.threads = builder.threads;
+    this.workerFactory = builder.workerFactory;
+    this.sourceFileCallback = builder.sourceFileCallback;
     indexer.index(context.getProject());
   }
 
@@ -78,11 +97,11 @@ public class AstScanner<G extends Grammar> {
   }
 
   public void scanFile(File file) {
-    scanFiles(java.util.List.of(file));
+    scanFiles(List.of(file));
   }
 
   public void scanInputFile(InputFile inputFile) {
-    scanInputFiles(java.util.List.of(inputFile));
+    scanInputFiles(List.of(inputFile));
   }
 
   public void scanFiles(Collection<File> files) {
@@ -93,6 +112,7 @@ public class AstScanner<G extends Grammar> {
     for (var file : files) {
       checkCancel();
       context.setFile(file, filesMetric);
+      var sourceFile = (SourceFile) context.peekSourceCode();
 
       Exception parseException = null;
       AstNode ast = null;
@@ -106,6 +126,7 @@ public class AstScanner<G extends Grammar> {
       } catch (Throwable e) {
         throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
       }
+      fileScanned(sourceFile);
     }
 
     destroyVisitors();
@@ -113,33 +134,148 @@ public class AstScanner<G extends Grammar> {
   }
 
   public void scanInputFiles(Iterable<InputFile> inputFiles) {
+    if (threads > 1 && workerFactory != null) {
+      scanInputFilesParallel(Lists.newArrayList(inputFiles));
+      return;
+    }
+
     initVisitors();
 
     var astWalker = new AstWalker(visitors);
 
     for (var inputFile : inputFiles) {
-      var file = new File(inputFile.uri().getPath());
-      checkCancel();
-      context.setInputFile(inputFile, filesMetric);
+      scanInputFile(astWalker, inputFile);
+    }
 
-      Exception parseException = null;
-      AstNode ast = null;
+    destroyVisitors();
+    decorateSquidTree();
+  }
+
+  private void scanInputFile(AstWalker astWalker, InputFile inputFile) {
+    var file = new File(inputFile.uri().getPath());
+    checkCancel();
+    context.setInputFile(inputFile, filesMetric);
+    var sourceFile = (SourceFile) context.peekSourceCode();
+
+    Exception parseException = null;
+    AstNode ast = null;
+    try {
       try {
-        try {
-          ast = parser.parse(inputFile.contents());
-        } catch (Exception e) {
-          parseException = handleParseException(file, e);
-        }
-        walkAndVisit(astWalker, ast, parseException);
-      } catch (Throwable e) {
-        throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
+        ast = parser.parse(context.getInputFileSource().getContent());
+      } catch (Exception e) {
+        parseException = handleParseException(file, e);
       }
+      walkAndVisit(astWalker, ast, parseException);
+    } catch (Throwable e) {
+      throw new AnalysisException(UNABLE_TO_PARSE + file.getAbsolutePath(), e);
     }
+    fileScanned(sourceFile);
+  }
 
-    destroyVisitors();
+  /**
+   * The subtree of a file is complete after the visitors have left the file, so it is decorated here already. This way
+   * the callback gets the final measures of the file and only the project level is left for {@code decorateSquidTree}.
+   */
+  private void fileScanned(SourceFile sourceFile) {
+    if (metrics != null && metrics.length > 0) {
+      SourceCodeTreeDecorator.decorateWith(sourceFile, metrics);
+    }
+    if (sourceFileCallback != null) {
+      sourceFileCallback.accept(sourceFile);
+    }
+  }
+
+  /**
+   * Scan the input files with several workers in parallel.
+   *
+   * This scanner is the first worker, the other ones are created with the worker factory. Each worker has its own
+   * parser, context and visitors and takes the next file from the shared list until all files are processed. At the
+   * end the source code trees of the workers are merged into the project of this scanner. The project tree is ordered
+   * by key, so the result does not depend on the order in which the files were processed. The source file callback of
+   * this scanner is used by all workers.
+   */
+  private void scanInputFilesParallel(List<InputFile> inputFiles) {
+    int workerCount = Math.max(1, Math.min(threads, inputFiles.size()));
+    var workers = new ArrayList<AstScanner<G>>(workerCount);
+    workers.add(this);
+    for (var i = 1; i < workerCount; i++) {
+      var worker = workerFactory.get();
+      worker.sourceFileCallback = sourceFileCallback;
+      workers.add(worker);
+    }
+    LOG.info("Scanning {} files with {} threads", inputFiles.size(), workerCount);
+
+    var nextFile = new AtomicInteger();
+    var threadNumber = new AtomicInteger();
+    var executor = Executors.newFixedThreadPool(workerCount, (Runnable r) -> {
+      var thread = new Thread(r, "cxx-squid-worker-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      var completionService = new ExecutorCompletionService<Void>(executor);
+      var futures = new ArrayList<Future<Void>>(workerCount);
+      for (var worker : workers) {
+        futures.add(completionService.submit(() -> {
+          worker.scanInputFileQueue(inputFiles, nextFile);
+          return null;
+        }));
+      }
+      for (var i = 0; i < futures.size(); i++) {
+        completionService.take().get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new AnalysisException("Analysis failed", cause);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (var worker : workers.subList(1, workers.size())) {
+      merge(worker);
+    }
     decorateSquidTree();
   }
 
+  private void scanInputFileQueue(List<InputFile> inputFiles, AtomicInteger nextFile) {
+    initVisitors();
+
+    var astWalker = new AstWalker(visitors);
+
+    int i;
+    while ((i = nextFile.getAndIncrement()) < inputFiles.size()) {
+      scanInputFile(astWalker, inputFiles.get(i));
+    }
+
+    destroyVisitors();
+  }
+
+  private void merge(AstScanner<G> worker) {
+    var sourceFiles = worker.context.getProject().getChildren();
+    if (sourceFiles != null) {
+      SourceProject project = context.getProject();
+      for (var sourceFile : sourceFiles) {
+        project.addChild(sourceFile);
+        indexChildren(sourceFile);
+      }
+    }
+  }
+
+  private void indexChildren(SourceCode sourceCode) {
+    if (sourceCode.hasChildren()) {
+      for (var child : sourceCode.getChildren()) {
+        indexer.index(child);
+        indexChildren(child);
+      }
+    }
+  }
+
   private static Exception handleParseException(File file, Exception e) {
     checkInterrupted(e);
     if (e instanceof RecognitionException) {
@@ -204,11 +340,14 @@ public class AstScanner<G extends Grammar> {
     }
   }
 
+  /**
+   * Aggregate the measures of the files on project level. The files are decorated as soon as they are scanned.
+   */
   protected void decorateSquidTree() {
     if (metrics != null && metrics.length > 0) {
       SourceProject project = context.getProject();
       var decorator = new SourceCodeTreeDecorator(project);
-      decorator.decorateWith(metrics);
+      decorator.decorateProjectWith(metrics);
     }
   }
 
@@ -224,6 +363,9 @@ public class AstScanner<G extends Grammar> {
     private CommentAnalyser commentAnalyser;
     private MetricDef[] metrics;
     private MetricDef filesMetric;
+    private int threads = 1;
+    private Supplier<AstScanner<G>> workerFactory;
+    private Consumer<SourceFile> sourceFileCallback;
 
     public Builder(SquidAstVisitorContextImpl<G> context) {
       checkNotNull(context, "context cannot be null");
@@ -263,10 +405,41 @@ public class AstScanner<G extends Grammar> {
       return this;
     }
 
+    /**
+     * Number of threads to use for scanning input files. With more than one thread, a worker factory must be set.
+     */
+    public Builder<G> setThreads(int threads) {
+      checkArgument(threads > 0, "threads must be greater than 0");
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Factory to create the additional workers for parallel scanning. Each worker must use its own parser, context and
+     * visitors.
+     */
+    public Builder<G> setWorkerFactory(Supplier<AstScanner<G>> workerFactory) {
+      checkNotNull(workerFactory, "workerFactory cannot be null");
+      this.workerFactory = workerFactory;
+      return this;
+    }
+
+    /**
+     * Callback called for each scanned file after all visitors have left the file. It can be used to save the results
+     * of a file and release its data early; the measures needed by {@code decorateSquidTree} must be kept. With
+     * parallel scanning the callback is called from the worker threads.
+     */
+    public Builder<G> setSourceFileCallback(Consumer<SourceFile> sourceFileCallback) {
+      checkNotNull(sourceFileCallback, "sourceFileCallback cannot be null");
+      this.sourceFileCallback = sourceFileCallback;
+      return this;
+    }
+
     public AstScanner<G> build() {
       checkState(baseParser != null, "baseParser must be set");
       checkState(commentAnalyser != null, "commentAnalyser must be set");
       checkState(filesMetric != null, "filesMetric must be set");
+      checkState(threads == 1 || workerFactory != null, "workerFactory must be set for parallel scanning");
       return new AstScanner<>(this);
     }
   }
@@ -0,0 +1,214 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable snapshot of the decoded source text of a file.
+ *
+ * The text is decoded only once per file and shared by the parser and all checks. Lines are separated by
+ * {@code \r\n}, {@code \n} or {@code \r}; a line terminator at the end of the text is followed by an empty last line.
+ * The start offsets of the lines are indexed, a line is returned as a view on the text without copying it.
+ */
+public final class SourceSnapshot {
+
+  private final String content;
+
+  // start offset of each line, followed by the length of the content
+  private final int[] lineStarts;
+
+  private SourceSnapshot(String content, int[] lineStarts) {
+    this.content = content;
+    this.lineStarts = lineStarts;
+  }
+
+  /**
+   * Create snapshot and line index of a text.
+   *
+   * @param content decoded text of the file
+   * @return snapshot of the text
+   */
+  public static SourceSnapshot of(String content) {
+    var starts = new int[64];
+    var count = 0;
+    starts[count++] = 0;
+    var length = content.length();
+    for (int i = 0; i < length; i++) {
+      var ch = content.charAt(i);
+      if (ch == '\n' || ch == '\r') {
+        if (ch == '\r' && i + 1 < length && content.charAt(i + 1) == '\n') {
+          i++;
+        }
+        if (count + 1 >= starts.length) {
+          starts = Arrays.copyOf(starts, starts.length * 2);
+        }
+        starts[count++] = i + 1;
+      }
+    }
+    starts = Arrays.copyOf(starts, count + 1);
+    starts[count] = length;
+    return new SourceSnapshot(content, starts);
+  }
+
+  /**
+   * Decoded text of the file.
+   */
+  public String getContent() {
+    return content;
+  }
+
+  /**
+   * Number of lines, at least one.
+   */
+  public int getLineCount() {
+    return lineStarts.length - 1;
+  }
+
+  /**
+   * Offset of the first character of a line.
+   *
+   * @param line line number, starting with 1
+   * @return offset in the content
+   */
+  public int getLineStart(int line) {
+    checkLine(line);
+    return lineStarts[line - 1];
+  }
+
+  /**
+   * Offset after the last character of a line, without the line terminator.
+   *
+   * @param line line number, starting with 1
+   * @return offset in the content
+   */
+  public int getLineEnd(int line) {
+    checkLine(line);
+    var start = lineStarts[line - 1];
+    var end = lineStarts[line];
+    if (line < getLineCount()) {
+      end--;
+      if (end > start && content.charAt(end) == '\n' && content.charAt(end - 1) == '\r') {
+        end--;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Text of a line without the line terminator, as a view on the content.
+   *
+   * @param line line number, starting with 1
+   * @return line text
+   */
+  public CharSequence getLine(int line) {
+    return new TextView(content, getLineStart(line), getLineEnd(line));
+  }
+
+  /**
+   * All lines as views on the content.
+   *
+   * @return unmodifiable list of lines
+   */
+  public List<CharSequence> getLines() {
+    return new Lines<>() {
+      @Override
+      public CharSequence get(int index) {
+        return getLine(index + 1);
+      }
+    };
+  }
+
+  /**
+   * All lines as strings, which are created on access.
+   *
+   * @return unmodifiable list of lines
+   */
+  public List<String> getLineStrings() {
+    return new Lines<>() {
+      @Override
+      public String get(int index) {
+        return content.substring(getLineStart(index + 1), getLineEnd(index + 1));
+      }
+    };
+  }
+
+  private void checkLine(int line) {
+    if (line < 1 || line > getLineCount()) {
+      throw new IndexOutOfBoundsException("line " + line + " out of range 1.." + getLineCount());
+    }
+  }
+
+  private abstract class Lines<T> extends AbstractList<T> implements RandomAccess {
+
+    @Override
+    public int size() {
+      return getLineCount();
+    }
+
+  }
+
+  /**
+   * Read-only view on a range of a string.
+   */
+  private static final class TextView implements CharSequence {
+
+    private final String text;
+    private final int start;
+    private final int end;
+
+    private TextView(String text, int start, int end) {
+      this.text = text;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public int length() {
+      return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length()) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return text.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+      if (from < 0 || to > length() || from > to) {
+        throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds for length " + length());
+      }
+      return new TextView(text, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+      return text.substring(start, end);
+    }
+
+  }
+
+}
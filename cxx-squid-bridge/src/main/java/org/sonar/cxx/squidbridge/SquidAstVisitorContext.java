@@ -26,8 +26,10 @@ package org.sonar.cxx.squidbridge; // cxx: in use
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQueries;
 import java.io.File;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.squidbridge.api.CheckMessage;
 import org.sonar.cxx.squidbridge.api.CodeCheck;
@@ -43,6 +45,16 @@ public abstract class SquidAstVisitorContext<G extends Grammar> {
 
   public abstract List<String> getInputFileLines();
 
+  /**
+   * Decoded text of the input file. The default implementation creates a new snapshot from
+   * {@link #getInputFileContent()} on each call, subclasses should share one snapshot per file.
+   *
+   * @return text of the input file
+   */
+  public SourceSnapshot getInputFileSource() {
+    return SourceSnapshot.of(getInputFileContent());
+  }
+
   public abstract G getGrammar();
 
   public abstract void addSourceCode(SourceCode child);
@@ -53,6 +65,18 @@ public abstract class SquidAstVisitorContext<G extends Grammar> {
 
   public abstract CommentAnalyser getCommentAnalyser();
 
+  /**
+   * The XPath queries of the checks of this context: they are evaluated together in one traversal of a file instead
+   * of one traversal per check.
+   *
+   * @return queries of the checks, the key of a query is its check; null (default implementation) if the context does
+   * not share the queries, each check evaluates its own queries then
+   */
+  @CheckForNull
+  public AstNodeXPathQueries<CodeCheck> getXPathQueries() {
+    return null;
+  }
+
   /**
    * Create a new file violation
    *
@@ -26,12 +26,13 @@ package org.sonar.cxx.squidbridge; // cxx: in use
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQueries;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.squidbridge.api.CheckMessage;
@@ -47,8 +48,11 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
   private G grammar;
   private File file;
   private InputFile inputFile;
+  @CheckForNull
+  private SourceSnapshot inputFileSource;
   private final SourceProject project;
   private CommentAnalyser commentAnalyser;
+  private final AstNodeXPathQueries<CodeCheck> xpathQueries = new AstNodeXPathQueries<>();
 
   public SquidAstVisitorContextImpl(@Nullable SourceProject project) {
     if (project == null) {
@@ -75,6 +79,14 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
     return commentAnalyser;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AstNodeXPathQueries<CodeCheck> getXPathQueries() {
+    return xpathQueries;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -117,6 +129,8 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
     while (!(peekSourceCode() instanceof SourceProject)) {
       popSourceCode();
     }
+    // the file is done, release its text
+    inputFileSource = null;
   }
 
   /**
@@ -140,11 +154,7 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
    */
   @Override
   public String getInputFileContent() {
-    try {
-      return inputFile.contents();
-    } catch (IOException e) {
-      throw new IllegalStateException(e);
-    }
+    return getInputFileSource().getContent();
   }
 
   /**
@@ -152,7 +162,25 @@ public class SquidAstVisitorContextImpl<G extends Grammar> extends SquidAstVisit
    */
   @Override
   public List<String> getInputFileLines() {
-    return Arrays.asList(getInputFileContent().split("(?:\r)?\n|\r", -1));
+    return getInputFileSource().getLineStrings();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * The input file is decoded only once, on first use (usually by the parser). The snapshot is released when the
+   * scanner leaves the file.
+   */
+  @Override
+  public SourceSnapshot getInputFileSource() {
+    if (inputFileSource == null) {
+      try {
+        inputFileSource = SourceSnapshot.of(inputFile.contents());
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return inputFileSource;
   }
 
   public SourceProject getProject() {
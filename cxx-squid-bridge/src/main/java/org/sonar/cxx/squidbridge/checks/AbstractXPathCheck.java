@@ -26,13 +26,15 @@ package org.sonar.cxx.squidbridge.checks; // cxx: in use
 import com.google.common.base.Strings;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
-import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQuery;
+import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQueries;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.cxx.squidbridge.api.CodeCheck;
 
 public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G> {
 
-  private AstNodeXPathQuery<Object> query = null;
+  // shared with the other XPath checks of the context (scanner), see SquidAstVisitorContext.getXPathQueries
+  private AstNodeXPathQueries<CodeCheck> queries = null;
 
   // See SONAR-3164
   public abstract String getXPathQuery();
@@ -44,8 +46,13 @@ public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G
   public void init() {
     String xpath = getXPathQuery();
     if (!Strings.isNullOrEmpty(xpath)) {
+      var contextQueries = getContext() != null ? getContext().getXPathQueries() : null;
+      if (contextQueries == null) {
+        contextQueries = new AstNodeXPathQueries<>();
+      }
       try {
-        query = AstNodeXPathQuery.create(getXPathQuery());
+        contextQueries.add(this, xpath);
+        queries = contextQueries;
       } catch (RuntimeException e) {
         throw new IllegalStateException("Unable to initialize the XPath engine, perhaps because of an invalid query: "
           + xpath, e);
@@ -55,8 +62,8 @@ public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G
 
   @Override
   public void visitFile(@Nullable AstNode fileNode) {
-    if (query != null && fileNode != null) {
-      List<Object> objects = query.selectNodes(fileNode);
+    if (queries != null && fileNode != null) {
+      List<Object> objects = queries.selectNodes(this, fileNode);
 
       for (var object : objects) {
         if (object instanceof AstNode astNode) {
@@ -68,4 +75,20 @@ public abstract class AbstractXPathCheck<G extends Grammar> extends SquidCheck<G
     }
   }
 
+  @Override
+  public void leaveFile(@Nullable AstNode fileNode) {
+    if (queries != null) {
+      // release the AST of the file
+      queries.clear();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (queries != null) {
+      queries.remove(this);
+      queries = null;
+    }
+  }
+
 }
@@ -0,0 +1,60 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2021-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.squidbridge;
+
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class SourceSnapshotTest {
+
+  @Test
+  void testLinesLikeSplit() {
+    for (var content : new String[]{"", "a", "a\n", "a\r\nb\rc\nd", "\n\n", "\r\r\n\r", "line1\r\nline2\r\n"}) {
+      var source = SourceSnapshot.of(content);
+      assertThat(source.getLineStrings())
+        .as(content)
+        .containsExactlyElementsOf(Arrays.asList(content.split("(?:\r)?\n|\r", -1)));
+    }
+  }
+
+  @Test
+  void testLineViews() {
+    var source = SourceSnapshot.of("first\r\nsecond line\n");
+    var line = source.getLine(2);
+
+    assertThat(source.getLineCount()).isEqualTo(3);
+    assertThat(source.getLineStart(2)).isEqualTo(7);
+    assertThat(source.getLineEnd(2)).isEqualTo(18);
+    assertThat(line).hasToString("second line");
+    assertThat(line.length()).isEqualTo(11);
+    assertThat(line.subSequence(7, 11)).hasToString("line");
+    assertThat(source.getLines()).extracting(CharSequence::toString).containsExactly("first", "second line", "");
+  }
+
+  @Test
+  void testInvalidLine() {
+    var source = SourceSnapshot.of("a\nb");
+    assertThatThrownBy(() -> source.getLine(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> source.getLine(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> source.getLine(1).charAt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+}
@@ -26,6 +26,8 @@ package org.sonar.cxx.squidbridge.checks;
 import com.sonar.cxx.sslr.api.Grammar;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import org.sonar.cxx.squidbridge.SquidAstVisitorContextImpl;
+import org.sonar.cxx.squidbridge.api.SourceProject;
 import static org.sonar.cxx.squidbridge.metrics.ResourceParser.scanFile;
 
 class AbstractXPathCheckTest {
@@ -86,6 +88,37 @@ class AbstractXPathCheckTest {
       .next().atLine(5);
   }
 
+  @Test
+  void severalXPathChecks() {
+    check.xpath = "//VARIABLE_DEFINITION[@tokenLine > 1]";
+    check.message = "Compiled XPath check.";
+    var other = new Check();
+    other.xpath = "//VARIABLE_DEFINITION[position() = 1]";
+    other.message = "Jaxen XPath check.";
+
+    checkMessagesVerifier.verify(scanFile("/checks/xpath.mc", check, other).getCheckMessages())
+      .next().atLine(1).withMessage("Jaxen XPath check.")
+      .next().atLine(5).withMessage("Compiled XPath check.");
+  }
+
+  @Test
+  void queriesAreOwnedByContext() {
+    var context = new SquidAstVisitorContextImpl<Grammar>(new SourceProject("project", null));
+    check.xpath = "//VARIABLE_DEFINITION";
+    check.setContext(context);
+    check.init();
+    var other = new Check();
+    other.xpath = "//VARIABLE_DEFINITION[position() = 1]";
+    other.setContext(context);
+    other.init();
+
+    assertThat(context.getXPathQueries().isCompiled(check)).isTrue();
+    assertThat(context.getXPathQueries().isEmpty()).isFalse();
+    check.destroy();
+    other.destroy();
+    assertThat(context.getXPathQueries().isEmpty()).isTrue();
+  }
+
   @Test
   void parseError() {
     check.xpath = "//VARIABLE_DEFINITION";
@@ -0,0 +1,168 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.cxx.preprocessor.IncludeFileCache;
+import org.sonar.cxx.sslr.parser.ParseProfile;
+
+/**
+ * State of one analysis (sensor run), shared by the preprocessors, parsers and visitors of all scanner threads: the
+ * cache of the lexed include files, the parser profile and the statistics of the analysis.
+ *
+ * A new instance has to be created for each analysis and passed to {@link CxxAstScanner#create}; it is dropped with
+ * the scanner at the end of the analysis. All members can be used by several threads at the same time.
+ */
+public final class CxxAnalysisRun {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CxxAnalysisRun.class);
+
+  private static final String MISSING_INCLUDE_MSG = "Preprocessor: {} include directive error(s). "
+    + "This is only relevant if parser creates syntax errors."
+    + " The preprocessor searches for include files in the with "
+    + "'sonar.cxx.includeDirectories' defined directories and order.";
+  private static final String SYNTAX_ERROR_MSG
+    = "Source code parser: {} syntax error(s) detected. "
+    + "Syntax errors could cause invalid software metric values."
+    + " Root cause are typically missing includes, "
+    + "missing macros or compiler specific extensions.";
+
+  // maximum number of include files in the cache of lexed include files
+  private static final int MAX_CACHED_INCLUDE_FILES = 10_000;
+
+  private final IncludeFileCache includeFileCache = new IncludeFileCache(MAX_CACHED_INCLUDE_FILES);
+  private final ParseProfile parseProfile = new ParseProfile();
+
+  // statistics of the analysis, summed up over all threads and written by finalReport
+  private final LongAdder missingIncludeFiles = new LongAdder();
+  private final LongAdder snapshotsReplayed = new LongAdder();
+  private final LongAdder snapshotsRecorded = new LongAdder();
+  private final LongAdder macroCacheHits = new LongAdder();
+  private final LongAdder macroCacheMisses = new LongAdder();
+  private final LongAdder includeDirsCacheHits = new LongAdder();
+  private final LongAdder includeDirsCacheMisses = new LongAdder();
+  private final LongAdder syntaxErrors = new LongAdder();
+
+  /**
+   * Lexed include files, an include file is read and lexed only once per analysis.
+   */
+  public IncludeFileCache getIncludeFileCache() {
+    return includeFileCache;
+  }
+
+  /**
+   * Statistics of the grammar rules, collected by the parsers if profiling is switched on (see
+   * {@link org.sonar.cxx.parser.CxxParser#isProfiling}).
+   */
+  public ParseProfile getParseProfile() {
+    return parseProfile;
+  }
+
+  /**
+   * Number of include directive errors (include files not found).
+   */
+  public LongAdder getMissingIncludeFiles() {
+    return missingIncludeFiles;
+  }
+
+  /**
+   * Number of replayed include file macro state snapshots.
+   */
+  public LongAdder getSnapshotsReplayed() {
+    return snapshotsReplayed;
+  }
+
+  /**
+   * Number of recorded include file macro state snapshots.
+   */
+  public LongAdder getSnapshotsRecorded() {
+    return snapshotsRecorded;
+  }
+
+  public LongAdder getMacroCacheHits() {
+    return macroCacheHits;
+  }
+
+  public LongAdder getMacroCacheMisses() {
+    return macroCacheMisses;
+  }
+
+  public LongAdder getIncludeDirsCacheHits() {
+    return includeDirsCacheHits;
+  }
+
+  public LongAdder getIncludeDirsCacheMisses() {
+    return includeDirsCacheMisses;
+  }
+
+  /**
+   * Number of syntax errors (declarations skipped by the parser).
+   */
+  public LongAdder getSyntaxErrors() {
+    return syntaxErrors;
+  }
+
+  /**
+   * Hit rate in percent of the interned macro definitions (defines of units).
+   */
+  public long getMacroCacheHitRate() {
+    return hitRate(macroCacheHits, macroCacheMisses);
+  }
+
+  /**
+   * Hit rate in percent of the interned include directory lists (include directories of units).
+   */
+  public long getIncludeDirsCacheHitRate() {
+    return hitRate(includeDirsCacheHits, includeDirsCacheMisses);
+  }
+
+  /**
+   * Log the statistics of the analysis.
+   */
+  public void finalReport() {
+    long missingFiles = missingIncludeFiles.sum();
+    if (missingFiles != 0) {
+      LOG.warn(MISSING_INCLUDE_MSG, missingFiles);
+    }
+    LOG.info("Preprocessor: include file cache {} hit(s), {} miss(es), {} file(s) cached",
+      includeFileCache.getHits(), includeFileCache.getMisses(), includeFileCache.size());
+    LOG.info("Preprocessor: {} include file macro state snapshot(s) replayed, {} recorded",
+      snapshotsReplayed.sum(), snapshotsRecorded.sum());
+    LOG.info("Preprocessor: macro definition cache hit rate {}%, include directory cache hit rate {}%",
+      getMacroCacheHitRate(), getIncludeDirsCacheHitRate());
+
+    long errors = syntaxErrors.sum();
+    if (errors != 0) {
+      LOG.warn(SYNTAX_ERROR_MSG, errors);
+    }
+  }
+
+  /**
+   * Hit rate in percent (0 if the cache was never used).
+   */
+  private static long hitRate(LongAdder hits, LongAdder misses) {
+    long h = hits.sum();
+    long total = h + misses.sum();
+    return total == 0 ? 0 : (100 * h) / total;
+  }
+
+}
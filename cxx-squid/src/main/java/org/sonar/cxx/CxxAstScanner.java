@@ -22,11 +22,15 @@ package org.sonar.cxx;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.parser.CxxGrammarImpl;
 import org.sonar.cxx.parser.CxxParser;
+import org.sonar.cxx.preprocessor.CxxPreprocessor;
 import org.sonar.cxx.squidbridge.AstScanner;
 import org.sonar.cxx.squidbridge.CommentAnalyser;
 import org.sonar.cxx.squidbridge.SourceCodeBuilderVisitor;
@@ -105,8 +109,56 @@ public final class CxxAstScanner {
    */
   @SafeVarargs
   public static AstScanner<Grammar> create(CxxSquidConfiguration squidConfig, SquidAstVisitor<Grammar>... visitors) {
+    return builder(squidConfig, new CxxAnalysisRun(), CxxGrammarImpl.create(squidConfig), visitors).build();
+  }
+
+  /**
+   * Create scanner for language, which scans the files with several threads in parallel
+   *
+   * Each thread uses its own parser, preprocessor and visitors. Checks have state, therefore a new set of checks must
+   * be created with each call of the visitors factory.
+   *
+   * @param squidConfig the Squid configuration
+   * @param threads number of threads to use
+   * @param visitorsFactory creates a new set of AST checks and visitors for each thread
+   * @return scanner for the given parameters
+   */
+  public static AstScanner<Grammar> create(CxxSquidConfiguration squidConfig, int threads,
+    Supplier<SquidAstVisitor<Grammar>[]> visitorsFactory) {
+    return create(squidConfig, new CxxAnalysisRun(), threads, null, visitorsFactory);
+  }
+
+  /**
+   * Create scanner for language, which scans the files with several threads in parallel and reports each scanned file
+   *
+   * @param squidConfig the Squid configuration
+   * @param analysisRun state of the analysis shared by all threads (caches, parser profile, statistics)
+   * @param threads number of threads to use
+   * @param sourceFileCallback called for each file after it has been scanned (from the scanner threads)
+   * @param visitorsFactory creates a new set of AST checks and visitors for each thread
+   * @return scanner for the given parameters
+   */
+  public static AstScanner<Grammar> create(CxxSquidConfiguration squidConfig, CxxAnalysisRun analysisRun,
+    int threads, @Nullable Consumer<SourceFile> sourceFileCallback,
+    Supplier<SquidAstVisitor<Grammar>[]> visitorsFactory) {
+    // the threads share the grammar and its compiled form
+    var grammar = CxxGrammarImpl.create(squidConfig);
+    var builder = builder(squidConfig, analysisRun, grammar, visitorsFactory.get());
+    if (sourceFileCallback != null) {
+      builder.setSourceFileCallback(sourceFileCallback);
+    }
+    if (threads > 1) {
+      builder.setThreads(threads);
+      builder.setWorkerFactory(() -> builder(squidConfig, analysisRun, grammar, visitorsFactory.get()).build());
+    }
+    return builder.build();
+  }
+
+  private static AstScanner.Builder<Grammar> builder(CxxSquidConfiguration squidConfig, CxxAnalysisRun analysisRun,
+    Grammar grammar, SquidAstVisitor<Grammar>[] visitors) {
     var context = new SquidAstVisitorContextImpl<>(new SourceProject("cxx", null));
-    var parser = CxxParser.create(context, squidConfig);
+    var preprocessor = new CxxPreprocessor(context, squidConfig, analysisRun);
+    var parser = CxxParser.create(grammar, squidConfig, preprocessor, analysisRun.getParseProfile());
     var builder = AstScanner.<Grammar>builder(context).setBaseParser(parser);
 
     /* Metrics */
@@ -188,10 +240,10 @@ public final class CxxAstScanner {
     builder.withSquidAstVisitor(new CxxFunctionSizeVisitor<>(squidConfig));
 
     // to emit a 'new file' event to the internals of the plugin
-    builder.withSquidAstVisitor(new CxxFileVisitor<>());
+    builder.withSquidAstVisitor(new CxxFileVisitor<>(preprocessor));
 
     // log syntax errors
-    builder.withSquidAstVisitor(new CxxParseErrorLoggerVisitor<>());
+    builder.withSquidAstVisitor(new CxxParseErrorLoggerVisitor<>(analysisRun));
 
     /* Highlighter */
     builder.withSquidAstVisitor(new CxxHighlighterVisitor());
@@ -210,7 +262,7 @@ public final class CxxAstScanner {
       builder.withSquidAstVisitor(visitor);
     }
 
-    return builder.build();
+    return builder;
   }
 
 }
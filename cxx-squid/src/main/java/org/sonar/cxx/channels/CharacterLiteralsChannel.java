@@ -62,6 +62,11 @@ public class CharacterLiteralsChannel extends Channel<Lexer> {
     return true;
   }
 
+  @Override
+  public boolean canStartWith(char ch) {
+    return ch == '\'' || ch == 'u' || ch == 'U' || ch == 'L';
+  }
+
   private boolean read(CodeReader code) {
     index++;
     while (code.charAt(index) != ch) {
@@ -0,0 +1,285 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.channels;
+
+import static com.sonar.cxx.sslr.api.GenericTokenType.IDENTIFIER;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import com.sonar.cxx.sslr.impl.Lexer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import org.sonar.cxx.sslr.channel.Channel;
+import org.sonar.cxx.sslr.channel.CodeReader;
+
+/**
+ * Identifiers and keywords (C++ Standard, Section 2.11 "Identifiers" and Section 2.12 "Keywords").
+ *
+ * Scans <code>[a-zA-Z_]\w*</code> and looks up keywords in a collision free hash table while scanning, a keyword
+ * token reuses the keyword value without creating a new string. The keywords are case sensitive. Identifier values
+ * are interned per channel (lexer), so the tokens of a translation unit share one string per distinct identifier and
+ * a string is only created for an identifier seen for the first time.
+ */
+public class IdentifierChannel extends Channel<Lexer> {
+
+  private final KeywordTable keywords;
+  private final IdentifierTable identifiers = new IdentifierTable();
+  private final Token.Builder tokenBuilder = Token.builder();
+
+  public IdentifierChannel(TokenType[]... keywordSets) {
+    var keywordsMap = new LinkedHashMap<String, TokenType>();
+    for (var keywordSet : keywordSets) {
+      for (var keyword : keywordSet) {
+        keywordsMap.put(keyword.getValue(), keyword);
+      }
+    }
+    keywords = new KeywordTable(keywordsMap);
+  }
+
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    if (!canStartWith(code.charAt(0))) {
+      return false;
+    }
+    var hash = keywords.hash(0, code.charAt(0));
+    var length = 1;
+    char ch;
+    while (isWordChar(ch = code.charAt(length))) {
+      hash = keywords.hash(hash, ch);
+      length++;
+    }
+
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    var keyword = keywords.get(hash, code, length);
+    String value;
+    TokenType type;
+    if (keyword != null) {
+      value = keyword.getValue();
+      type = keyword;
+      code.skip(length);
+    } else {
+      value = identifiers.intern(hash, code, length);
+      type = IDENTIFIER;
+      code.skip(length);
+    }
+
+    lexer.addToken(tokenBuilder
+      .setType(type)
+      .setValueAndOriginalValue(value)
+      .setURI(lexer.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build());
+    return true;
+  }
+
+  @Override
+  public boolean canStartWith(char ch) {
+    return isLetter(ch) || ch == '_';
+  }
+
+  private static boolean isLetter(char ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+  }
+
+  private static boolean isWordChar(char ch) {
+    return isLetter(ch) || (ch >= '0' && ch <= '9') || ch == '_';
+  }
+
+  /**
+   * Perfect hash table: the multiplier of the hash function is searched at construction time so that all keywords
+   * land in different slots. A lookup needs one hash (computed while scanning) and one comparison.
+   */
+  private static final class KeywordTable {
+
+    private static final int FIRST_MULTIPLIER = 31;
+    private static final int MAX_ATTEMPTS = 10_000;
+
+    private final TokenType[] types;
+    private final char[][] values;
+    private final int multiplier;
+    private final int mask;
+
+    private KeywordTable(Map<String, TokenType> keywords) {
+      var size = Integer.highestOneBit(Math.max(1, keywords.size() * 2 - 1)) << 1;
+      var candidate = FIRST_MULTIPLIER;
+      TokenType[] table;
+      while ((table = fill(keywords, candidate, size - 1)) == null) {
+        candidate += 2;
+        if (candidate > FIRST_MULTIPLIER + 2 * MAX_ATTEMPTS) {
+          candidate = FIRST_MULTIPLIER;
+          size <<= 1;
+        }
+      }
+      types = table;
+      multiplier = candidate;
+      mask = size - 1;
+      values = new char[size][];
+      for (var i = 0; i < size; i++) {
+        values[i] = table[i] != null ? table[i].getValue().toCharArray() : null;
+      }
+    }
+
+    @CheckForNull
+    private static TokenType[] fill(Map<String, TokenType> keywords, int multiplier, int mask) {
+      var table = new TokenType[mask + 1];
+      for (var keyword : keywords.entrySet()) {
+        var slot = slot(hash(keyword.getKey(), multiplier), mask);
+        if (table[slot] != null) {
+          return null;
+        }
+        table[slot] = keyword.getValue();
+      }
+      return table;
+    }
+
+    private static int hash(String value, int multiplier) {
+      var result = 0;
+      for (var i = 0; i < value.length(); i++) {
+        result = hash(result, value.charAt(i), multiplier);
+      }
+      return result;
+    }
+
+    private static int hash(int hash, char ch, int multiplier) {
+      return hash * multiplier + ch;
+    }
+
+    private static int slot(int hash, int mask) {
+      return (hash ^ (hash >>> 15)) & mask;
+    }
+
+    /**
+     * Adds the next character to the hash of the characters scanned so far.
+     */
+    private int hash(int hash, char ch) {
+      return hash(hash, ch, multiplier);
+    }
+
+    /**
+     * Returns the keyword made of the next length characters, or null if they are not a keyword.
+     */
+    @CheckForNull
+    private TokenType get(int hash, CodeReader code, int length) {
+      var slot = slot(hash, mask);
+      var value = values[slot];
+      if (value == null || value.length != length) {
+        return null;
+      }
+      for (var i = 0; i < length; i++) {
+        if (value[i] != code.charAt(i)) {
+          return null;
+        }
+      }
+      return types[slot];
+    }
+
+  }
+
+  /**
+   * Open addressing hash set of identifier values, looked up with the hash computed while scanning. The table is
+   * cleared when it is full to bound the memory retained by a lexer.
+   */
+  private static final class IdentifierTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_CAPACITY = 1 << 17;
+
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Returns the value of the identifier made of the next length characters.
+     */
+    private String intern(int hash, CodeReader code, int length) {
+      var mask = values.length - 1;
+      var slot = mix(hash) & mask;
+      String value;
+      while ((value = values[slot]) != null) {
+        if (hashes[slot] == hash && equals(value, code, length)) {
+          return value;
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      var start = code.getPosition();
+      value = code.getText(start, start + length).toString();
+      if (2 * (size + 1) > values.length) {
+        if (values.length < MAX_CAPACITY) {
+          resize(values.length * 2);
+        } else {
+          resize(INITIAL_CAPACITY);
+          size = 0;
+        }
+        mask = values.length - 1;
+        slot = mix(hash) & mask;
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+      }
+      hashes[slot] = hash;
+      values[slot] = value;
+      size++;
+      return value;
+    }
+
+    private void resize(int capacity) {
+      var oldHashes = hashes;
+      var oldValues = values;
+      hashes = new int[capacity];
+      values = new String[capacity];
+      if (capacity < oldValues.length) {
+        return;
+      }
+      var mask = capacity - 1;
+      for (var i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          var slot = mix(oldHashes[i]) & mask;
+          while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          hashes[slot] = oldHashes[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+
+    private static boolean equals(String value, CodeReader code, int length) {
+      if (value.length() != length) {
+        return false;
+      }
+      for (var i = 0; i < length; i++) {
+        if (value.charAt(i) != code.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int mix(int hash) {
+      var h = hash * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+  }
+
+}
@@ -91,4 +91,9 @@ public class KeywordChannel extends Channel<Lexer> {
     return false;
   }
 
+  @Override
+  public boolean canStartWith(char ch) {
+    return canStartWith(matcher.pattern(), ch);
+  }
+
 }
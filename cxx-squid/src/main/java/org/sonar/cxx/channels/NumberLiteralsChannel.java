@@ -0,0 +1,198 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.channels;
+
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.impl.Lexer;
+import org.sonar.cxx.parser.CxxTokenType;
+import org.sonar.cxx.sslr.channel.Channel;
+import org.sonar.cxx.sslr.channel.CodeReader;
+
+/**
+ * Integer and floating literals (C++ Standard, Section 2.14.2 "Integer literals" and Section 2.14.4 "Floating
+ * literals").
+ *
+ * The scanner is a hand-written state machine for the regular expression
+ * <pre>
+ * ( \.D(E)? | 0[xX](H)?\.?(H)?(P)? | 0[bB]B | D\.?(D)?(E)? ) ([_a-zA-Z]\w*)?
+ *
+ * D: \d('?\d+)*            decimal digit sequence
+ * H: [0-9a-fA-F]('?[0-9a-fA-F]+)*  hexadecimal digit sequence
+ * B: [01]('?[01]+)*        binary digit sequence
+ * E: [Ee][+-]?[0-9_]('?[0-9_]+)*  exponent
+ * P: [pP][+-]?D            binary exponent (since C++17)
+ * </pre>
+ * with possessive quantifiers, the first matching alternative wins.
+ */
+public class NumberLiteralsChannel extends Channel<Lexer> {
+
+  // kinds of digit sequences
+  private static final int DEC = 0;
+  private static final int HEX = 1;
+  private static final int BIN = 2;
+  private static final int EXP = 3;
+
+  private final Token.Builder tokenBuilder = Token.builder();
+
+  @Override
+  public boolean consume(CodeReader code, Lexer output) {
+    var end = number(code);
+    if (end <= 0) {
+      return false;
+    }
+    end = udSuffix(code, end);
+
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    int start = code.getPosition();
+    code.skip(end);
+    output.addToken(tokenBuilder
+      .setType(CxxTokenType.NUMBER)
+      .setValueAndOriginalValue(code.getText(start, code.getPosition()).toString())
+      .setURI(output.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build());
+    return true;
+  }
+
+  @Override
+  public boolean canStartWith(char ch) {
+    return ch == '.' || isDecDigit(ch);
+  }
+
+  /**
+   * @return end of the literal without ud-suffix, or -1
+   */
+  private static int number(CodeReader code) {
+    var ch = code.charAt(0);
+    if (ch == '.') {
+      var end = digitSequence(code, 1, DEC);
+      return end < 0 ? -1 : exponent(code, end);
+    }
+    if (!isDecDigit(ch)) {
+      return -1;
+    }
+    if (ch == '0') {
+      var next = code.charAt(1);
+      if (next == 'x' || next == 'X') {
+        return hexNumber(code, 2);
+      }
+      if (next == 'b' || next == 'B') {
+        var end = digitSequence(code, 2, BIN);
+        if (end > 0) {
+          return end;
+        }
+      }
+    }
+    var end = digitSequence(code, 0, DEC);
+    if (code.charAt(end) == '.') {
+      end++;
+    }
+    end = optional(end, digitSequence(code, end, DEC));
+    return exponent(code, end);
+  }
+
+  private static int hexNumber(CodeReader code, int start) {
+    var end = optional(start, digitSequence(code, start, HEX));
+    if (code.charAt(end) == '.') {
+      end++;
+    }
+    end = optional(end, digitSequence(code, end, HEX));
+    var ch = code.charAt(end);
+    if (ch == 'p' || ch == 'P') {
+      end = optional(end, digitSequence(code, sign(code, end + 1), DEC));
+    }
+    return end;
+  }
+
+  private static int exponent(CodeReader code, int start) {
+    var ch = code.charAt(start);
+    if (ch == 'e' || ch == 'E') {
+      return optional(start, digitSequence(code, sign(code, start + 1), EXP));
+    }
+    return start;
+  }
+
+  private static int udSuffix(CodeReader code, int start) {
+    var ch = code.charAt(start);
+    if (!(isLetter(ch) || ch == '_')) {
+      return start;
+    }
+    var end = start + 1;
+    while (isWordChar(code.charAt(end))) {
+      end++;
+    }
+    return end;
+  }
+
+  private static int sign(CodeReader code, int index) {
+    var ch = code.charAt(index);
+    return (ch == '+' || ch == '-') ? index + 1 : index;
+  }
+
+  private static int optional(int start, int end) {
+    return end < 0 ? start : end;
+  }
+
+  /**
+   * Digit sequence with optional single quotes as separators: digit('?digit+)*
+   *
+   * @return end of the sequence or -1 if it does not start with a digit
+   */
+  private static int digitSequence(CodeReader code, int start, int kind) {
+    if (!isDigit(code.charAt(start), kind)) {
+      return -1;
+    }
+    var end = start + 1;
+    while (true) {
+      var ch = code.charAt(end);
+      if (isDigit(ch, kind)) {
+        end++;
+      } else if (ch == '\'' && isDigit(code.charAt(end + 1), kind)) {
+        end += 2;
+      } else {
+        return end;
+      }
+    }
+  }
+
+  private static boolean isDigit(char ch, int kind) {
+    return switch (kind) {
+      case HEX -> isDecDigit(ch) || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+      case BIN -> ch == '0' || ch == '1';
+      case EXP -> isDecDigit(ch) || ch == '_';
+      default -> isDecDigit(ch);
+    };
+  }
+
+  private static boolean isDecDigit(char ch) {
+    return ch >= '0' && ch <= '9';
+  }
+
+  private static boolean isLetter(char ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+  }
+
+  private static boolean isWordChar(char ch) {
+    return isLetter(ch) || isDecDigit(ch) || ch == '_';
+  }
+
+}
@@ -105,4 +105,12 @@ public class RightAngleBracketsChannel extends Channel<Lexer> {
     return consumed;
   }
 
+  /**
+   * The channel consumes only '&gt;' but has to see all brackets and ';' to track the nesting level.
+   */
+  @Override
+  public boolean canStartWith(char ch) {
+    return ch == '(' || ch == ')' || ch == ';' || ch == '<' || ch == '>';
+  }
+
 }
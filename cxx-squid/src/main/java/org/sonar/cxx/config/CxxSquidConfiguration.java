@@ -34,12 +34,16 @@ import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import javax.xml.XMLConstants;
@@ -48,13 +52,10 @@ import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.jdom2.Verifier;
-import org.jdom2.filter.Filters;
 import org.jdom2.input.SAXBuilder;
 import org.jdom2.input.sax.XMLReaders;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.utils.PathUtils;
@@ -81,6 +82,10 @@ import org.sonar.cxx.squidbridge.api.SquidConfiguration;
  * found value for key, whereby the search starts on level. {@code getValues} collects all found values over all levels.
  * It starts with the given level and further found values are added to the end of the list.
  *
+ * The data is held in hash maps, File items are indexed by their unified path. The effective values of a key (the
+ * values of a level and all its parent levels) are cached until the next modification. XML is only used as
+ * serialization format ({@code readFromFile}, {@code writeToFile}, {@code toString}), with the following structure:
+ *
  * <pre>
  * CompilationDatabase
  * |-- PredefinedMacros
@@ -130,6 +135,8 @@ public class CxxSquidConfiguration extends SquidConfiguration {
   public static final String FUNCTION_SIZE_THRESHOLD = "FunctionSizeThreshold";
   public static final String API_FILE_SUFFIXES = "ApiFileSuffixes";
   public static final String JSON_COMPILATION_DATABASE = "JsonCompilationDatabase";
+  public static final String PARSER_PROFILE = "ParserProfile";
+  public static final String PARSER_MEMOIZED_RULES = "ParserMemoizedRules";
 
   // Global/File Properties
   public static final String DEFINES = "Defines";
@@ -141,14 +148,14 @@ public class CxxSquidConfiguration extends SquidConfiguration {
   // case-sensitive filesystem or not
   private static boolean isCaseSensitive = true;
 
-  private final XPathFactory xFactory = XPathFactory.instance();
-  private Document document;
+  // levels directly under root, in document order: PredefinedMacros, SonarProjectProperties, Global, Units, ...
+  private final LinkedHashMap<String, Level> levels = new LinkedHashMap<>();
 
-  // index to speed up element access
-  private final HashMap<String, Element> index = new HashMap<>();
+  // File items on Units level, indexed by unified path
+  private final LinkedHashMap<String, Level> units = new LinkedHashMap<>();
 
-  // defines order to search for key/value pairs: Units => Global => SonarProjectProperties => PredefinedMacros
-  private final LinkedList<Element> parentList = new LinkedList<>();
+  // incremented after each modification, invalidates the cached effective values of all levels
+  private final AtomicLong modifications = new AtomicLong();
 
   // base directory to resolve relative paths
   private String baseDir = "";
@@ -176,15 +183,7 @@ public class CxxSquidConfiguration extends SquidConfiguration {
       isCaseSensitive = true;
     }
 
-    var root = new Element(ROOT);
-    root.setAttribute(new Attribute("version", "1.0"));
-    document = new Document(root);
-
-    addLevelElement(root, PREDEFINED_MACROS);
-    addLevelElement(root, SONAR_PROJECT_PROPERTIES);
-    addLevelElement(root, GLOBAL);
-    // UNITS must be first one in the parentList
-    addLevelElement(root, UNITS);
+    addDefaultLevels();
   }
 
   /**
@@ -197,6 +196,7 @@ public class CxxSquidConfiguration extends SquidConfiguration {
     SAXBuilder builder = new SAXBuilder(XMLReaders.NONVALIDATING);
     builder.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
     builder.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    Document document;
     try {
       document = builder.build(fileName);
     } catch (JDOMException | IOException e) {
@@ -204,16 +204,26 @@ public class CxxSquidConfiguration extends SquidConfiguration {
       return false;
     }
 
-    // clear old element caches
-    parentList.clear();
-    index.clear();
-
-    var root = document.getRootElement();
-    addLevelElement(root, PREDEFINED_MACROS);
-    addLevelElement(root, SONAR_PROJECT_PROPERTIES);
-    addLevelElement(root, GLOBAL);
-    // UNITS must be first one in the parentList
-    addLevelElement(root, UNITS);
+    // replace old content
+    levels.clear();
+    units.clear();
+
+    for (var eLevel : document.getRootElement().getChildren()) {
+      var level = levels.computeIfAbsent(eLevel.getName(), Level::new);
+      for (var eKey : eLevel.getChildren()) {
+        if (UNITS.equals(eLevel.getName()) && FILE.equals(eKey.getName())) {
+          var path = eKey.getAttributeValue(ATTR_PATH, "");
+          var unit = units.computeIfAbsent(path, Level::new);
+          for (var eUnitKey : eKey.getChildren()) {
+            readValues(eUnitKey, unit);
+          }
+        } else {
+          readValues(eKey, level);
+        }
+      }
+    }
+    addDefaultLevels();
+    modifications.incrementAndGet();
 
     return true;
   }
@@ -229,7 +239,7 @@ public class CxxSquidConfiguration extends SquidConfiguration {
       try (FileWriter writer = new FileWriter(fileName)) {
         XMLOutputter outputter = new XMLOutputter();
         outputter.setFormat(Format.getPrettyFormat());
-        outputter.output(document, writer);
+        outputter.output(toDocument(), writer);
       }
     } catch (IOException e) {
       LOG.debug("Can't write Squid configuration to file '{}': {}", fileName, e.getMessage(), e);
@@ -244,7 +254,7 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    * @return false if empty
    */
   public boolean isUnitsEmpty() {
-    return parentList.getFirst().getContentSize() == 0;
+    return units.isEmpty() && levels.get(UNITS).keys.isEmpty();
   }
 
   /**
@@ -262,8 +272,8 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    */
   public void add(String level, String key, @Nullable String value) {
     if (value != null && !value.isEmpty()) {
-      Element eKey = getKey(level, key);
-      setValue(eKey, value);
+      getKey(level, key).add(value);
+      modifications.incrementAndGet();
     }
   }
 
@@ -278,8 +288,8 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    */
   public void add(String level, String key, Optional<String> value) {
     if (value.isPresent()) {
-      Element eKey = getKey(level, key);
-      setValue(eKey, value.get());
+      getKey(level, key).add(value.get());
+      modifications.incrementAndGet();
     }
   }
 
@@ -294,10 +304,8 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    */
   public void add(String level, String key, @Nullable String[] values) {
     if (values != null) {
-      Element eKey = getKey(level, key);
-      for (var value : values) {
-        setValue(eKey, value);
-      }
+      Collections.addAll(getKey(level, key), values);
+      modifications.incrementAndGet();
     }
   }
 
@@ -312,10 +320,8 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    */
   public void add(String level, String key, List<String> values) {
     if (!values.isEmpty()) {
-      Element eKey = getKey(level, key);
-      for (var value : values) {
-        setValue(eKey, value);
-      }
+      getKey(level, key).addAll(values);
+      modifications.incrementAndGet();
     }
   }
 
@@ -332,16 +338,14 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    * property is not set.
    */
   public Optional<String> get(String level, String key) {
-    Element eLevel = findLevel(level, parentList.getFirst());
-    do {
-      if (eLevel != null) {
-        Element eKey = eLevel.getChild(key);
-        if (eKey != null) {
-          return Optional.of(eKey.getChildText(VALUE));
-        }
+    Level eLevel = findLevel(level, levels.get(UNITS));
+    while (eLevel != null) {
+      List<String> values = eLevel.keys.get(key);
+      if (values != null && !values.isEmpty()) {
+        return Optional.of(values.get(0));
       }
-      eLevel = getParentElement(eLevel);
-    } while (eLevel != null);
+      eLevel = eLevel.parent;
+    }
     return Optional.empty();
   }
 
@@ -355,18 +359,14 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    * @return the values with the specified key value
    */
   public List<String> getLevelValues(String level, String key) {
-    List<String> result = new ArrayList<>();
-    Element eLevel = findLevel(level, null);
+    Level eLevel = findLevel(level, null);
     if (eLevel != null) {
-      Element eKey = eLevel.getChild(key);
-      if (eKey != null) {
-        for (var value : eKey.getChildren(VALUE)) {
-          result.add(value.getText());
-        }
+      List<String> values = eLevel.keys.get(key);
+      if (values != null) {
+        return new ArrayList<>(values);
       }
     }
-
-    return result;
+    return new ArrayList<>();
   }
 
   /**
@@ -380,20 +380,11 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    * @return the values with the specified key value
    */
   public List<String> getValues(String level, String key) {
-    List<String> result = new ArrayList<>();
-    Element eLevel = findLevel(level, parentList.getFirst());
-    do {
-      if (eLevel != null) {
-        Element eKey = eLevel.getChild(key);
-        if (eKey != null) {
-          for (var value : eKey.getChildren(VALUE)) {
-            result.add(value.getText());
-          }
-        }
-      }
-      eLevel = getParentElement(eLevel);
-    } while (eLevel != null);
-    return result;
+    Level eLevel = findLevel(level, levels.get(UNITS));
+    if (eLevel != null) {
+      return new ArrayList<>(getEffectiveValues(eLevel, key));
+    }
+    return new ArrayList<>();
   }
 
   /**
@@ -402,12 +393,9 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    * @return list of file items
    */
   public List<Path> getFiles() {
-    List<Path> result = new ArrayList<>();
-    Element eLevel = findLevel(UNITS, null);
-    if (eLevel != null) {
-      for (var file : eLevel.getChildren(FILE)) {
-        result.add(Path.of(file.getAttributeValue(ATTR_PATH)));
-      }
+    List<Path> result = new ArrayList<>(units.size());
+    for (var path : units.keySet()) {
+      result.add(Path.of(path));
     }
     return result;
   }
@@ -424,21 +412,18 @@ public class CxxSquidConfiguration extends SquidConfiguration {
    */
   public List<String> getChildrenValues(String level, String key) {
     List<String> result = new ArrayList<>();
-    Element eLevel = findLevel(level, parentList.getFirst());
-    if (eLevel != null) {
-      for (var child : eLevel.getChildren()) {
-        Element eKey = child.getChild(key);
-        if (eKey != null) {
-          for (var value : eKey.getChildren(VALUE)) {
-            result.add(value.getText());
-          }
+    Level eLevel = findLevel(level, levels.get(UNITS));
+    if (eLevel == levels.get(UNITS)) {
+      for (var unit : units.values()) {
+        List<String> values = unit.keys.get(key);
+        if (values != null) {
+          result.addAll(values);
         }
       }
     }
     // add content of shared parents only once at the end
-    eLevel = getParentElement(eLevel);
-    if (eLevel != null) {
-      result.addAll(getValues(eLevel.getName(), key));
+    if (eLevel != null && eLevel.parent != null) {
+      result.addAll(getEffectiveValues(eLevel.parent, key));
     }
     return result;
   }
@@ -532,7 +517,7 @@ public class CxxSquidConfiguration extends SquidConfiguration {
     try {
       var outputter = new XMLOutputter();
       outputter.setFormat(Format.getPrettyFormat());
-      outputter.output(document, stream);
+      outputter.output(toDocument(), stream);
     } catch (IOException e) {
       throw new IllegalStateException("Can't create XML data", e);
     }
@@ -555,11 +540,20 @@ public class CxxSquidConfiguration extends SquidConfiguration {
   }
 
   public void readJsonCompilationDb() {
+    readJsonCompilationDb(null);
+  }
+
+  /**
+   * Read the JSON Compilation Database configured on SonarProjectProperties level.
+   *
+   * @param fileFilter if not null, only the command objects of files accepted by the filter are read
+   */
+  public void readJsonCompilationDb(@Nullable Predicate<Path> fileFilter) {
     var jsonDbFile = get(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
       CxxSquidConfiguration.JSON_COMPILATION_DATABASE);
     if (jsonDbFile.isPresent()) {
       try {
-        var jsonDb = new JsonCompilationDatabase(this);
+        var jsonDb = new JsonCompilationDatabase(this, fileFilter);
         jsonDb.parse(new File(jsonDbFile.get()));
       } catch (IOException e) {
         LOG.error("Cannot access Json DB File: {}", e.getMessage(), e);
@@ -630,123 +624,169 @@ public class CxxSquidConfiguration extends SquidConfiguration {
   }
 
   /**
-   * Method that returns any parent {@code Element} for this Element, or null if the Element is unattached or is a root
-   * Element.
+   * Searches for Level associated with level.
    *
-   * The method first searches in {@code parentList}. If the own Element is found here, the next entry (parent) is
-   * returned. If nothing is found here, the method returns parent of Element.
+   * If level is an identifier, a level directly under root is searched for. Otherwise it is searched for a File item
+   * with path level.
    *
-   * @param element to be searched for parent
-   * @return the containing Element or null if unattached or a root Element
+   * @param level to search for
+   * @param defaultLevel Level to return if no item was found
+   * @return found Level or defaultLevel
    */
   @CheckForNull
-  private Element getParentElement(@Nullable Element element) {
-    var parentIterator = parentList.iterator();
-    while (parentIterator.hasNext()) {
-      var next = parentIterator.next();
-      if (next.equals(element)) {
-        if (parentIterator.hasNext()) {
-          return parentIterator.next();
-        } else {
-          break;
-        }
+  private Level findLevel(String level, @Nullable Level defaultLevel) {
+    Level result;
+    if (Verifier.checkElementName(level) == null) {
+      result = levels.get(level);
+    } else {
+      // handle special case 'UNITS empty' no need to unify the path
+      if (units.isEmpty()) {
+        return defaultLevel;
       }
+      result = units.get(unifyPath(level));
     }
-    return element != null ? element.getParentElement() : null;
+    return result != null ? result : defaultLevel;
   }
 
   /**
-   * Searches for Element associated with level.
+   * Add or reuse the value list of a key.
    *
-   * If level is an identifier, level element is searched for. Otherwise it is searched for a File element with path
-   * attribute level.
-   *
-   * @param level to search for
-   * @param defaultElement Element to return if no item was found
-   * @return found Element or defaultElement
+   * @param level for key
+   * @param key identifier of key
+   * @return existing or new value list for key
    */
-  @CheckForNull
-  private Element findLevel(String level, @Nullable Element defaultElement) {
-    Element element = index.getOrDefault(level, null);
-    if (element != null) {
-      return element;
-    }
-    String xpath;
+  private List<String> getKey(String level, String key) {
+    Level eLevel;
     if (Verifier.checkElementName(level) == null) {
-      xpath = "/" + ROOT + "/" + level;
+      eLevel = levels.computeIfAbsent(level, Level::new);
     } else {
-      // handle special case 'UNITS empty' no need to search in tree
-      if (isUnitsEmpty()) {
-        return defaultElement;
+      eLevel = units.computeIfAbsent(unifyPath(level), path -> new Level(path, levels.get(UNITS)));
+    }
+    return eLevel.keys.computeIfAbsent(key, k -> new ArrayList<>());
+  }
+
+  /**
+   * Collects the values of key on level and all its parent levels.
+   *
+   * The result is cached per level until the next modification of the database.
+   *
+   * @param level start level
+   * @param key key that is searched for
+   * @return the unmodifiable effective values
+   */
+  private List<String> getEffectiveValues(Level level, String key) {
+    long stamp = modifications.get();
+    var cache = level.effective;
+    if (cache == null || cache.stamp != stamp) {
+      cache = new EffectiveValues(stamp);
+      level.effective = cache;
+    }
+    return cache.values.computeIfAbsent(key, k -> {
+      List<String> result = new ArrayList<>();
+      for (var eLevel = level; eLevel != null; eLevel = eLevel.parent) {
+        List<String> values = eLevel.keys.get(k);
+        if (values != null) {
+          result.addAll(values);
+        }
       }
-      xpath = "/" + ROOT + "/" + UNITS + "/" + FILE + "[@" + ATTR_PATH + "='" + unifyPath(level) + "']";
+      return List.copyOf(result);
+    });
+  }
+
+  /**
+   * Add the predefined levels (if missing) and link them: Units => Global => SonarProjectProperties =>
+   * PredefinedMacros.
+   */
+  private void addDefaultLevels() {
+    Level parent = null;
+    for (var name : new String[]{PREDEFINED_MACROS, SONAR_PROJECT_PROPERTIES, GLOBAL, UNITS}) {
+      var level = levels.computeIfAbsent(name, Level::new);
+      level.parent = parent;
+      parent = level;
     }
-    XPathExpression<Element> expr = xFactory.compile(xpath, Filters.element());
-    element = expr.evaluateFirst(document);
-    if (element == null) {
-      element = defaultElement;
+    for (var unit : units.values()) {
+      unit.parent = parent;
     }
-    return element;
   }
 
   /**
-   * Add or reuse an key Element.
+   * Create the XML serialization of the database.
    *
-   * @param level for key
-   * @param key identifier of key
-   * @return existing or new Element for key
+   * @return XML document
    */
-  private Element getKey(String level, String key) {
-    Element eLevel = findLevel(level, null);
-    if (eLevel == null) {
-      if (Verifier.checkElementName(level) == null) {
-        eLevel = new Element(level);
-        document.getRootElement().addContent(eLevel);
-      } else {
-        eLevel = new Element(FILE);
-        level = unifyPath(level);
-        eLevel.setAttribute(new Attribute(ATTR_PATH, level));
-        parentList.getFirst().addContent(eLevel);
+  private Document toDocument() {
+    var root = new Element(ROOT);
+    root.setAttribute(new Attribute("version", "1.0"));
+    for (var level : levels.values()) {
+      var eLevel = new Element(level.name);
+      writeValues(level, eLevel);
+      if (UNITS.equals(level.name)) {
+        for (var unit : units.values()) {
+          var eFile = new Element(FILE);
+          eFile.setAttribute(new Attribute(ATTR_PATH, unit.name));
+          writeValues(unit, eFile);
+          eLevel.addContent(eFile);
+        }
       }
-      index.put(level, eLevel);
+      root.addContent(eLevel);
     }
-    Element eKey = eLevel.getChild(key);
-    if (eKey == null) {
-      eKey = new Element(key);
+    return new Document(root);
+  }
+
+  private static void writeValues(Level level, Element eLevel) {
+    for (var entry : level.keys.entrySet()) {
+      var eKey = new Element(entry.getKey());
+      for (var value : entry.getValue()) {
+        var eValue = new Element(VALUE);
+        eValue.setText(value);
+        eKey.addContent(eValue);
+      }
       eLevel.addContent(eKey);
     }
-    return eKey;
+  }
+
+  private static void readValues(Element eKey, Level level) {
+    var values = level.keys.computeIfAbsent(eKey.getName(), k -> new ArrayList<>());
+    for (var eValue : eKey.getChildren(VALUE)) {
+      values.add(eValue.getText());
+    }
   }
 
   /**
-   * Add level element to Squid structure.
-   *
-   * If level already exists only the index and parentList will be updated, otherwise new element will be created and
-   * inserted.
-   *
-   * @param root root element to add new level below
-   * @param level level string
+   * Level of the database: a level directly under root or a File item on Units level.
    */
-  private void addLevelElement(Element root, String level) {
-    var element = findLevel(level, null);
-    if (element == null) {
-      element = new Element(level);
-      root.addContent(element);
+  private static final class Level {
+
+    private final String name;
+    private final LinkedHashMap<String, List<String>> keys = new LinkedHashMap<>();
+    @CheckForNull
+    private Level parent;
+    @CheckForNull
+    private volatile EffectiveValues effective;
+
+    private Level(String name) {
+      this(name, null);
     }
-    index.put(level, element);
-    parentList.addFirst(element);
+
+    private Level(String name, @Nullable Level parent) {
+      this.name = name;
+      this.parent = parent;
+    }
+
   }
 
   /**
-   * Add a value to a key.
-   *
-   * @param key to add the value
-   * @param value to add
+   * Effective values of a level, valid as long as the database is not modified.
    */
-  private static void setValue(Element key, String value) {
-    var eValue = new Element(VALUE);
-    eValue.setText(value);
-    key.addContent(eValue);
+  private static final class EffectiveValues {
+
+    private final long stamp;
+    private final Map<String, List<String>> values = new ConcurrentHashMap<>();
+
+    private EffectiveValues(long stamp) {
+      this.stamp = stamp;
+    }
+
   }
 
 }
@@ -19,29 +19,73 @@
  */
 package org.sonar.cxx.config;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * JsonCompilationDatabase
+ *
+ * The file is read as a token stream, only one command object is in memory at a time. Identical argument vectors are
+ * evaluated only once and the resulting defines and include directories are shared between the entries.
  */
 public class JsonCompilationDatabase {
 
   private static final Logger LOG = LoggerFactory.getLogger(JsonCompilationDatabase.class);
 
+  private static final String GLOBAL_FILE = "__global__";
+
+  // maximum number of argument vectors with cached settings
+  private static final int MAX_CACHED_ARGUMENTS = 1_000;
+
   private final CxxSquidConfiguration squidConfig;
 
+  @Nullable
+  private final Predicate<Path> fileFilter;
+
+  // settings of already evaluated argument vectors (directory + arguments)
+  private final Map<List<String>, Settings> settingsCache = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<String>, Settings> eldest) {
+      return size() > MAX_CACHED_ARGUMENTS;
+    }
+  };
+
+  // shared instances of define and include directory values
+  private final Map<String, String> values = new HashMap<>();
+
   public JsonCompilationDatabase(CxxSquidConfiguration squidConfig) {
+    this(squidConfig, null);
+  }
+
+  /**
+   * Ctor.
+   *
+   * @param squidConfig configuration to set up
+   * @param fileFilter if not null, only command objects for files accepted by the filter are processed (the absolute
+   * and normalized path of the file is passed to the filter). The global settings are always processed.
+   */
+  public JsonCompilationDatabase(CxxSquidConfiguration squidConfig, @Nullable Predicate<Path> fileFilter) {
     this.squidConfig = squidConfig;
+    this.fileFilter = fileFilter;
   }
 
   private static void addMacro(String keyValue, Map<String, String> defines) {
@@ -110,20 +154,52 @@ public class JsonCompilationDatabase {
     mapper.enable(DeserializationFeature.USE_JAVA_ARRAY_FOR_JSON_ARRAY);
     mapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 
-    JsonCompilationDatabaseCommandObject[] commandObjects
-      = mapper.readValue(compileCommandsFile,
-        JsonCompilationDatabaseCommandObject[].class);
-
-    for (var commandObject : commandObjects) {
-      parseCommandObject(commandObject);
+    int total = 0;
+    int processed = 0;
+    try (var parser = mapper.getFactory().createParser(compileCommandsFile)) {
+      var token = parser.nextToken();
+      if (token == JsonToken.START_ARRAY) {
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+          if (token == null) {
+            throw JsonMappingException.from(parser, "Unexpected end-of-input: expected close marker for ARRAY");
+          }
+          expectCommandObject(parser, token);
+          total++;
+          if (parseCommandObject(readCommandObject(mapper, parser))) {
+            processed++;
+          }
+        }
+      } else if (token == null) {
+        throw JsonMappingException.from(parser, "No content to map due to end-of-input");
+      } else {
+        expectCommandObject(parser, token);
+        total++;
+        if (parseCommandObject(readCommandObject(mapper, parser))) {
+          processed++;
+        }
+      }
+    } catch (JsonParseException e) {
+      throw JsonMappingException.from(e.getProcessor(), e.getOriginalMessage(), e);
     }
+
+    LOG.debug("'JSON Compilation Database': {} of {} command objects processed, {} distinct argument vectors",
+      processed, total, settingsCache.size());
+    settingsCache.clear();
+    values.clear();
   }
 
-  private void parseCommandObject(JsonCompilationDatabaseCommandObject commandObject) {
+  private static void expectCommandObject(JsonParser parser, JsonToken token) throws JsonMappingException {
+    if (token != JsonToken.START_OBJECT) {
+      throw JsonMappingException.from(parser, "Unexpected token (" + token + "), expected a command object");
+    }
+  }
 
-    var defines = commandObject.getDefines();
-    var includes = commandObject.getIncludes();
+  private static JsonCompilationDatabaseCommandObject readCommandObject(ObjectMapper mapper, JsonParser parser)
+    throws IOException {
+    return mapper.readValue(parser, JsonCompilationDatabaseCommandObject.class);
+  }
 
+  private boolean parseCommandObject(JsonCompilationDatabaseCommandObject commandObject) {
     Path cwd;
     if (commandObject.getDirectory() != null) {
       cwd = Path.of(commandObject.getDirectory());
@@ -132,14 +208,21 @@ public class JsonCompilationDatabase {
     }
 
     String level;
-    if ("__global__".equals(commandObject.getFile())) {
+    if (GLOBAL_FILE.equals(commandObject.getFile())) {
       level = CxxSquidConfiguration.GLOBAL;
     } else {
-      level = cwd.resolve(commandObject.getFile()).toAbsolutePath().normalize().toString();
+      var path = cwd.resolve(commandObject.getFile()).toAbsolutePath().normalize();
+      if (fileFilter != null && !fileFilter.test(path)) {
+        return false;
+      }
+      level = path.toString();
     }
 
+    Settings settings;
     // No need to parse command lines if we have needed information
-    if (!(commandObject.hasDefines() || commandObject.hasIncludes())) {
+    if (commandObject.hasDefines() || commandObject.hasIncludes()) {
+      settings = createSettings(commandObject.getDefines(), commandObject.getIncludes());
+    } else {
       String[] args;
 
       if (commandObject.hasArguments()) {
@@ -150,72 +233,98 @@ public class JsonCompilationDatabase {
       } else if (commandObject.hasCommand()) {
         args = tokenizeCommandLine(commandObject.getCommand());
       } else {
-        return;
+        return false;
       }
 
-      defines = new HashMap<>();
-      includes = new ArrayList<>();
-      var iSystem = new ArrayList<Path>();
-      var iDirAfter = new ArrayList<Path>();
-      var next = ArgNext.NONE;
-
-      for (var arg : args) {
-        if (arg.startsWith("-D")) {
-          arg = arg.substring(2);
-          next = ArgNext.DEFINE;
-        } else if (arg.startsWith("-I")) {
-          arg = arg.substring(2);
-          next = ArgNext.INCLUDE;
-        } else if (arg.startsWith("-iquote")) {
-          arg = arg.substring(7);
-          next = ArgNext.INCLUDE;
-        } else if (arg.startsWith("-isystem")) {
-          arg = arg.substring(8);
-          next = ArgNext.ISYSTEM;
-        } else if (arg.startsWith("-idirafter")) {
-          arg = arg.substring(10);
-          next = ArgNext.IDIRAFTER;
-        }
+      var key = new ArrayList<String>(args.length + 1);
+      key.add(cwd.toString());
+      key.addAll(Arrays.asList(args));
+      settings = settingsCache.get(key);
+      if (settings == null) {
+        settings = parseArguments(cwd, args);
+        settingsCache.put(key, settings);
+      }
+    }
 
-        if ((next != ArgNext.NONE) && !arg.isEmpty()) {
-          switch (next) {
-            case DEFINE:
-              addMacro(arg, defines);
-              break;
-            case INCLUDE, IQUOTE:
-              includes.add(makeRelativeToCwd(cwd, arg));
-              break;
-            case ISYSTEM:
-              iSystem.add(makeRelativeToCwd(cwd, arg));
-              break;
-            case IDIRAFTER:
-              iDirAfter.add(makeRelativeToCwd(cwd, arg));
-              break;
-            default:
-              break;
-          }
-          next = ArgNext.NONE;
-        }
+    squidConfig.add(level, CxxSquidConfiguration.DEFINES, settings.defines);
+    squidConfig.add(level, CxxSquidConfiguration.INCLUDE_DIRECTORIES, settings.includes);
+    return true;
+  }
+
+  private Settings parseArguments(Path cwd, String[] args) {
+    var defines = new HashMap<String, String>();
+    var includes = new ArrayList<Path>();
+    var iSystem = new ArrayList<Path>();
+    var iDirAfter = new ArrayList<Path>();
+    var next = ArgNext.NONE;
+
+    for (var arg : args) {
+      if (arg.startsWith("-D")) {
+        arg = arg.substring(2);
+        next = ArgNext.DEFINE;
+      } else if (arg.startsWith("-I")) {
+        arg = arg.substring(2);
+        next = ArgNext.INCLUDE;
+      } else if (arg.startsWith("-iquote")) {
+        arg = arg.substring(7);
+        next = ArgNext.INCLUDE;
+      } else if (arg.startsWith("-isystem")) {
+        arg = arg.substring(8);
+        next = ArgNext.ISYSTEM;
+      } else if (arg.startsWith("-idirafter")) {
+        arg = arg.substring(10);
+        next = ArgNext.IDIRAFTER;
       }
 
-      includes.addAll(iSystem);
-      includes.addAll(iDirAfter);
+      if ((next != ArgNext.NONE) && !arg.isEmpty()) {
+        switch (next) {
+          case DEFINE:
+            addMacro(arg, defines);
+            break;
+          case INCLUDE, IQUOTE:
+            includes.add(makeRelativeToCwd(cwd, arg));
+            break;
+          case ISYSTEM:
+            iSystem.add(makeRelativeToCwd(cwd, arg));
+            break;
+          case IDIRAFTER:
+            iDirAfter.add(makeRelativeToCwd(cwd, arg));
+            break;
+          default:
+            break;
+        }
+        next = ArgNext.NONE;
+      }
     }
 
-    addDefines(level, defines);
-    addIncludes(level, includes);
+    includes.addAll(iSystem);
+    includes.addAll(iDirAfter);
+
+    return createSettings(defines, includes);
+  }
+
+  private Settings createSettings(Map<String, String> defines, List<Path> includes) {
+    var defineValues = new ArrayList<String>(defines.size());
+    defines.forEach((String k, String v) -> defineValues.add(value(k + " " + v)));
+    var includeValues = new ArrayList<String>(includes.size());
+    includes.forEach((Path include) -> includeValues.add(value(include.toString())));
+    return new Settings(defineValues, includeValues);
   }
 
-  private void addDefines(String level, Map<String, String> defines) {
-    defines.forEach((String k, String v)
-      -> squidConfig.add(level, CxxSquidConfiguration.DEFINES, k + " " + v)
-    );
+  private String value(String value) {
+    return values.computeIfAbsent(value, v -> v);
   }
 
-  private void addIncludes(String level, List<Path> includes) {
-    includes.forEach((Path include)
-      -> squidConfig.add(level, CxxSquidConfiguration.INCLUDE_DIRECTORIES, include.toString())
-    );
+  private static final class Settings {
+
+    private final List<String> defines;
+    private final List<String> includes;
+
+    private Settings(List<String> defines, List<String> includes) {
+      this.defines = defines;
+      this.includes = includes;
+    }
+
   }
 
   private enum ArgNext {
@@ -22,6 +22,10 @@ package org.sonar.cxx.parser;
 import static com.sonar.cxx.sslr.api.GenericTokenType.EOF;
 import static com.sonar.cxx.sslr.api.GenericTokenType.IDENTIFIER;
 import com.sonar.cxx.sslr.api.Grammar;
+import java.util.HashSet;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import static org.sonar.cxx.parser.CxxTokenType.CHARACTER;
 import static org.sonar.cxx.parser.CxxTokenType.NUMBER;
@@ -363,6 +367,8 @@ public enum CxxGrammarImpl implements GrammarRuleKey {
   // CUDA extension
   cudaKernel;
 
+  private static final Logger LOG = LoggerFactory.getLogger(CxxGrammarImpl.class);
+
   public static Grammar create(CxxSquidConfiguration squidConfig) {
     var b = LexerfulGrammarBuilder.create();
 
@@ -384,7 +390,20 @@ public enum CxxGrammarImpl implements GrammarRuleKey {
 
     b.setRootRule(translationUnit);
 
-    return b.buildWithMemoizationOfMatchesForAllRules();
+    // memoize all rules, unless the rules to memoize are configured (e.g. from the parser profile)
+    var memoizedRules = new HashSet<>(squidConfig.getValues(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES,
+      CxxSquidConfiguration.PARSER_MEMOIZED_RULES));
+    if (memoizedRules.isEmpty()) {
+      return b.buildWithMemoizationOfMatchesForAllRules();
+    }
+    var unknownRules = new TreeSet<>(memoizedRules);
+    for (var rule : values()) {
+      unknownRules.remove(rule.name());
+    }
+    if (!unknownRules.isEmpty()) {
+      LOG.warn("Unknown grammar rules in 'sonar.cxx.parser.memoizedRules' are ignored: {}", unknownRules);
+    }
+    return b.buildWithMemoizationOfMatchesForRules(ruleKey -> memoizedRules.contains(ruleKey.toString()));
   }
 
   private static void misc(LexerfulGrammarBuilder b) {
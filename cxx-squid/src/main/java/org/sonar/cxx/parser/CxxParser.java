@@ -21,25 +21,24 @@ package org.sonar.cxx.parser;
 
 import com.sonar.cxx.sslr.api.Grammar;
 import com.sonar.cxx.sslr.impl.Parser;
-import java.lang.ref.WeakReference;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.preprocessor.CxxPreprocessor;
 import org.sonar.cxx.preprocessor.JoinStringsPreprocessor;
 import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
 import org.sonar.cxx.squidbridge.SquidAstVisitorContextImpl;
 import org.sonar.cxx.squidbridge.api.SourceProject;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 
 public final class CxxParser {
 
-  private static WeakReference<CxxPreprocessor> currentPreprocessorInstance;
+  /**
+   * System property switching on the profiling of the grammar rules, see {@link #isProfiling}.
+   */
+  public static final String PROFILE_PROPERTY = "sonar.cxx.parser.profile";
 
   private CxxParser() {
   }
 
-  public static void finishedParsing() {
-    currentPreprocessorInstance.get().finishedPreprocessing();
-  }
-
   public static Parser<Grammar> create() {
     return create(new SquidAstVisitorContextImpl<>(new SourceProject("", null)),
       new CxxSquidConfiguration());
@@ -50,11 +49,47 @@ public final class CxxParser {
   }
 
   public static Parser<Grammar> create(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig) {
-    var cxxpp = new CxxPreprocessor(context, squidConfig);
-    currentPreprocessorInstance = new WeakReference<>(cxxpp);
-    return Parser.builder(CxxGrammarImpl.create(squidConfig))
+    return create(context, squidConfig, new CxxPreprocessor(context, squidConfig));
+  }
+
+  public static Parser<Grammar> create(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig,
+    CxxPreprocessor cxxpp) {
+    return create(context, squidConfig, cxxpp, new ParseProfile());
+  }
+
+  /**
+   * @param profile collects the statistics of the grammar rules in case profiling is switched on, can be shared by
+   * the parsers of several threads
+   */
+  public static Parser<Grammar> create(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig,
+    CxxPreprocessor cxxpp, ParseProfile profile) {
+    return create(CxxGrammarImpl.create(squidConfig), squidConfig, cxxpp, profile);
+  }
+
+  /**
+   * @param grammar grammar created with {@link CxxGrammarImpl#create}, the parsers of several threads can share it and
+   * its compiled form
+   * @param profile collects the statistics of the grammar rules in case profiling is switched on, can be shared by
+   * the parsers of several threads
+   */
+  public static Parser<Grammar> create(Grammar grammar, CxxSquidConfiguration squidConfig, CxxPreprocessor cxxpp,
+    ParseProfile profile) {
+    var parser = Parser.builder(grammar)
       .withLexer(CxxLexerPool.create(squidConfig.getCharset(), cxxpp, new JoinStringsPreprocessor()).getLexer())
       .build();
+    if (isProfiling(squidConfig)) {
+      parser.setProfile(profile);
+    }
+    return parser;
+  }
+
+  /**
+   * Profiling is switched on with the configuration property {@link CxxSquidConfiguration#PARSER_PROFILE} or the
+   * system property {@link #PROFILE_PROPERTY}.
+   */
+  public static boolean isProfiling(CxxSquidConfiguration squidConfig) {
+    return squidConfig.getBoolean(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_PROFILE)
+      .orElse(Boolean.FALSE) || Boolean.getBoolean(PROFILE_PROPERTY);
   }
 
 }
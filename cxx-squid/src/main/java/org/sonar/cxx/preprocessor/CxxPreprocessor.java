@@ -35,12 +35,16 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.cxx.CxxAnalysisRun;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.parser.CxxKeyword;
 import org.sonar.cxx.parser.CxxLexerPool;
@@ -83,18 +87,21 @@ public class CxxPreprocessor extends Preprocessor {
 
   private static final Logger LOG = LoggerFactory.getLogger(CxxPreprocessor.class);
 
-  private static final String MISSING_INCLUDE_MSG = "Preprocessor: {} include directive error(s). "
-    + "This is only relevant if parser creates syntax errors."
-    + " The preprocessor searches for include files in the with "
-    + "'sonar.cxx.includeDirectories' defined directories and order.";
+  // maximum number of include files with macro state snapshots (per preprocessor instance)
+  private static final int MAX_SNAPSHOT_FILES = 10_000;
 
-  private static int missingFileCounter = 0;
+  // maximum number of interned unit settings (defines, include directories)
+  private static final int MAX_INTERNED_SETTINGS = 10_000;
+
+  private int missingFileCounter = 0;
 
   private final SquidAstVisitorContext<Grammar> context;
   private final CxxSquidConfiguration squidConfig;
+  private final CxxAnalysisRun analysisRun;
 
   private MacroContainer<String, PPMacro> unitMacros = null;
   private MacroContainer<String, PPMacro> globalMacros = null;
+  private Set<Path> globalIncludes = Set.of();
   private List<String> globalIncludeDirectories = null;
 
   private File currentContextFile;
@@ -106,14 +113,34 @@ public class CxxPreprocessor extends Preprocessor {
   private PPInclude include = null;
 
   private final Map<Path, Boolean> fileExists = new HashMap<>();
+  private final PPSnapshotCache snapshots;
+  private final PPInterningCache<String, PPMacro> macroDefinitions;
+  private final PPInterningCache<Map.Entry<String, List<String>>, List<Path>> includeDirs;
 
   public CxxPreprocessor(SquidAstVisitorContext<Grammar> context) {
     this(context, new CxxSquidConfiguration());
   }
 
   public CxxPreprocessor(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig) {
+    this(context, squidConfig, new CxxAnalysisRun());
+  }
+
+  /**
+   * @param context visitor context of the scanner thread
+   * @param squidConfig the Squid configuration
+   * @param analysisRun collects the statistics of the analysis over all preprocessor instances
+   */
+  public CxxPreprocessor(SquidAstVisitorContext<Grammar> context, CxxSquidConfiguration squidConfig,
+    CxxAnalysisRun analysisRun) {
     this.context = context;
     this.squidConfig = squidConfig;
+    this.analysisRun = analysisRun;
+    snapshots = new PPSnapshotCache(MAX_SNAPSHOT_FILES, analysisRun.getSnapshotsReplayed(),
+      analysisRun.getSnapshotsRecorded());
+    macroDefinitions = new PPInterningCache<>(MAX_INTERNED_SETTINGS, analysisRun.getMacroCacheHits(),
+      analysisRun.getMacroCacheMisses());
+    includeDirs = new PPInterningCache<>(MAX_INTERNED_SETTINGS, analysisRun.getIncludeDirsCacheHits(),
+      analysisRun.getIncludeDirsCacheMisses());
     lineParser = PPParser.create(squidConfig.getCharset());
     constantExpression = new PPExpression(this);
 
@@ -152,6 +179,7 @@ public class CxxPreprocessor extends Preprocessor {
         addGlobalIncludeDirectories();
         addGlobalMacros();
         addGlobalForcedIncludes();
+        globalIncludes = Set.copyOf(include.getAnalysedFiles());
         globalMacros = new MacroContainer<>();
         globalMacros.putAll(unitMacros);
 
@@ -213,6 +241,14 @@ public class CxxPreprocessor extends Preprocessor {
     return include;
   }
 
+  IncludeFileCache includeFileCache() {
+    return analysisRun.getIncludeFileCache();
+  }
+
+  PPSnapshotCache snapshots() {
+    return snapshots;
+  }
+
   public PPReplace replace() {
     return replace;
   }
@@ -230,16 +266,37 @@ public class CxxPreprocessor extends Preprocessor {
     return lineAst;
   }
 
-  List<Token> tokenizeMacro(PPMacro macro, String macroExpression) {
+  List<Token> expandMacro(PPMacro macro, List<Token> tokens) {
     // C++ standard 16.3.4/2 Macro Replacement - Rescanning and further replacement
-    List<Token> tokens = null;
+    List<Token> result = null;
     unitMacros.pushDisable(macro.identifier);
     try {
-      tokens = tokenize(macroExpression);
+      result = expand(tokens);
     } finally {
       unitMacros.popDisable();
     }
-    return tokens;
+    return result;
+  }
+
+  /**
+   * Rescan a list of CXX tokens and expand all macros in there (same as lexing the tokens with this preprocessor, but
+   * without creating and lexing a string).
+   */
+  List<Token> expand(List<Token> tokens) {
+    var result = new ArrayList<Token>(tokens.size());
+    int i = 0;
+    while (i < tokens.size()) {
+      var action = process(tokens.subList(i, tokens.size()));
+      result.addAll(action.getTokensToInject());
+      int consumedTokens = action.getNumberOfConsumedTokens();
+      if (consumedTokens == 0) {
+        result.add(tokens.get(i));
+        i++;
+      } else {
+        i += consumedTokens;
+      }
+    }
+    return result;
   }
 
   List<Token> tokenize(String expression) {
@@ -258,9 +315,30 @@ public class CxxPreprocessor extends Preprocessor {
 
   @CheckForNull
   PPMacro getMacro(String macroName) {
+    var macro = unitMacros.get(macroName);
+    snapshots.read(macroName, macro);
+    return macro;
+  }
+
+  /**
+   * Macro lookup without recording it in the macro state snapshots (see PPSnapshotCache).
+   */
+  @CheckForNull
+  PPMacro peekMacro(String macroName) {
     return unitMacros.get(macroName);
   }
 
+  /**
+   * Define (macro != null) or undefine (macro == null) a macro while replaying a macro state snapshot.
+   */
+  void replayMacro(String macroName, @Nullable PPMacro macro) {
+    if (macro != null) {
+      unitMacros.put(macroName, macro);
+    } else {
+      unitMacros.remove(macroName);
+    }
+  }
+
   @SuppressWarnings({"java:S1541", "java:S1142"})
   private PreprocessorAction handlePreprocessorDirective(Token token) {
     AstNode lineAst = lineParser(token.getValue());
@@ -298,18 +376,16 @@ public class CxxPreprocessor extends Preprocessor {
     }
   }
 
-  public static void finalReport() {
-    if (missingFileCounter != 0) {
-      LOG.warn(MISSING_INCLUDE_MSG, missingFileCounter);
-    }
-  }
-
-  public static void resetReport() {
-    missingFileCounter = 0;
+  /**
+   * Number of include directive errors of the units processed by this preprocessor instance.
+   */
+  public int getMissingFilesCounter() {
+    return missingFileCounter;
   }
 
-  private static void addMissingFiles(int number) {
+  private void addMissingFiles(int number) {
     missingFileCounter += number;
+    analysisRun.getMissingIncludeFiles().add(number);
   }
 
   private static String getIdentifierName(AstNode node) {
@@ -318,18 +394,43 @@ public class CxxPreprocessor extends Preprocessor {
       .orElse("");
   }
 
+  /**
+   * Include files of the current unit, directly or indirectly. This contains the global forced includes, which are
+   * processed only once for all units.
+   *
+   * @return files included by the current unit
+   */
+  public Set<Path> getIncludedFiles() {
+    var result = new HashSet<Path>(globalIncludes);
+    if (include != null) {
+      result.addAll(include.getAnalysedFiles());
+    }
+    return result;
+  }
+
   public void finishedPreprocessing() {
     // From 16.3.5 "Scope of macro definitions":
     // A macro definition lasts (independent of block structure) until a corresponding #undef directive is encountered
     // or (if none is encountered) until the end of the translation unit.
 
-    addMissingFiles(include.getMissingFilesCounter());
+    if (include != null) {
+      addMissingFiles(include.getMissingFilesCounter());
+    }
 
     unitMacros = null;
     include = null;
     currentContextFile = null;
   }
 
+  /**
+   * Resolve include directories to real paths. The same lists of include directories are typically used by many units,
+   * the result is therefore interned.
+   */
+  List<Path> resolveIncludeDirs(List<String> dirs, String baseDir) {
+    return includeDirs.get(Map.entry(String.valueOf(baseDir), List.copyOf(dirs)),
+      key -> List.copyOf(PPInclude.resolveIncludeDirs(key.getValue(), baseDir)));
+  }
+
   /**
    * Tests whether a file exists.
    *
@@ -344,6 +445,11 @@ public class CxxPreprocessor extends Preprocessor {
   }
 
   private void addPredefinedMacros() {
+    // several preprocessor instances can share one configuration (e.g. parallel scanning): add them only once
+    var predefined = squidConfig.getLevelValues(CxxSquidConfiguration.PREDEFINED_MACROS, CxxSquidConfiguration.DEFINES);
+    if (!predefined.isEmpty()) {
+      return;
+    }
     for (var macro : PPPredefinedMacros.predefinedMacroValues()) {
       squidConfig.add(CxxSquidConfiguration.PREDEFINED_MACROS, CxxSquidConfiguration.DEFINES, macro);
     }
@@ -425,7 +531,7 @@ public class CxxPreprocessor extends Preprocessor {
   private void parseMacroDefinitions(List<String> defines, MacroContainer<String, PPMacro> result) {
     for (var define : defines) {
       if (!define.isBlank()) {
-        PPMacro macro = parseMacroDefinition("#define " + define);
+        PPMacro macro = macroDefinitions.get(define, d -> parseMacroDefinition("#define " + d));
         if (macro != null) {
           result.put(macro.identifier, macro);
         }
@@ -544,6 +650,7 @@ public class CxxPreprocessor extends Preprocessor {
       // Here we have a define directive. Parse it and store the macro in a dictionary.
       PPMacro macro = PPMacro.create(ast);
       unitMacros.put(macro.identifier, macro);
+      snapshots.write(macro.identifier, macro);
     }
 
     return oneConsumedToken(token);
@@ -553,6 +660,7 @@ public class CxxPreprocessor extends Preprocessor {
     if (!include().state().skipTokens()) {
       String macroName = ast.getFirstDescendant(GenericTokenType.IDENTIFIER).getTokenValue();
       unitMacros.remove(macroName);
+      snapshots.write(macroName, null);
     }
     return oneConsumedToken(token);
   }
@@ -610,9 +718,7 @@ public class CxxPreprocessor extends Preprocessor {
       }
     } else {
       consumedTokens = 1;
-      result = replace.replaceObjectLikeMacro(
-        macro, TokenUtils.merge(PPConcatenation.concatenate(macro.replacementList))
-      );
+      result = replace.replaceObjectLikeMacro(macro, PPConcatenation.concatenate(macro.replacementList));
     }
 
     if (consumedTokens > 0) {
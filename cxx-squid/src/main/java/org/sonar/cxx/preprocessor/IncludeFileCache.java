@@ -0,0 +1,160 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import com.sonar.cxx.sslr.api.Token;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.CheckForNull;
+
+/**
+ * Analysis-wide cache of the pre-lexed preprocessor directives of include files.
+ *
+ * Include files are only scanned to gather macros, so the token stream of a header (the directives it contains) does
+ * not depend on the translation unit including it. The cache stores this token stream per path, charset and
+ * modification time, so that a header is read and lexed only once per analysis and not once per translation unit.
+ *
+ * The number of cached files is bounded, the least recently used file is removed first. The cache belongs to the
+ * {@link org.sonar.cxx.CxxAnalysisRun} and is used by the preprocessor instances of all threads at the same time.
+ */
+public final class IncludeFileCache {
+
+  /**
+   * Reads and lexes an include file in case it is not in the cache.
+   */
+  @FunctionalInterface
+  interface Loader {
+
+    List<Token> load(Path file, Charset charset) throws IOException;
+  }
+
+  private final Map<Key, List<Token>> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public IncludeFileCache(int maxEntries) {
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, List<Token>> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the token stream of an include file, from the cache or from the loader.
+   *
+   * @param file include file
+   * @param charset character set to use if file has no BOM
+   * @param loader reads and lexes the file in case of a cache miss
+   * @return unmodifiable token stream of the include file
+   * @throws IOException file cannot be read
+   */
+  List<Token> get(Path file, Charset charset, Loader loader) throws IOException {
+    FileTime lastModified;
+    try {
+      lastModified = Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      // no file system attributes available: do not cache
+      misses.increment();
+      return loader.load(file, charset);
+    }
+
+    var key = new Key(file, charset, lastModified);
+    var tokens = lookup(key);
+    if (tokens != null) {
+      hits.increment();
+      return tokens;
+    }
+
+    // lexing is done outside of the lock: in the worst case two threads lex the same file at the same time
+    misses.increment();
+    tokens = List.copyOf(loader.load(file, charset));
+    store(key, tokens);
+    return tokens;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    hits.reset();
+    misses.reset();
+  }
+
+  @CheckForNull
+  private synchronized List<Token> lookup(Key key) {
+    return entries.get(key);
+  }
+
+  private synchronized void store(Key key, List<Token> tokens) {
+    entries.put(key, tokens);
+  }
+
+  private static final class Key {
+
+    private final Path file;
+    private final Charset charset;
+    private final FileTime lastModified;
+
+    private Key(Path file, Charset charset, FileTime lastModified) {
+      this.file = file;
+      this.charset = charset;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      var other = (Key) obj;
+      return file.equals(other.file) && charset.equals(other.charset) && lastModified.equals(other.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(file, charset, lastModified);
+    }
+
+  }
+
+}
@@ -63,12 +63,9 @@ final class PPConcatenation {
 
         var leftToken = tokens.get(leftPos);
         var rightToken = tokens.get(rightPos);
-        var concatenated = PPGeneratedToken.build( // a ## b ==> ab
-          leftToken, leftToken.getType(), leftToken.getValue() + rightToken.getValue()
-        );
 
         result.addAll(left);
-        result.add(concatenated);
+        result.addAll(TokenList.paste(leftToken, rightToken)); // a ## b ==> ab
         result.addAll(right);
 
         firstIndex = result.size() - right.size();
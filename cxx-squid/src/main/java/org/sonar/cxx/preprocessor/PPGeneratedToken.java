@@ -22,12 +22,15 @@ package org.sonar.cxx.preprocessor;
 import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.api.TokenType;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 
 final class PPGeneratedToken {
 
+  // one URI instance shared by all generated tokens
+  @SuppressWarnings("java:S1075")
+  private static final URI GENERATED_URI = URI.create("tests://unittest");
+
   private PPGeneratedToken() {
 
   }
@@ -75,20 +78,15 @@ final class PPGeneratedToken {
   /**
    * Create new token and mark it "generated".
    */
-  @SuppressWarnings({"java:S1075", "java:S112"})
   static Token build(TokenType type, String valueAndOriginalValue, int line, int column) {
-    try {
-      return Token.builder()
-        .setLine(line)
-        .setColumn(column)
-        .setValueAndOriginalValue(valueAndOriginalValue)
-        .setType(type)
-        .setURI(new URI("tests://unittest"))
-        .setGeneratedCode(true)
-        .build();
-    } catch (URISyntaxException e) {
-      throw new RuntimeException(e);
-    }
+    return Token.builder()
+      .setLine(line)
+      .setColumn(column)
+      .setValueAndOriginalValue(valueAndOriginalValue)
+      .setType(type)
+      .setURI(GENERATED_URI)
+      .setGeneratedCode(true)
+      .build();
   }
 
   /**
@@ -61,7 +61,7 @@ public class PPInclude {
 
   public PPInclude(CxxPreprocessor pp, @Nonnull Path contextFile) {
     this.pp = pp;
-    fileLexer = IncludeFileLexer.create(pp);
+    fileLexer = IncludeFileLexer.create();
     state = PPState.build(contextFile);
   }
 
@@ -78,6 +78,22 @@ public class PPInclude {
    * @param baseDir in case directories are relative, they are made absolute to baseDir
    */
   public void setStandardIncludeDirs(List<String> includeDirs, String baseDir) {
+    for (var path : pp.resolveIncludeDirs(includeDirs, baseDir)) {
+      if (!standardIncludeDirs.contains(path)) {
+        standardIncludeDirs.add(path);
+      }
+    }
+  }
+
+  /**
+   * Resolve include directories to real paths.
+   *
+   * @param includeDirs include directories
+   * @param baseDir in case directories are relative, they are made absolute to baseDir
+   * @return existing directories (real paths, without duplicates)
+   */
+  static List<Path> resolveIncludeDirs(List<String> includeDirs, String baseDir) {
+    var result = new ArrayList<Path>(includeDirs.size());
     for (var dir : includeDirs) {
       var path = Path.of(dir);
       try {
@@ -87,8 +103,8 @@ public class PPInclude {
         path = path.toRealPath(); // IOException if the path does not exist
 
         if (Files.isDirectory(path)) {
-          if (!standardIncludeDirs.contains(path)) {
-            standardIncludeDirs.add(path);
+          if (!result.contains(path)) {
+            result.add(path);
           }
         } else {
           LOG.warn("preprocessor: invalid include file directory '{}'", path);
@@ -97,6 +113,7 @@ public class PPInclude {
         LOG.error(LOGMSG, e.getMessage(), path, e);
       }
     }
+    return result;
   }
 
   public List<Path> getStandardIncludeDirs() {
@@ -114,19 +131,108 @@ public class PPInclude {
     Path fileName = searchFile(ast);
     if (fileName == null) {
       missingFileCounter++;
+      pp.snapshots().missingFile();
       String rootFilePath = state().getFileUnderAnalysisPath();
       LOG.debug("[{}:{}]: preprocessor cannot find include file '{}'",
         rootFilePath, token.getLine(), token.getValue());
     } else if (analysedFiles.add(fileName)) {
+      pp.snapshots().include(fileName, false);
       state().pushFileState(fileName);
       try {
         LOG.debug("process include file '{}'", fileName);
-        fileLexer.lex(getSourceCode(fileName, pp.getCharset()));
+        processFile(fileName, pp.includeFileCache().get(fileName, pp.getCharset(), this::lex));
       } catch (IOException e) {
         LOG.error(LOGMSG, e.getMessage(), fileName, e);
       } finally {
         state().popFileState();
       }
+    } else {
+      pp.snapshots().include(fileName, true);
+    }
+  }
+
+  /**
+   * Process the token stream of an include file: replay a matching macro state snapshot or preprocess the tokens and
+   * record a new snapshot.
+   */
+  private void processFile(Path fileName, List<Token> tokens) {
+    var snapshots = pp.snapshots();
+    var includers = getIncluders();
+    for (var snapshot : snapshots.get(fileName)) {
+      if (snapshot.isRecordedFor(tokens, standardIncludeDirs, includers) && isValid(snapshot)) {
+        LOG.debug("replay macro state snapshot of include file '{}'", fileName);
+        replay(snapshot);
+        return;
+      }
+    }
+
+    var snapshot = snapshots.startRecording(tokens, standardIncludeDirs, includers);
+    var complete = false;
+    try {
+      preprocess(tokens);
+      complete = true;
+    } finally {
+      snapshots.stopRecording(fileName, snapshot, complete);
+    }
+  }
+
+  /**
+   * A snapshot is valid if all macros tested by the include file and the state of all nested include files are the
+   * same as at the time of recording.
+   */
+  private boolean isValid(PPSnapshotCache.Snapshot snapshot) {
+    for (var read : snapshot.getReads().entrySet()) {
+      if (!PPMacro.isSameDefinition(pp.peekMacro(read.getKey()), read.getValue())) {
+        return false;
+      }
+    }
+    for (var include : snapshot.getIncludes().entrySet()) {
+      if (analysedFiles.contains(include.getKey()) != include.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void replay(PPSnapshotCache.Snapshot snapshot) {
+    snapshot.getWrites().forEach(pp::replayMacro);
+    analysedFiles.addAll(snapshot.getIncludes().keySet());
+    missingFileCounter += snapshot.getMissingFiles();
+    pp.snapshots().replayed(snapshot);
+  }
+
+  /**
+   * Files of the include stack without the context file: the search for quoted include files depends on them.
+   */
+  private List<Path> getIncluders() {
+    var includers = new ArrayList<Path>();
+    var contextFile = state().getContextFile();
+    for (var item : state().getStack()) {
+      if (!item.getFile().equals(contextFile)) {
+        includers.add(item.getFile());
+      }
+    }
+    return includers;
+  }
+
+  /**
+   * Lexes an include file: the resulting token stream contains the preprocessor directives of the file only. The token
+   * stream is independent of the current translation unit and can therefore be cached.
+   */
+  private List<Token> lex(Path fileName, Charset charset) throws IOException {
+    return fileLexer.lex(getSourceCode(fileName, charset));
+  }
+
+  /**
+   * Feeds the (cached) token stream of an include file to the preprocessor. Equivalent to the lexer calling back the
+   * preprocessor, the resulting tokens are not needed, only the side effects (macros).
+   */
+  private void preprocess(List<Token> tokens) {
+    pp.init();
+    int i = 0;
+    while (i < tokens.size()) {
+      var action = pp.process(tokens.subList(i, tokens.size()));
+      i += Math.max(1, action.getNumberOfConsumedTokens());
     }
   }
 
@@ -240,6 +346,13 @@ public class PPInclude {
     return missingFileCounter;
   }
 
+  /**
+   * Include files processed for the current unit, directly or indirectly.
+   */
+  public Set<Path> getAnalysedFiles() {
+    return Collections.unmodifiableSet(analysedFiles);
+  }
+
   /**
    * (1) Search bracketed filename.
    *
@@ -0,0 +1,73 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+
+/**
+ * Interns results which depend only on their key (e.g. a macro definition string and the resulting macro), so they are
+ * created only once and not once per translation unit.
+ *
+ * An instance is used by one preprocessor instance (thread) only. The statistics counters can be shared by several
+ * instances to aggregate them over the analysis. The number of entries is bounded: if the limit is reached, the cache is
+ * cleared.
+ */
+final class PPInterningCache<K, V> {
+
+  private final int maxEntries;
+  private final Map<K, V> entries = new HashMap<>();
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  PPInterningCache(int maxEntries, LongAdder hits, LongAdder misses) {
+    this.maxEntries = maxEntries;
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  /**
+   * Returns the value for a key. In case the key is not in the cache, the value is created with the loader (null values
+   * are cached too).
+   */
+  @CheckForNull
+  V get(K key, Function<K, V> loader) {
+    if (entries.containsKey(key)) {
+      hits.increment();
+      return entries.get(key);
+    }
+
+    misses.increment();
+    var value = loader.apply(key);
+    if (entries.size() >= maxEntries) {
+      entries.clear();
+    }
+    entries.put(key, value);
+    return value;
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+}
@@ -146,6 +146,39 @@ final class PPMacro {
     return -1;
   }
 
+  /**
+   * Tests if two macros have the same definition (identifier, parameters and replacement list).
+   */
+  static boolean isSameDefinition(@Nullable PPMacro a, @Nullable PPMacro b) {
+    if (a == b) {
+      return true;
+    }
+    if (a == null || b == null) {
+      return false;
+    }
+    return a.identifier.equals(b.identifier)
+             && a.isVariadic == b.isVariadic
+             && isSameTokens(a.parameterList, b.parameterList)
+             && isSameTokens(a.replacementList, b.replacementList);
+  }
+
+  private static boolean isSameTokens(@Nullable List<Token> a, @Nullable List<Token> b) {
+    if (a == null || b == null) {
+      return a == b;
+    }
+    if (a.size() != b.size()) {
+      return false;
+    }
+    for (int i = 0; i < a.size(); i++) {
+      var t1 = a.get(i);
+      var t2 = b.get(i);
+      if (!t1.getValue().equals(t2.getValue()) || !t1.getType().equals(t2.getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public String toString() {
     StringBuilder ab = new StringBuilder(64);
@@ -26,6 +26,7 @@ import com.sonar.cxx.sslr.impl.token.TokenUtils;
 import java.util.ArrayList;
 import java.util.List;
 import org.sonar.cxx.parser.CxxKeyword;
+import org.sonar.cxx.parser.CxxPunctuator;
 import org.sonar.cxx.parser.CxxTokenType;
 
 /**
@@ -45,9 +46,12 @@ class PPReplace {
    *
    * Object-like macros replace every occurrence of defined identifier with replacement-list. Version (1) of the #define
    * directive behaves exactly like that.
+   *
+   * The expansion is done on the token list: the tokens are mapped to CXX tokens and rescanned for further macros
+   * (without re-lexing a merged string).
    */
-  List<Token> replaceObjectLikeMacro(PPMacro macro, String macroExpression) {
-    List<Token> tokens = pp.tokenizeMacro(macro, macroExpression);
+  List<Token> replaceObjectLikeMacro(PPMacro macro, List<Token> replacementList) {
+    List<Token> tokens = pp.expandMacro(macro, TokenList.transformToCxx(replacementList));
 
     // make sure that all expanded Tokens are marked as generated it will prevent
     // them from being involved into NCLOC / complexity / highlighting
@@ -61,26 +65,27 @@ class PPReplace {
    * number of arguments, which then replace corresponding occurrences of any of the parameters in the replacement-list.
    */
   int replaceFunctionLikeMacro(PPMacro macro, List<Token> restTokens, List<Token> expansion) {
-    List<Token> arguments = new ArrayList<>();
+    List<List<Token>> arguments = new ArrayList<>();
     int tokensConsumedMatchingArgs = extractArguments(restTokens, arguments);
 
     if (macro.checkArgumentsCount(arguments.size())) {
       if (arguments.size() > macro.parameterList.size()) {
         // group all arguments into the last one (__VA_ARGS__)
-        List<Token> vaargs = arguments.subList(macro.parameterList.size() - 1, arguments.size());
-        var firstToken = vaargs.get(0);
-        arguments = arguments.subList(0, macro.parameterList.size() - 1);
-        arguments.add(Token.builder()
-          .setLine(firstToken.getLine())
-          .setColumn(firstToken.getColumn())
-          .setURI(firstToken.getURI())
-          .setValueAndOriginalValue(TokenUtils.merge(vaargs, ","))
-          .setType(CxxTokenType.STRING)
-          .build());
+        int first = macro.parameterList.size() - 1;
+        var vaargs = new ArrayList<Token>();
+        for (int i = first; i < arguments.size(); i++) {
+          var argument = arguments.get(i);
+          if (i > first) {
+            vaargs.add(PPGeneratedToken.build(argument.get(0), CxxPunctuator.COMMA, ","));
+          }
+          vaargs.addAll(argument);
+        }
+        arguments = new ArrayList<>(arguments.subList(0, first));
+        arguments.add(vaargs);
       }
       List<Token> replTokens = replaceParams(macro, arguments);
       replTokens = PPConcatenation.concatenate(replTokens);
-      expansion.addAll(replaceObjectLikeMacro(macro, TokenUtils.merge(replTokens)));
+      expansion.addAll(replaceObjectLikeMacro(macro, replTokens));
     }
 
     return tokensConsumedMatchingArgs;
@@ -93,7 +98,7 @@ class PPReplace {
    * left and right parentheses.
    */
   @SuppressWarnings({"java:S3776", "java:S1541"})
-  private static int extractArguments(List<Token> tokens, List<Token> arguments) {
+  private static int extractArguments(List<Token> tokens, List<List<Token>> arguments) {
     // argument list must start with '('
     int size = tokens.size();
     if ((size < 1) || !"(".equals(tokens.get(0).getValue())) {
@@ -126,16 +131,7 @@ class PPReplace {
       // add argument to list
       if (addArgument) {
         if ((i - fromIndex) > 1) {
-          var matchedTokens = tokens.subList(fromIndex + 1, i);
-          var firstToken = matchedTokens.get(0);
-
-          arguments.add(Token.builder()
-            .setLine(firstToken.getLine())
-            .setColumn(firstToken.getColumn())
-            .setURI(firstToken.getURI())
-            .setValueAndOriginalValue(TokenUtils.merge(matchedTokens).trim()) // trim because of SONARPLUGINS-3060 issue
-            .setType(CxxTokenType.STRING)
-            .build());
+          arguments.add(new ArrayList<>(tokens.subList(fromIndex + 1, i)));
         }
         // end of parameter list: closing ')'
         if (nestingLevel < 0) {
@@ -150,15 +146,15 @@ class PPReplace {
     return 0;
   }
 
-  private String expand(String expression) {
-    return TokenUtils.merge(pp.tokenize(expression));
+  private List<Token> expand(List<Token> argument) {
+    return pp.expand(TokenList.transformToCxx(argument));
   }
 
   /**
    * Taking a number of arguments, which then replace corresponding occurrences of any of the parameters in the
    * replacement-list.
    */
-  private List<Token> replaceParams(PPMacro macro, List<Token> arguments) {
+  private List<Token> replaceParams(PPMacro macro, List<List<Token>> arguments) {
     var result = new ArrayList<Token>(macro.replacementList.size());
     handleOperators(macro.replacementList, macro.getParameterNames(), arguments, result);
     return result;
@@ -175,7 +171,7 @@ class PPReplace {
    *
    */
   @SuppressWarnings({"java:S3776"})
-  private void handleOperators(List<Token> replacementList, List<String> parameters, List<Token> arguments,
+  private void handleOperators(List<Token> replacementList, List<String> parameters, List<List<Token>> arguments,
     List<Token> result) {
 
     int tokensConsumed = 0;
@@ -186,8 +182,7 @@ class PPReplace {
       var token = view.get(0);
       var i = 0;
 
-      Token argument = token;
-      String newValue = "";
+      List<Token> expanded = List.of();
 
       int parameterIndex = getParameterIndex(token, parameters);
       if (parameterIndex == -1) {
@@ -202,19 +197,19 @@ class PPReplace {
         //
         // token to be replaced by a macro argument
         //
-        argument = arguments.get(parameterIndex);
+        var argument = arguments.get(parameterIndex);
 
         if (((i = handleConcatenation(view, parameters, arguments, result)) <= 0)
           && (tokensConsumed < 1 || !handleStringification(
             replacementList.subList(tokensConsumed - 1, replacementList.size()), argument, result))) {
-          newValue = expand(argument.getValue());
+          expanded = expand(argument);
         }
       }
 
-      if (newValue.isEmpty()) {
+      if (expanded.isEmpty()) {
         handleEmptyVaArgs(view, result);
       } else {
-        result.add(PPGeneratedToken.build(argument, argument.getType(), newValue));
+        result.addAll(expanded);
       }
 
       tokensConsumed += (i + 1);
@@ -234,14 +229,13 @@ class PPReplace {
     return parameterIndex;
   }
 
-  private static Token getReplacementToken(Token token, List<String> parameters, List<Token> arguments) {
+  private static List<Token> getReplacementTokens(Token token, List<String> parameters, List<List<Token>> arguments) {
     int parameterIndex = getParameterIndex(token, parameters);
     if (parameterIndex != -1 && parameterIndex < arguments.size()) {
-      var argument = arguments.get(parameterIndex);
-      return PPGeneratedToken.build(argument, argument.getType(), argument.getValue());
+      return arguments.get(parameterIndex);
     }
 
-    return token;
+    return List.of(token);
   }
 
   /**
@@ -253,8 +247,8 @@ class PPReplace {
    *
    * Special cases: (1) A ## ## B == A ## B (2) A ## B ## C ...
    */
-  private static int handleConcatenation(List<Token> replacementList, List<String> parameters, List<Token> arguments,
-    List<Token> result) {
+  private static int handleConcatenation(List<Token> replacementList, List<String> parameters,
+    List<List<Token>> arguments, List<Token> result) {
 
     int tokensConsumed = 0;
 
@@ -262,7 +256,7 @@ class PPReplace {
       && isIdentifier(replacementList.get(tokensConsumed).getType())
       && PPPunctuator.HASHHASH.equals(replacementList.get(tokensConsumed + 1).getType())) {
       if (tokensConsumed == 0) {
-        result.add(getReplacementToken(replacementList.get(0), parameters, arguments)); // A
+        result.addAll(getReplacementTokens(replacementList.get(0), parameters, arguments)); // A
       }
       tokensConsumed++;
       result.add(replacementList.get(tokensConsumed)); // ##
@@ -272,7 +266,7 @@ class PPReplace {
         && PPPunctuator.HASHHASH.equals(replacementList.get(tokensConsumed).getType())) {
         tokensConsumed++;  // handle special case A ## ## ... B
       }
-      result.add(getReplacementToken(replacementList.get(tokensConsumed), parameters, arguments)); // B, C, ...
+      result.addAll(getReplacementTokens(replacementList.get(tokensConsumed), parameters, arguments)); // B, C, ...
     }
 
     return tokensConsumed;
@@ -282,11 +276,12 @@ class PPReplace {
    * In function-like macros, a # operator before an identifier in the argument-list runs the identifier through
    * parameter argument and encloses the result in quotes, effectively creating a string literal.
    */
-  private static boolean handleStringification(List<Token> replacementList, Token argument, List<Token> result) {
+  private static boolean handleStringification(List<Token> replacementList, List<Token> argument,
+    List<Token> result) {
     if (PPPunctuator.HASH.equals(replacementList.get(0).getType())) {
       result.set(result.size() - 1,
-        PPGeneratedToken.build(argument, argument.getType(),
-          PPStringification.stringify(argument.getValue()))
+        PPGeneratedToken.build(argument.get(0), CxxTokenType.STRING,
+          PPStringification.stringify(TokenUtils.merge(argument).trim())) // trim because of SONARPLUGINS-3060 issue
       );
       return true;
     }
@@ -341,7 +336,7 @@ class PPReplace {
    * </code>
    */
   @SuppressWarnings({"java:S3776", "java:S1142"})
-  private int handleVaOpt(List<Token> replacementList, List<String> parameters, List<Token> arguments,
+  private int handleVaOpt(List<Token> replacementList, List<String> parameters, List<List<Token>> arguments,
     List<Token> result) {
     var firstIndex = -1;
     var lastIndex = -1;
@@ -0,0 +1,213 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import com.sonar.cxx.sslr.api.Token;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+/**
+ * Macro state snapshots of include files (similar to precompiled headers).
+ *
+ * The effect of an include file on the macro state depends only on the state at entry. While an include file is
+ * processed, the cache records the macros it tested (reads before any own define/undef), the nested include files and
+ * the resulting macro delta (defines/undefs). If the same include file is entered again with an identical relevant
+ * state, the delta is replayed instead of preprocessing the file again. Typical candidates are headers with include
+ * guards, which are included by most translation units.
+ *
+ * An instance is used by one preprocessor instance (thread) only; the snapshots are kept over all units of the
+ * analysis.
+ */
+final class PPSnapshotCache {
+
+  private static final int MAX_SNAPSHOTS_PER_FILE = 4;
+
+  private final Map<Path, Deque<Snapshot>> snapshots;
+  private final Deque<Snapshot> recordings = new ArrayDeque<>();
+  private final LongAdder replayed;
+  private final LongAdder recorded;
+
+  PPSnapshotCache(int maxFiles, LongAdder replayed, LongAdder recorded) {
+    this.replayed = replayed;
+    this.recorded = recorded;
+    snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Path, Deque<Snapshot>> eldest) {
+        return size() > maxFiles;
+      }
+    };
+  }
+
+  /**
+   * Snapshots of an include file, most recently recorded first.
+   */
+  List<Snapshot> get(Path file) {
+    var result = snapshots.get(file);
+    return result != null ? List.copyOf(result) : Collections.emptyList();
+  }
+
+  /**
+   * Start recording the effects of an include file. Recordings can be nested (nested include files): all effects are
+   * recorded in all active recordings.
+   *
+   * @param tokens (cached) token stream of the include file
+   * @param includeDirs standard include directories used to search nested include files
+   * @param includers include file and files including it (used to search nested quoted include files)
+   * @return new recording
+   */
+  Snapshot startRecording(List<Token> tokens, List<Path> includeDirs, List<Path> includers) {
+    var snapshot = new Snapshot(tokens, includeDirs, includers);
+    recordings.push(snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Stop the last started recording.
+   *
+   * @param file include file
+   * @param snapshot recording returned by startRecording
+   * @param complete false if the include file was not completely processed (recording is dropped)
+   */
+  void stopRecording(Path file, Snapshot snapshot, boolean complete) {
+    recordings.remove(snapshot);
+    if (complete) {
+      var list = snapshots.computeIfAbsent(file, k -> new ArrayDeque<>());
+      list.addFirst(snapshot);
+      if (list.size() > MAX_SNAPSHOTS_PER_FILE) {
+        list.removeLast();
+      }
+      recorded.increment();
+    }
+  }
+
+  /**
+   * A snapshot was replayed: add its effects to all active recordings.
+   */
+  void replayed(Snapshot snapshot) {
+    replayed.increment();
+    if (!recordings.isEmpty()) {
+      snapshot.reads.forEach(this::read);
+      snapshot.writes.forEach(this::write);
+      snapshot.includes.forEach(this::include);
+      for (int i = 0; i < snapshot.missingFiles; i++) {
+        missingFile();
+      }
+    }
+  }
+
+  /**
+   * Macro was looked up.
+   */
+  void read(String name, @Nullable PPMacro macro) {
+    for (var recording : recordings) {
+      if (!recording.writes.containsKey(name) && !recording.reads.containsKey(name)) {
+        recording.reads.put(name, macro);
+      }
+    }
+  }
+
+  /**
+   * Macro was defined (macro != null) or undefined (macro == null).
+   */
+  void write(String name, @Nullable PPMacro macro) {
+    for (var recording : recordings) {
+      recording.writes.put(name, macro);
+    }
+  }
+
+  /**
+   * Nested include file was found.
+   *
+   * @param file found include file
+   * @param alreadyAnalysed include file was already processed in the current unit (and is skipped)
+   */
+  void include(Path file, boolean alreadyAnalysed) {
+    for (var recording : recordings) {
+      recording.includes.putIfAbsent(file, alreadyAnalysed);
+    }
+  }
+
+  /**
+   * Nested include file was not found.
+   */
+  void missingFile() {
+    for (var recording : recordings) {
+      recording.missingFiles++;
+    }
+  }
+
+  static final class Snapshot {
+
+    private final List<Token> tokens;
+    private final List<Path> includeDirs;
+    private final List<Path> includers;
+    private final Map<String, PPMacro> reads = new HashMap<>();
+    private final Map<String, PPMacro> writes = new LinkedHashMap<>();
+    private final Map<Path, Boolean> includes = new LinkedHashMap<>();
+    private int missingFiles = 0;
+
+    private Snapshot(List<Token> tokens, List<Path> includeDirs, List<Path> includers) {
+      this.tokens = tokens;
+      this.includeDirs = List.copyOf(includeDirs);
+      this.includers = List.copyOf(includers);
+    }
+
+    /**
+     * Tests if the snapshot was recorded for the same file content and search environment.
+     */
+    boolean isRecordedFor(List<Token> tokens, List<Path> includeDirs, List<Path> includers) {
+      return this.tokens == tokens && this.includeDirs.equals(includeDirs) && this.includers.equals(includers);
+    }
+
+    /**
+     * Macros tested by the include file before changing them, with their state at entry (null: not defined).
+     */
+    Map<String, PPMacro> getReads() {
+      return Collections.unmodifiableMap(reads);
+    }
+
+    /**
+     * Resulting macro delta of the include file (null: undefined).
+     */
+    Map<String, PPMacro> getWrites() {
+      return Collections.unmodifiableMap(writes);
+    }
+
+    /**
+     * Nested include files and if they were already processed at entry.
+     */
+    Map<Path, Boolean> getIncludes() {
+      return Collections.unmodifiableMap(includes);
+    }
+
+    int getMissingFiles() {
+      return missingFiles;
+    }
+  }
+
+}
@@ -19,15 +19,27 @@
  */
 package org.sonar.cxx.preprocessor;
 
+import com.sonar.cxx.sslr.api.GenericTokenType;
 import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
 import com.sonar.cxx.sslr.impl.Lexer;
+import com.sonar.cxx.sslr.impl.token.TokenUtils;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.sonar.cxx.parser.CxxKeyword;
 import org.sonar.cxx.parser.CxxLexerPool;
+import org.sonar.cxx.parser.CxxPunctuator;
+import org.sonar.cxx.parser.CxxTokenType;
 
 final class TokenList {
 
-  private static Lexer lexer = null;
+  // identifier and punctuator values of the preprocessor and the corresponding cxx token types
+  private static final Map<String, TokenType> CXX_TYPES = createCxxTypes();
+
+  // a lexer is not thread-safe: each thread needs its own one (only used for the results of token pasting)
+  private static final ThreadLocal<Lexer> LEXER = ThreadLocal.withInitial(() -> CxxLexerPool.create().getLexer());
 
   private TokenList() {
 
@@ -49,29 +61,40 @@ final class TokenList {
     return result;
   }
 
+  /**
+   * Map tokens (preprocessor or cxx tokens) to corresponding cxx tokens, keeping the token positions.
+   */
+  static List<Token> transformToCxx(List<Token> tokens) {
+    List<Token> result = new ArrayList<>(tokens.size());
+    for (var token : tokens) {
+      String value = token.getValue();
+      if (!"EOF".equals(value) && !value.isBlank()) {
+        var type = cxxType(token);
+        if (type.equals(token.getType())) {
+          result.add(token);
+        } else {
+          result.add(PPGeneratedToken.build(token, type, value));
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Map preprocessor tokens to corresponding cxx tokens.
    */
   static List<Token> transformToCxx(List<Token> ppTokens, Token newPos) {
     List<Token> result = new ArrayList<>(ppTokens.size());
 
-    if (lexer == null) { // lazy initialization
-      lexer = CxxLexerPool.create().getLexer();
-    }
-
     for (var ppToken : ppTokens) {
       String value = ppToken.getValue();
       if (!"EOF".equals(value) && !value.isBlank()) {
-
-        // call CXX lexer to create a CXX newPos
-        List<Token> cxxTokens = lexer.lex(value);
-
         var cxxToken = Token.builder()
           .setLine(newPos.getLine() + ppToken.getLine() - 1)
           .setColumn(newPos.getColumn() + ppToken.getColumn())
           .setURI(ppToken.getURI())
-          .setValueAndOriginalValue(ppToken.getValue())
-          .setType(cxxTokens.get(0).getType())
+          .setValueAndOriginalValue(value)
+          .setType(cxxType(ppToken))
           .build();
 
         result.add(cxxToken);
@@ -81,4 +104,57 @@ final class TokenList {
     return result;
   }
 
+  /**
+   * Paste two tokens (a ## b ==> ab) and lex the result to cxx tokens, using the position of the left token. The
+   * pasted value is the only text which has to be lexed again: it can form a new token (e.g. + ## = ==> +=) or, in
+   * case of an invalid pasting, several ones.
+   */
+  static List<Token> paste(Token left, Token right) {
+    var tokens = TokenUtils.removeLastTokenIfEof(LEXER.get().lex(left.getValue() + right.getValue()));
+    var result = new ArrayList<Token>(tokens.size());
+    for (var token : tokens) {
+      result.add(PPGeneratedToken.build(left, token.getType(), token.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * Cxx token type of a token: the same type the cxx lexer creates for the token value.
+   */
+  private static TokenType cxxType(Token token) {
+    var type = token.getType();
+    if (type instanceof PPKeyword) {
+      return CxxTokenType.PREPROCESSOR;
+    }
+    if (type instanceof PPPunctuator
+      || GenericTokenType.IDENTIFIER.equals(type) || GenericTokenType.UNKNOWN_CHAR.equals(type)) {
+      return CXX_TYPES.getOrDefault(token.getValue(), type); // punctuator, keyword, alternative token, ...
+    }
+    return type; // literals and cxx tokens
+  }
+
+  private static Map<String, TokenType> createCxxTypes() {
+    var types = new HashMap<String, TokenType>();
+    for (var punctuator : CxxPunctuator.values()) {
+      types.put(punctuator.getValue(), punctuator);
+    }
+    for (var keyword : CxxKeyword.values()) {
+      types.put(keyword.getValue(), keyword);
+    }
+    types.put(CxxKeyword.NULLPTR.getValue(), CxxTokenType.NUMBER);
+
+    // only known by the preprocessor
+    types.put(PPPunctuator.HASH.getValue(), CxxTokenType.PREPROCESSOR);
+    types.put(PPPunctuator.HASHHASH.getValue(), CxxTokenType.PREPROCESSOR);
+    types.put(PPPunctuator.MOD_COLON.getValue(), CxxTokenType.PREPROCESSOR);
+    types.put(PPPunctuator.MOD_COLON_MOD_COLON.getValue(), CxxTokenType.PREPROCESSOR);
+
+    // digraphs
+    types.put(PPPunctuator.LT_COLON.getValue(), CxxPunctuator.SQBR_LEFT);
+    types.put(PPPunctuator.GT_COLON.getValue(), CxxPunctuator.SQBR_RIGHT);
+    types.put(PPPunctuator.LT_MOD.getValue(), CxxPunctuator.CURLBR_LEFT);
+    types.put(PPPunctuator.GT_MOD.getValue(), CxxPunctuator.CURLBR_RIGHT);
+    return Map.copyOf(types);
+  }
+
 }
@@ -22,14 +22,22 @@ package org.sonar.cxx.visitors;
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
 import javax.annotation.Nullable;
-import org.sonar.cxx.parser.CxxParser;
+import org.sonar.cxx.api.CxxMetric;
+import org.sonar.cxx.preprocessor.CxxPreprocessor;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
 
 public class CxxFileVisitor<GRAMMAR extends Grammar> extends SquidAstVisitor<GRAMMAR> {
 
+  private final CxxPreprocessor preprocessor;
+
+  public CxxFileVisitor(CxxPreprocessor preprocessor) {
+    this.preprocessor = preprocessor;
+  }
+
   @Override
   public void visitFile(@Nullable AstNode node) {
-    CxxParser.finishedParsing();
+    getContext().peekSourceCode().addData(CxxMetric.INCLUDES_DATA, preprocessor.getIncludedFiles());
+    preprocessor.finishedPreprocessing();
   }
 
 }
@@ -25,28 +25,22 @@ import com.sonar.cxx.sslr.api.Grammar;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.cxx.CxxAnalysisRun;
 import org.sonar.cxx.parser.CxxGrammarImpl;
 import org.sonar.cxx.parser.CxxPunctuator;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
 
 public class CxxParseErrorLoggerVisitor<GRAMMAR extends Grammar> extends SquidAstVisitor<GRAMMAR> {
 
-  private static final String SYNTAX_ERROR_MSG
-    = "Source code parser: {} syntax error(s) detected. "
-    + "Syntax errors could cause invalid software metric values."
-    + " Root cause are typically missing includes, "
-    + "missing macros or compiler specific extensions.";
   private static final Logger LOG = LoggerFactory.getLogger(CxxParseErrorLoggerVisitor.class);
-  private static int errors = 0;
 
-  public static void finalReport() {
-    if (errors != 0) {
-      LOG.warn(SYNTAX_ERROR_MSG, errors);
-    }
-  }
+  private final CxxAnalysisRun analysisRun;
 
-  public static void resetReport() {
-    errors = 0;
+  /**
+   * @param analysisRun counts the syntax errors of the analysis over all visitor instances
+   */
+  public CxxParseErrorLoggerVisitor(CxxAnalysisRun analysisRun) {
+    this.analysisRun = analysisRun;
   }
 
   @Override
@@ -56,7 +50,7 @@ public class CxxParseErrorLoggerVisitor<GRAMMAR extends Grammar> extends SquidAs
 
   @Override
   public void visitNode(AstNode node) {
-    errors++;
+    analysisRun.getSyntaxErrors().increment();
     if (!LOG.isDebugEnabled()) {
       return;
     }
@@ -98,7 +98,13 @@ public class MultiLocatitionSquidCheck<G extends Grammar> extends SquidCheck<G>
    * @see SquidAstVisitorContext<G extends Grammar>.createLineViolation() for simple violations
    */
   protected void createMultiLocationViolation(CxxReportIssue message) {
-    SourceFile sourceFile = getSourceFile();
+    addMultiLocationCheckMessage(getSourceFile(), message);
+  }
+
+  /**
+   * Add the given multi-location message to a SourceFile object
+   */
+  public static void addMultiLocationCheckMessage(SourceFile sourceFile, CxxReportIssue message) {
     Set<CxxReportIssue> messages = getMultiLocationCheckMessages(sourceFile);
     if (messages == null) {
       messages = new HashSet<>();
@@ -0,0 +1,83 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx;
+
+import java.io.IOException;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.squidbridge.SquidAstVisitor;
+
+class CxxAnalysisRunTest {
+
+  @RegisterExtension
+  private final LogTesterJUnit5 logTester = new LogTesterJUnit5();
+
+  @Test
+  void finalReport() throws IOException {
+    var inputFile = CxxFileTesterHelper.create("src/test/resources/analysis/syntaxerror.cc", ".", "").asInputFile();
+    var analysisRun = new CxxAnalysisRun();
+    CxxAstScanner.create(new CxxSquidConfiguration(), analysisRun, 1, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile));
+
+    analysisRun.finalReport();
+
+    var log = logTester.logs(Level.WARN);
+    assertThat(log).hasSize(2);
+    assertThat(log.get(0)).contains("1 include directive error(s)");
+    assertThat(log.get(1)).contains("syntax error(s) detected");
+  }
+
+  @Test
+  void statisticsAreAggregatedOverThreads() throws IOException {
+    var inputFile = CxxFileTesterHelper.create("src/test/resources/analysis/syntaxerror.cc", ".", "").asInputFile();
+    var single = new CxxAnalysisRun();
+    CxxAstScanner.create(new CxxSquidConfiguration(), single, 1, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile));
+
+    var parallel = new CxxAnalysisRun();
+    CxxAstScanner.create(new CxxSquidConfiguration(), parallel, 2, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile, inputFile, inputFile));
+
+    assertThat(single.getSyntaxErrors().sum()).isPositive();
+    assertThat(parallel.getMissingIncludeFiles().sum()).isEqualTo(3 * single.getMissingIncludeFiles().sum());
+    assertThat(parallel.getSyntaxErrors().sum()).isEqualTo(3 * single.getSyntaxErrors().sum());
+  }
+
+  @Test
+  void separateRunsDoNotShareStatistics() throws IOException {
+    var inputFile = CxxFileTesterHelper.create("src/test/resources/analysis/syntaxerror.cc", ".", "").asInputFile();
+    CxxAstScanner.create(new CxxSquidConfiguration(), new CxxAnalysisRun(), 1, null, () -> new SquidAstVisitor[0])
+      .scanInputFiles(List.of(inputFile));
+
+    var analysisRun = new CxxAnalysisRun();
+    analysisRun.finalReport();
+
+    assertThat(analysisRun.getMissingIncludeFiles().sum()).isZero();
+    assertThat(analysisRun.getSyntaxErrors().sum()).isZero();
+    assertThat(analysisRun.getMacroCacheHitRate()).isZero();
+    assertThat(logTester.logs(Level.WARN)).isEmpty();
+  }
+
+}
@@ -21,16 +21,22 @@ package org.sonar.cxx;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import static org.assertj.core.api.Assertions.*;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.squidbridge.SquidAstVisitor;
 import org.sonar.cxx.squidbridge.api.SourceFile;
+import org.sonar.cxx.squidbridge.api.SourceFunction;
 import org.sonar.cxx.squidbridge.api.SourceProject;
 import org.sonar.cxx.squidbridge.indexer.QueryByType;
 
@@ -51,6 +57,64 @@ class CxxAstScannerTest {
     assertThat(project.getInt(CxxMetric.FILES)).isEqualTo(2);
   }
 
+  @Test
+  void filesParallel() throws IOException {
+    var inputFiles = new ArrayList<InputFile>();
+    for (var source : Arrays.asList("trivial.cc", "classes.cc", "functions.cc", "statements.cc", "namespace.cc")) {
+      inputFiles.add(CxxFileTesterHelper.create("src/test/resources/metrics/" + source, ".", "").asInputFile());
+    }
+
+    var sequential = CxxAstScanner.create(new CxxSquidConfiguration());
+    sequential.scanInputFiles(inputFiles);
+    var expected = (SourceProject) sequential.getIndex().search(new QueryByType(SourceProject.class)).iterator().next();
+
+    var parallel = CxxAstScanner.create(new CxxSquidConfiguration(), 3, () -> new SquidAstVisitor[0]);
+    parallel.scanInputFiles(inputFiles);
+    var project = (SourceProject) parallel.getIndex().search(new QueryByType(SourceProject.class)).iterator().next();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(project.getInt(CxxMetric.FILES)).isEqualTo(5);
+    softly.assertThat(project.getInt(CxxMetric.CLASSES)).isEqualTo(expected.getInt(CxxMetric.CLASSES));
+    softly.assertThat(project.getInt(CxxMetric.FUNCTIONS)).isEqualTo(expected.getInt(CxxMetric.FUNCTIONS));
+    softly.assertThat(project.getInt(CxxMetric.STATEMENTS)).isEqualTo(expected.getInt(CxxMetric.STATEMENTS));
+    softly.assertThat(parallel.getIndex().search(new QueryByType(SourceFile.class))).hasSize(5);
+    softly.assertThat(parallel.getIndex().search(new QueryByType(SourceFunction.class)))
+      .hasSameSizeAs(sequential.getIndex().search(new QueryByType(SourceFunction.class)));
+    softly.assertAll();
+  }
+
+  @Test
+  void sourceFileCallback() throws IOException {
+    var inputFiles = new ArrayList<InputFile>();
+    for (var source : Arrays.asList("trivial.cc", "classes.cc", "functions.cc", "statements.cc", "namespace.cc")) {
+      inputFiles.add(CxxFileTesterHelper.create("src/test/resources/metrics/" + source, ".", "").asInputFile());
+    }
+
+    var scannedFiles = new ConcurrentLinkedQueue<SourceFile>();
+    var analysisRun = new CxxAnalysisRun();
+    var scanner = CxxAstScanner.create(new CxxSquidConfiguration(), analysisRun, 3, (SourceFile sourceFile) -> {
+      scannedFiles.add(sourceFile);
+      sourceFile.removeMeasure(CxxMetric.CPD_TOKENS_DATA);
+    }, () -> new SquidAstVisitor[0]);
+    scanner.scanInputFiles(inputFiles);
+    var project = (SourceProject) scanner.getIndex().search(new QueryByType(SourceProject.class)).iterator().next();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(scannedFiles).hasSize(5);
+    softly.assertThat(scannedFiles).allMatch(f -> f.getInt(CxxMetric.LINES) > 0);
+    softly.assertThat(scannedFiles).allMatch(f -> f.getData(CxxMetric.CPD_TOKENS_DATA) == null);
+    softly.assertThat(project.getInt(CxxMetric.FILES)).isEqualTo(5);
+    softly.assertAll();
+  }
+
+  @Test
+  void includedFiles() throws IOException {
+    var tester = CxxFileTesterHelper.create("src/test/resources/visitors/ncloc.cc", ".", "");
+    SourceFile file = CxxAstScanner.scanSingleInputFile(tester.asInputFile());
+    var includes = (Collection<Path>) file.getData(CxxMetric.INCLUDES_DATA);
+    assertThat(includes).containsExactly(Path.of("src/test/resources/visitors/ncloc.h").toRealPath());
+  }
+
   @Test
   void comments() throws IOException {
     var tester = CxxFileTesterHelper.create("src/test/resources/metrics/comments.cc", ".", "");
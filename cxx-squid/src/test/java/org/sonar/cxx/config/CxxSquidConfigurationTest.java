@@ -265,6 +265,36 @@ class CxxSquidConfigurationTest {
     softly.assertAll();
   }
 
+  @Test
+  void testValuesAfterModification() {
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add("a/b/c", "key", "value1");
+    squidConfig.add(CxxSquidConfiguration.GLOBAL, "key", "value2");
+    List<String> values1 = squidConfig.getValues("a/b/c", "key");
+    squidConfig.add(CxxSquidConfiguration.GLOBAL, "key", "value3");
+    List<String> values2 = squidConfig.getValues("a/b/c", "key");
+
+    var softly = new SoftAssertions();
+    softly.assertThat(values1).containsExactly("value1", "value2");
+    softly.assertThat(values2).containsExactly("value1", "value2", "value3");
+    softly.assertAll();
+  }
+
+  @Test
+  void testManyFiles() {
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.GLOBAL, "key", "global");
+    for (int i = 0; i < 10_000; i++) {
+      squidConfig.add("dir/file" + i + ".cpp", "key", "value" + i);
+    }
+
+    var softly = new SoftAssertions();
+    softly.assertThat(squidConfig.getFiles()).hasSize(10_000);
+    softly.assertThat(squidConfig.getValues("dir/file1234.cpp", "key")).containsExactly("value1234", "global");
+    softly.assertThat(squidConfig.getValues("dir/unknown.cpp", "key")).containsExactly("global");
+    softly.assertAll();
+  }
+
   @Test
   void testLevelValues() {
     var squidConfig = new CxxSquidConfiguration();
@@ -22,11 +22,13 @@ package org.sonar.cxx.config;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonar.api.internal.apachecommons.lang3.SystemUtils;
 
 class JsonCompilationDatabaseTest {
@@ -116,6 +118,47 @@ class JsonCompilationDatabaseTest {
       .contains(unifyPath("/usr/include"));
   }
 
+  @Test
+  void testFileFilter() throws Exception {
+    var squidConfig = new CxxSquidConfiguration();
+    var file = new File("src/test/resources/jsondb/compile_commands.json");
+    var filename = Path.of(".").resolve("test-with-command.cpp").toAbsolutePath().normalize();
+    var jsonDb = new JsonCompilationDatabase(squidConfig, filename::equals);
+    jsonDb.parse(file);
+
+    assertThat(squidConfig.getFiles())
+      .containsExactly(filename);
+    assertThat(squidConfig.getValues(filename.toString(), CxxSquidConfiguration.DEFINES))
+      .contains("COMMAND_DEFINE 1")
+      .contains("GLOBAL_DEFINE 1");
+  }
+
+  @Test
+  void testSharedArguments(@TempDir Path tempDir) throws Exception {
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, """
+      [
+        { "directory": ".", "file": "a.cpp", "arguments": ["-DSHARED=1", "-I/shared/include"] },
+        { "directory": ".", "file": "b.cpp", "arguments": ["-DSHARED=1", "-I/shared/include"] }
+      ]
+      """);
+    var squidConfig = new CxxSquidConfiguration();
+    var jsonDb = new JsonCompilationDatabase(squidConfig);
+    jsonDb.parse(file.toFile());
+
+    var cwd = Path.of(".");
+    var a = cwd.resolve("a.cpp").toAbsolutePath().normalize().toString();
+    var b = cwd.resolve("b.cpp").toAbsolutePath().normalize().toString();
+    List<String> definesA = squidConfig.getLevelValues(a, CxxSquidConfiguration.DEFINES);
+    List<String> definesB = squidConfig.getLevelValues(b, CxxSquidConfiguration.DEFINES);
+
+    assertThat(definesA).containsExactly("SHARED 1");
+    assertThat(definesB).containsExactly("SHARED 1");
+    assertThat(definesA.get(0)).isSameAs(definesB.get(0));
+    assertThat(squidConfig.getLevelValues(b, CxxSquidConfiguration.INCLUDE_DIRECTORIES))
+      .containsExactly(unifyPath("/shared/include"));
+  }
+
   @Test
   void testVsCommandSettings() throws Exception {
     Assumptions.assumeTrue(SystemUtils.IS_OS_WINDOWS);
@@ -297,6 +340,42 @@ class JsonCompilationDatabaseTest {
     assertThat(thrown).isExactlyInstanceOf(JsonMappingException.class);
   }
 
+  @Test
+  void testEmptyFile(@TempDir Path tempDir) throws Exception {
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, "");
+    var jsonDb = new JsonCompilationDatabase(new CxxSquidConfiguration());
+
+    JsonMappingException thrown = catchThrowableOfType(JsonMappingException.class, () -> {
+      jsonDb.parse(file.toFile());
+    });
+    assertThat(thrown).hasMessageStartingWith("No content to map due to end-of-input");
+  }
+
+  @Test
+  void testScalarRoot(@TempDir Path tempDir) throws Exception {
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, "42");
+    var jsonDb = new JsonCompilationDatabase(new CxxSquidConfiguration());
+
+    JsonMappingException thrown = catchThrowableOfType(JsonMappingException.class, () -> {
+      jsonDb.parse(file.toFile());
+    });
+    assertThat(thrown).hasMessageStartingWith("Unexpected token (VALUE_NUMBER_INT), expected a command object");
+  }
+
+  @Test
+  void testScalarArrayElement(@TempDir Path tempDir) throws Exception {
+    var file = tempDir.resolve("compile_commands.json");
+    Files.writeString(file, "[ \"a.cpp\" ]");
+    var jsonDb = new JsonCompilationDatabase(new CxxSquidConfiguration());
+
+    JsonMappingException thrown = catchThrowableOfType(JsonMappingException.class, () -> {
+      jsonDb.parse(file.toFile());
+    });
+    assertThat(thrown).hasMessageStartingWith("Unexpected token (VALUE_STRING), expected a command object");
+  }
+
   @Test
   void testFileNotFound() {
     var squidConfig = new CxxSquidConfiguration();
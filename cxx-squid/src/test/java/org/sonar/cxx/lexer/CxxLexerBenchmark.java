@@ -0,0 +1,116 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.lexer;
+
+import com.sonar.cxx.sslr.impl.Lexer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.cxx.parser.CxxLexerPool;
+
+/**
+ * Measures the C++ lexer (without preprocessor) over the C++ files of the parser test resources, with and without
+ * first character dispatch. The <code>tokens</code> counter reports tokens per second.
+ *
+ * <p>
+ * Benchmarks are not executed by the unit tests, start {@link #main(String[])} after <code>mvn test-compile</code>.
+ * Another corpus can be given with the system property <code>corpus</code>.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CxxLexerBenchmark {
+
+  @Param({"false", "true"})
+  public boolean dispatchOnFirstCharacter;
+
+  private Lexer lexer;
+  private final List<String> corpus = new ArrayList<>();
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+
+    public long tokens;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      tokens = 0;
+    }
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    lexer = CxxLexerPool.create(StandardCharsets.UTF_8, dispatchOnFirstCharacter).getLexer();
+    try (var paths = Files.walk(Path.of(System.getProperty("corpus", "src/test/resources/parser")))) {
+      for (var file : paths.filter(CxxLexerBenchmark::isCxxFile).toList()) {
+        corpus.add(Files.readString(file, StandardCharsets.ISO_8859_1));
+      }
+    }
+  }
+
+  private static boolean isCxxFile(Path path) {
+    var name = path.getFileName().toString();
+    return Files.isRegularFile(path) && (name.endsWith(".cc") || name.endsWith(".cpp") || name.endsWith(".h")
+                                           || name.endsWith(".hpp") || name.endsWith(".c"));
+  }
+
+  @Benchmark
+  public int lexCorpus(Counters counters) {
+    var count = 0;
+    for (var source : corpus) {
+      try {
+        count += lexer.lex(source).size();
+      } catch (RuntimeException e) {
+        // files with lexical errors are part of the corpus
+      }
+    }
+    counters.tokens += count;
+    return count;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CxxLexerBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -749,6 +749,33 @@ class CxxLexerTest {
     );
   }
 
+  @Test
+  void identifiersAreInterned() {
+    var tokens = lexer.lex("abc return abc abc_ abc return");
+
+    var softly = new SoftAssertions();
+    softly.assertThat(tokens.get(2).getValue()).isSameAs(tokens.get(0).getValue());
+    softly.assertThat(tokens.get(4).getValue()).isSameAs(tokens.get(0).getValue());
+    softly.assertThat(tokens.get(3).getValue()).isEqualTo("abc_");
+    softly.assertThat(tokens.get(1).getValue()).isSameAs(CxxKeyword.RETURN.getValue());
+    softly.assertThat(tokens.get(5).getValue()).isSameAs(CxxKeyword.RETURN.getValue());
+    softly.assertAll();
+  }
+
+  @Test
+  void manyDistinctIdentifiers() {
+    var source = new StringBuilder();
+    for (var i = 0; i < 100_000; i++) {
+      source.append("id").append(i).append(' ');
+    }
+    var tokens = lexer.lex(source.toString());
+
+    assertThat(tokens).hasSize(100_001);
+    for (var i = 0; i < 100_000; i++) {
+      assertThat(tokens.get(i).getValue()).isEqualTo("id" + i);
+    }
+  }
+
   @Test
   void blankLines() {
     var softly = new SoftAssertions();
@@ -20,6 +20,12 @@
 package org.sonar.cxx.lexer;
 
 import com.sonar.cxx.sslr.impl.Lexer;
+import com.sonar.cxx.sslr.impl.LexerException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -116,4 +122,32 @@ class CxxLexerWithoutPreprocessorTest {
     softly.assertAll();
   }
 
+  @Test
+  void firstCharacterDispatchCreatesSameTokens() throws IOException {
+    var dispatchingLexer = CxxLexerPool.create(StandardCharsets.UTF_8, true).getLexer();
+    var sequentialLexer = CxxLexerPool.create(StandardCharsets.UTF_8, false).getLexer();
+
+    List<Path> files;
+    try (var paths = Files.walk(Path.of("src/test/resources/parser"))) {
+      files = paths.filter(Files::isRegularFile).toList();
+    }
+
+    var softly = new SoftAssertions();
+    for (var file : files) {
+      var source = Files.readString(file, StandardCharsets.ISO_8859_1);
+      softly.assertThat(lex(dispatchingLexer, source)).as(file.toString()).isEqualTo(lex(sequentialLexer, source));
+    }
+    softly.assertAll();
+  }
+
+  private static List<String> lex(Lexer lexer, String source) {
+    try {
+      return lexer.lex(source).stream()
+        .map(t -> t.getType() + ":" + t.getValue() + ":" + t.getLine() + ":" + t.getColumn() + ":" + t.getTrivia())
+        .toList();
+    } catch (LexerException e) {
+      return List.of(e.getClass().getName());
+    }
+  }
+
 }
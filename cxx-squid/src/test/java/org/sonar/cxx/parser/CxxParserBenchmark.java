@@ -0,0 +1,134 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.parser;
+
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.RecognitionException;
+import com.sonar.cxx.sslr.api.Token;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.preprocessor.CxxPreprocessor;
+import org.sonar.cxx.preprocessor.JoinStringsPreprocessor;
+import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
+import org.sonar.cxx.sslr.internal.vm.CompiledGrammar;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
+
+/**
+ * Measures the C++ parser over the preprocessed tokens of the parser test resources, with and without first token
+ * prediction of ordered choices. The <code>tokens</code> counter reports tokens per second.
+ *
+ * <p>
+ * Benchmarks are not executed by the unit tests, start {@link #main(String[])} after <code>mvn test-compile</code>.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CxxParserBenchmark {
+
+  private static final String[] DIRECTORIES = {"own", "VC", "GCC", "cli", "cuda", "examples"};
+
+  @Param({"false", "true"})
+  public boolean firstTokenPrediction;
+
+  private CompiledGrammar grammar;
+  private final List<List<Token>> corpus = new ArrayList<>();
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+
+    public long tokens;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      tokens = 0;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Setup
+  public void setup() {
+    var squidConfig = new CxxSquidConfiguration();
+    SquidAstVisitorContext<Grammar> context = mock(SquidAstVisitorContext.class);
+    var preprocessor = new CxxPreprocessor(context, squidConfig);
+    var lexer = CxxLexerPool.create(StandardCharsets.UTF_8, preprocessor, new JoinStringsPreprocessor()).getLexer();
+    for (var directory : DIRECTORIES) {
+      for (var file : FileUtils.listFiles(new File("src/test/resources/parser", directory),
+        new String[]{"cc", "cpp", "hpp"}, true)) {
+        when(context.getFile()).thenReturn(file);
+        corpus.add(lexer.lex(file));
+        preprocessor.finishedPreprocessing();
+      }
+    }
+    var rootRule = CxxParser.create(context, squidConfig, preprocessor).getRootRule();
+    grammar = MutableGrammarCompiler.compile(rootRule, firstTokenPrediction);
+  }
+
+  @Benchmark
+  public int parseCorpus(Counters counters) {
+    var count = 0;
+    for (var tokens : corpus) {
+      var arena = ParseNodeArena.acquire();
+      try {
+        Machine.parse(tokens, grammar, arena);
+        count += tokens.size();
+      } catch (RecognitionException e) {
+        // files with syntax errors are part of the corpus
+      } finally {
+        arena.release();
+      }
+    }
+    counters.tokens += count;
+    return count;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CxxParserBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
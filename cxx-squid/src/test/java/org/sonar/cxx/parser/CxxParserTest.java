@@ -21,9 +21,13 @@ package org.sonar.cxx.parser;
 
 import com.sonar.cxx.sslr.api.AstNode;
 import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.RecognitionException;
+import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.impl.Parser;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
 import java.io.File;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -32,13 +36,25 @@ import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.preprocessor.CxxPreprocessor;
+import org.sonar.cxx.preprocessor.JoinStringsPreprocessor;
 import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
+import org.sonar.cxx.sslr.internal.matchers.LexerfulAstCreator;
+import org.sonar.cxx.sslr.internal.vm.CompiledGrammar;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
 
 class CxxParserTest {
 
+  @RegisterExtension
+  private final LogTesterJUnit5 logTester = new LogTesterJUnit5();
+
   private final String errSources = "/parser/bad/error_recovery_declaration.cc";
   private final String[] goodFiles = {"own", "VC", "GCC", "cli", "cuda", "examples"};
   private final String[] preprocessorFiles = {"preprocessor"};
@@ -47,6 +63,7 @@ class CxxParserTest {
 
   private File erroneousSources = null;
   private final SquidAstVisitorContext<Grammar> context;
+  private CxxPreprocessor preprocessor;
 
   public CxxParserTest() throws URISyntaxException {
     super();
@@ -167,6 +184,103 @@ class CxxParserTest {
     verify(root, erroneousSources, map);
   }
 
+  @Test
+  void testParsersWithOwnPreprocessors() {
+    Parser<Grammar> p1 = createParser(null, true, null);
+    CxxPreprocessor pp1 = preprocessor;
+    Parser<Grammar> p2 = createParser(null, true, null);
+    CxxPreprocessor pp2 = preprocessor;
+    assertThat(pp1).isNotSameAs(pp2);
+
+    // finishing the unit of one preprocessor must not affect the other one
+    when(context.getFile()).thenReturn(erroneousSources);
+    AstNode root1 = p1.parse(erroneousSources);
+    AstNode root2 = p2.parse(erroneousSources);
+    pp1.finishedPreprocessing();
+    AstNode root3 = p2.parse(erroneousSources);
+    pp2.finishedPreprocessing();
+
+    int declarations = root1.getDescendants(CxxGrammarImpl.declaration).size();
+    assertThat(declarations).isPositive();
+    assertThat(root2.getDescendants(CxxGrammarImpl.declaration)).hasSize(declarations);
+    assertThat(root3.getDescendants(CxxGrammarImpl.declaration)).hasSize(declarations);
+    assertThat(pp1.getMissingFilesCounter()).isZero();
+    assertThat(pp2.getMissingFilesCounter()).isZero();
+  }
+
+  @Test
+  void firstTokenPredictionCreatesSameAst() {
+    var files = listFiles(goodFiles, new String[]{"cc", "cpp", "hpp"});
+    files.add(erroneousSources);
+
+    for (var errorRecovery : new boolean[]{false, true}) {
+      var parser = createParser(null, errorRecovery, null);
+      var lexer = CxxLexerPool.create(StandardCharsets.UTF_8, preprocessor, new JoinStringsPreprocessor()).getLexer();
+      var withPrediction = MutableGrammarCompiler.compile(parser.getRootRule(), true);
+      var withoutPrediction = MutableGrammarCompiler.compile(parser.getRootRule(), false);
+
+      for (var file : files) {
+        when(context.getFile()).thenReturn(file);
+        var tokens = lexer.lex(file);
+        preprocessor.finishedPreprocessing();
+
+        assertThat(parseToXml(tokens, withPrediction))
+          .as("AST of '%s'", file)
+          .isEqualTo(parseToXml(tokens, withoutPrediction));
+      }
+    }
+  }
+
+  @Test
+  void memoizationCreatesSameAst() {
+    var files = listFiles(goodFiles, new String[]{"cc", "cpp", "hpp"});
+    files.add(erroneousSources);
+
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_MEMOIZED_RULES,
+      new String[]{"translationUnit"});
+    var withoutMemoization = CxxParser.create(context, squidConfig, new CxxPreprocessor(context, squidConfig));
+    var withMemoization = createParser(null, true, null);
+    var lexer = CxxLexerPool.create(StandardCharsets.UTF_8, preprocessor, new JoinStringsPreprocessor()).getLexer();
+
+    for (var file : files) {
+      when(context.getFile()).thenReturn(file);
+      var tokens = lexer.lex(file);
+      preprocessor.finishedPreprocessing();
+
+      assertThat(parseToXml(tokens, withMemoization))
+        .as("AST of '%s'", file)
+        .isEqualTo(parseToXml(tokens, withoutMemoization));
+    }
+  }
+
+  @Test
+  void unknownMemoizedRules() {
+    var squidConfig = new CxxSquidConfiguration();
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_MEMOIZED_RULES,
+      new String[]{"translationUnit", "noSuchRule"});
+    CxxGrammarImpl.create(squidConfig);
+
+    assertThat(logTester.logs(Level.WARN))
+      .containsExactly("Unknown grammar rules in 'sonar.cxx.parser.memoizedRules' are ignored: [noSuchRule]");
+  }
+
+  private static String parseToXml(List<Token> tokens, Parser<Grammar> parser) {
+    try {
+      return AstXmlPrinter.print(parser.parse(tokens));
+    } catch (RecognitionException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static String parseToXml(List<Token> tokens, CompiledGrammar grammar) {
+    try {
+      return AstXmlPrinter.print(LexerfulAstCreator.create(Machine.parse(tokens, grammar), tokens));
+    } catch (RecognitionException e) {
+      return e.getMessage();
+    }
+  }
+
   private List<File> listFiles(String[] dirs, String[] extensions) {
     var files = new ArrayList<File>();
     for (var dir : dirs) {
@@ -189,7 +303,8 @@ class CxxParserTest {
         includes);
     }
 
-    return CxxParser.create(context, squidConfig);
+    preprocessor = new CxxPreprocessor(context, squidConfig);
+    return CxxParser.create(context, squidConfig, preprocessor);
   }
 
   private AstNode parse(Parser<Grammar> parser, File file) {
@@ -197,7 +312,7 @@ class CxxParserTest {
     AstNode root = null;
     try {
       root = parser.parse(file);
-      CxxParser.finishedParsing();
+      preprocessor.finishedPreprocessing();
     } catch (Exception e) {
       throw new IllegalStateException(file.toString(), e);
     }
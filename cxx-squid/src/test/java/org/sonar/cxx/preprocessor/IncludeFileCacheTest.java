@@ -0,0 +1,115 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import com.sonar.cxx.sslr.api.Token;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncludeFileCacheTest {
+
+  private final List<Path> loaded = new ArrayList<>();
+  private Path header;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    header = Files.writeString(tempDir.toPath().resolve("header.h"), "#define A 1\n");
+  }
+
+  @Test
+  void testLexedOnlyOnce() throws IOException {
+    var cache = new IncludeFileCache(10);
+    List<Token> first = cache.get(header, StandardCharsets.UTF_8, this::load);
+    List<Token> second = cache.get(header, StandardCharsets.UTF_8, this::load);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first).hasSize(2);
+    assertThat(loaded).containsExactly(header);
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  void testModifiedFileIsLexedAgain() throws IOException {
+    var cache = new IncludeFileCache(10);
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+    Files.setLastModifiedTime(header, FileTime.fromMillis(Files.getLastModifiedTime(header).toMillis() + 10_000));
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+
+    assertThat(loaded).containsExactly(header, header);
+    assertThat(cache.getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  void testCharsetIsPartOfKey() throws IOException {
+    var cache = new IncludeFileCache(10);
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+    cache.get(header, StandardCharsets.ISO_8859_1, this::load);
+
+    assertThat(loaded).hasSize(2);
+  }
+
+  @Test
+  void testLeastRecentlyUsedIsEvicted() throws IOException {
+    var other1 = Files.writeString(tempDir.toPath().resolve("other1.h"), "#define B 1\n");
+    var other2 = Files.writeString(tempDir.toPath().resolve("other2.h"), "#define C 1\n");
+    var cache = new IncludeFileCache(2);
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+    cache.get(other1, StandardCharsets.UTF_8, this::load);
+    cache.get(header, StandardCharsets.UTF_8, this::load); // header is now most recently used
+    cache.get(other2, StandardCharsets.UTF_8, this::load); // evicts other1
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+    cache.get(other1, StandardCharsets.UTF_8, this::load);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(loaded).containsExactly(header, other1, other2, other1);
+  }
+
+  @Test
+  void testClear() throws IOException {
+    var cache = new IncludeFileCache(10);
+    cache.get(header, StandardCharsets.UTF_8, this::load);
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getHits()).isZero();
+    assertThat(cache.getMisses()).isZero();
+  }
+
+  private List<Token> load(Path file, Charset charset) throws IOException {
+    loaded.add(file);
+    return IncludeFileLexer.create().lex(Files.readString(file, charset));
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import java.util.concurrent.atomic.LongAdder;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PPInterningCacheTest {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private int loaded = 0;
+
+  @Test
+  void testValueIsCreatedOnlyOnce() {
+    var cache = new PPInterningCache<String, String>(10, hits, misses);
+    var first = cache.get("A=1", this::load);
+    var second = cache.get("A=1", this::load);
+
+    assertThat(second).isSameAs(first);
+    assertThat(loaded).isEqualTo(1);
+    assertThat(hits.sum()).isEqualTo(1);
+    assertThat(misses.sum()).isEqualTo(1);
+  }
+
+  @Test
+  void testNullValueIsCached() {
+    var cache = new PPInterningCache<String, String>(10, hits, misses);
+    assertThat(cache.get("invalid", key -> loadNull())).isNull();
+    assertThat(cache.get("invalid", key -> loadNull())).isNull();
+
+    assertThat(loaded).isEqualTo(1);
+  }
+
+  @Test
+  void testCacheIsBounded() {
+    var cache = new PPInterningCache<String, String>(2, hits, misses);
+    cache.get("A", this::load);
+    cache.get("B", this::load);
+    cache.get("C", this::load);
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(loaded).isEqualTo(3);
+  }
+
+  @Test
+  void testStatisticsAreShared() {
+    var cache1 = new PPInterningCache<String, String>(10, hits, misses);
+    var cache2 = new PPInterningCache<String, String>(10, hits, misses);
+    cache1.get("A", this::load);
+    cache2.get("A", this::load);
+
+    assertThat(misses.sum()).isEqualTo(2);
+  }
+
+  private String load(String key) {
+    loaded++;
+    return new String(key);
+  }
+
+  private String loadNull() {
+    loaded++;
+    return null;
+  }
+
+}
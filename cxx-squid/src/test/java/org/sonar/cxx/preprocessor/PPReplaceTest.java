@@ -19,6 +19,7 @@
  */
 package org.sonar.cxx.preprocessor;
 
+import com.sonar.cxx.sslr.api.GenericTokenType;
 import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.impl.Lexer;
 import java.io.File;
@@ -30,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
+import org.sonar.cxx.parser.CxxTokenType;
 import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
 
 class PPReplaceTest {
@@ -51,7 +53,7 @@ class PPReplaceTest {
   @Test
   void testReplaceObjectLikeMacro() {
     PPMacro macro = pp.parseMacroDefinition("#define DUMMY"); // only necessary to call replaceObjectLikeMacro
-    List<Token> result = replace.replaceObjectLikeMacro(macro, "__LINE__");
+    List<Token> result = replace.replaceObjectLikeMacro(macro, lexer.lex("__LINE__"));
     assertThat(result)
       .hasSize(1)
       .matches(t -> "1".equals(t.get(0).getValue()));
@@ -71,4 +73,18 @@ class PPReplaceTest {
       .matches(t -> "2".equals(t.get(2).getValue()));
   }
 
+  @Test
+  void testReplaceFunctionLikeMacroWithOperators() {
+    List<Token> args = lexer.lex("(x, 1, 2)");
+    PPMacro macro = pp.parseMacroDefinition("#define TEST(a, ...) a ## 1 #a f(__VA_ARGS__)");
+
+    var result = new ArrayList<Token>();
+    int num = replace.replaceFunctionLikeMacro(macro, args, result);
+    assertThat(num).isEqualTo(7);
+    assertThat(result).extracting(Token::getValue).containsExactly("x1", "\"x\"", "f", "(", "1", ",", "2", ")");
+    assertThat(result.get(0).getType()).isEqualTo(GenericTokenType.IDENTIFIER);
+    assertThat(result.get(1).getType()).isEqualTo(CxxTokenType.STRING);
+    assertThat(result).allMatch(Token::isGeneratedCode);
+  }
+
 }
@@ -0,0 +1,130 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.preprocessor;
+
+import com.sonar.cxx.sslr.api.Grammar;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.impl.Lexer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.sonar.cxx.CxxAnalysisRun;
+import org.sonar.cxx.config.CxxSquidConfiguration;
+import org.sonar.cxx.parser.CxxLexerPool;
+import org.sonar.cxx.squidbridge.SquidAstVisitorContext;
+
+class PPSnapshotCacheTest {
+
+  private SquidAstVisitorContext<Grammar> context;
+  private CxxAnalysisRun analysisRun;
+  private CxxPreprocessor pp;
+  private Lexer lexer;
+  private Path dir;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    dir = tempDir.toPath();
+    Files.writeString(dir.resolve("guarded.h"), """
+                                                #ifndef GUARDED_H
+                                                #define GUARDED_H
+                                                #ifdef CONFIG
+                                                #define VALUE 1
+                                                #else
+                                                #define VALUE 2
+                                                #endif
+                                                #include "nested.h"
+                                                #endif
+                                                """);
+    Files.writeString(dir.resolve("nested.h"), """
+                                               #define NESTED 3
+                                               """);
+
+    context = mock(SquidAstVisitorContext.class);
+    analysisRun = new CxxAnalysisRun();
+    pp = new CxxPreprocessor(context, new CxxSquidConfiguration(), analysisRun);
+    lexer = CxxLexerPool.create(pp).getLexer();
+  }
+
+  @Test
+  void snapshotIsReplayedInNextUnit() {
+    assertThat(lexUnit("unit1.cc", "#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(analysisRun.getSnapshotsReplayed().sum()).isZero();
+
+    assertThat(lexUnit("unit2.cc", "#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(analysisRun.getSnapshotsReplayed().sum()).isEqualTo(1);
+  }
+
+  @Test
+  void snapshotIsNotReplayedIfTestedMacroChanged() {
+    assertThat(lexUnit("unit1.cc", "#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(lexUnit("unit2.cc", "#define CONFIG\n#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("1 3 EOF");
+    assertThat(lexUnit("unit3.cc", "#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("2 3 EOF");
+  }
+
+  @Test
+  void snapshotIsNotReplayedIfNestedIncludeAlreadyProcessed() {
+    assertThat(lexUnit("unit1.cc", "#include \"guarded.h\"\nVALUE NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(lexUnit("unit2.cc", "#include \"nested.h\"\n#undef NESTED\n#include \"guarded.h\"\nVALUE NESTED\n"))
+      .isEqualTo("2 NESTED EOF");
+  }
+
+  @Test
+  void replayedSnapshotIsPartOfOuterSnapshot() throws IOException {
+    Files.writeString(dir.resolve("outer.h"), "#include \"guarded.h\"\n#define OUTER VALUE\n");
+
+    assertThat(lexUnit("unit1.cc", "#include \"guarded.h\"\n")).isEqualTo("EOF");
+    assertThat(lexUnit("unit2.cc", "#include \"outer.h\"\nOUTER NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(lexUnit("unit3.cc", "#include \"outer.h\"\nOUTER NESTED\n")).isEqualTo("2 3 EOF");
+    assertThat(lexUnit("unit4.cc", "#define CONFIG\n#include \"outer.h\"\nOUTER NESTED\n")).isEqualTo("1 3 EOF");
+  }
+
+  @Test
+  void includeFilesAreCachedPerAnalysisRun() {
+    lexUnit("unit1.cc", "#include \"guarded.h\"\n");
+    assertThat(analysisRun.getIncludeFileCache().size()).isEqualTo(2);
+
+    analysisRun = new CxxAnalysisRun();
+    pp = new CxxPreprocessor(context, new CxxSquidConfiguration(), analysisRun);
+    lexer = CxxLexerPool.create(pp).getLexer();
+    assertThat(analysisRun.getIncludeFileCache().size()).isZero();
+    lexUnit("unit2.cc", "#include \"guarded.h\"\n");
+    assertThat(analysisRun.getIncludeFileCache().getMisses()).isEqualTo(2);
+  }
+
+  private String lexUnit(String fileName, String source) {
+    when(context.getFile()).thenReturn(dir.resolve(fileName).toFile());
+    List<Token> tokens = lexer.lex(source);
+    pp.finishedPreprocessing();
+    return tokens.stream().map(Token::getValue).collect(Collectors.joining(" "));
+  }
+
+}
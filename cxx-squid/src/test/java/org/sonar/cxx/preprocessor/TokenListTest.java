@@ -29,6 +29,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonar.cxx.parser.CxxKeyword;
 import org.sonar.cxx.parser.CxxPunctuator;
+import org.sonar.cxx.parser.CxxTokenType;
 
 class TokenListTest {
 
@@ -62,4 +63,50 @@ class TokenListTest {
       .matches(t -> CxxPunctuator.SEMICOLON.equals(t.get(1).getType()));
   }
 
+  @Test
+  void testTransformToCxxWithoutPosition() {
+    List<Token> ppTokens = lexer.lex("x and nullptr <: 1 # ##"); // no re-lexing of the values
+    List<Token> result = TokenList.transformToCxx(ppTokens);
+    assertThat(result)
+      .hasSize(7) // no WS and EOF
+      .matches(t -> t.get(0) == ppTokens.get(0)) // type is unchanged: original token
+      .matches(t -> CxxKeyword.AND.equals(t.get(1).getType()))
+      .matches(t -> CxxTokenType.NUMBER.equals(t.get(2).getType()))
+      .matches(t -> CxxPunctuator.SQBR_LEFT.equals(t.get(3).getType()))
+      .matches(t -> CxxTokenType.NUMBER.equals(t.get(4).getType()))
+      .matches(t -> CxxTokenType.PREPROCESSOR.equals(t.get(5).getType()))
+      .matches(t -> CxxTokenType.PREPROCESSOR.equals(t.get(6).getType()));
+  }
+
+  @Test
+  void testTransformPunctuatorsToCxx() {
+    for (var punctuator : PPPunctuator.values()) {
+      List<Token> result = TokenList.transformToCxx(lexer.lex(punctuator.getValue()));
+      assertThat(result)
+        .hasSize(1)
+        .noneMatch(t -> t.getType() instanceof PPPunctuator);
+    }
+  }
+
+  @Test
+  void testPaste() {
+    List<Token> ppTokens = lexer.lex("+ =");
+    List<Token> result = TokenList.paste(ppTokens.get(0), ppTokens.get(1));
+    assertThat(result)
+      .hasSize(1)
+      .matches(t -> CxxPunctuator.PLUS_ASSIGN.equals(t.get(0).getType()))
+      .matches(t -> "+=".equals(t.get(0).getValue()))
+      .matches(t -> t.get(0).isGeneratedCode());
+  }
+
+  @Test
+  void testPasteInvalid() {
+    List<Token> ppTokens = lexer.lex("x +");
+    List<Token> result = TokenList.paste(ppTokens.get(0), ppTokens.get(1));
+    assertThat(result)
+      .hasSize(2)
+      .matches(t -> IDENTIFIER.equals(t.get(0).getType()))
+      .matches(t -> CxxPunctuator.PLUS.equals(t.get(1).getType()));
+  }
+
 }
@@ -0,0 +1,19 @@
+#include <invalid.h>
+
+namespace X {
+   void test::f1() {
+      int i = 0;
+      if( i ) {
+         throw i;
+      }
+      i = unsigend int(i + 1);
+   }
+}
+
+voif f2() {
+}
+
+void test::f3() {
+ int i = 0
+ i++;
+}
@@ -54,6 +54,7 @@ public class CxxConfigurationModel extends AbstractConfigurationModel {
   private static final String DEFINES_PROPERTY_KEY = "sonar.cxx.defines";
   private static final String INCLUDE_DIRECTORIES_PROPERTY_KEY = "sonar.cxx.includeDirectories";
   private static final String FORCE_INCLUDES_PROPERTY_KEY = "sonar.cxx.forceIncludes";
+  private static final String PARSER_PROFILE_PROPERTY_KEY = CxxParser.PROFILE_PROPERTY;
 
   private final ConfigurationProperty charsetProperty = new ConfigurationProperty("Charset", CHARSET_PROPERTY_KEY,
     getPropertyOrDefaultValue(
@@ -85,6 +86,13 @@ public class CxxConfigurationModel extends AbstractConfigurationModel {
     getPropertyOrDefaultValue(
       FORCE_INCLUDES_PROPERTY_KEY, ""));
 
+  private final ConfigurationProperty parserProfile = new ConfigurationProperty("Parser Profile",
+    PARSER_PROFILE_PROPERTY_KEY + " (statistics of the grammar rules in the console)",
+    getPropertyOrDefaultValue(
+      PARSER_PROFILE_PROPERTY_KEY,
+      "false"),
+    Validators.booleanValidator());
+
   static String getPropertyOrDefaultValue(String propertyKey, String defaultValue) {
     var propertyValue = System.getProperty(propertyKey);
 
@@ -118,7 +126,8 @@ public class CxxConfigurationModel extends AbstractConfigurationModel {
 
   @Override
   public List<ConfigurationProperty> getProperties() {
-    return Arrays.asList(charsetProperty, errorRecoveryEnabled, defines, includeDirectories, forceIncludes);
+    return Arrays.asList(charsetProperty, errorRecoveryEnabled, defines, includeDirectories, forceIncludes,
+      parserProfile);
   }
 
   @Override
@@ -161,6 +170,8 @@ public class CxxConfigurationModel extends AbstractConfigurationModel {
       getStringArray(forceIncludes.getValue()));
     config.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.INCLUDE_DIRECTORIES,
       getStringArray(includeDirectories.getValue()));
+    config.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_PROFILE,
+      parserProfile.getValue());
     return config;
   }
 
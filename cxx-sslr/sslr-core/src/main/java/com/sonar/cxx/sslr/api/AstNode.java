@@ -27,6 +27,7 @@ import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.internal.grammar.MutableParsingRule;
 
@@ -47,6 +48,8 @@ public class AstNode {
   private AstNode parent;
   private int fromIndex;
   private int toIndex;
+  private AstNodeIndex index;
+  private int indexPosition;
 
   /**
    * Node of abstract syntax tree (AST).
@@ -86,6 +89,9 @@ public class AstNode {
    */
   public void addChild(@Nullable AstNode child) {
     if (child != null) {
+      if (index != null) {
+        index.invalidate();
+      }
       if (children.isEmpty()) {
         children = new ArrayList<>();
       }
@@ -391,6 +397,10 @@ public class AstNode {
    * @since 1.17
    */
   public AstNode getFirstDescendant(AstNodeType... nodeTypes) {
+    var validIndex = getValidIndex();
+    if (validIndex != null) {
+      return validIndex.getFirstDescendant(indexPosition, nodeTypes);
+    }
     for (var child : children) {
       if (child.is(nodeTypes)) {
         return child;
@@ -456,6 +466,10 @@ public class AstNode {
    * @since 1.17
    */
   public List<AstNode> getDescendants(AstNodeType... nodeTypes) {
+    var validIndex = getValidIndex();
+    if (validIndex != null) {
+      return validIndex.getDescendants(indexPosition, nodeTypes);
+    }
     List<AstNode> result = new ArrayList<>();
     if (hasChildren()) {
       for (var child : children) {
@@ -639,6 +653,10 @@ public class AstNode {
    * @return node list
    */
   public List<Token> getTokens() {
+    var validIndex = getValidIndex();
+    if (validIndex != null) {
+      return validIndex.getTokens(indexPosition);
+    }
     List<Token> tokens = new ArrayList<>();
     getTokens(tokens);
     return tokens;
@@ -656,6 +674,29 @@ public class AstNode {
     }
   }
 
+  /**
+   * Build an index of the subtree of this node. With the index {@link #getFirstDescendant(AstNodeType...)},
+   * {@link #getDescendants(AstNodeType...)}, {@link #hasDescendant(AstNodeType...)} and {@link #getTokens()} no longer
+   * traverse the subtree of a node. Adding a child to a node of the indexed subtree invalidates the index.
+   */
+  public void buildIndex() {
+    AstNodeIndex.build(this);
+  }
+
+  void setIndex(AstNodeIndex index, int position) {
+    if (this.index != null && this.index != index) {
+      // an outer index would no longer see changes made in this subtree
+      this.index.invalidate();
+    }
+    this.index = index;
+    this.indexPosition = position;
+  }
+
+  @CheckForNull
+  private AstNodeIndex getValidIndex() {
+    return index != null && index.isValid() ? index : null;
+  }
+
   /**
    * String representation of this node.
    *
@@ -0,0 +1,170 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+
+/**
+ * Index of an AST to answer descendant queries without traversing the tree.
+ *
+ * The nodes are numbered in preorder: the descendants of a node are the nodes between its own position (exclusive)
+ * and the end position of its subtree (exclusive). For each node type the index keeps the sorted positions of the
+ * nodes of this type, a descendant query is then a binary search in this array. The tokens of the leaves are stored
+ * in document order, the tokens of a node are a slice of this array.
+ *
+ * The index is a snapshot of the tree: adding a child to an indexed node invalidates it and the queries fall back to
+ * a traversal of the tree.
+ */
+final class AstNodeIndex {
+
+  private final List<AstNode> nodes = new ArrayList<>();
+  private int[] subtreeEnd;
+  private int[] tokenStart;
+  private int[] tokenEnd;
+  private final List<Token> tokens = new ArrayList<>();
+  private final Map<AstNodeType, Positions> positionsByType = new IdentityHashMap<>();
+  private boolean valid = true;
+
+  private AstNodeIndex() {
+  }
+
+  static void build(AstNode root) {
+    var index = new AstNodeIndex();
+    index.subtreeEnd = new int[64];
+    index.tokenStart = new int[64];
+    index.tokenEnd = new int[64];
+    index.visit(root);
+  }
+
+  boolean isValid() {
+    return valid;
+  }
+
+  void invalidate() {
+    valid = false;
+  }
+
+  @CheckForNull
+  AstNode getFirstDescendant(int position, AstNodeType... nodeTypes) {
+    int first = Integer.MAX_VALUE;
+    for (var nodeType : nodeTypes) {
+      var positions = positionsByType.get(nodeType);
+      if (positions != null) {
+        int i = positions.firstAfter(position);
+        if (i < positions.size && positions.values[i] < first) {
+          first = positions.values[i];
+        }
+      }
+    }
+    return first < subtreeEnd[position] ? nodes.get(first) : null;
+  }
+
+  List<AstNode> getDescendants(int position, AstNodeType... nodeTypes) {
+    if (nodeTypes.length == 1) {
+      List<AstNode> result = new ArrayList<>();
+      var positions = positionsByType.get(nodeTypes[0]);
+      if (positions != null) {
+        for (int i = positions.firstAfter(position); i < positions.size && positions.values[i] < subtreeEnd[position];
+             i++) {
+          result.add(nodes.get(positions.values[i]));
+        }
+      }
+      return result;
+    }
+
+    // merge the slices of all types in document order, a type listed twice yields its nodes twice
+    var selected = new Positions();
+    for (var nodeType : nodeTypes) {
+      var positions = positionsByType.get(nodeType);
+      if (positions != null) {
+        for (int i = positions.firstAfter(position); i < positions.size && positions.values[i] < subtreeEnd[position];
+             i++) {
+          selected.add(positions.values[i]);
+        }
+      }
+    }
+    Arrays.sort(selected.values, 0, selected.size);
+    List<AstNode> result = new ArrayList<>(selected.size);
+    for (int i = 0; i < selected.size; i++) {
+      result.add(nodes.get(selected.values[i]));
+    }
+    return result;
+  }
+
+  List<Token> getTokens(int position) {
+    return new ArrayList<>(tokens.subList(tokenStart[position], tokenEnd[position]));
+  }
+
+  private void visit(AstNode node) {
+    int position = nodes.size();
+    nodes.add(node);
+    node.setIndex(this, position);
+    if (position == subtreeEnd.length) {
+      subtreeEnd = Arrays.copyOf(subtreeEnd, position * 2);
+      tokenStart = Arrays.copyOf(tokenStart, position * 2);
+      tokenEnd = Arrays.copyOf(tokenEnd, position * 2);
+    }
+    positionsByType.computeIfAbsent(node.getType(), k -> new Positions()).add(position);
+
+    tokenStart[position] = tokens.size();
+    if (!node.hasChildren()) {
+      if (node.hasToken()) {
+        tokens.add(node.getToken());
+      }
+    } else {
+      for (var child : node.getChildren()) {
+        visit(child);
+      }
+    }
+    tokenEnd[position] = tokens.size();
+    subtreeEnd[position] = nodes.size();
+  }
+
+  /**
+   * Growable array of sorted positions.
+   */
+  private static final class Positions {
+
+    private int[] values = new int[4];
+    private int size;
+
+    private void add(int position) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = position;
+    }
+
+    /**
+     * Returns the index of the first position greater than the given one.
+     */
+    private int firstAfter(int position) {
+      int i = Arrays.binarySearch(values, 0, size, position + 1);
+      return i >= 0 ? i : -i - 1;
+    }
+
+  }
+
+}
@@ -27,6 +27,7 @@ import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.sonar.cxx.sslr.grammar.GrammarException;
 import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
 import org.sonar.cxx.sslr.internal.grammar.MutableParsingRule;
@@ -85,6 +86,7 @@ public abstract class Grammar {
   }
 
   private void instanciateRuleFields() {
+    var modifications = new AtomicLong();
     for (var ruleField : getAllRuleFields(this.getClass())) {
       var ruleName = ruleField.getName();
       try {
@@ -92,7 +94,7 @@ public abstract class Grammar {
         if (this instanceof LexerlessGrammar) {
           rule = new MutableParsingRule(ruleName);
         } else {
-          rule = new RuleDefinition(ruleName);
+          rule = new RuleDefinition(ruleName, modifications);
         }
 
         ruleField.setAccessible(true);
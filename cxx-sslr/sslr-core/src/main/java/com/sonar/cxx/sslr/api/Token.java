@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -35,6 +36,12 @@ import javax.annotation.Nullable;
  * Tokens are string of character like an identifier, a literal, an integer, ... which are produced by the lexer to feed
  * the parser. By definition, comments and preprocessing directives should not be seen by the parser that's why such
  * Trivia, when they exist, are attached to the next token.
+ *
+ * <p>
+ * A translation unit produces a large number of tokens, the representation is therefore kept compact: a value equal to
+ * the value of the token type (keywords, punctuators) is replaced by the value of the token type, the original value
+ * is the same instance as the value if both are equal, and the rarely used copybook data is kept in a separate object.
+ * </p>
  */
 public final class Token {
 
@@ -46,22 +53,24 @@ public final class Token {
   private final URI uri;
   private final boolean generatedCode;
   private final List<Trivia> trivia;
-  private final boolean copyBook;
-  private final int copyBookOriginalLine;
-  private final String copyBookOriginalFileName;
+  @CheckForNull
+  private final CopyBook copyBook;
 
   private Token(Builder builder) {
     this.type = builder.type;
-    this.value = builder.value;
-    this.originalValue = builder.originalValue;
+    this.value = shared(builder.value, type.getValue());
+    this.originalValue = shared(builder.originalValue, value);
     this.line = builder.line;
     this.column = builder.column;
     this.uri = builder.uri;
     this.generatedCode = builder.generatedCode;
     this.trivia = builder.trivia.isEmpty() ? Collections.emptyList() : new ArrayList<>(builder.trivia);
-    this.copyBook = builder.copyBook;
-    this.copyBookOriginalLine = builder.copyBookOriginalLine;
-    this.copyBookOriginalFileName = builder.copyBookOriginalFileName;
+    this.copyBook = builder.copyBook ? new CopyBook(builder.copyBookOriginalFileName, builder.copyBookOriginalLine)
+      : null;
+  }
+
+  private static String shared(String value, String candidate) {
+    return value.equals(candidate) ? candidate : value;
   }
 
   /**
@@ -120,7 +129,7 @@ public final class Token {
   }
 
   public boolean isCopyBook() {
-    return copyBook;
+    return copyBook != null;
   }
 
   /**
@@ -152,11 +161,11 @@ public final class Token {
   }
 
   public int getCopyBookOriginalLine() {
-    return copyBookOriginalLine;
+    return copyBook != null ? copyBook.originalLine : -1;
   }
 
   public String getCopyBookOriginalFileName() {
-    return copyBookOriginalFileName;
+    return copyBook != null ? copyBook.originalFileName : "";
   }
 
   /**
@@ -222,9 +231,9 @@ public final class Token {
       column = token.column;
       trivia = token.trivia;
       generatedCode = token.generatedCode;
-      copyBook = token.copyBook;
-      copyBookOriginalLine = token.copyBookOriginalLine;
-      copyBookOriginalFileName = token.copyBookOriginalFileName;
+      copyBook = token.isCopyBook();
+      copyBookOriginalLine = token.getCopyBookOriginalLine();
+      copyBookOriginalFileName = token.getCopyBookOriginalFileName();
     }
 
     /**
@@ -396,4 +405,15 @@ public final class Token {
     }
   }
 
+  private static final class CopyBook {
+
+    private final String originalFileName;
+    private final int originalLine;
+
+    private CopyBook(String originalFileName, int originalLine) {
+      this.originalFileName = originalFileName;
+      this.originalLine = originalLine;
+    }
+  }
+
 }
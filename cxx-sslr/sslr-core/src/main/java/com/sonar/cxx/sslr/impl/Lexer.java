@@ -30,7 +30,6 @@ import com.sonar.cxx.sslr.api.Trivia;
 import java.io.File;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -110,17 +109,20 @@ public final class Lexer {
     Objects.requireNonNull(sourceCode, "sourceCode cannot be null");
 
     try {
-      return lex(new StringReader(sourceCode));
+      return lex(new CodeReader(sourceCode, configuration));
     } catch (Exception e) {
       throw new LexerException("Unable to lex string source code \"" + sourceCode + "\"", e);
     }
   }
 
   private List<Token> lex(Reader reader) {
+    return lex(new CodeReader(reader, configuration));
+  }
+
+  private List<Token> lex(CodeReader code) {
     tokens = new ArrayList<>();
 
     initPreprocessors();
-    var code = new CodeReader(reader, configuration);
     try {
       channelDispatcher.consume(code, this);
 
@@ -234,6 +236,7 @@ public final class Lexer {
     private final CodeReaderConfiguration configuration = new CodeReaderConfiguration();
     private final List<Channel<Lexer>> channels = new ArrayList<>();
     private boolean failIfNoChannelToConsumeOneCharacter = false;
+    private boolean dispatchOnFirstCharacter = false;
 
     private Builder() {
     }
@@ -262,6 +265,16 @@ public final class Lexer {
       return this;
     }
 
+    /**
+     * Offer each character only to the channels which can start on it.
+     *
+     * @see ChannelDispatcher.Builder#dispatchOnFirstCharacter()
+     */
+    public Builder withDispatchOnFirstCharacter(boolean dispatchOnFirstCharacter) {
+      this.dispatchOnFirstCharacter = dispatchOnFirstCharacter;
+      return this;
+    }
+
     private ChannelDispatcher<Lexer> getChannelDispatcher() {
       var builder = ChannelDispatcher.builder()
         .addChannels(channels.toArray(Channel[]::new));
@@ -269,6 +282,9 @@ public final class Lexer {
       if (failIfNoChannelToConsumeOneCharacter) {
         builder.failIfNoChannelToConsumeOneCharacter();
       }
+      if (dispatchOnFirstCharacter) {
+        builder.dispatchOnFirstCharacter();
+      }
 
       return builder.build();
     }
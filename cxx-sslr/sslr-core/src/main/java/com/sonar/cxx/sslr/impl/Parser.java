@@ -31,9 +31,13 @@ import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.io.File;
 import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.internal.matchers.LexerfulAstCreator;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
+import org.sonar.cxx.sslr.internal.vm.CompiledGrammar;
 import org.sonar.cxx.sslr.internal.vm.Machine;
-import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 import org.sonar.cxx.sslr.parser.ParserAdapter;
 
 /**
@@ -47,6 +51,8 @@ public class Parser<G extends Grammar> {
   private RuleDefinition rootRule;
   private final Lexer lexer;
   private final G grammar;
+  @CheckForNull
+  private ParseProfile profile;
 
   /**
    * @since 1.16
@@ -81,9 +87,33 @@ public class Parser<G extends Grammar> {
   }
 
   public AstNode parse(List<Token> tokens) {
-    // TODO can be compiled only once
-    var g = MutableGrammarCompiler.compile(rootRule);
-    return LexerfulAstCreator.create(Machine.parse(tokens, g), tokens);
+    var arena = ParseNodeArena.acquire();
+    try {
+      return LexerfulAstCreator.create(arena, Machine.parse(tokens, getCompiledGrammar(), arena, profile), tokens);
+    } finally {
+      arena.release();
+    }
+  }
+
+  /**
+   * Returns the compiled form of the root rule, see {@link RuleDefinition#getCompiledGrammar()}. Parsers with the same
+   * root rule share the compiled grammar.
+   */
+  public CompiledGrammar getCompiledGrammar() {
+    return rootRule.getCompiledGrammar();
+  }
+
+  /**
+   * Sets the profile collecting the statistics of the grammar rules of the following parse calls. Profiling slows down
+   * parsing, {@code null} (the default) switches it off.
+   */
+  public void setProfile(@Nullable ParseProfile profile) {
+    this.profile = profile;
+  }
+
+  @CheckForNull
+  public ParseProfile getProfile() {
+    return profile;
   }
 
   public G getGrammar() {
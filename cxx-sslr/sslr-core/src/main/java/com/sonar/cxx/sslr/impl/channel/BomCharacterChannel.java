@@ -46,4 +46,9 @@ public class BomCharacterChannel extends Channel<Lexer> {
     return false;
   }
 
+  @Override
+  public boolean canStartWith(char ch) {
+    return ch == BOM_CHAR;
+  }
+
 }
@@ -83,4 +83,9 @@ public class IdentifierAndKeywordChannel extends Channel<Lexer> {
     return false;
   }
 
+  @Override
+  public boolean canStartWith(char ch) {
+    return canStartWith(matcher.pattern(), ch);
+  }
+
 }
@@ -27,81 +27,95 @@ import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.api.TokenType;
 import com.sonar.cxx.sslr.impl.Lexer;
 import java.util.Arrays;
-import java.util.Comparator;
+import javax.annotation.CheckForNull;
 import org.sonar.cxx.sslr.channel.Channel;
 import org.sonar.cxx.sslr.channel.CodeReader;
 
+/**
+ * Creates punctuator tokens. The punctuators are stored in a trie, the longest punctuator matching the next characters
+ * is taken.
+ */
 public class PunctuatorChannel extends Channel<Lexer> {
 
-  private final int lookahead;
-  private final TokenType[] sortedPunctuators;
-  private final char[][] sortedPunctuatorsChars;
+  private final Node root = new Node();
   private final Token.Builder tokenBuilder = Token.builder();
 
-  private static class PunctuatorComparator implements Comparator<TokenType> {
-
-    @Override
-    public int compare(TokenType a, TokenType b) {
-      if (a.getValue().length() == b.getValue().length()) {
-        return 0;
+  public PunctuatorChannel(TokenType... punctuators) {
+    for (var punctuator : punctuators) {
+      var node = root;
+      for (var ch : punctuator.getValue().toCharArray()) {
+        node = node.getOrCreateChild(ch);
+      }
+      if (node.punctuator == null) {
+        node.punctuator = punctuator;
       }
-      return a.getValue().length() > b.getValue().length() ? -1 : 1;
     }
-
   }
 
-  public PunctuatorChannel(TokenType... punctuators) {
-    sortedPunctuators = punctuators;
-    Arrays.sort(sortedPunctuators, new PunctuatorComparator());
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    TokenType punctuator = null;
+    var length = 0;
+    var node = root;
+    for (var i = 0; (node = node.getChild(code.charAt(i))) != null; i++) {
+      if (node.punctuator != null) {
+        punctuator = node.punctuator;
+        length = i + 1;
+      }
+    }
+    if (punctuator == null) {
+      return false;
+    }
 
-    sortedPunctuatorsChars = new char[sortedPunctuators.length][];
+    var token = tokenBuilder
+      .setType(punctuator)
+      .setValueAndOriginalValue(punctuator.getValue())
+      .setURI(lexer.getURI())
+      .setLine(code.getLinePosition())
+      .setColumn(code.getColumnPosition())
+      .build();
 
-    int maxLength = 0;
-    for (int i = 0; i < sortedPunctuators.length; i++) {
-      sortedPunctuatorsChars[i] = sortedPunctuators[i].getValue().toCharArray();
-      maxLength = Math.max(maxLength, sortedPunctuatorsChars[i].length);
-    }
-    this.lookahead = maxLength;
+    lexer.addToken(token);
+
+    /* Advance the CodeReader stream by the length of the punctuator */
+    code.skip(length);
+    return true;
   }
 
   @Override
-  public boolean consume(CodeReader code, Lexer lexer) {
-    var next = code.peek(lookahead);
-    for (int i = 0; i < sortedPunctuators.length; i++) {
-      if (arraysEquals(next, sortedPunctuatorsChars[i])) {
-        var token = tokenBuilder
-          .setType(sortedPunctuators[i])
-          .setValueAndOriginalValue(sortedPunctuators[i].getValue())
-          .setURI(lexer.getURI())
-          .setLine(code.getLinePosition())
-          .setColumn(code.getColumnPosition())
-          .build();
+  public boolean canStartWith(char ch) {
+    return root.getChild(ch) != null;
+  }
 
-        lexer.addToken(token);
+  private static final class Node {
 
-        /* Advance the CodeReader stream by the length of the punctuator */
-        for (int j = 0; j < sortedPunctuatorsChars[i].length; j++) {
-          code.pop();
-        }
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    @CheckForNull
+    private TokenType punctuator;
 
-        return true;
+    @CheckForNull
+    private Node getChild(char ch) {
+      for (var i = 0; i < keys.length; i++) {
+        if (keys[i] == ch) {
+          return children[i];
+        }
       }
+      return null;
     }
 
-    return false;
-  }
-
-  /**
-   * Expected that length of second array can be less than length of first.
-   */
-  private static boolean arraysEquals(char[] a, char[] a2) {
-    int length = a2.length;
-    for (int i = 0; i < length; i++) {
-      if (a[i] != a2[i]) {
-        return false;
+    private Node getOrCreateChild(char ch) {
+      var child = getChild(ch);
+      if (child == null) {
+        child = new Node();
+        keys = Arrays.copyOf(keys, keys.length + 1);
+        children = Arrays.copyOf(children, children.length + 1);
+        keys[keys.length - 1] = ch;
+        children[children.length - 1] = child;
       }
+      return child;
     }
-    return true;
+
   }
 
 }
@@ -30,12 +30,16 @@ import com.sonar.cxx.sslr.api.Rule;
 import com.sonar.cxx.sslr.impl.ast.AlwaysSkipFromAst;
 import com.sonar.cxx.sslr.impl.ast.NeverSkipFromAst;
 import com.sonar.cxx.sslr.impl.ast.SkipFromAstIfOnlyOneChild;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.grammar.GrammarRuleKey;
 import org.sonar.cxx.sslr.internal.vm.CompilableGrammarRule;
 import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.CompiledGrammar;
 import org.sonar.cxx.sslr.internal.vm.Instruction;
 import org.sonar.cxx.sslr.internal.vm.MemoParsingExpression;
+import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
 import org.sonar.cxx.sslr.internal.vm.ParsingExpression;
 import org.sonar.cxx.sslr.internal.vm.RuleRefExpression;
 
@@ -47,18 +51,40 @@ public class RuleDefinition implements Rule, AstNodeSkippingPolicy, GrammarRuleK
 
   private final GrammarRuleKey ruleKey;
   private final String name;
+  // (re)definitions of the rules of the grammar, shared by all rules of the grammar
+  private final AtomicLong modifications;
   private ParsingExpression expression;
   private AstNodeType astNodeSkippingPolicy = NeverSkipFromAst.INSTANCE;
   private boolean memoize = false;
+  @CheckForNull
+  private volatile CompiledRootRule compiled;
 
   public RuleDefinition(String name) {
+    this(name, new AtomicLong());
+  }
+
+  public RuleDefinition(GrammarRuleKey ruleKey) {
+    this(ruleKey, new AtomicLong());
+  }
+
+  /**
+   * @param name name of the rule
+   * @param modifications counter of the rule (re)definitions, shared by all rules of a grammar
+   */
+  public RuleDefinition(String name, AtomicLong modifications) {
     this.ruleKey = this;
     this.name = name;
+    this.modifications = modifications;
   }
 
-  public RuleDefinition(GrammarRuleKey ruleKey) {
+  /**
+   * @param ruleKey key of the rule
+   * @param modifications counter of the rule (re)definitions, shared by all rules of a grammar
+   */
+  public RuleDefinition(GrammarRuleKey ruleKey, AtomicLong modifications) {
     this.ruleKey = ruleKey;
     this.name = ruleKey.toString();
+    this.modifications = modifications;
   }
 
   public String getName() {
@@ -130,6 +156,31 @@ public class RuleDefinition implements Rule, AstNodeSkippingPolicy, GrammarRuleK
   @Override
   public void setExpression(ParsingExpression expression) {
     this.expression = expression;
+    modifications.incrementAndGet();
+  }
+
+  /**
+   * Number of rule (re)definitions done so far in the grammar of this rule. A compiled grammar is only valid as long as
+   * this number does not change, because overriding a rule (e.g. in tests) changes the instructions of all rules
+   * referencing it.
+   */
+  public long getModificationCount() {
+    return modifications.get();
+  }
+
+  /**
+   * Returns the grammar compiled with this rule as root rule. The grammar is compiled on first use and shared by all
+   * parsers with this root rule until a rule of the grammar is redefined. The returned object is read-only and can be
+   * used by several threads at the same time.
+   */
+  public CompiledGrammar getCompiledGrammar() {
+    var current = compiled;
+    var count = modifications.get();
+    if (current == null || current.modifications != count) {
+      current = new CompiledRootRule(count, MutableGrammarCompiler.compile(this, true));
+      compiled = current;
+    }
+    return current.grammar;
   }
 
   @Override
@@ -149,6 +200,19 @@ public class RuleDefinition implements Rule, AstNodeSkippingPolicy, GrammarRuleK
 
   public void enableMemoization() {
     memoize = true;
+    modifications.incrementAndGet();
+  }
+
+  private static final class CompiledRootRule {
+
+    private final long modifications;
+    private final CompiledGrammar grammar;
+
+    private CompiledRootRule(long modifications, CompiledGrammar grammar) {
+      this.modifications = modifications;
+      this.grammar = grammar;
+    }
+
   }
 
 }
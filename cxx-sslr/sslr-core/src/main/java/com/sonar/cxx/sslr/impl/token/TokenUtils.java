@@ -28,7 +28,6 @@ import static com.sonar.cxx.sslr.api.GenericTokenType.IDENTIFIER;
 import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.api.TokenType;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -36,6 +35,9 @@ import org.sonar.cxx.sslr.channel.CodeReader;
 
 public final class TokenUtils {
 
+  @SuppressWarnings("java:S1075")
+  private static final URI FAKE_URI = URI.create("tests://unittest");
+
   private TokenUtils() {
   }
 
@@ -94,19 +96,14 @@ public final class TokenUtils {
     return tokens;
   }
 
-  @SuppressWarnings("java:S1075")
   public static Token tokenBuilder(TokenType type, String value, int line, int column) {
-    try {
-      return Token.builder()
-        .setType(type)
-        .setValueAndOriginalValue(value)
-        .setURI(new URI("tests://unittest"))
-        .setLine(line)
-        .setColumn(column).
-        build();
-    } catch (URISyntaxException e) {
-      throw new RuntimeException(e);
-    }
+    return Token.builder()
+      .setType(type)
+      .setValueAndOriginalValue(value)
+      .setURI(FAKE_URI)
+      .setLine(line)
+      .setColumn(column).
+      build();
   }
 
 }
@@ -23,6 +23,8 @@
  */
 package org.sonar.cxx.sslr.channel; // cxx: in use
 
+import java.util.regex.Pattern;
+
 public abstract class Channel<O> {
 
   /**
@@ -36,4 +38,27 @@ public abstract class Channel<O> {
    * @return false if the Channel doesn't want to consume the character stream, true otherwise.
    */
   public abstract boolean consume(CodeReader code, O output);
+
+  /**
+   * Tells whether the Channel may consume the character stream if it starts with the given character. The
+   * {@link ChannelDispatcher} uses the answer to build its first character dispatch table: a Channel is never asked to
+   * consume a character stream starting with a character for which this method returns false. Channels which observe
+   * characters without consuming them must also return true for these characters.
+   *
+   * @param ch
+   *          the first character of the character stream
+   * @return true if the Channel might consume a character stream starting with ch (default), false otherwise
+   */
+  public boolean canStartWith(char ch) {
+    return true;
+  }
+
+  /**
+   * Tells whether a regular expression, applied at the beginning of a character stream, might match a character stream
+   * starting with the given character.
+   */
+  protected static boolean canStartWith(Pattern pattern, char ch) {
+    var matcher = pattern.matcher(String.valueOf(ch));
+    return matcher.lookingAt() || matcher.hitEnd();
+  }
 }
@@ -25,16 +25,42 @@ package org.sonar.cxx.sslr.channel; // cxx: in use
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.CheckForNull;
 
 public final class ChannelDispatcher<O> extends Channel<O> {
 
+  private static final int ASCII_SIZE = 128;
+
   private final boolean failIfNoChannelToConsumeOneCharacter;
 
   private final Channel<O>[] channels;
 
+  /**
+   * Channels to try for each ASCII character, in registration order, or null if all channels are tried.
+   */
+  @CheckForNull
+  private final Channel<O>[][] dispatchTable;
+
   private ChannelDispatcher(Builder builder) {
     this.channels = builder.channels.toArray(Channel[]::new);
     this.failIfNoChannelToConsumeOneCharacter = builder.failIfNoChannelToConsumeOneCharacter;
+    this.dispatchTable = builder.dispatchOnFirstCharacter ? createDispatchTable(channels) : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <O> Channel<O>[][] createDispatchTable(Channel<O>[] channels) {
+    var table = new Channel[ASCII_SIZE][];
+    var candidates = new ArrayList<Channel<O>>();
+    for (var ch = 0; ch < ASCII_SIZE; ch++) {
+      candidates.clear();
+      for (var channel : channels) {
+        if (channel.canStartWith((char) ch)) {
+          candidates.add(channel);
+        }
+      }
+      table[ch] = candidates.toArray(Channel[]::new);
+    }
+    return table;
   }
 
   @Override
@@ -42,7 +68,7 @@ public final class ChannelDispatcher<O> extends Channel<O> {
     int nextChar = code.peek();
     while (nextChar != -1) {
       var characterConsumed = false;
-      for (var channel : channels) {
+      for (var channel : channelsFor(nextChar)) {
         if (channel.consume(code, output)) {
           characterConsumed = true;
           break;
@@ -62,6 +88,23 @@ public final class ChannelDispatcher<O> extends Channel<O> {
     return true;
   }
 
+  private Channel<O>[] channelsFor(int ch) {
+    if (dispatchTable != null && ch < ASCII_SIZE) {
+      return dispatchTable[ch];
+    }
+    return channels;
+  }
+
+  @Override
+  public boolean canStartWith(char ch) {
+    for (var channel : channelsFor(ch)) {
+      if (channel.canStartWith(ch)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   Channel[] getChannels() {
     return channels;
   }
@@ -77,6 +120,7 @@ public final class ChannelDispatcher<O> extends Channel<O> {
 
     private final List<Channel> channels = new ArrayList<>();
     private boolean failIfNoChannelToConsumeOneCharacter = false;
+    private boolean dispatchOnFirstCharacter = false;
 
     private Builder() {
     }
@@ -102,6 +146,16 @@ public final class ChannelDispatcher<O> extends Channel<O> {
       return this;
     }
 
+    /**
+     * If this option is activated, the dispatcher precomputes for each ASCII character the channels which can start
+     * on it (see {@link Channel#canStartWith(char)}) and tries only these channels, in registration order. Non-ASCII
+     * characters are still offered to all channels.
+     */
+    public Builder dispatchOnFirstCharacter() {
+      dispatchOnFirstCharacter = true;
+      return this;
+    }
+
     public <O> ChannelDispatcher<O> build() {
       return new ChannelDispatcher<>(this);
     }
@@ -27,6 +27,7 @@ import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.CharBuffer;
 
 /**
  * The CodeBuffer class provides all the basic features required to manipulate a source code character stream. Those
@@ -38,6 +39,9 @@ import java.io.StringReader;
  * <li>Read without consuming character at the specified index after the cursor</li>
  * <li>Position of the pending cursor : line and column</li>
  * </ul>
+ *
+ * Without CodeReaderFilters, code passed in as {@code CharSequence} or {@code char[]} is used directly as buffer, without
+ * copying it. Recorded characters and {@code getText} are views on the buffer, described by offsets into it.
  */
 public class CodeBuffer implements CharSequence {
 
@@ -46,22 +50,58 @@ public class CodeBuffer implements CharSequence {
 
   private int lastChar = -1;
   private Cursor cursor;
-  private char[] buffer;
+  // the buffer is either a char array or a char sequence
+  private char[] bufferArray;
+  private CharSequence buffer;
+  private int bufferLength;
   private int bufferPosition = 0;
   private int tabWidth;
 
-  private boolean recordingMode = false;
-  private StringBuilder recordedCharacters = new StringBuilder();
+  // offset in buffer where recording started, -1 if not recording
+  private int recordingStart = -1;
 
   protected CodeBuffer(String code, CodeReaderConfiguration configuration) {
-    this(new StringReader(code), configuration);
+    this((CharSequence) code, configuration);
+  }
+
+  /**
+   * Uses code as buffer without copying it, if no CodeReaderFilters are configured. The code must not be modified while
+   * it is read.
+   */
+  protected CodeBuffer(CharSequence code, CodeReaderConfiguration configuration) {
+    if (configuration.getCodeReaderFilters().length == 0) {
+      cursor = new Cursor();
+      tabWidth = configuration.getTabWidth();
+      setBuffer(code);
+    } else {
+      init(new StringReader(code.toString()), configuration);
+    }
+  }
+
+  /**
+   * Uses code as buffer without copying it, if no CodeReaderFilters are configured. The code must not be modified while
+   * it is read.
+   */
+  protected CodeBuffer(char[] code, CodeReaderConfiguration configuration) {
+    if (configuration.getCodeReaderFilters().length == 0) {
+      cursor = new Cursor();
+      tabWidth = configuration.getTabWidth();
+      bufferArray = code;
+      buffer = CharBuffer.wrap(code);
+      bufferLength = code.length;
+    } else {
+      init(new StringReader(new String(code)), configuration);
+    }
   }
 
   /**
    * Note that this constructor will read everything from reader and will close it.
    */
   protected CodeBuffer(Reader initialCodeReader, CodeReaderConfiguration configuration) {
+    init(initialCodeReader, configuration);
+  }
 
+  private void init(Reader initialCodeReader, CodeReaderConfiguration configuration) {
     /* Make sure the reader passed-in gets closed when done. */
     try (var reader = initialCodeReader) {
       lastChar = -1;
@@ -77,7 +117,7 @@ public class CodeBuffer implements CharSequence {
 
       /* Make sure to close the filtered reader when done (cascading through the lot) */
       try (var usedReader = filteredReader) {
-        buffer = read(usedReader);
+        setBuffer(read(usedReader));
       }
 
     } catch (IOException e) {
@@ -85,14 +125,19 @@ public class CodeBuffer implements CharSequence {
     }
   }
 
-  private static char[] read(Reader reader) throws IOException {
+  private void setBuffer(CharSequence code) {
+    buffer = code;
+    bufferLength = code.length();
+  }
+
+  private static String read(Reader reader) throws IOException {
     var sb = new StringBuilder();
     var str = new char[4 * 1024];
     int n;
     while ((n = reader.read(str)) > 0) {
       sb.append(str, 0, n);
     }
-    return sb.toString().toCharArray();
+    return sb.toString();
   }
 
   /**
@@ -101,15 +146,12 @@ public class CodeBuffer implements CharSequence {
    * @return the next character or -1 if the end of the stream is reached
    */
   public final int pop() {
-    if (bufferPosition >= buffer.length) {
+    if (bufferPosition >= bufferLength) {
       return -1;
     }
-    int character = buffer[bufferPosition];
+    int character = bufferArray != null ? bufferArray[bufferPosition] : buffer.charAt(bufferPosition);
     bufferPosition++;
     updateCursorPosition(character);
-    if (recordingMode) {
-      recordedCharacters.append((char) character);
-    }
     lastChar = character;
     return character;
   }
@@ -191,14 +233,41 @@ public class CodeBuffer implements CharSequence {
     this.cursor.line = lp;
   }
 
+  /**
+   * @return offset of the cursor in the buffer (number of consumed characters)
+   */
+  public final int getPosition() {
+    return bufferPosition;
+  }
+
+  /**
+   * Returns a view on the buffer without copying it.
+   *
+   * @param start start offset in the buffer, inclusive
+   * @param end end offset in the buffer, exclusive
+   * @return characters between start and end
+   */
+  public final CharSequence getText(int start, int end) {
+    return CharBuffer.wrap(buffer, start, end);
+  }
+
   public final void startRecording() {
-    recordingMode = true;
+    if (recordingStart < 0) {
+      recordingStart = bufferPosition;
+    }
   }
 
+  /**
+   * Stops recording.
+   *
+   * @return the characters consumed since {@code startRecording}, as view on the buffer
+   */
   public final CharSequence stopRecording() {
-    recordingMode = false;
-    CharSequence result = recordedCharacters;
-    recordedCharacters = new StringBuilder();
+    if (recordingStart < 0) {
+      return "";
+    }
+    var result = getText(recordingStart, bufferPosition);
+    recordingStart = -1;
     return result;
   }
 
@@ -215,10 +284,10 @@ public class CodeBuffer implements CharSequence {
   }
 
   protected final int intAt(int index) {
-    if (bufferPosition + index >= buffer.length) {
+    if (bufferPosition + index >= bufferLength) {
       return -1;
     }
-    return buffer[bufferPosition + index];
+    return bufferArray != null ? bufferArray[bufferPosition + index] : buffer.charAt(bufferPosition + index);
   }
 
   /**
@@ -226,7 +295,7 @@ public class CodeBuffer implements CharSequence {
    */
   @Override
   public final int length() {
-    return buffer.length - bufferPosition;
+    return bufferLength - bufferPosition;
   }
 
   @Override
@@ -71,6 +71,28 @@ public class CodeReader extends CodeBuffer {
     super(code, configuration);
   }
 
+  /**
+   * Creates a code reader with specific configuration parameters. Without CodeReaderFilters the code is read directly,
+   * without copying it; it must not be modified while it is read.
+   *
+   * @param code the code itself
+   * @param configuration the configuration parameters
+   */
+  public CodeReader(CharSequence code, CodeReaderConfiguration configuration) {
+    super(code, configuration);
+  }
+
+  /**
+   * Creates a code reader with specific configuration parameters. Without CodeReaderFilters the code is read directly,
+   * without copying it; it must not be modified while it is read.
+   *
+   * @param code the code itself
+   * @param configuration the configuration parameters
+   */
+  public CodeReader(char[] code, CodeReaderConfiguration configuration) {
+    super(code, configuration);
+  }
+
   /**
    * Read and consume the next character
    *
@@ -154,9 +176,11 @@ public class CodeReader extends CodeBuffer {
           }
         }
         previousCursor = getCursor().clone();
+        int start = getPosition();
         for (int i = 0; i < matcher.end(); i++) {
-          appendable.append((char) pop());
+          pop();
         }
+        appendable.append(getText(start, getPosition()));
         return matcher.end();
       }
     } catch (StackOverflowError e) {
@@ -29,6 +29,8 @@ import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import org.sonar.cxx.sslr.internal.grammar.MutableGrammar;
 import org.sonar.cxx.sslr.internal.vm.FirstOfExpression;
@@ -62,6 +64,7 @@ import org.sonar.cxx.sslr.internal.vm.lexerful.TokensBridgeExpression;
 public final class LexerfulGrammarBuilder extends GrammarBuilder {
 
   private final Map<GrammarRuleKey, RuleDefinition> definitions = new HashMap<>();
+  private final AtomicLong modifications = new AtomicLong();
   private GrammarRuleKey rootRuleKey;
 
   private LexerfulGrammarBuilder() {
@@ -76,7 +79,7 @@ public final class LexerfulGrammarBuilder extends GrammarBuilder {
    */
   @Override
   public GrammarRuleBuilder rule(GrammarRuleKey ruleKey) {
-    var rule = definitions.computeIfAbsent(ruleKey, RuleDefinition::new);
+    var rule = definitions.computeIfAbsent(ruleKey, key -> new RuleDefinition(key, modifications));
     return new RuleBuilder(this, rule);
   }
 
@@ -113,8 +116,23 @@ public final class LexerfulGrammarBuilder extends GrammarBuilder {
    * @see #build()
    */
   public Grammar buildWithMemoizationOfMatchesForAllRules() {
+    return buildWithMemoizationOfMatchesForRules(ruleKey -> true);
+  }
+
+  /**
+   * Constructs grammar with memoization of matches for the accepted rules, e.g. the rules with the most repeats in a
+   * {@link org.sonar.cxx.sslr.parser.ParseProfile}.
+   *
+   * @param rules accepts the keys of the rules to memoize
+   * @throws GrammarException if some of rules were used, but not defined
+   * @return grammar
+   * @see #build()
+   */
+  public Grammar buildWithMemoizationOfMatchesForRules(Predicate<GrammarRuleKey> rules) {
     for (var rule : definitions.values()) {
-      rule.enableMemoization();
+      if (rules.test(rule.getRuleKey())) {
+        rule.enableMemoization();
+      }
     }
     return build();
   }
@@ -29,18 +29,22 @@ import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.internal.vm.lexerful.TokenTypeExpression;
 
 public final class LexerfulAstCreator {
 
   private final List<Token> tokens;
+  @Nullable
+  private final ParseNodeArena arena;
 
-  private LexerfulAstCreator(List<Token> tokens) {
+  private LexerfulAstCreator(List<Token> tokens, @Nullable ParseNodeArena arena) {
     this.tokens = tokens;
+    this.arena = arena;
   }
 
   public static AstNode create(ParseNode node, List<Token> tokens) {
-    var astNode = new LexerfulAstCreator(tokens).visit(node);
+    var astNode = new LexerfulAstCreator(tokens, null).visit(node);
     if (astNode == null) {
       throw new IllegalStateException("create ParseNode: "
         + node.toString()
@@ -48,6 +52,24 @@ public final class LexerfulAstCreator {
     }
     // Unwrap AstNodeType for root node:
     astNode.hasToBeSkippedFromAst();
+    astNode.buildIndex();
+
+    return astNode;
+  }
+
+  /**
+   * Creates the AST from a parse tree stored in an arena.
+   */
+  public static AstNode create(ParseNodeArena arena, int node, List<Token> tokens) {
+    var astNode = new LexerfulAstCreator(tokens, arena).visit(node);
+    if (astNode == null) {
+      throw new IllegalStateException("create ParseNode: "
+        + arena.getMatcher(node)
+        + " Tokens: " + tokens.toString());
+    }
+    // Unwrap AstNodeType for root node:
+    astNode.hasToBeSkippedFromAst();
+    astNode.buildIndex();
 
     return astNode;
   }
@@ -56,46 +78,67 @@ public final class LexerfulAstCreator {
     if (node.getMatcher() instanceof RuleDefinition) {
       return visitNonTerminal(node);
     } else {
-      return visitTerminal(node);
+      return visitTerminal(node.getMatcher(), node.getStartIndex(), node.getEndIndex());
+    }
+  }
+
+  private AstNode visit(int node) {
+    if (arena.getMatcher(node) instanceof RuleDefinition) {
+      return visitNonTerminal(node);
+    } else {
+      return visitTerminal(arena.getMatcher(node), arena.getStartIndex(node), arena.getEndIndex(node));
     }
   }
 
   private AstNode visitNonTerminal(ParseNode node) {
     List<AstNode> astNodes = new ArrayList<>();
     for (var child : node.getChildren()) {
-      var astNode = visit(child);
-      if (astNode == null) {
-        // skip
-      } else if (astNode.hasToBeSkippedFromAst()) {
-        astNodes.addAll(astNode.getChildren());
-      } else {
-        astNodes.add(astNode);
-      }
+      addChild(astNodes, visit(child));
+    }
+    return createNonTerminal((RuleDefinition) node.getMatcher(), node.getStartIndex(), node.getEndIndex(), astNodes);
+  }
+
+  private AstNode visitNonTerminal(int node) {
+    List<AstNode> astNodes = new ArrayList<>();
+    for (int child = arena.getFirstChild(node); child != ParseNodeArena.NONE; child = arena.getNextSibling(child)) {
+      addChild(astNodes, visit(child));
     }
+    return createNonTerminal((RuleDefinition) arena.getMatcher(node), arena.getStartIndex(node),
+      arena.getEndIndex(node), astNodes);
+  }
 
-    var ruleMatcher = (RuleDefinition) node.getMatcher();
+  private static void addChild(List<AstNode> astNodes, @Nullable AstNode astNode) {
+    if (astNode == null) {
+      // skip
+    } else if (astNode.hasToBeSkippedFromAst()) {
+      astNodes.addAll(astNode.getChildren());
+    } else {
+      astNodes.add(astNode);
+    }
+  }
 
-    var token = node.getStartIndex() < tokens.size() ? tokens.get(node.getStartIndex()) : null;
+  private AstNode createNonTerminal(RuleDefinition ruleMatcher, int startIndex, int endIndex, List<AstNode> astNodes) {
+    var token = startIndex < tokens.size() ? tokens.get(startIndex) : null;
     var astNode = new AstNode(ruleMatcher, ruleMatcher.getName(), token);
     for (var child : astNodes) {
       astNode.addChild(child);
     }
-    astNode.setFromIndex(node.getStartIndex());
-    astNode.setToIndex(node.getEndIndex());
+    astNode.setFromIndex(startIndex);
+    astNode.setToIndex(endIndex);
 
     return astNode;
   }
 
   @CheckForNull
-  private AstNode visitTerminal(ParseNode node) {
-    var token = tokens.get(node.getStartIndex());
+  private AstNode visitTerminal(Matcher matcher, int startIndex, int endIndex) {
+    var token = tokens.get(startIndex);
     // For compatibility with SSLR < 1.19, TokenType should be checked only for TokenTypeExpression:
-    if ((node.getMatcher() instanceof TokenTypeExpression) && token.getType().hasToBeSkippedFromAst(null)) {
+    if ((matcher instanceof TokenTypeExpression) && token.getType().hasToBeSkippedFromAst(null)) {
       return null;
     }
     var astNode = new AstNode(token);
-    astNode.setFromIndex(node.getStartIndex());
-    astNode.setToIndex(node.getEndIndex());
+    astNode.setFromIndex(startIndex);
+    astNode.setToIndex(endIndex);
     return astNode;
   }
 
@@ -0,0 +1,153 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.matchers;
+
+import java.util.Arrays;
+
+/**
+ * Parse tree stored as struct of arrays: a node is an index into parallel arrays holding start index, end index,
+ * matcher, first child and next sibling. Nodes are appended only, a parse does not allocate per node objects and the
+ * arrays are reused by the following parses of the same thread.
+ *
+ * <p>
+ * The children of a node are linked by their next sibling. A node can therefore be child of one node only, a node
+ * shared by several parents (memoization) has to be added with {@link #copy(int)}.</p>
+ */
+public final class ParseNodeArena {
+
+  public static final int NONE = -1;
+
+  private static final int INITIAL_CAPACITY = 1 << 12;
+  // capacity above which the arrays are not kept for the next parse
+  private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+  private static final ThreadLocal<ParseNodeArena> ARENAS = ThreadLocal.withInitial(ParseNodeArena::new);
+
+  private int[] starts;
+  private int[] ends;
+  private Matcher[] matchers;
+  private int[] firstChildren;
+  private int[] nextSiblings;
+  private int size;
+  private boolean inUse;
+
+  public ParseNodeArena() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns the arena of the current thread, or a new arena if the arena of the current thread is in use. The arena
+   * has to be given back with {@link #release()}.
+   */
+  public static ParseNodeArena acquire() {
+    var arena = ARENAS.get();
+    if (arena.inUse) {
+      arena = new ParseNodeArena();
+    }
+    arena.inUse = true;
+    return arena;
+  }
+
+  /**
+   * Removes all nodes, the arena can be acquired again.
+   */
+  public void release() {
+    if (starts.length > MAX_RETAINED_CAPACITY) {
+      allocate(INITIAL_CAPACITY);
+    } else {
+      Arrays.fill(matchers, 0, size, null);
+    }
+    size = 0;
+    inUse = false;
+  }
+
+  /**
+   * Adds a node.
+   *
+   * @return the new node
+   */
+  public int add(int startIndex, int endIndex, Matcher matcher, int firstChild) {
+    if (size == starts.length) {
+      grow();
+    }
+    starts[size] = startIndex;
+    ends[size] = endIndex;
+    matchers[size] = matcher;
+    firstChildren[size] = firstChild;
+    nextSiblings[size] = NONE;
+    return size++;
+  }
+
+  /**
+   * Adds a node with the same range, matcher and children as the given node, but without next sibling.
+   */
+  public int copy(int node) {
+    return add(starts[node], ends[node], matchers[node], firstChildren[node]);
+  }
+
+  public void setNextSibling(int node, int nextSibling) {
+    nextSiblings[node] = nextSibling;
+  }
+
+  public int getStartIndex(int node) {
+    return starts[node];
+  }
+
+  /**
+   * Be aware that element of input with this index is not included into this node.
+   */
+  public int getEndIndex(int node) {
+    return ends[node];
+  }
+
+  public Matcher getMatcher(int node) {
+    return matchers[node];
+  }
+
+  public int getFirstChild(int node) {
+    return firstChildren[node];
+  }
+
+  public int getNextSibling(int node) {
+    return nextSiblings[node];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void allocate(int capacity) {
+    starts = new int[capacity];
+    ends = new int[capacity];
+    matchers = new Matcher[capacity];
+    firstChildren = new int[capacity];
+    nextSiblings = new int[capacity];
+  }
+
+  private void grow() {
+    var capacity = starts.length * 2;
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    matchers = Arrays.copyOf(matchers, capacity);
+    firstChildren = Arrays.copyOf(firstChildren, capacity);
+    nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+  }
+
+}
@@ -29,4 +29,12 @@ public class CompilationHandler {
     return expression.compile(this);
   }
 
+  /**
+   * Returns the FIRST set of an expression. This implementation does not analyze the grammar, all expressions are
+   * {@link FirstTokens#UNKNOWN} and ordered choices are compiled without prediction.
+   */
+  public FirstTokens firstTokens(ParsingExpression expression) {
+    return FirstTokens.UNKNOWN;
+  }
+
 }
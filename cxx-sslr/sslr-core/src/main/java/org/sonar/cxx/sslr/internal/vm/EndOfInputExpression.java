@@ -39,6 +39,11 @@ public final class EndOfInputExpression extends NativeExpression {
     }
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.EMPTY;
+  }
+
   @Override
   public String toString() {
     return "EndOfInput";
@@ -25,6 +25,7 @@ package org.sonar.cxx.sslr.internal.vm; // cxx: in use
 
 import com.sonar.cxx.sslr.api.RecognitionException;
 import java.util.Arrays;
+import javax.annotation.CheckForNull;
 
 public class FirstOfExpression implements ParsingExpression {
 
@@ -49,6 +50,20 @@ public class FirstOfExpression implements ParsingExpression {
    * L3: subExpression[3]
    * E: ...
    * </pre>
+   *
+   * If the compiler can determine the first tokens of at least one alternative, every alternative starts with a
+   * PredictChoice instead. It jumps directly to the next alternative, which can start with the current token:
+   * <pre>
+   * PredictChoice 0
+   * subExpression[0]
+   * Commit E
+   * PredictChoice 1
+   * subExpression[1]
+   * Commit E
+   * PredictChoice 2
+   * subExpression[2]
+   * E: ...
+   * </pre>
    */
   @Override
   public Instruction[] compile(CompilationHandler compiler) {
@@ -61,6 +76,12 @@ public class FirstOfExpression implements ParsingExpression {
       sub[i] = compiler.compile(subExpressions[i]);
       index += sub[i].length;
     }
+
+    var prediction = predict(compiler);
+    if (prediction != null) {
+      return compile(sub, index, prediction);
+    }
+
     var result = new Instruction[index + (subExpressions.length - 1) * 2];
 
     index = 0;
@@ -76,6 +97,48 @@ public class FirstOfExpression implements ParsingExpression {
     return result;
   }
 
+  private static Instruction[] compile(Instruction[][] sub, int length, FirstTokenPrediction prediction) {
+    var result = new Instruction[length + sub.length * 2 - 1];
+    var starts = new int[sub.length];
+
+    int index = 0;
+    for (int i = 0; i < sub.length; i++) {
+      starts[i] = index;
+      result[index] = Instruction.predictChoice(prediction, i, starts);
+      System.arraycopy(sub[i], 0, result, index + 1, sub[i].length);
+      index += sub[i].length + 1;
+      if (i < sub.length - 1) {
+        result[index] = Instruction.commit(result.length - index);
+        index++;
+      }
+    }
+
+    return result;
+  }
+
+  @CheckForNull
+  private FirstTokenPrediction predict(CompilationHandler compiler) {
+    if (subExpressions.length < 2 || subExpressions.length > FirstTokenPrediction.MAX_ALTERNATIVES) {
+      return null;
+    }
+    var alternatives = new FirstTokens[subExpressions.length];
+    var predictable = false;
+    for (int i = 0; i < subExpressions.length; i++) {
+      alternatives[i] = compiler.firstTokens(subExpressions[i]);
+      predictable |= alternatives[i].isPredictable();
+    }
+    return predictable ? new FirstTokenPrediction(alternatives) : null;
+  }
+
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    var result = FirstTokens.NONE;
+    for (var subExpression : subExpressions) {
+      result = result.or(compiler.firstTokens(subExpression));
+    }
+    return result;
+  }
+
   @Override
   public String toString() {
     return "FirstOf" + Arrays.toString(subExpressions);
@@ -0,0 +1,100 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps a token to the alternatives of an ordered choice, which can start with this token. Alternatives are bits of a
+ * long, therefore at most 64 alternatives are supported.
+ */
+final class FirstTokenPrediction {
+
+  static final int MAX_ALTERNATIVES = Long.SIZE;
+
+  private final long all;
+  private final long unpredictable;
+  private final long matchedInRule;
+  private final Map<TokenType, Long> byType = new HashMap<>();
+  private final Map<String, Long> byValue = new HashMap<>();
+  private final Map<Class<?>, Long> byTypeClass = new HashMap<>();
+
+  FirstTokenPrediction(FirstTokens[] alternatives) {
+    long allBits = 0;
+    long unpredictableBits = 0;
+    long matchedInRuleBits = 0;
+    for (int i = 0; i < alternatives.length; i++) {
+      long bit = 1L << i;
+      var alternative = alternatives[i];
+      allBits |= bit;
+      if (alternative.isMatchedInRule()) {
+        matchedInRuleBits |= bit;
+      }
+      if (alternative.isPredictable()) {
+        alternative.getTypes().forEach(type -> byType.merge(type, bit, (a, b) -> a | b));
+        alternative.getValues().forEach(value -> byValue.merge(value, bit, (a, b) -> a | b));
+        alternative.getTypeClasses().forEach(typeClass -> byTypeClass.merge(typeClass, bit, (a, b) -> a | b));
+      } else {
+        unpredictableBits |= bit;
+      }
+    }
+    this.all = allBits;
+    this.unpredictable = unpredictableBits;
+    this.matchedInRule = matchedInRuleBits;
+  }
+
+  /**
+   * @return bits of all alternatives
+   */
+  long all() {
+    return all;
+  }
+
+  /**
+   * @return bits of the alternatives, which match the first token inside of a rule
+   */
+  long matchedInRule() {
+    return matchedInRule;
+  }
+
+  /**
+   * @return bits of the alternatives, which can start with the token
+   */
+  long candidates(Token token) {
+    long result = unpredictable;
+    var type = token.getType();
+    result |= bits(byType.get(type));
+    if (!byValue.isEmpty()) {
+      result |= bits(byValue.get(token.getValue()));
+    }
+    if (!byTypeClass.isEmpty()) {
+      result |= bits(byTypeClass.get(type.getClass()));
+    }
+    return result;
+  }
+
+  private static long bits(Long value) {
+    return value == null ? 0 : value;
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.api.TokenType;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tokens, which can be consumed first by a parsing expression of a lexerful grammar (FIRST set).
+ *
+ * <p>
+ * The set is conservative: an expression can only match at a token, if the token is contained in the set or if the
+ * expression can match without consuming a token (nullable). Expressions, which can not be analyzed, are
+ * {@link #UNKNOWN}.</p>
+ */
+public final class FirstTokens {
+
+  /**
+   * Expression can match any token or nothing, no prediction is possible.
+   */
+  public static final FirstTokens UNKNOWN = new FirstTokens(true, true, false, Set.of(), Set.of(), Set.of());
+
+  /**
+   * Expression matches any single token.
+   */
+  public static final FirstTokens ANY = new FirstTokens(true, false, false, Set.of(), Set.of(), Set.of());
+
+  /**
+   * Expression does not consume tokens, e.g. a syntactic predicate.
+   */
+  public static final FirstTokens EMPTY = new FirstTokens(false, true, false, Set.of(), Set.of(), Set.of());
+
+  /**
+   * Expression never matches.
+   */
+  public static final FirstTokens NONE = new FirstTokens(false, false, false, Set.of(), Set.of(), Set.of());
+
+  private final boolean any;
+  private final boolean nullable;
+  private final boolean rule;
+  private final Set<TokenType> types;
+  private final Set<String> values;
+  private final Set<Class<?>> typeClasses;
+
+  private FirstTokens(boolean any, boolean nullable, boolean rule, Set<TokenType> types, Set<String> values,
+    Set<Class<?>> typeClasses) {
+    this.any = any;
+    this.nullable = nullable;
+    this.rule = rule;
+    this.types = types;
+    this.values = values;
+    this.typeClasses = typeClasses;
+  }
+
+  public static FirstTokens ofTypes(Set<TokenType> types) {
+    return new FirstTokens(false, false, false, Collections.unmodifiableSet(new HashSet<>(types)), Set.of(), Set.of());
+  }
+
+  public static FirstTokens ofValue(String value) {
+    return new FirstTokens(false, false, false, Set.of(), Set.of(value), Set.of());
+  }
+
+  public static FirstTokens ofTypeClass(Class<?> typeClass) {
+    return new FirstTokens(false, false, false, Set.of(), Set.of(), Set.of(typeClass));
+  }
+
+  /**
+   * @return true, if the expression can match without consuming a token
+   */
+  public boolean isNullable() {
+    return nullable;
+  }
+
+  /**
+   * @return true, if it can be decided from the current token that the expression does not match
+   */
+  public boolean isPredictable() {
+    return !any && !nullable;
+  }
+
+  /**
+   * @return true, if the first token is matched inside of a rule, a failure at the first token is then reported to the
+   * {@link MachineHandler}
+   */
+  public boolean isMatchedInRule() {
+    return rule;
+  }
+
+  Set<TokenType> getTypes() {
+    return types;
+  }
+
+  Set<String> getValues() {
+    return values;
+  }
+
+  Set<Class<?>> getTypeClasses() {
+    return typeClasses;
+  }
+
+  /**
+   * @return true, if an expression with this FIRST set can match at the given token
+   */
+  public boolean canStartWith(Token token) {
+    return !isPredictable()
+      || types.contains(token.getType())
+      || values.contains(token.getValue())
+      || typeClasses.contains(token.getType().getClass());
+  }
+
+  /**
+   * FIRST set of an ordered choice of this and the other expression.
+   */
+  public FirstTokens or(FirstTokens other) {
+    return new FirstTokens(any || other.any, nullable || other.nullable, rule || other.rule,
+      union(types, other.types), union(values, other.values),
+      union(typeClasses, other.typeClasses));
+  }
+
+  /**
+   * FIRST set of a sequence of this and the other expression.
+   */
+  public FirstTokens then(FirstTokens other) {
+    if (!nullable) {
+      return this;
+    }
+    return new FirstTokens(any || other.any, other.nullable, rule || other.rule,
+      union(types, other.types), union(values, other.values),
+      union(typeClasses, other.typeClasses));
+  }
+
+  /**
+   * FIRST set of this expression, which is allowed to match nothing.
+   */
+  public FirstTokens optional() {
+    return nullable ? this : new FirstTokens(any, true, rule, types, values, typeClasses);
+  }
+
+  /**
+   * FIRST set of a rule with this expression.
+   */
+  public FirstTokens inRule() {
+    return rule ? this : new FirstTokens(any, nullable, true, types, values, typeClasses);
+  }
+
+  private static <T> Set<T> union(Set<T> a, Set<T> b) {
+    if (b.isEmpty() || a.containsAll(b)) {
+      return a;
+    } else if (a.isEmpty()) {
+      return b;
+    }
+    var result = new HashSet<>(a);
+    result.addAll(b);
+    return Collections.unmodifiableSet(result);
+  }
+
+  @Override
+  public String toString() {
+    if (any) {
+      return nullable ? "UNKNOWN" : "ANY";
+    }
+    return "FirstTokens[types=" + types + ", values=" + values + ", typeClasses=" + typeClasses
+      + (nullable ? ", nullable" : "") + "]";
+  }
+
+}
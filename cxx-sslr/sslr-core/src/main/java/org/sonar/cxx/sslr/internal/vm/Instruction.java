@@ -65,6 +65,15 @@ public abstract class Instruction {
     return new ChoiceInstruction(offset);
   }
 
+  /**
+   * Choice for one alternative of an ordered choice, which predicts the alternatives from the current token.
+   *
+   * @param starts start addresses of all alternatives, relative to the first alternative
+   */
+  static Instruction predictChoice(FirstTokenPrediction prediction, int alternative, int[] starts) {
+    return new PredictChoiceInstruction(prediction, alternative, starts);
+  }
+
   public static Instruction predicateChoice(int offset) {
     return new PredicateChoiceInstruction(offset);
   }
@@ -221,6 +230,55 @@ public abstract class Instruction {
     }
   }
 
+  /**
+   * Starts an alternative of an ordered choice, which has been compiled by {@link FirstOfExpression} with a prediction.
+   * Each alternative starts with this instruction. Alternatives, which can not start with the current token, are
+   * skipped and the choice is made for the next alternative which can. If there is none left, the machine backtracks.
+   */
+  public static final class PredictChoiceInstruction extends Instruction {
+
+    private final FirstTokenPrediction prediction;
+    private final int alternative;
+    private final int[] starts;
+
+    PredictChoiceInstruction(FirstTokenPrediction prediction, int alternative, int[] starts) {
+      this.prediction = prediction;
+      this.alternative = alternative;
+      this.starts = starts;
+    }
+
+    @Override
+    public void execute(Machine machine) {
+      long remaining = prediction.all() & (-1L << alternative);
+      // without tokens (lexerless machine) it works like a plain choice
+      long candidates = machine.length() == 0 || !machine.hasTokens()
+        ? remaining : prediction.candidates(machine.tokenAt(0)) & remaining;
+      if (candidates != remaining) {
+        var skipped = remaining & ~candidates & (candidates == 0 ? -1L : Long.lowestOneBit(candidates) - 1);
+        if ((skipped & prediction.matchedInRule()) != 0) {
+          // skipped alternatives would have failed inside of a rule
+          machine.notifyFailure();
+        }
+      }
+      if (candidates == 0) {
+        machine.backtrack();
+        return;
+      }
+
+      int next = Long.numberOfTrailingZeros(candidates);
+      int offset = starts[next] - starts[alternative];
+      if (next < starts.length - 1) {
+        machine.pushBacktrack(starts[next + 1] - starts[alternative]);
+      }
+      machine.jump(offset + 1);
+    }
+
+    @Override
+    public String toString() {
+      return "PredictChoice " + alternative;
+    }
+  }
+
   /**
    * Instruction dedicated for predicates.
    * Behaves exactly as {@link ChoiceInstruction}, but disables error reports.
@@ -273,7 +331,7 @@ public abstract class Instruction {
     @Override
     public void execute(Machine machine) {
       // add all nodes to parent
-      machine.peek().parent().subNodes().addAll(machine.peek().subNodes());
+      machine.peek().parent().addSubNodesOf(machine.peek());
 
       machine.pop();
       machine.jump(offset);
@@ -316,7 +374,7 @@ public abstract class Instruction {
         throw new GrammarException("The inner part of ZeroOrMore and OneOrMore must not allow empty matches");
       }
       // add all nodes to parent
-      machine.peek().parent().subNodes().addAll(machine.peek().subNodes());
+      machine.peek().parent().addSubNodesOf(machine.peek());
 
       machine.pop();
       machine.jump(offset);
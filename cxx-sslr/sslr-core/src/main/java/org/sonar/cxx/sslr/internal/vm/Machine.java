@@ -25,65 +25,87 @@ package org.sonar.cxx.sslr.internal.vm; // cxx: in use
 
 import com.sonar.cxx.sslr.api.RecognitionException;
 import com.sonar.cxx.sslr.api.Token;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 import javax.annotation.Nullable;
 import org.sonar.cxx.sslr.grammar.GrammarException;
 import org.sonar.cxx.sslr.internal.matchers.ImmutableInputBuffer;
 import org.sonar.cxx.sslr.internal.matchers.InputBuffer;
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
 import org.sonar.cxx.sslr.internal.matchers.ParseNode;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
 import org.sonar.cxx.sslr.internal.vm.lexerful.LexerfulParseErrorFormatter;
 import org.sonar.cxx.sslr.parser.ParseError;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 import org.sonar.cxx.sslr.parser.ParsingResult;
 
 public class Machine implements CharSequence {
 
+  // machine of the current thread for lexerful parsing, reused for the following files
+  private static final ThreadLocal<Machine> MACHINES = new ThreadLocal<>();
+
   private final char[] input;
-  private final Token[] tokens;
-  private final int inputLength;
+  private List<Token> tokens;
+  private int inputLength;
 
   private MachineStack stack;
+  private MachineStack bottom;
   private int index;
   private int address;
   private boolean matched = true;
 
-  private final ParseNode[] memos;
+  // nodes are either created as ParseNode objects or stored in the arena
+  @Nullable
+  private ParseNodeArena arena;
+  private ParseNode[] memos;
+  private MemoTable memoTable;
 
   // Number of instructions in grammar for Java is about 2000.
-  private final int[] calls;
+  private int[] calls;
+  // all entries of calls are -1, this holds after each parse which was not aborted by an exception
+  private boolean callsCleared;
 
-  private final MachineHandler handler;
+  private MachineHandler handler;
 
   private boolean ignoreErrors = false;
+  private boolean inUse;
 
   private static final MachineHandler NOP_HANDLER = (Machine machine) -> {
     // nop
   };
 
   public Machine(String input, Instruction[] instructions, MachineHandler handler) {
-    this(input.toCharArray(), null, instructions, handler);
+    this(input.toCharArray(), null, instructions, handler, null);
   }
 
-  private Machine(@Nullable char[] input, @Nullable Token[] tokens, Instruction[] instructions,
-    MachineHandler handler) {
+  private Machine(@Nullable char[] input, @Nullable List<Token> tokens, Instruction[] instructions,
+    MachineHandler handler, @Nullable ParseNodeArena arena) {
     this.input = input;
     this.tokens = tokens;
     if (input != null) {
       this.inputLength = input.length;
     } else if (tokens != null) {
-      this.inputLength = tokens.length;
+      this.inputLength = tokens.size();
     } else {
       this.inputLength = 0;
     }
 
     this.handler = handler;
-    this.memos = new ParseNode[inputLength + 1];
-    this.stack = new MachineStack();
-    stack = stack.getOrCreateChild();
-    stack.setIndex(-1);
+    this.arena = arena;
+    if (arena == null) {
+      this.memos = new ParseNode[inputLength + 1];
+      this.memoTable = null;
+    } else {
+      this.memos = null;
+      this.memoTable = new MemoTable();
+      memoTable.reset(inputLength);
+    }
+    createStack();
     calls = new int[instructions.length];
     Arrays.fill(calls, -1);
+    callsCleared = true;
   }
 
   // @VisibleForTesting
@@ -91,37 +113,118 @@ public class Machine implements CharSequence {
     this(input, instructions, NOP_HANDLER);
   }
 
-  public static ParseNode parse(List<Token> tokens, CompiledGrammar grammar) {
-    var inputTokens = tokens.toArray(Token[]::new);
+  private void createStack() {
+    bottom = new MachineStack(arena).getOrCreateChild();
+    bottom.setIndex(-1);
+    stack = bottom;
+  }
 
+  public static ParseNode parse(List<Token> tokens, CompiledGrammar grammar) {
     var errorLocatingHandler = new ErrorLocatingHandler();
-    var machine = new Machine(null, inputTokens, grammar.getInstructions(), errorLocatingHandler);
-    machine.execute(grammar.getMatcher(grammar.getRootRuleKey()),
-      grammar.getRootRuleOffset(), grammar.getInstructions());
+    var machine = new Machine(null, randomAccess(tokens), grammar.getInstructions(), errorLocatingHandler, null);
+    machine.execute(grammar);
+    if (!machine.matched) {
+      throw recognitionException(tokens, errorLocatingHandler);
+    }
+    return machine.stack.subNodes().get(0);
+  }
 
-    if (machine.matched) {
-      return machine.stack.subNodes().get(0);
-    } else {
-      if (tokens.isEmpty()) {
-        // Godin: weird situation - I expect that list of tokens contains at least EOF,
-        // but this is not the case in C Parser
-        throw new RecognitionException(1, "No tokens");
-      } else {
-        int errorIndex = errorLocatingHandler.getErrorIndex();
-        var errorMsg = new LexerfulParseErrorFormatter().format(tokens, errorIndex);
-        int errorLine = errorIndex < tokens.size() ? tokens.get(errorIndex).getLine() : tokens.get(tokens.size() - 1)
-          .getLine();
-        throw new RecognitionException(errorLine, errorMsg);
+  /**
+   * Parses the tokens and stores the parse tree in the arena.
+   *
+   * <p>
+   * The machine, its memo and call tables and its stack are kept per thread and reused by the following calls, only
+   * the part of the tables used by the previous call is cleared.</p>
+   *
+   * @return root node of the parse tree in the arena
+   */
+  public static int parse(List<Token> tokens, CompiledGrammar grammar, ParseNodeArena arena) {
+    return parse(tokens, grammar, arena, null);
+  }
+
+  /**
+   * Parses the tokens and stores the parse tree in the arena. If a profile is given, the statistics of the rules are
+   * added to it, also if the parse fails.
+   *
+   * @return root node of the parse tree in the arena
+   */
+  public static int parse(List<Token> tokens, CompiledGrammar grammar, ParseNodeArena arena,
+    @Nullable ParseProfile profile) {
+    var machine = MACHINES.get();
+    if (machine == null) {
+      machine = new Machine(null, null, new Instruction[0], NOP_HANDLER, arena);
+      MACHINES.set(machine);
+    } else if (machine.inUse) {
+      // parse started by a parse of the same thread
+      machine = new Machine(null, null, new Instruction[0], NOP_HANDLER, arena);
+    }
+
+    var errorLocatingHandler = profile == null ? new ErrorLocatingHandler() : new ProfilingHandler(profile);
+    machine.inUse = true;
+    try {
+      machine.reset(randomAccess(tokens), grammar.getInstructions(), errorLocatingHandler, arena);
+      machine.execute(grammar);
+      if (!machine.matched) {
+        throw recognitionException(tokens, errorLocatingHandler);
+      }
+      return machine.stack.firstSubNode();
+    } finally {
+      if (errorLocatingHandler instanceof ProfilingHandler profilingHandler) {
+        profilingHandler.flush();
       }
+      machine.tokens = null;
+      machine.inUse = false;
     }
   }
 
-  public static ParsingResult parse(char[] input, CompiledGrammar grammar) {
-    var instructions = grammar.getInstructions();
+  private void reset(List<Token> tokens, Instruction[] instructions, MachineHandler handler, ParseNodeArena arena) {
+    this.tokens = tokens;
+    this.inputLength = tokens.size();
+    this.handler = handler;
+    if (this.arena != arena) {
+      this.arena = arena;
+      createStack();
+    }
+    stack = bottom;
+    stack.clearSubNodes();
+    index = 0;
+    address = 0;
+    matched = true;
+    ignoreErrors = false;
+
+    memoTable.reset(inputLength);
+
+    if (calls.length < instructions.length) {
+      calls = new int[instructions.length];
+      callsCleared = false;
+    }
+    if (!callsCleared) {
+      Arrays.fill(calls, -1);
+    }
+  }
+
+  private static List<Token> randomAccess(List<Token> tokens) {
+    return tokens instanceof RandomAccess ? tokens : new ArrayList<>(tokens);
+  }
+
+  private static RecognitionException recognitionException(List<Token> tokens, ErrorLocatingHandler handler) {
+    if (tokens.isEmpty()) {
+      // Godin: weird situation - I expect that list of tokens contains at least EOF,
+      // but this is not the case in C Parser
+      return new RecognitionException(1, "No tokens");
+    } else {
+      int errorIndex = handler.getErrorIndex();
+      var errorMsg = new LexerfulParseErrorFormatter().format(tokens, errorIndex);
+      int errorLine = errorIndex < tokens.size() ? tokens.get(errorIndex).getLine() : tokens.get(tokens.size() - 1)
+        .getLine();
+      return new RecognitionException(errorLine, errorMsg);
+    }
+  }
 
+  public static ParsingResult parse(char[] input, CompiledGrammar grammar) {
     var errorLocatingHandler = new ErrorLocatingHandler();
-    var machine = new Machine(input, null, instructions, errorLocatingHandler);
-    machine.execute(grammar.getMatcher(grammar.getRootRuleKey()), grammar.getRootRuleOffset(), instructions);
+    var machine = new Machine(input, null, grammar.getInstructions(), errorLocatingHandler, null);
+    machine.execute(grammar);
 
     if (machine.matched) {
       return new ParsingResult(
@@ -137,13 +240,22 @@ public class Machine implements CharSequence {
     }
   }
 
-  private void execute(Matcher matcher, int offset, Instruction[] instructions) {
+  private void execute(CompiledGrammar grammar) {
+    var instructions = grammar.getInstructions();
+    int offset = grammar.getRootRuleOffset();
+
     // Place first rule on top of stack
     push(-1);
-    stack.setMatcher(matcher);
+    stack.setMatcher(grammar.getMatcher(grammar.getRootRuleKey()));
+    // the return of the first rule restores the call table entry
+    stack.setCalledAddress(offset);
+    stack.setLeftRecursion(calls[offset]);
+    handler.onCall(this, stack.matcher());
     jump(offset);
 
+    callsCleared = false;
     execute(instructions);
+    callsCleared = true;
   }
 
   // @VisibleForTesting
@@ -157,7 +269,7 @@ public class Machine implements CharSequence {
 
   // @VisibleForTesting
   public static boolean execute(Instruction[] instructions, Token... input) {
-    var machine = new Machine(null, input, instructions, NOP_HANDLER);
+    var machine = new Machine(null, Arrays.asList(input), instructions, NOP_HANDLER, null);
     while (machine.address != -1 && machine.address < instructions.length) {
       instructions[machine.address].execute(machine);
     }
@@ -184,7 +296,7 @@ public class Machine implements CharSequence {
 
   private void push(int address) {
     stack = stack.getOrCreateChild();
-    stack.subNodes().clear();
+    stack.clearSubNodes();
     stack.setAddress(address);
     stack.setIndex(index);
     stack.setIgnoreErrors(ignoreErrors);
@@ -196,10 +308,8 @@ public class Machine implements CharSequence {
   }
 
   public void pushReturn(int returnOffset, Matcher matcher, int callOffset) {
-    var memo = memos[index];
-    if (memo != null && memo.getMatcher() == matcher) {
-      stack.subNodes().add(memo);
-      index = memo.getEndIndex();
+    if (reuseMemo(matcher, address + callOffset)) {
+      handler.onMemoHit(this, matcher);
       address += returnOffset;
     } else {
       push(address + returnOffset);
@@ -213,7 +323,29 @@ public class Machine implements CharSequence {
       stack.setCalledAddress(address);
       stack.setLeftRecursion(calls[address]);
       calls[address] = index;
+      handler.onCall(this, matcher);
+    }
+  }
+
+  private boolean reuseMemo(Matcher matcher, int calledAddress) {
+    if (arena != null) {
+      // the address of the first instruction identifies the rule
+      var memo = memoTable.get(calledAddress, index);
+      if (memo != ParseNodeArena.NONE) {
+        // a node of the arena can be linked to one parent only
+        stack.addSubNode(arena.copy(memo));
+        index = arena.getEndIndex(memo);
+        return true;
+      }
+    } else {
+      var memo = memos[index];
+      if (memo != null && memo.getMatcher() == matcher) {
+        stack.subNodes().add(memo);
+        index = memo.getEndIndex();
+        return true;
+      }
     }
+    return false;
   }
 
   public void pushBacktrack(int offset) {
@@ -243,6 +375,7 @@ public class Machine implements CharSequence {
       if (!ignoreErrors) {
         handler.onBacktrack(this);
       }
+      handler.onFail(this, stack.matcher());
 
       popReturn();
     }
@@ -260,17 +393,42 @@ public class Machine implements CharSequence {
     }
   }
 
+  /**
+   * Reports a failure at the current index to the handler, without backtracking. Used for alternatives, which are
+   * not tried because they can not start with the current token.
+   */
+  public void notifyFailure() {
+    if (!ignoreErrors) {
+      handler.onBacktrack(this);
+    }
+  }
+
   public void createNode() {
-    var node = new ParseNode(stack.index(), index, stack.subNodes(), stack.matcher());
-    stack.parent().subNodes().add(node);
-    if (stack.matcher() instanceof MemoParsingExpression && ((MemoParsingExpression) stack.matcher()).shouldMemoize()) {
-      memos[stack.index()] = node;
+    handler.onMatch(this, stack.matcher(), stack.index());
+    boolean memoize = stack.matcher() instanceof MemoParsingExpression
+      && ((MemoParsingExpression) stack.matcher()).shouldMemoize();
+    if (arena != null) {
+      int node = arena.add(stack.index(), index, stack.matcher(), stack.firstSubNode());
+      stack.parent().addSubNode(node);
+      if (memoize) {
+        memoTable.put(stack.calledAddress(), stack.index(), node);
+      }
+    } else {
+      var node = new ParseNode(stack.index(), index, stack.subNodes(), stack.matcher());
+      stack.parent().subNodes().add(node);
+      if (memoize) {
+        memos[stack.index()] = node;
+      }
     }
   }
 
   public void createLeafNode(Matcher matcher, int offset) {
-    var node = new ParseNode(index, index + offset, matcher);
-    stack.subNodes().add(node);
+    if (arena != null) {
+      stack.addSubNode(arena.add(index, index + offset, matcher, ParseNodeArena.NONE));
+    } else {
+      var node = new ParseNode(index, index + offset, matcher);
+      stack.subNodes().add(node);
+    }
     index += offset;
   }
 
@@ -307,7 +465,14 @@ public class Machine implements CharSequence {
   }
 
   public Token tokenAt(int offset) {
-    return tokens[index + offset];
+    return tokens.get(index + offset);
+  }
+
+  /**
+   * @return true, if the machine parses tokens (lexerful grammar), false if it parses characters
+   */
+  public boolean hasTokens() {
+    return tokens != null;
   }
 
 }
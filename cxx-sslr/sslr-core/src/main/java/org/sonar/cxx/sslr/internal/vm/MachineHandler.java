@@ -23,8 +23,38 @@
  */
 package org.sonar.cxx.sslr.internal.vm;
 
+import org.sonar.cxx.sslr.internal.matchers.Matcher;
+
 public interface MachineHandler {
 
   void onBacktrack(Machine machine);
 
+  /**
+   * Called after a rule has been entered at the current index of the machine.
+   */
+  default void onCall(Machine machine, Matcher matcher) {
+    // nop
+  }
+
+  /**
+   * Called instead of {@link #onCall} when the result of a rule is taken from the memo table.
+   */
+  default void onMemoHit(Machine machine, Matcher matcher) {
+    // nop
+  }
+
+  /**
+   * Called when a rule, entered at {@code startIndex}, matched up to the current index of the machine.
+   */
+  default void onMatch(Machine machine, Matcher matcher, int startIndex) {
+    // nop
+  }
+
+  /**
+   * Called when a rule is left without match.
+   */
+  default void onFail(Machine machine, Matcher matcher) {
+    // nop
+  }
+
 }
@@ -25,6 +25,7 @@ package org.sonar.cxx.sslr.internal.vm;
 
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
 import org.sonar.cxx.sslr.internal.matchers.ParseNode;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -37,6 +38,11 @@ public class MachineStack {
   private MachineStack child;
 
   private final List<ParseNode> subNodes;
+  // sub nodes, if the nodes are stored in an arena
+  @Nullable
+  private final ParseNodeArena arena;
+  private int firstSubNode = ParseNodeArena.NONE;
+  private int lastSubNode = ParseNodeArena.NONE;
   private int address;
   private int index;
   private boolean ignoreErrors;
@@ -46,14 +52,23 @@ public class MachineStack {
   private int calledAddress;
 
   public MachineStack() {
+    this((ParseNodeArena) null);
+  }
+
+  /**
+   * @param arena arena of the nodes, or null to store them as {@link ParseNode} objects
+   */
+  public MachineStack(@Nullable ParseNodeArena arena) {
     this.parent = null;
     this.subNodes = Collections.emptyList();
+    this.arena = arena;
     this.index = -1;
   }
 
   private MachineStack(MachineStack parent) {
     this.parent = parent;
-    this.subNodes = new ArrayList<>();
+    this.arena = parent.arena;
+    this.subNodes = arena == null ? new ArrayList<>() : Collections.emptyList();
   }
 
   public MachineStack parent() {
@@ -130,4 +145,44 @@ public class MachineStack {
     return subNodes;
   }
 
+  /**
+   * Appends a node of the arena to the sub nodes.
+   */
+  public void addSubNode(int node) {
+    if (lastSubNode == ParseNodeArena.NONE) {
+      firstSubNode = node;
+    } else {
+      arena.setNextSibling(lastSubNode, node);
+    }
+    lastSubNode = node;
+  }
+
+  /**
+   * Appends the sub nodes of another frame to the sub nodes.
+   */
+  public void addSubNodesOf(MachineStack other) {
+    if (arena == null) {
+      subNodes.addAll(other.subNodes);
+    } else if (other.firstSubNode != ParseNodeArena.NONE) {
+      addSubNode(other.firstSubNode);
+      lastSubNode = other.lastSubNode;
+    }
+  }
+
+  public void clearSubNodes() {
+    if (arena == null) {
+      subNodes.clear();
+    } else {
+      firstSubNode = ParseNodeArena.NONE;
+      lastSubNode = ParseNodeArena.NONE;
+    }
+  }
+
+  /**
+   * @return first sub node in the arena, or {@link ParseNodeArena#NONE}
+   */
+  public int firstSubNode() {
+    return firstSubNode;
+  }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import java.util.Arrays;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
+
+/**
+ * Memo table of the lexerful machine: maps a rule and an input index to the node of the {@link ParseNodeArena}
+ * created by the match of the rule at this index. Several rules can be memoized at the same index.
+ *
+ * <p>
+ * The rule is identified by the address of its first instruction. Rule and index are packed into one {@code long}
+ * key of a hash table made of buckets of {@value #WAYS} slots: the index selects the bucket, so the memos of
+ * neighbouring indexes are close in memory, the hash of the rule selects the first slot probed in the bucket. The
+ * table is sized for the length of the input, but never exceeds its maximum capacity. If the bucket is full, the
+ * entry in the first probed slot is replaced, so a memo may be lost but never gets wrong.</p>
+ */
+public final class MemoTable {
+
+  public static final int DEFAULT_MAX_CAPACITY = 1 << 19;
+
+  private static final long EMPTY = -1L;
+  private static final int MIN_CAPACITY = 1 << 6;
+  // slots per bucket, the memos of one input index are in one bucket
+  private static final int WAY_BITS = 3;
+  private static final int WAYS = 1 << WAY_BITS;
+  private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+  private final int maxCapacity;
+  private long[] keys = new long[0];
+  private int[] nodes = new int[0];
+  private int mask;
+
+  public MemoTable() {
+    this(DEFAULT_MAX_CAPACITY);
+  }
+
+  /**
+   * @param maxCapacity maximum number of entries, rounded up to a power of two
+   */
+  public MemoTable(int maxCapacity) {
+    this.maxCapacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, maxCapacity - 1)) << 1);
+    reset(0);
+  }
+
+  /**
+   * Removes all entries and sizes the table for an input of the given length. The arrays are reused if they are
+   * large enough, only the part used for this input is cleared.
+   */
+  public void reset(int inputLength) {
+    long wanted = (long) (inputLength + 1) * WAYS;
+    int capacity = MIN_CAPACITY;
+    while (capacity < wanted && capacity < maxCapacity) {
+      capacity <<= 1;
+    }
+    if (keys.length < capacity) {
+      keys = new long[capacity];
+      nodes = new int[capacity];
+    }
+    Arrays.fill(keys, 0, capacity, EMPTY);
+    mask = capacity - 1;
+  }
+
+  /**
+   * Returns the memoized node of the rule at the index, or {@link ParseNodeArena#NONE}.
+   */
+  public int get(int rule, int index) {
+    long key = key(rule, index);
+    int bucket = bucket(index);
+    int way = way(rule);
+    for (var probe = 0; probe < WAYS; probe++) {
+      int slot = bucket | ((way + probe) & (WAYS - 1));
+      long current = keys[slot];
+      if (current == key) {
+        return nodes[slot];
+      } else if (current == EMPTY) {
+        return ParseNodeArena.NONE;
+      }
+    }
+    return ParseNodeArena.NONE;
+  }
+
+  public void put(int rule, int index, int node) {
+    long key = key(rule, index);
+    int bucket = bucket(index);
+    int way = way(rule);
+    for (var probe = 0; probe < WAYS; probe++) {
+      int slot = bucket | ((way + probe) & (WAYS - 1));
+      long current = keys[slot];
+      if (current == key || current == EMPTY) {
+        keys[slot] = key;
+        nodes[slot] = node;
+        return;
+      }
+    }
+    // bucket is full: the newest match wins, as the following calls are most likely close to it
+    int slot = bucket | way;
+    keys[slot] = key;
+    nodes[slot] = node;
+  }
+
+  /**
+   * Number of slots used for the current input.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  private static long key(int rule, int index) {
+    return ((long) rule << 32) | (index & 0xFFFFFFFFL);
+  }
+
+  private int bucket(int index) {
+    return (index << WAY_BITS) & mask;
+  }
+
+  private static int way(int rule) {
+    return (rule * GOLDEN_RATIO) >>> (Integer.SIZE - WAY_BITS);
+  }
+
+}
@@ -36,9 +36,27 @@ public class MutableGrammarCompiler extends CompilationHandler {
   private final Queue<CompilableGrammarRule> compilationQueue = new ArrayDeque<>();
   private final Map<GrammarRuleKey, CompilableGrammarRule> matchers = new HashMap<>();
   private final Map<GrammarRuleKey, Integer> offsets = new HashMap<>();
+  private final Map<GrammarRuleKey, FirstTokens> firstTokens = new HashMap<>();
+  private final boolean firstTokenPrediction;
 
+  private MutableGrammarCompiler(boolean firstTokenPrediction) {
+    this.firstTokenPrediction = firstTokenPrediction;
+  }
+
+  /**
+   * Compiles a grammar without prediction of the alternatives of ordered choices. Lexerless grammars must be compiled
+   * this way, because a prediction requires tokens.
+   */
   public static CompiledGrammar compile(CompilableGrammarRule rule) {
-    return new MutableGrammarCompiler().doCompile(rule);
+    return compile(rule, false);
+  }
+
+  /**
+   * @param firstTokenPrediction compile ordered choices of lexerful grammars with a prediction of the alternatives
+   * from the current token, see {@link FirstOfExpression}
+   */
+  public static CompiledGrammar compile(CompilableGrammarRule rule, boolean firstTokenPrediction) {
+    return new MutableGrammarCompiler(firstTokenPrediction).doCompile(rule);
   }
 
   private CompiledGrammar doCompile(CompilableGrammarRule start) {
@@ -84,4 +102,23 @@ public class MutableGrammarCompiler extends CompilationHandler {
     }
   }
 
+  @Override
+  public FirstTokens firstTokens(ParsingExpression expression) {
+    if (!firstTokenPrediction) {
+      return FirstTokens.UNKNOWN;
+    }
+    if (expression instanceof CompilableGrammarRule rule) {
+      var result = firstTokens.get(rule.getRuleKey());
+      if (result == null) {
+        // recursive reference of a rule at the start of itself
+        firstTokens.put(rule.getRuleKey(), FirstTokens.UNKNOWN);
+        result = rule.getExpression() == null ? FirstTokens.UNKNOWN : rule.getExpression().firstTokens(this).inRule();
+        firstTokens.put(rule.getRuleKey(), result);
+      }
+      return result;
+    } else {
+      return expression.firstTokens(this);
+    }
+  }
+
 }
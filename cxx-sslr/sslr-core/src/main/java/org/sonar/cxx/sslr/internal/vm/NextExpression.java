@@ -62,6 +62,12 @@ public class NextExpression implements ParsingExpression {
     return result;
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    // syntactic predicate, does not consume tokens
+    return FirstTokens.EMPTY;
+  }
+
   @Override
   public String toString() {
     return "Next[" + subExpression + "]";
@@ -59,6 +59,12 @@ public class NextNotExpression implements ParsingExpression {
     return result;
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    // syntactic predicate, does not consume tokens
+    return FirstTokens.EMPTY;
+  }
+
   @Override
   public String toString() {
     return "NextNot[" + subExpression + "]";
@@ -35,6 +35,11 @@ public final class NothingExpression extends NativeExpression {
     machine.backtrack();
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.NONE;
+  }
+
   @Override
   public String toString() {
     return "Nothing";
@@ -65,6 +65,13 @@ public class OneOrMoreExpression implements ParsingExpression {
     return result;
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    var sub = compiler.firstTokens(subExpression);
+    // an empty match of the sub expression is a grammar error, which must not be hidden by a prediction
+    return sub.isNullable() ? FirstTokens.UNKNOWN : sub;
+  }
+
   @Override
   public String toString() {
     return "OneOrMore[" + subExpression + "]";
@@ -51,6 +51,11 @@ public class OptionalExpression implements ParsingExpression {
     return result;
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return compiler.firstTokens(subExpression).optional();
+  }
+
   @Override
   public String toString() {
     return "Optional[" + subExpression + "]";
@@ -33,4 +33,11 @@ public interface ParsingExpression extends com.sonar.cxx.sslr.impl.matcher.Match
    */
   Instruction[] compile(CompilationHandler compiler);
 
+  /**
+   * Returns the tokens, which can be consumed first by this expression in a lexerful grammar.
+   */
+  default FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.UNKNOWN;
+  }
+
 }
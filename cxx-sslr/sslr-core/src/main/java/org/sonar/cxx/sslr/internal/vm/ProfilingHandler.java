@@ -0,0 +1,96 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.parser.ParseProfile;
+
+/**
+ * Locates the parse error like {@link ErrorLocatingHandler} and counts the calls of the rules of one parse. The counts
+ * are added to a {@link ParseProfile} with {@link #flush()}.
+ */
+public class ProfilingHandler extends ErrorLocatingHandler {
+
+  private static final int INVOCATIONS = 0;
+  private static final int MATCHES = 1;
+  private static final int BACKTRACKS = 2;
+  private static final int MEMO_HITS = 3;
+  private static final int TOKENS = 4;
+  private static final int REPEATS = 5;
+
+  private final ParseProfile profile;
+  private final Map<Matcher, long[]> counters = new IdentityHashMap<>();
+  // input indexes at which a rule has matched
+  private final Map<Matcher, BitSet> matches = new IdentityHashMap<>();
+
+  public ProfilingHandler(ParseProfile profile) {
+    this.profile = profile;
+  }
+
+  @Override
+  public void onCall(Machine machine, Matcher matcher) {
+    var counter = counters(matcher);
+    counter[INVOCATIONS]++;
+    var matchedAt = matches.get(matcher);
+    if (matchedAt != null && matchedAt.get(machine.getIndex())) {
+      counter[REPEATS]++;
+    }
+  }
+
+  @Override
+  public void onMemoHit(Machine machine, Matcher matcher) {
+    counters(matcher)[MEMO_HITS]++;
+  }
+
+  @Override
+  public void onMatch(Machine machine, Matcher matcher, int startIndex) {
+    var counter = counters(matcher);
+    counter[MATCHES]++;
+    counter[TOKENS] += machine.getIndex() - startIndex;
+    matches.computeIfAbsent(matcher, key -> new BitSet()).set(startIndex);
+  }
+
+  @Override
+  public void onFail(Machine machine, Matcher matcher) {
+    counters(matcher)[BACKTRACKS]++;
+  }
+
+  /**
+   * Adds the counts to the profile and clears them.
+   */
+  public void flush() {
+    for (var entry : counters.entrySet()) {
+      var counter = entry.getValue();
+      profile.add(entry.getKey().toString(), counter[INVOCATIONS], counter[MATCHES], counter[BACKTRACKS],
+        counter[MEMO_HITS], counter[TOKENS], counter[REPEATS]);
+    }
+    profile.addParse();
+    counters.clear();
+    matches.clear();
+  }
+
+  private long[] counters(Matcher matcher) {
+    return counters.computeIfAbsent(matcher, key -> new long[REPEATS + 1]);
+  }
+
+}
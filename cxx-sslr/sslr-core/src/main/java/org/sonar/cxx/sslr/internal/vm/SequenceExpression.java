@@ -53,6 +53,18 @@ public class SequenceExpression implements ParsingExpression {
     return result.toArray(Instruction[]::new);
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    var result = FirstTokens.EMPTY;
+    for (var subExpression : subExpressions) {
+      if (!result.isNullable()) {
+        break;
+      }
+      result = result.then(compiler.firstTokens(subExpression));
+    }
+    return result;
+  }
+
   @Override
   public String toString() {
     return "Sequence" + Arrays.toString(subExpressions);
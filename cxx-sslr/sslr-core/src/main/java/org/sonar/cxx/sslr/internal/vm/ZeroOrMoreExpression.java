@@ -51,6 +51,13 @@ public class ZeroOrMoreExpression implements ParsingExpression {
     return result;
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    var sub = compiler.firstTokens(subExpression);
+    // an empty match of the sub expression is a grammar error, which must not be hidden by a prediction
+    return sub.isNullable() ? FirstTokens.UNKNOWN : sub.optional();
+  }
+
   @Override
   public String toString() {
     return "ZeroOrMore[" + subExpression + "]";
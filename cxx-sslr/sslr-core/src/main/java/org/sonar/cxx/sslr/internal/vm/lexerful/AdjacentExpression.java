@@ -23,6 +23,8 @@
  */
 package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
@@ -49,6 +51,11 @@ public final class AdjacentExpression extends NativeExpression {
     }
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.EMPTY;
+  }
+
   @Override
   public String toString() {
     return "Adjacent";
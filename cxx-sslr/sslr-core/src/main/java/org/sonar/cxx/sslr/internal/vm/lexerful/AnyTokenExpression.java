@@ -24,6 +24,8 @@
 package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
@@ -44,6 +46,11 @@ public final class AnyTokenExpression extends NativeExpression implements Matche
     }
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.ANY;
+  }
+
   @Override
   public String toString() {
     return "AnyToken";
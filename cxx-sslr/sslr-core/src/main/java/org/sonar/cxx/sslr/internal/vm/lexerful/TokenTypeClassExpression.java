@@ -24,6 +24,8 @@
 package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
@@ -45,6 +47,11 @@ public class TokenTypeClassExpression extends NativeExpression implements Matche
     machine.jump(1);
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.ofTypeClass(typeClass);
+  }
+
   @Override
   public String toString() {
     return "TokenTypeClass " + typeClass;
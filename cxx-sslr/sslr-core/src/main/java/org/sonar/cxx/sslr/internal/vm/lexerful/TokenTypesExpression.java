@@ -25,6 +25,8 @@ package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 
 import com.sonar.cxx.sslr.api.TokenType;
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
@@ -51,6 +53,11 @@ public class TokenTypesExpression extends NativeExpression implements Matcher {
     machine.jump(1);
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.ofTypes(types);
+  }
+
   @Override
   public String toString() {
     return "TokenTypes " + types;
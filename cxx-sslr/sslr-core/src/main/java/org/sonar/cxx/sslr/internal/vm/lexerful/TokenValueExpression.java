@@ -24,6 +24,8 @@
 package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
@@ -50,6 +52,11 @@ public class TokenValueExpression extends NativeExpression implements Matcher {
     }
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.ofValue(value);
+  }
+
   @Override
   public String toString() {
     return "TokenValue " + value;
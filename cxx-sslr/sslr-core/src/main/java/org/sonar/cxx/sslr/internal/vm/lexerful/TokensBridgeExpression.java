@@ -26,9 +26,13 @@ package org.sonar.cxx.sslr.internal.vm.lexerful; // cxx: in use
 import com.sonar.cxx.sslr.api.Token;
 import com.sonar.cxx.sslr.api.TokenType;
 import org.sonar.cxx.sslr.internal.matchers.Matcher;
+import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
 import org.sonar.cxx.sslr.internal.vm.NativeExpression;
 
+import java.util.Set;
+
 public class TokensBridgeExpression extends NativeExpression implements Matcher {
 
   private final TokenType from;
@@ -70,6 +74,11 @@ public class TokensBridgeExpression extends NativeExpression implements Matcher
     machine.jump(1);
   }
 
+  @Override
+  public FirstTokens firstTokens(CompilationHandler compiler) {
+    return FirstTokens.ofTypes(Set.of(from));
+  }
+
   @Override
   public String toString() {
     return "Bridge[" + from + "," + to + "]";
@@ -0,0 +1,240 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Statistics of the grammar rules collected while parsing, summed up over all parsed files.
+ *
+ * <p>
+ * For each rule the profile holds the number of invocations, successful matches, backtracks (invocations without
+ * match), results taken from the memo table instead of an invocation, the number of tokens consumed by the matches
+ * and the number of repeats: invocations at an input index at which the rule has already matched before. Repeats
+ * are the work saved by memoizing the rule, see {@link #getMemoizationCandidates(int)}. The rules are identified
+ * by name, so the statistics of parsers with different grammar instances of the same grammar can be collected in one
+ * profile. An instance can be used by several threads at the same time.</p>
+ */
+public final class ParseProfile {
+
+  private static final Comparator<RuleProfile> ORDER = Comparator
+    .comparingLong(RuleProfile::getInvocations).reversed()
+    .thenComparing(RuleProfile::getName);
+
+  private final Map<String, RuleProfile> rules = new HashMap<>();
+  private long parses;
+
+  /**
+   * Adds the statistics of one rule.
+   */
+  public synchronized void add(String rule, long invocations, long matches, long backtracks, long memoHits,
+    long tokens, long repeats) {
+    var profile = rules.computeIfAbsent(rule, RuleProfile::new);
+    profile.invocations += invocations;
+    profile.matches += matches;
+    profile.backtracks += backtracks;
+    profile.memoHits += memoHits;
+    profile.tokens += tokens;
+    profile.repeats += repeats;
+  }
+
+  /**
+   * Counts one parsed input, called after the statistics of the parse have been added.
+   */
+  public synchronized void addParse() {
+    parses++;
+  }
+
+  public synchronized long getParses() {
+    return parses;
+  }
+
+  /**
+   * Returns a copy of the statistics, ordered by number of invocations (highest first) and rule name.
+   */
+  public synchronized List<RuleProfile> getRules() {
+    var result = new ArrayList<RuleProfile>(rules.size());
+    for (var profile : rules.values()) {
+      result.add(profile.copy());
+    }
+    result.sort(ORDER);
+    return result;
+  }
+
+  /**
+   * Returns the names of the rules which would profit most from memoization: the rules with the most repeats,
+   * at most {@code limit} rules.
+   */
+  public List<String> getMemoizationCandidates(int limit) {
+    return getRules().stream()
+      .filter(rule -> rule.getRepeats() > 0)
+      .sorted(Comparator.comparingLong(RuleProfile::getRepeats).reversed().thenComparing(RuleProfile::getName))
+      .limit(limit)
+      .map(RuleProfile::getName)
+      .toList();
+  }
+
+  public synchronized boolean isEmpty() {
+    return rules.isEmpty();
+  }
+
+  public synchronized void reset() {
+    rules.clear();
+    parses = 0;
+  }
+
+  /**
+   * Returns the profile as JSON object with the number of parses and the ordered list of rules.
+   */
+  public String toJson() {
+    var rulesCopy = getRules();
+    var json = new StringBuilder(128 + rulesCopy.size() * 128);
+    json.append("{\n  \"parses\": ").append(getParses()).append(",\n  \"rules\": [");
+    var separator = "\n";
+    for (var rule : rulesCopy) {
+      json.append(separator)
+        .append("    {\"rule\": \"").append(escape(rule.getName()))
+        .append("\", \"invocations\": ").append(rule.getInvocations())
+        .append(", \"matches\": ").append(rule.getMatches())
+        .append(", \"backtracks\": ").append(rule.getBacktracks())
+        .append(", \"memoHits\": ").append(rule.getMemoHits())
+        .append(", \"tokens\": ").append(rule.getTokens())
+        .append(", \"repeats\": ").append(rule.getRepeats())
+        .append('}');
+      separator = ",\n";
+    }
+    json.append(rulesCopy.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    return json.toString();
+  }
+
+  public void writeJson(Path file) throws IOException {
+    Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns a readable table of the first {@code limit} rules.
+   */
+  public String summary(int limit) {
+    var rulesCopy = getRules();
+    var text = new StringBuilder(256);
+    text.append(String.format(Locale.ENGLISH, "%-40s %12s %12s %12s %12s %12s %12s",
+      "rule", "invocations", "matches", "backtracks", "memo hits", "tokens", "repeats"));
+    for (var rule : rulesCopy.subList(0, Math.min(limit, rulesCopy.size()))) {
+      text.append(String.format(Locale.ENGLISH, "%n%-40s %12d %12d %12d %12d %12d %12d",
+        rule.getName(), rule.getInvocations(), rule.getMatches(), rule.getBacktracks(), rule.getMemoHits(),
+        rule.getTokens(), rule.getRepeats()));
+    }
+    return text.toString();
+  }
+
+  private static String escape(String value) {
+    var result = new StringBuilder(value.length());
+    for (var i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        result.append('\\').append(c);
+      } else if (c < ' ') {
+        result.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Statistics of one rule.
+   */
+  public static final class RuleProfile {
+
+    private final String name;
+    private long invocations;
+    private long matches;
+    private long backtracks;
+    private long memoHits;
+    private long tokens;
+    private long repeats;
+
+    private RuleProfile(String name) {
+      this.name = name;
+    }
+
+    private RuleProfile copy() {
+      var result = new RuleProfile(name);
+      result.invocations = invocations;
+      result.matches = matches;
+      result.backtracks = backtracks;
+      result.memoHits = memoHits;
+      result.tokens = tokens;
+      result.repeats = repeats;
+      return result;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getInvocations() {
+      return invocations;
+    }
+
+    public long getMatches() {
+      return matches;
+    }
+
+    public long getBacktracks() {
+      return backtracks;
+    }
+
+    public long getMemoHits() {
+      return memoHits;
+    }
+
+    /**
+     * Returns the number of tokens consumed by the matches of the rule, including the tokens of nested rules.
+     */
+    public long getTokens() {
+      return tokens;
+    }
+
+    /**
+     * Returns the number of invocations at an input index at which the rule has already matched before.
+     */
+    public long getRepeats() {
+      return repeats;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+}
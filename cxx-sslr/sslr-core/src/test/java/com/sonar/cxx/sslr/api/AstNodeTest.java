@@ -177,6 +177,83 @@ class AstNodeTest {
     assertThat(lastEmptyNode.getTokens()).isEmpty();
   }
 
+  /**
+   * <pre>
+   *   A1
+   *   |- A2
+   *   |   \- B1
+   *   |- B2
+   *   |   \- C1
+   *   |- B3
+   *   \- C2
+   * </pre>
+   */
+  @Test
+  void testIndex() {
+    var a = mock(AstNodeType.class);
+    var b = mock(AstNodeType.class);
+    var c = mock(AstNodeType.class);
+    var token1 = mock(Token.class);
+    var token2 = mock(Token.class);
+    var token3 = mock(Token.class);
+    var a1 = new AstNode(a, "a1", token1);
+    var a2 = new AstNode(a, "a2", token1);
+    var b1 = new AstNode(b, "b1", token1);
+    var b2 = new AstNode(b, "b2", token2);
+    var b3 = new AstNode(b, "b3", null);
+    var c1 = new AstNode(c, "c1", token2);
+    var c2 = new AstNode(c, "c2", token3);
+    a1.addChild(a2);
+    a2.addChild(b1);
+    a1.addChild(b2);
+    b2.addChild(c1);
+    a1.addChild(b3);
+    a1.addChild(c2);
+    a1.buildIndex();
+
+    assertThat(a1.hasDescendant(mock(AstNodeType.class))).isFalse();
+    assertThat(a1.hasDescendant(a)).isTrue();
+    assertThat(a2.hasDescendant(a)).isFalse();
+    assertThat(b2.hasDescendant(a, c)).isTrue();
+
+    assertThat(a1.getFirstDescendant(mock(AstNodeType.class))).isNull();
+    assertThat(a1.getFirstDescendant(a)).isSameAs(a2);
+    assertThat(a1.getFirstDescendant(b)).isSameAs(b1);
+    assertThat(a1.getFirstDescendant(c, b)).isSameAs(b1);
+    assertThat(a2.getFirstDescendant(c)).isNull();
+    assertThat(b3.getFirstDescendant(b)).isNull();
+
+    assertThat(a1.getDescendants(mock(AstNodeType.class))).isEmpty();
+    assertThat(a1.getDescendants(a)).containsExactly(a2);
+    assertThat(a1.getDescendants(b)).containsExactly(b1, b2, b3);
+    assertThat(a1.getDescendants(c, b)).containsExactly(b1, b2, c1, b3, c2);
+    assertThat(a1.getDescendants(b, b)).containsExactly(b1, b1, b2, b2, b3, b3);
+    assertThat(b2.getDescendants(c)).containsExactly(c1);
+    assertThat(c2.getDescendants(c)).isEmpty();
+
+    assertThat(a1.getTokens()).containsExactly(token1, token2, token3);
+    assertThat(b2.getTokens()).containsExactly(token2);
+    assertThat(b3.getTokens()).isEmpty();
+    assertThat(c2.getTokens()).containsExactly(token3);
+
+    // adding a child invalidates the index
+    var c3 = new AstNode(c, "c3", token1);
+    b3.addChild(c3);
+    assertThat(a1.getDescendants(c)).containsExactly(c1, c3, c2);
+    assertThat(b3.getFirstDescendant(c)).isSameAs(c3);
+    assertThat(a1.getTokens()).containsExactly(token1, token2, token1, token3);
+
+    a1.buildIndex();
+    assertThat(a1.getDescendants(c)).containsExactly(c1, c3, c2);
+    assertThat(b3.hasDescendant(c)).isTrue();
+
+    // indexing a subtree invalidates the index of the tree
+    b2.buildIndex();
+    var b4 = new AstNode(b, "b4", null);
+    c1.addChild(b4);
+    assertThat(a1.getDescendants(b)).containsExactly(b1, b2, b4, b3);
+  }
+
   @Test
   void testToString() {
     var token = mock(Token.class);
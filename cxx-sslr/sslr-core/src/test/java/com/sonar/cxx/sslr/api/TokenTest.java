@@ -0,0 +1,83 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.api;
+
+import java.net.URI;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+class TokenTest {
+
+  private static final URI FAKE_URI = URI.create("tests://unittest");
+
+  @Test
+  void sharesValueOfTokenType() {
+    var token = Token.builder()
+      .setType(GenericTokenType.EOF)
+      .setValueAndOriginalValue(new String("EOF"))
+      .setURI(FAKE_URI)
+      .setLine(1)
+      .setColumn(0)
+      .build();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(token.getValue()).isSameAs(GenericTokenType.EOF.getValue());
+    softly.assertThat(token.getOriginalValue()).isSameAs(token.getValue());
+    softly.assertAll();
+  }
+
+  @Test
+  void sharesEqualOriginalValue() {
+    var token = Token.builder()
+      .setType(GenericTokenType.IDENTIFIER)
+      .setValueAndOriginalValue("name", new String("name"))
+      .setURI(FAKE_URI)
+      .setLine(1)
+      .setColumn(0)
+      .build();
+    assertThat(token.getOriginalValue()).isSameAs(token.getValue());
+  }
+
+  @Test
+  void copyBook() {
+    var builder = Token.builder()
+      .setType(GenericTokenType.IDENTIFIER)
+      .setValueAndOriginalValue("NAME", "name")
+      .setURI(FAKE_URI)
+      .setLine(1)
+      .setColumn(0);
+    var token = builder.build();
+    var copyBookToken = Token.builder(token).setCopyBook("file", 42).build();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(token.isCopyBook()).isFalse();
+    softly.assertThat(token.getCopyBookOriginalLine()).isEqualTo(-1);
+    softly.assertThat(token.getCopyBookOriginalFileName()).isEmpty();
+    softly.assertThat(token.getOriginalValue()).isEqualTo("name");
+    softly.assertThat(copyBookToken.isCopyBook()).isTrue();
+    softly.assertThat(copyBookToken.getCopyBookOriginalLine()).isEqualTo(42);
+    softly.assertThat(copyBookToken.getCopyBookOriginalFileName()).isEqualTo("file");
+    softly.assertThat(Token.builder(copyBookToken).build().getCopyBookOriginalLine()).isEqualTo(42);
+    softly.assertThat(Token.builder(copyBookToken).notCopyBook().build().isCopyBook()).isFalse();
+    softly.assertAll();
+  }
+
+}
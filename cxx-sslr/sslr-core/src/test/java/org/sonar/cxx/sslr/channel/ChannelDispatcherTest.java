@@ -24,6 +24,8 @@
 package org.sonar.cxx.sslr.channel;
 
 import static org.assertj.core.api.Assertions.*;
+import java.util.regex.Pattern;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
 
 class ChannelDispatcherTest {
@@ -56,6 +58,71 @@ class ChannelDispatcherTest {
     assertThat(thrown).isExactlyInstanceOf(IllegalStateException.class);
   }
 
+  @Test
+  void shouldDispatchOnFirstCharacter() {
+    var digits = new DigitChannel();
+    var any = new CopyChannel();
+    var dispatcher = ChannelDispatcher.builder().addChannels(digits, any).dispatchOnFirstCharacter().build();
+    var output = new StringBuilder();
+    dispatcher.consume(new CodeReader("a1b2\u00e93"), output);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(output).hasToString("a[1]b[2]\u00e9[3]");
+    softly.assertThat(digits.calls).as("digits and the non-ASCII character").isEqualTo(4);
+    softly.assertThat(dispatcher.canStartWith('1')).isTrue();
+    softly.assertThat(dispatcher.canStartWith('a')).isTrue();
+    softly.assertAll();
+  }
+
+  @Test
+  void shouldOfferNonAsciiCharactersToAllChannels() {
+    var digits = new DigitChannel();
+    var dispatcher = ChannelDispatcher.builder().addChannels(digits, new CopyChannel()).dispatchOnFirstCharacter()
+      .build();
+    dispatcher.consume(new CodeReader("\u00e9\u00e9"), new StringBuilder());
+    assertThat(digits.calls).isEqualTo(2);
+  }
+
+  @Test
+  void shouldCheckRegularExpressionFirstCharacters() {
+    var pattern = Pattern.compile("\\.\\d|[a-z]\\w*+");
+    var softly = new SoftAssertions();
+    softly.assertThat(Channel.canStartWith(pattern, '.')).isTrue();
+    softly.assertThat(Channel.canStartWith(pattern, 'x')).isTrue();
+    softly.assertThat(Channel.canStartWith(pattern, '1')).isFalse();
+    softly.assertThat(Channel.canStartWith(pattern, ' ')).isFalse();
+    softly.assertAll();
+  }
+
+  private static class DigitChannel extends Channel<StringBuilder> {
+
+    private int calls = 0;
+
+    @Override
+    public boolean consume(CodeReader code, StringBuilder output) {
+      calls++;
+      if (!Character.isDigit(code.peek())) {
+        return false;
+      }
+      output.append('[').append((char) code.pop()).append(']');
+      return true;
+    }
+
+    @Override
+    public boolean canStartWith(char ch) {
+      return ch >= '0' && ch <= '9';
+    }
+  }
+
+  private static class CopyChannel extends Channel<StringBuilder> {
+
+    @Override
+    public boolean consume(CodeReader code, StringBuilder output) {
+      output.append((char) code.pop());
+      return true;
+    }
+  }
+
   private static class SpaceDeletionChannel extends Channel<StringBuilder> {
 
     @Override
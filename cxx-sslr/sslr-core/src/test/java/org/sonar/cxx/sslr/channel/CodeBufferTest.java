@@ -119,6 +119,52 @@ class CodeBufferTest {
     assertThat(reader.stopRecording()).hasToString("");
   }
 
+  @Test
+  void testRecordingOffsets() {
+    var code = "123456";
+    var reader = new CodeBuffer(code, defaulConfiguration);
+    reader.pop();
+    int start = reader.getPosition();
+    reader.startRecording();
+    reader.pop();
+    reader.pop();
+    int end = reader.getPosition();
+
+    assertThat(start).isEqualTo(1);
+    assertThat(end).isEqualTo(3);
+    assertThat(reader.stopRecording()).hasToString("23");
+    assertThat(reader.getText(start, end)).hasToString("23");
+    assertThat(reader.getText(0, code.length())).hasToString(code);
+  }
+
+  @Test
+  void testCharArrayWithoutCopy() {
+    var code = "pa\nc".toCharArray();
+    var reader = new CodeBuffer(code, defaulConfiguration);
+    code[0] = 'x';
+
+    assertThat(reader).hasSize(4);
+    assertThat((char) reader.pop()).isEqualTo('x');
+    assertThat((char) reader.pop()).isEqualTo('a');
+    reader.pop();
+    assertThat(reader.getLinePosition()).isEqualTo(2);
+    assertThat((char) reader.pop()).isEqualTo('c');
+    assertThat(reader.pop()).isEqualTo(-1);
+  }
+
+  @Test
+  void testCharSequenceWithFilter() {
+    var configuration = new CodeReaderConfiguration();
+    configuration.setCodeReaderFilters(new ReplaceNumbersFilter());
+    var code = new CodeBuffer(new StringBuilder("ab12"), configuration);
+
+    assertThat((char) code.pop()).isEqualTo('a');
+    assertThat((char) code.pop()).isEqualTo('b');
+    assertThat((char) code.pop()).isEqualTo('-');
+    assertThat((char) code.pop()).isEqualTo('-');
+    assertThat(code.pop()).isEqualTo(-1);
+  }
+
   @Test
   void testCharAt() {
     var reader = new CodeBuffer("123456", defaulConfiguration);
@@ -122,6 +122,18 @@ class LexerfulGrammarBuilderTest {
     assertThat(((RuleDefinition) grammar.rule(ruleKey)).shouldMemoize()).isTrue();
   }
 
+  @Test
+  void shouldBuildWithMemoizationOfSomeRules() {
+    var b = LexerfulGrammarBuilder.create();
+    var memoized = mock(GrammarRuleKey.class);
+    var other = mock(GrammarRuleKey.class);
+    b.rule(memoized).is("foo");
+    b.rule(other).is("bar");
+    var grammar = b.buildWithMemoizationOfMatchesForRules(ruleKey -> ruleKey == memoized);
+    assertThat(((RuleDefinition) grammar.rule(memoized)).shouldMemoize()).isTrue();
+    assertThat(((RuleDefinition) grammar.rule(other)).shouldMemoize()).isFalse();
+  }
+
   @Test
   void testUndefinedRootRule() {
     var b = LexerfulGrammarBuilder.create();
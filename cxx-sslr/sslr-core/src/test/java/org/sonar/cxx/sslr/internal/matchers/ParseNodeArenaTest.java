@@ -0,0 +1,93 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.matchers;
+
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+
+class ParseNodeArenaTest {
+
+  @Test
+  void childrenAreLinkedBySiblings() {
+    var matcher = mock(Matcher.class);
+    var arena = new ParseNodeArena();
+    int first = arena.add(0, 1, matcher, ParseNodeArena.NONE);
+    int second = arena.add(1, 3, matcher, ParseNodeArena.NONE);
+    arena.setNextSibling(first, second);
+    int parent = arena.add(0, 3, matcher, first);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(arena.size()).isEqualTo(3);
+    softly.assertThat(arena.getStartIndex(parent)).isZero();
+    softly.assertThat(arena.getEndIndex(parent)).isEqualTo(3);
+    softly.assertThat(arena.getMatcher(parent)).isSameAs(matcher);
+    softly.assertThat(arena.getFirstChild(parent)).isEqualTo(first);
+    softly.assertThat(arena.getNextSibling(first)).isEqualTo(second);
+    softly.assertThat(arena.getNextSibling(second)).isEqualTo(ParseNodeArena.NONE);
+    softly.assertAll();
+  }
+
+  @Test
+  void copyHasNoNextSibling() {
+    var matcher = mock(Matcher.class);
+    var arena = new ParseNodeArena();
+    int child = arena.add(0, 1, matcher, ParseNodeArena.NONE);
+    int node = arena.add(0, 1, matcher, child);
+    arena.setNextSibling(node, arena.add(1, 2, matcher, ParseNodeArena.NONE));
+
+    int copy = arena.copy(node);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(copy).isNotEqualTo(node);
+    softly.assertThat(arena.getFirstChild(copy)).isEqualTo(child);
+    softly.assertThat(arena.getEndIndex(copy)).isEqualTo(1);
+    softly.assertThat(arena.getNextSibling(copy)).isEqualTo(ParseNodeArena.NONE);
+    softly.assertAll();
+  }
+
+  @Test
+  void grows() {
+    var matcher = mock(Matcher.class);
+    var arena = new ParseNodeArena();
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(arena.add(i, i + 1, matcher, ParseNodeArena.NONE)).isEqualTo(i);
+    }
+    assertThat(arena.getStartIndex(9_999)).isEqualTo(9_999);
+  }
+
+  @Test
+  void arenaOfThreadIsReused() {
+    var arena = ParseNodeArena.acquire();
+    arena.add(0, 1, mock(Matcher.class), ParseNodeArena.NONE);
+    var nested = ParseNodeArena.acquire();
+    nested.release();
+    arena.release();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(nested).isNotSameAs(arena);
+    softly.assertThat(arena.size()).isZero();
+    softly.assertThat(ParseNodeArena.acquire()).isSameAs(arena);
+    softly.assertAll();
+    arena.release();
+  }
+
+}
@@ -49,4 +49,37 @@ class FirstOfExpressionTest {
       SubExpression.mockInstruction(6),});
   }
 
+  @Test
+  void shouldCompileWithPrediction() {
+    var expression = new FirstOfExpression(
+      new SubExpression(1, 2, 3),
+      new SubExpression(4, 5),
+      new SubExpression(6));
+    var instructions = expression.compile(new CompilationHandler() {
+      @Override
+      public FirstTokens firstTokens(ParsingExpression expression) {
+        return FirstTokens.ofValue("foo");
+      }
+    });
+    assertThat(instructions).hasSize(11);
+    assertThat(instructions[0]).isInstanceOf(Instruction.PredictChoiceInstruction.class);
+    assertThat(instructions[4]).isEqualTo(Instruction.commit(7));
+    assertThat(instructions[5]).isInstanceOf(Instruction.PredictChoiceInstruction.class);
+    assertThat(instructions[8]).isEqualTo(Instruction.commit(3));
+    assertThat(instructions[9]).isInstanceOf(Instruction.PredictChoiceInstruction.class);
+    assertThat(instructions[10]).isEqualTo(SubExpression.mockInstruction(6));
+  }
+
+  @Test
+  void shouldNotPredictUnknownAlternatives() {
+    var expression = new FirstOfExpression(new SubExpression(1), new SubExpression(2));
+    var instructions = expression.compile(new CompilationHandler() {
+      @Override
+      public FirstTokens firstTokens(ParsingExpression expression) {
+        return expression.firstTokens(this);
+      }
+    });
+    assertThat(instructions[0]).isEqualTo(Instruction.choice(3));
+  }
+
 }
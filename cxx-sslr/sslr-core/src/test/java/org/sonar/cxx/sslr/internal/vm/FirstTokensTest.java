@@ -0,0 +1,81 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Token;
+import java.util.Set;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FirstTokensTest {
+
+  private final Token identifier = token(GenericTokenType.IDENTIFIER, "foo");
+  private final Token literal = token(GenericTokenType.LITERAL, "42");
+
+  @Test
+  void sequence() {
+    var types = FirstTokens.ofTypes(Set.of(GenericTokenType.IDENTIFIER));
+    var value = FirstTokens.ofValue("42");
+
+    var softly = new SoftAssertions();
+    softly.assertThat(types.then(value).canStartWith(literal)).isFalse();
+    softly.assertThat(types.optional().then(value).canStartWith(literal)).isTrue();
+    softly.assertThat(types.optional().then(value).canStartWith(identifier)).isTrue();
+    softly.assertThat(types.optional().then(value).isNullable()).isFalse();
+    softly.assertThat(FirstTokens.EMPTY.then(value).isPredictable()).isTrue();
+    softly.assertAll();
+  }
+
+  @Test
+  void choice() {
+    var choice = FirstTokens.ofValue("foo").or(FirstTokens.ofTypeClass(GenericTokenType.class));
+
+    var softly = new SoftAssertions();
+    softly.assertThat(choice.canStartWith(identifier)).isTrue();
+    softly.assertThat(choice.canStartWith(literal)).isTrue();
+    softly.assertThat(FirstTokens.NONE.or(FirstTokens.ofValue("bar")).canStartWith(identifier)).isFalse();
+    softly.assertThat(choice.or(FirstTokens.EMPTY).isPredictable()).isFalse();
+    softly.assertThat(choice.or(FirstTokens.ANY).isPredictable()).isFalse();
+    softly.assertAll();
+  }
+
+  @Test
+  void rule() {
+    var value = FirstTokens.ofValue("foo");
+
+    var softly = new SoftAssertions();
+    softly.assertThat(value.isMatchedInRule()).isFalse();
+    softly.assertThat(value.inRule().isMatchedInRule()).isTrue();
+    softly.assertThat(FirstTokens.EMPTY.then(value.inRule()).isMatchedInRule()).isTrue();
+    softly.assertThat(FirstTokens.ofValue("bar").then(value.inRule()).isMatchedInRule()).isFalse();
+    softly.assertAll();
+  }
+
+  private static Token token(GenericTokenType type, String value) {
+    var token = mock(Token.class);
+    when(token.getType()).thenReturn(type);
+    when(token.getValue()).thenReturn(value);
+    return token;
+  }
+
+}
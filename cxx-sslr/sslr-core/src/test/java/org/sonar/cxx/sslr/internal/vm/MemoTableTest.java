@@ -0,0 +1,98 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.internal.vm;
+
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.sonar.cxx.sslr.internal.matchers.ParseNodeArena;
+
+class MemoTableTest {
+
+  @Test
+  void severalRulesAtSameIndex() {
+    var table = new MemoTable();
+    table.reset(10);
+    table.put(100, 3, 1);
+    table.put(200, 3, 2);
+    table.put(100, 4, 3);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(table.get(100, 3)).isEqualTo(1);
+    softly.assertThat(table.get(200, 3)).isEqualTo(2);
+    softly.assertThat(table.get(100, 4)).isEqualTo(3);
+    softly.assertThat(table.get(200, 4)).isEqualTo(ParseNodeArena.NONE);
+    softly.assertThat(table.get(300, 3)).isEqualTo(ParseNodeArena.NONE);
+    softly.assertAll();
+  }
+
+  @Test
+  void putReplacesMemoOfSameRuleAndIndex() {
+    var table = new MemoTable();
+    table.reset(10);
+    table.put(100, 3, 1);
+    table.put(100, 3, 2);
+    assertThat(table.get(100, 3)).isEqualTo(2);
+  }
+
+  @Test
+  void resetRemovesAllMemos() {
+    var table = new MemoTable();
+    table.reset(10);
+    table.put(100, 3, 1);
+    table.reset(5);
+    assertThat(table.get(100, 3)).isEqualTo(ParseNodeArena.NONE);
+  }
+
+  @Test
+  void capacityIsBounded() {
+    var table = new MemoTable(1000);
+    table.reset(10);
+    assertThat(table.capacity()).isEqualTo(128);
+    table.reset(1_000_000);
+    assertThat(table.capacity()).isEqualTo(1024);
+  }
+
+  @Test
+  void fullTableKeepsNewestMemos() {
+    var table = new MemoTable(64);
+    table.reset(1000);
+    for (var index = 0; index < 1000; index++) {
+      for (var rule = 0; rule < 4; rule++) {
+        table.put(rule, index, index * 4 + rule);
+      }
+    }
+
+    var found = 0;
+    for (var index = 0; index < 1000; index++) {
+      for (var rule = 0; rule < 4; rule++) {
+        var node = table.get(rule, index);
+        if (node != ParseNodeArena.NONE) {
+          // a memo can be lost, but is never wrong
+          assertThat(node).isEqualTo(index * 4 + rule);
+          found++;
+        }
+      }
+    }
+    assertThat(found).isBetween(1, 64);
+    assertThat(table.get(3, 999)).isEqualTo(999 * 4 + 3);
+  }
+
+}
@@ -31,7 +31,11 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.sonar.cxx.sslr.internal.vm.CompilationHandler;
+import org.sonar.cxx.sslr.internal.vm.FirstOfExpression;
+import org.sonar.cxx.sslr.internal.vm.FirstTokens;
 import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.internal.vm.OptionalExpression;
+import org.sonar.cxx.sslr.internal.vm.ParsingExpression;
 import org.sonar.cxx.sslr.internal.vm.SequenceExpression;
 
 class LexerfulMachineIntegrationTest {
@@ -106,6 +110,26 @@ class LexerfulMachineIntegrationTest {
     assertThat(Machine.execute(instructions, tokens)).isFalse();
   }
 
+  @Test
+  void firstOfWithPrediction() {
+    var instructions = new FirstOfExpression(
+      new SequenceExpression(new TokenValueExpression("foo"), new TokenValueExpression("bar")),
+      new SequenceExpression(new OptionalExpression(new TokenValueExpression("baz")), new TokenValueExpression("foo")),
+      new TokenValueExpression("qux"))
+      .compile(new CompilationHandler() {
+        @Override
+        public FirstTokens firstTokens(ParsingExpression expression) {
+          return expression.firstTokens(this);
+        }
+      });
+    assertThat(Machine.execute(instructions, token("foo"), token("bar"))).isTrue();
+    assertThat(Machine.execute(instructions, token("foo"), token("qux"))).isTrue();
+    assertThat(Machine.execute(instructions, token("baz"), token("foo"))).isTrue();
+    assertThat(Machine.execute(instructions, token("qux"))).isTrue();
+    assertThat(Machine.execute(instructions, token("bar"))).isFalse();
+    assertThat(Machine.execute(instructions, token("baz"), token("bar"))).isFalse();
+  }
+
   private static Token token(TokenType type) {
     return when(mock(Token.class).getType()).thenReturn(type).getMock();
   }
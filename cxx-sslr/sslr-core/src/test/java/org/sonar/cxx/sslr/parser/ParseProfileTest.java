@@ -0,0 +1,112 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.cxx.sslr.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParseProfileTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void rulesAreSummedUpAndOrdered() {
+    var profile = new ParseProfile();
+    profile.add("b", 2, 1, 1, 0, 3, 0);
+    profile.add("a", 2, 2, 0, 1, 5, 1);
+    profile.add("c", 7, 7, 0, 0, 7, 4);
+    profile.add("b", 1, 1, 0, 2, 4, 1);
+    profile.addParse();
+
+    var softly = new SoftAssertions();
+    softly.assertThat(profile.getParses()).isEqualTo(1);
+    softly.assertThat(profile.getRules()).extracting(ParseProfile.RuleProfile::getName).containsExactly("c", "b", "a");
+    var b = profile.getRules().get(1);
+    softly.assertThat(b.getInvocations()).isEqualTo(3);
+    softly.assertThat(b.getMatches()).isEqualTo(2);
+    softly.assertThat(b.getBacktracks()).isEqualTo(1);
+    softly.assertThat(b.getMemoHits()).isEqualTo(2);
+    softly.assertThat(b.getTokens()).isEqualTo(7);
+    softly.assertThat(b.getRepeats()).isEqualTo(1);
+    softly.assertThat(profile.getMemoizationCandidates(2)).containsExactly("c", "a");
+    softly.assertAll();
+  }
+
+  @Test
+  void rulesAreCopies() {
+    var profile = new ParseProfile();
+    profile.add("a", 1, 1, 0, 0, 1, 0);
+    var rules = profile.getRules();
+    profile.add("a", 1, 1, 0, 0, 1, 0);
+    assertThat(rules.get(0).getInvocations()).isEqualTo(1);
+  }
+
+  @Test
+  void json() throws IOException {
+    var profile = new ParseProfile();
+    assertThat(profile.toJson()).isEqualTo("{\n  \"parses\": 0,\n  \"rules\": []\n}\n");
+
+    profile.add("a\"b", 2, 1, 1, 0, 3, 0);
+    profile.add("c", 1, 1, 0, 0, 1, 0);
+    profile.addParse();
+    var expected = """
+      {
+        "parses": 1,
+        "rules": [
+          {"rule": "a\\"b", "invocations": 2, "matches": 1, "backtracks": 1, "memoHits": 0, "tokens": 3, "repeats": 0},
+          {"rule": "c", "invocations": 1, "matches": 1, "backtracks": 0, "memoHits": 0, "tokens": 1, "repeats": 0}
+        ]
+      }
+      """;
+    assertThat(profile.toJson()).isEqualTo(expected);
+
+    var file = tempDir.resolve("profile.json");
+    profile.writeJson(file);
+    assertThat(Files.readString(file)).isEqualTo(expected);
+  }
+
+  @Test
+  void summary() {
+    var profile = new ParseProfile();
+    profile.add("a", 2, 1, 1, 0, 3, 0);
+    profile.add("b", 1, 1, 0, 0, 1, 0);
+    var lines = profile.summary(1).split("\\R");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).startsWith("rule ").contains("invocations", "backtracks", "memo hits", "tokens", "repeats");
+    assertThat(lines[1].split(" +")).containsExactly("a", "2", "1", "1", "0", "3", "0");
+  }
+
+  @Test
+  void reset() {
+    var profile = new ParseProfile();
+    profile.add("a", 1, 1, 0, 0, 1, 0);
+    profile.addParse();
+    profile.reset();
+    assertThat(profile.isEmpty()).isTrue();
+    assertThat(profile.getParses()).isZero();
+  }
+
+}
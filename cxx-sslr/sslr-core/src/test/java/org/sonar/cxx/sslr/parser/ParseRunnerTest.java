@@ -27,6 +27,8 @@ import com.sonar.cxx.sslr.api.GenericTokenType;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.sonar.cxx.sslr.internal.grammar.MutableParsingRule;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.internal.vm.MutableGrammarCompiler;
 
 class ParseRunnerTest {
 
@@ -133,4 +135,22 @@ class ParseRunnerTest {
     assertThat(parseError.getErrorIndex()).isZero();
   }
 
+  @Test
+  void shouldParseChoiceWithNothing() {
+    var nothing = new MutableParsingRule("nothing").is(GrammarOperators.nothing());
+    var rule = new MutableParsingRule("rule").is(GrammarOperators.firstOf(nothing, "a"));
+    var runner = new ParseRunner(rule);
+    assertThat(runner.parse("a".toCharArray()).isMatched()).isTrue();
+    assertThat(runner.parse("b".toCharArray()).isMatched()).isFalse();
+  }
+
+  @Test
+  void shouldIgnorePredictionWithoutTokens() {
+    var nothing = new MutableParsingRule("nothing").is(GrammarOperators.nothing());
+    var rule = new MutableParsingRule("rule");
+    rule.is(GrammarOperators.firstOf(nothing, "a"));
+    var grammar = MutableGrammarCompiler.compile(rule, true);
+    assertThat(Machine.parse("a".toCharArray(), grammar).isMatched()).isTrue();
+  }
+
 }
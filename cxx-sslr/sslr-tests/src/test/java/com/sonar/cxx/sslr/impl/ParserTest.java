@@ -27,8 +27,22 @@ import static com.sonar.cxx.sslr.api.GenericTokenType.EOF;
 import com.sonar.cxx.sslr.api.RecognitionException;
 import static com.sonar.cxx.sslr.test.minic.MiniCParser.parseFile;
 import static com.sonar.cxx.sslr.test.minic.MiniCParser.parseString;
+import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
+import com.sonar.cxx.sslr.impl.matcher.RuleDefinition;
+import com.sonar.cxx.sslr.test.minic.MiniCGrammar;
+import com.sonar.cxx.sslr.test.minic.MiniCLexer;
+import com.sonar.cxx.sslr.test.minic.MiniCParser;
+import java.util.HashMap;
+import org.apache.commons.io.FileUtils;
 import static org.assertj.core.api.Assertions.*;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.sonar.cxx.sslr.grammar.GrammarException;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.cxx.sslr.internal.matchers.LexerfulAstCreator;
+import org.sonar.cxx.sslr.internal.vm.Machine;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 
 class ParserTest {
 
@@ -55,4 +69,131 @@ class ParserTest {
     assertThat(compilationUnit.getFirstChild().is(EOF)).isTrue();
   }
 
+  @Test
+  void compiledGrammarIsReused() {
+    var parser = MiniCParser.create();
+    var compiled = parser.getCompiledGrammar();
+    parser.parse("int a;");
+    assertThat(parser.getCompiledGrammar()).isSameAs(compiled);
+  }
+
+  @Test
+  void compiledGrammarIsResetBySetRootRule() {
+    var parser = MiniCParser.create();
+    var compiled = parser.getCompiledGrammar();
+    parser.setRootRule(parser.getGrammar().rule(MiniCGrammar.BIN_TYPE));
+    assertThat(parser.getCompiledGrammar()).isNotSameAs(compiled);
+    assertThat(parser.getCompiledGrammar().getRootRuleKey()).isEqualTo(MiniCGrammar.BIN_TYPE);
+  }
+
+  @Test
+  void compiledGrammarIsResetByRuleOverride() {
+    var parser = MiniCParser.create();
+    var compiled = parser.getCompiledGrammar();
+    parser.getGrammar().rule(MiniCGrammar.BIN_TYPE).override("int");
+    assertThat(parser.getCompiledGrammar()).isNotSameAs(compiled);
+  }
+
+  @Test
+  void compiledGrammarIsSharedByParsersOfGrammar() {
+    var parser = MiniCParser.create();
+    var other = Parser.builder(parser.getGrammar()).withLexer(MiniCLexer.create()).build();
+    assertThat(other.getCompiledGrammar()).isSameAs(parser.getCompiledGrammar());
+  }
+
+  @Test
+  void compiledGrammarIsNotResetByRuleOverrideOfOtherGrammar() {
+    var parser = MiniCParser.create();
+    var compiled = parser.getCompiledGrammar();
+    MiniCGrammar.create().rule(MiniCGrammar.BIN_TYPE).override("int");
+    assertThat(parser.getCompiledGrammar()).isSameAs(compiled);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"example1.mc", "example2.mc", "example3.mc", "example4.mc"})
+  void parseNodeArenaCreatesSameAstAsParseNodes(String fileName) {
+    var lexer = MiniCLexer.create();
+    lexer.lex(FileUtils.toFile(ParserTest.class.getResource("/MiniCIntegration/" + fileName)));
+    var tokens = lexer.getTokens();
+    var parser = MiniCParser.create();
+
+    var expected = LexerfulAstCreator.create(Machine.parse(tokens, parser.getCompiledGrammar()), tokens);
+    var actual = parser.parse(tokens);
+
+    assertThat(AstXmlPrinter.print(actual)).isEqualTo(AstXmlPrinter.print(expected));
+  }
+
+  @Test
+  void machineIsReusedAfterFailedParses() {
+    var parser = MiniCParser.create();
+    var expected = AstXmlPrinter.print(parser.parse("int a = 1;"));
+
+    assertThat(catchThrowable(() -> parser.parse("int a = ;"))).isInstanceOf(RecognitionException.class);
+    assertThat(AstXmlPrinter.print(parser.parse("int a = 1;"))).isEqualTo(expected);
+
+    var leftRecursive = MiniCParser.create();
+    var binType = leftRecursive.getGrammar().rule(MiniCGrammar.BIN_TYPE);
+    binType.override(binType, "int");
+    leftRecursive.setRootRule(binType);
+    assertThat(catchThrowable(() -> leftRecursive.parse("int"))).isInstanceOf(GrammarException.class);
+    assertThat(AstXmlPrinter.print(parser.parse("int a = 1;"))).isEqualTo(expected);
+  }
+
+  @Test
+  void profileCountsRuleCalls() {
+    var parser = MiniCParser.create();
+    var profile = new ParseProfile();
+    parser.setProfile(profile);
+    parser.parse("int a;");
+    assertThat(catchThrowable(() -> parser.parse("int a = ;"))).isInstanceOf(RecognitionException.class);
+    parser.setProfile(null);
+    parser.parse("int a;");
+
+    var rules = new HashMap<String, ParseProfile.RuleProfile>();
+    for (var rule : profile.getRules()) {
+      rules.put(rule.getName(), rule);
+    }
+    var softly = new SoftAssertions();
+    softly.assertThat(profile.getParses()).isEqualTo(2);
+    softly.assertThat(profile.getRules().get(0).getInvocations())
+      .isGreaterThanOrEqualTo(profile.getRules().get(1).getInvocations());
+    var compilationUnit = rules.get("COMPILATION_UNIT");
+    softly.assertThat(compilationUnit.getInvocations()).isEqualTo(2);
+    softly.assertThat(compilationUnit.getMatches()).isEqualTo(1);
+    softly.assertThat(compilationUnit.getBacktracks()).isEqualTo(1);
+    softly.assertThat(compilationUnit.getTokens()).isEqualTo(4);
+    var functionDefinition = rules.get("FUNCTION_DEFINITION");
+    softly.assertThat(functionDefinition.getMatches()).isZero();
+    softly.assertThat(functionDefinition.getBacktracks()).isEqualTo(functionDefinition.getInvocations());
+    var variableDefinition = rules.get("VARIABLE_DEFINITION");
+    softly.assertThat(variableDefinition.getMatches()).isEqualTo(1);
+    softly.assertThat(variableDefinition.getTokens()).isEqualTo(3);
+    softly.assertThat(rules.get("VARIABLE_INITIALIZER").getBacktracks()).isEqualTo(2);
+    softly.assertThat(rules.get("BIN_TYPE").getRepeats()).isEqualTo(2);
+    softly.assertThat(profile.getMemoizationCandidates(1)).containsExactly("BIN_TYPE");
+    softly.assertThat(profile.toJson()).contains("\"rule\": \"COMPILATION_UNIT\", \"invocations\": 2,");
+    softly.assertAll();
+  }
+
+  @Test
+  void memoizedRulesAreReused() {
+    var parser = MiniCParser.create();
+    var expected = AstXmlPrinter.print(parser.parse("int a; int f() { return a + 1; }"));
+
+    var grammar = parser.getGrammar();
+    for (var ruleKey : new MiniCGrammar[]{MiniCGrammar.BIN_TYPE, MiniCGrammar.DEFINITION,
+      MiniCGrammar.FUNCTION_DEFINITION, MiniCGrammar.EXPRESSION, MiniCGrammar.ADDITIVE_EXPRESSION}) {
+      ((RuleDefinition) grammar.rule(ruleKey)).enableMemoization();
+    }
+    var profile = new ParseProfile();
+    parser.setProfile(profile);
+
+    assertThat(AstXmlPrinter.print(parser.parse("int a; int f() { return a + 1; }"))).isEqualTo(expected);
+    var memoHits = new HashMap<String, Long>();
+    for (var rule : profile.getRules()) {
+      memoHits.put(rule.getName(), rule.getMemoHits());
+    }
+    assertThat(memoHits).containsEntry("BIN_TYPE", 1L);
+  }
+
 }
@@ -24,6 +24,7 @@
 package org.sonar.cxx.sslr.internal.toolkit;
 
 import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.impl.Parser;
 import com.sonar.cxx.sslr.impl.ast.AstXmlPrinter;
 import java.io.File;
 import java.io.IOException;
@@ -32,9 +33,11 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import org.sonar.colorizer.HtmlOptions;
 import org.sonar.colorizer.HtmlRenderer;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 import org.sonar.cxx.sslr.toolkit.ConfigurationModel;
 
 public class SourceCodeModel {
@@ -44,6 +47,8 @@ public class SourceCodeModel {
 
   private String sourceCode;
   private AstNode astNode;
+  @CheckForNull
+  private ParseProfile profile;
 
   public SourceCodeModel(@Nonnull ConfigurationModel configurationModel) {
     Objects.requireNonNull(configurationModel);
@@ -57,12 +62,22 @@ public class SourceCodeModel {
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    this.astNode = configurationModel.getParser().parse(source);
+    this.astNode = startParse().parse(source);
   }
 
   public void setSourceCode(String sourceCode) {
     this.sourceCode = sourceCode;
-    this.astNode = configurationModel.getParser().parse(sourceCode);
+    this.astNode = startParse().parse(sourceCode);
+  }
+
+  private Parser startParse() {
+    var parser = configurationModel.getParser();
+    profile = parser.getProfile();
+    if (profile != null) {
+      // the profile shows the last parsed source only
+      profile.reset();
+    }
+    return parser;
   }
 
   public String getHighlightedSourceCode() {
@@ -77,4 +92,12 @@ public class SourceCodeModel {
     return astNode;
   }
 
+  /**
+   * Returns the statistics of the grammar rules of the last parse, {@code null} if the parser has no profile.
+   */
+  @CheckForNull
+  public ParseProfile getProfile() {
+    return profile;
+  }
+
 }
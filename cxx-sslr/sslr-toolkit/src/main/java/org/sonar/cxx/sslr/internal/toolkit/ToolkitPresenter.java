@@ -137,6 +137,7 @@ public class ToolkitPresenter {
         // ignore parsing errors
       }
       view.displayHighlightedSourceCode(model.getHighlightedSourceCode());
+      displayProfile();
     }
   }
 
@@ -151,6 +152,14 @@ public class ToolkitPresenter {
     view.scrollSourceCodeTo(sourceCodeScrollbarPosition);
     view.setFocusOnAbstractSyntaxTreeView();
     view.enableXPathEvaluateButton();
+    displayProfile();
+  }
+
+  private void displayProfile() {
+    var profile = model.getProfile();
+    if (profile != null) {
+      view.appendToConsole(profile.summary(Integer.MAX_VALUE) + "\n");
+    }
   }
 
   public void onXPathEvaluateButtonClick() {
@@ -43,6 +43,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 import org.sonar.cxx.sslr.toolkit.ConfigurationModel;
 import org.sonar.cxx.sslr.toolkit.ConfigurationProperty;
 
@@ -261,6 +262,24 @@ class ToolkitPresenterTest {
     view.scrollSourceCodeTo(point);
     verify(view).setFocusOnAbstractSyntaxTreeView();
     verify(view).enableXPathEvaluateButton();
+    verify(view, never()).appendToConsole(anyString());
+  }
+
+  @Test
+  void onSourceCodeParseButtonClickWithProfile() {
+    var view = mock(ToolkitView.class);
+    when(view.getSourceCode()).thenReturn("my_mocked_source");
+    var model = mock(SourceCodeModel.class);
+    var profile = new ParseProfile();
+    profile.add("my_rule", 1, 1, 0, 0, 2, 0);
+    when(model.getProfile()).thenReturn(profile);
+
+    var presenter = new ToolkitPresenter(mock(ConfigurationModel.class), model);
+    presenter.setView(view);
+
+    presenter.onSourceCodeParseButtonClick();
+
+    verify(view).appendToConsole(profile.summary(Integer.MAX_VALUE) + "\n");
   }
 
   @Test
@@ -30,6 +30,7 @@ import java.util.Iterator;
 import java.util.Objects;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.jaxen.DefaultNavigator;
 import org.jaxen.XPath;
 import org.jaxen.util.SingleObjectIterator;
@@ -37,8 +38,20 @@ import org.jaxen.util.SingleObjectIterator;
 @SuppressWarnings("serial")
 public class AstNodeNavigator extends DefaultNavigator {
 
+  private static final String DOCUMENT_NODE_NAME = "[root]";
+
   private transient AstNode documentNode = null;
 
+  /**
+   * The document node is added by the navigator as parent of the root of the AST.
+   *
+   * @param node node to test
+   * @return true if the node is a document node created by a navigator
+   */
+  public static boolean isDocumentNode(@Nullable AstNode node) {
+    return node != null && node.getType() == null && DOCUMENT_NODE_NAME.equals(node.getName());
+  }
+
   public void reset() {
     documentNode = null;
   }
@@ -169,7 +182,7 @@ public class AstNodeNavigator extends DefaultNavigator {
           root = root.getParent();
         }
 
-        documentNode = new AstNode(null, "[root]", null);
+        documentNode = new AstNode(null, DOCUMENT_NODE_NAME, null);
         documentNode.addChild(root);
       } else if (isAttribute(contextNode)) {
         var attribute = (Attribute) contextNode;
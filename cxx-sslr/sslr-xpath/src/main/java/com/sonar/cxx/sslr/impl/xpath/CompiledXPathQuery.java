@@ -0,0 +1,389 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.impl.xpath;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+
+/**
+ * Compiled subset of XPath, which can be evaluated for each node during a single traversal of the AST.
+ *
+ * Supported are location paths with child ({@code /}) and descendant ({@code //}) steps, name tests (a node name or
+ * {@code *}) and predicates comparing the attributes {@code tokenValue}, {@code tokenLine} and {@code tokenColumn}
+ * with a literal ({@code =, !=, <, <=, >, >=}), several comparisons can be combined with {@code and}. Examples:
+ *
+ * <pre>
+ * //functionDefinition
+ * /translationUnit/declaration//IDENTIFIER[@tokenValue='goto']
+ * //statement[@tokenLine &gt;= 10 and @tokenLine &lt; 20]
+ * </pre>
+ *
+ * All other expressions are not compiled and have to be evaluated with Jaxen. The result of a compiled query is the
+ * same as the one of Jaxen: instead of walking the axes forward from the context node, a node matches if the steps can
+ * be matched backwards from the node over its ancestors to the context node.
+ */
+public final class CompiledXPathQuery {
+
+  private static final Pattern NUMBER = Pattern.compile("\\s*-?(\\d+(\\.\\d*)?|\\.\\d+)\\s*");
+
+  private final boolean absolute;
+  private final Step[] steps;
+
+  private CompiledXPathQuery(boolean absolute, Step[] steps) {
+    this.absolute = absolute;
+    this.steps = steps;
+  }
+
+  /**
+   * Compile the XPath expression.
+   *
+   * @param xpath expression to compile
+   * @return the compiled query or null if the expression is not part of the supported subset
+   */
+  @CheckForNull
+  public static CompiledXPathQuery compile(String xpath) {
+    return new Compiler(xpath).compile();
+  }
+
+  /**
+   * Name of the nodes this query can match.
+   *
+   * @return node name or null if the query matches nodes with any name
+   */
+  @CheckForNull
+  public String getName() {
+    var name = steps[steps.length - 1].name;
+    return "*".equals(name) ? null : name;
+  }
+
+  /**
+   * Test if the node is a result of this query evaluated on the context node.
+   *
+   * @param node node to test
+   * @param context context node of the query
+   * @return true if the node is selected by the query
+   */
+  public boolean matches(AstNode node, AstNode context) {
+    return matches(steps.length - 1, node, context);
+  }
+
+  private boolean matches(int i, AstNode node, AstNode context) {
+    var step = steps[i];
+    if (!step.test(node)) {
+      return false;
+    }
+    var parent = parentOf(node);
+    if (i == 0) {
+      if (absolute) {
+        // the document node is the (virtual) parent of the root
+        return !step.child || parent == null;
+      }
+      return parent == context;
+    }
+    if (step.child) {
+      return parent != null && matches(i - 1, parent, context);
+    }
+    for (var ancestor = parent; ancestor != null; ancestor = parentOf(ancestor)) {
+      if (matches(i - 1, ancestor, context)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parent in the AST, the document node added by Jaxen ({@link AstNodeNavigator}) is not part of the AST.
+   */
+  @CheckForNull
+  private static AstNode parentOf(AstNode node) {
+    var parent = node.getParent();
+    return AstNodeNavigator.isDocumentNode(parent) ? null : parent;
+  }
+
+  private static double toNumber(String value) {
+    return NUMBER.matcher(value).matches() ? Double.parseDouble(value.trim()) : Double.NaN;
+  }
+
+  private enum Operator {
+    EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+      this.symbol = symbol;
+    }
+  }
+
+  private static final class Step {
+
+    private final boolean child;
+    private final String name;
+    private final List<Comparison> predicates;
+
+    private Step(boolean child, String name, List<Comparison> predicates) {
+      this.child = child;
+      this.name = name;
+      this.predicates = predicates;
+    }
+
+    private boolean test(AstNode node) {
+      if (!"*".equals(name) && !name.equals(node.getName())) {
+        return false;
+      }
+      for (var predicate : predicates) {
+        if (!predicate.test(node)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Comparison of an attribute with a literal, following the XPath 1.0 rules: strings are compared as strings with
+   * {@code =} and {@code !=} only, all other comparisons are numeric. A node without token has no attributes and the
+   * comparison is false.
+   */
+  private static final class Comparison {
+
+    private final String attribute;
+    private final Operator operator;
+    private final String literal;
+    private final boolean numeric;
+
+    private Comparison(String attribute, Operator operator, String literal, boolean numeric) {
+      this.attribute = attribute;
+      this.operator = operator;
+      this.literal = literal;
+      this.numeric = numeric;
+    }
+
+    private boolean test(AstNode node) {
+      var token = node.getToken();
+      if (token == null) {
+        return false;
+      }
+      String value = switch (attribute) {
+        case "tokenLine" ->
+          Integer.toString(token.getLine());
+        case "tokenColumn" ->
+          Integer.toString(token.getColumn());
+        default ->
+          token.getValue();
+      };
+      if (!numeric && (operator == Operator.EQ || operator == Operator.NE)) {
+        return (operator == Operator.EQ) == value.equals(literal);
+      }
+      double left = toNumber(value);
+      double right = numeric ? Double.parseDouble(literal) : toNumber(literal);
+      return switch (operator) {
+        case EQ ->
+          left == right;
+        case NE ->
+          left != right;
+        case LT ->
+          left < right;
+        case LE ->
+          left <= right;
+        case GT ->
+          left > right;
+        case GE ->
+          left >= right;
+      };
+    }
+  }
+
+  /**
+   * Recursive descent parser of the supported subset, returns null for everything else.
+   */
+  private static final class Compiler {
+
+    private final String xpath;
+    private int pos = 0;
+
+    private Compiler(String xpath) {
+      this.xpath = xpath;
+    }
+
+    @CheckForNull
+    private CompiledXPathQuery compile() {
+      var steps = new ArrayList<Step>();
+      skipWhitespace();
+      boolean absolute = xpath.startsWith("/", pos);
+      boolean child = true;
+      if (absolute) {
+        child = !consumeSeparator();
+      }
+      while (true) {
+        var step = step(child);
+        if (step == null) {
+          return null;
+        }
+        steps.add(step);
+        skipWhitespace();
+        if (pos == xpath.length()) {
+          return new CompiledXPathQuery(absolute, steps.toArray(Step[]::new));
+        }
+        if (!xpath.startsWith("/", pos)) {
+          return null;
+        }
+        child = !consumeSeparator();
+      }
+    }
+
+    /**
+     * Consumes {@code /} or {@code //}, returns true for the descendant separator.
+     */
+    private boolean consumeSeparator() {
+      pos++;
+      if (xpath.startsWith("/", pos)) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    @CheckForNull
+    private Step step(boolean child) {
+      skipWhitespace();
+      String name;
+      if (xpath.startsWith("*", pos)) {
+        pos++;
+        name = "*";
+      } else {
+        name = name();
+        if (name == null) {
+          return null;
+        }
+      }
+      var predicates = new ArrayList<Comparison>();
+      skipWhitespace();
+      while (xpath.startsWith("[", pos)) {
+        pos++;
+        do {
+          var comparison = comparison();
+          if (comparison == null) {
+            return null;
+          }
+          predicates.add(comparison);
+        } while (keyword("and"));
+        skipWhitespace();
+        if (!xpath.startsWith("]", pos)) {
+          return null;
+        }
+        pos++;
+        skipWhitespace();
+      }
+      return new Step(child, name, predicates);
+    }
+
+    @CheckForNull
+    private Comparison comparison() {
+      skipWhitespace();
+      if (!xpath.startsWith("@", pos)) {
+        return null;
+      }
+      pos++;
+      var attribute = name();
+      if (!"tokenValue".equals(attribute) && !"tokenLine".equals(attribute) && !"tokenColumn".equals(attribute)) {
+        return null;
+      }
+      var operator = operator();
+      if (operator == null) {
+        return null;
+      }
+      skipWhitespace();
+      if (pos == xpath.length()) {
+        return null;
+      }
+      char quote = xpath.charAt(pos);
+      if (quote == '\'' || quote == '"') {
+        int end = xpath.indexOf(quote, pos + 1);
+        if (end < 0) {
+          return null;
+        }
+        var literal = xpath.substring(pos + 1, end);
+        pos = end + 1;
+        return new Comparison(attribute, operator, literal, false);
+      }
+      int start = pos;
+      while (pos < xpath.length() && (Character.isDigit(xpath.charAt(pos)) || xpath.charAt(pos) == '.')) {
+        pos++;
+      }
+      var literal = xpath.substring(start, pos);
+      if (!NUMBER.matcher(literal).matches()) {
+        return null;
+      }
+      return new Comparison(attribute, operator, literal, true);
+    }
+
+    @CheckForNull
+    private Operator operator() {
+      skipWhitespace();
+      Operator result = null;
+      for (var operator : Operator.values()) {
+        if (xpath.startsWith(operator.symbol, pos)
+          && (result == null || operator.symbol.length() > result.symbol.length())) {
+          result = operator;
+        }
+      }
+      if (result != null) {
+        pos += result.symbol.length();
+      }
+      return result;
+    }
+
+    private boolean keyword(String keyword) {
+      skipWhitespace();
+      int end = pos + keyword.length();
+      if (xpath.startsWith(keyword, pos) && (end == xpath.length() || !isNameChar(xpath.charAt(end)))) {
+        pos = end;
+        return true;
+      }
+      return false;
+    }
+
+    @CheckForNull
+    private String name() {
+      int start = pos;
+      if (pos < xpath.length() && (Character.isLetter(xpath.charAt(pos)) || xpath.charAt(pos) == '_')) {
+        pos++;
+        while (pos < xpath.length() && isNameChar(xpath.charAt(pos))) {
+          pos++;
+        }
+      }
+      return pos > start ? xpath.substring(start, pos) : null;
+    }
+
+    private static boolean isNameChar(char c) {
+      return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+
+    private void skipWhitespace() {
+      while (pos < xpath.length() && Character.isWhitespace(xpath.charAt(pos))) {
+        pos++;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.xpath.api;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.impl.xpath.AstNodeNavigator;
+import com.sonar.cxx.sslr.impl.xpath.CompiledXPathQuery;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluate several XPath queries on the same AstNode.
+ *
+ * Queries of the subset supported by {@link CompiledXPathQuery} are evaluated together in one traversal of the tree:
+ * the cost depends on the size of the tree and not on the number of queries. All other queries are evaluated one by
+ * one with Jaxen ({@link AstNodeXPathQuery}).
+ *
+ * <pre>
+ *   var queries = new AstNodeXPathQueries&lt;String&gt;();
+ *   queries.add("functions", "//functionDefinition");
+ *   queries.add("gotos", "//jumpStatement[@tokenValue='goto']");
+ *   var functions = queries.selectNodes("functions", fileNode);
+ *   var gotos = queries.selectNodes("gotos", fileNode); // no further traversal
+ * </pre>
+ *
+ * The results of the last evaluated AstNode are kept until the next AstNode is evaluated or {@link #clear()} is called.
+ *
+ * @param <K> key of a query
+ */
+public final class AstNodeXPathQueries<K> {
+
+  private final Map<K, CompiledXPathQuery> compiled = new LinkedHashMap<>();
+  private final Map<K, AstNodeXPathQuery<Object>> interpreted = new HashMap<>();
+  private final Map<String, List<Map.Entry<K, CompiledXPathQuery>>> byName = new HashMap<>();
+  private final List<Map.Entry<K, CompiledXPathQuery>> anyName = new ArrayList<>();
+
+  private AstNode context = null;
+  private final Map<K, List<Object>> results = new HashMap<>();
+
+  /**
+   * Add a query.
+   *
+   * @param key key of the query
+   * @param xpath the query
+   * @throws RuntimeException if the query is invalid
+   */
+  public void add(K key, String xpath) {
+    remove(key);
+    var query = CompiledXPathQuery.compile(xpath);
+    if (query != null) {
+      compiled.put(key, query);
+      var entry = Map.entry(key, query);
+      var name = query.getName();
+      if (name != null) {
+        byName.computeIfAbsent(name, k -> new ArrayList<>()).add(entry);
+      } else {
+        anyName.add(entry);
+      }
+    } else {
+      interpreted.put(key, AstNodeXPathQuery.create(xpath));
+    }
+    clear();
+  }
+
+  /**
+   * Remove a query.
+   *
+   * @param key key of the query
+   */
+  public void remove(K key) {
+    var query = compiled.remove(key);
+    if (query != null) {
+      var name = query.getName();
+      var entries = name != null ? byName.get(name) : anyName;
+      entries.removeIf(entry -> entry.getKey().equals(key));
+      if (name != null && entries.isEmpty()) {
+        byName.remove(name);
+      }
+    }
+    interpreted.remove(key);
+    clear();
+  }
+
+  public boolean isEmpty() {
+    return compiled.isEmpty() && interpreted.isEmpty();
+  }
+
+  /**
+   * Returns true if the query is evaluated in the common traversal, false if it is evaluated with Jaxen.
+   *
+   * @param key key of the query
+   * @return true if the query is compiled
+   */
+  public boolean isCompiled(K key) {
+    return compiled.containsKey(key);
+  }
+
+  /**
+   * Evaluate the query on the given AstNode and returns all matching elements in document order. Evaluating the first
+   * query on an AstNode evaluates all compiled queries.
+   *
+   * @param key key of the query
+   * @param astNode The AstNode on which to evaluate the query against to.
+   * @return The list of resulting elements, empty when no result available.
+   */
+  public List<Object> selectNodes(K key, AstNode astNode) {
+    if (astNode != context) {
+      evaluate(astNode);
+    }
+    var result = results.get(key);
+    if (result == null) {
+      var query = interpreted.get(key);
+      result = query != null ? query.selectNodes(astNode) : List.of();
+      results.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Release the results of the last evaluated AstNode.
+   */
+  public void clear() {
+    context = null;
+    results.clear();
+  }
+
+  private void evaluate(AstNode astNode) {
+    clear();
+    context = astNode;
+    for (var key : compiled.keySet()) {
+      results.put(key, new ArrayList<>());
+    }
+    if (compiled.isEmpty()) {
+      return;
+    }
+    // absolute paths can select nodes outside of the subtree of the context node
+    var root = astNode;
+    while (root.getParent() != null && !AstNodeNavigator.isDocumentNode(root.getParent())) {
+      root = root.getParent();
+    }
+    visit(root);
+  }
+
+  private void visit(AstNode node) {
+    var candidates = byName.get(node.getName());
+    if (candidates != null) {
+      match(candidates, node);
+    }
+    match(anyName, node);
+    for (var child : node.getChildren()) {
+      visit(child);
+    }
+  }
+
+  private void match(List<Map.Entry<K, CompiledXPathQuery>> candidates, AstNode node) {
+    for (var candidate : candidates) {
+      if (candidate.getValue().matches(node, context)) {
+        results.get(candidate.getKey()).add(node);
+      }
+    }
+  }
+
+}
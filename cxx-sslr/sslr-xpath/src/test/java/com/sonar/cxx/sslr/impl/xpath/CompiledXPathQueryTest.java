@@ -0,0 +1,189 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.impl.xpath;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.AstNodeType;
+import com.sonar.cxx.sslr.api.GenericTokenType;
+import com.sonar.cxx.sslr.api.Token;
+import com.sonar.cxx.sslr.xpath.api.AstNodeXPathQuery;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CompiledXPathQueryTest {
+
+  private AstNode unit;
+  private AstNode body;
+
+  /**
+   * <pre>
+   * unit
+   *  |__ decl (int, 1)
+   *  |    |__ IDENTIFIER (x, 1)
+   *  |    |__ expr
+   *  |__ func (void, 3)
+   *  |    |__ IDENTIFIER (f, 3)
+   *  |    |__ body ({, 4)
+   *  |         |__ decl (int, 5)
+   *  |         |    |__ IDENTIFIER (y, 5)
+   *  |         |__ stmt (goto, 6)
+   *  |              |__ IDENTIFIER (end, 6)
+   *  |__ decl (int, 8)
+   * </pre>
+   */
+  @BeforeEach
+  public void setUp() {
+    unit = node("unit", null, 0);
+    var decl1 = add(unit, node("decl", "int", 1));
+    add(decl1, node("IDENTIFIER", "x", 1));
+    add(decl1, node("expr", null, 0));
+    var func = add(unit, node("func", "void", 3));
+    add(func, node("IDENTIFIER", "f", 3));
+    body = add(func, node("body", "{", 4));
+    var decl2 = add(body, node("decl", "int", 5));
+    add(decl2, node("IDENTIFIER", "y", 5));
+    var stmt = add(body, node("stmt", "goto", 6));
+    add(stmt, node("IDENTIFIER", "end", 6));
+    add(unit, node("decl", "int", 8));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "//decl",
+    "/unit/decl",
+    "/decl",
+    "/unit",
+    "unit",
+    "decl",
+    "func/body/decl",
+    "func//IDENTIFIER",
+    "//body//IDENTIFIER",
+    "//decl/IDENTIFIER",
+    "//*",
+    "/unit//*[@tokenLine > 4]",
+    " // decl [ @tokenLine >= 5 and @tokenValue = 'int' ] ",
+    "//IDENTIFIER[@tokenValue != 'x']",
+    "//IDENTIFIER[@tokenValue = \"y\"][@tokenColumn = 5]",
+    "//expr[@tokenValue = '']",
+    "//expr[@tokenValue != '']",
+    "//IDENTIFIER[@tokenValue < 5]",
+    "//IDENTIFIER[@tokenValue != 5]",
+    "//stmt[@tokenLine = '6']",
+    "//stmt[@tokenLine = 6.0]",
+    "//*[@tokenLine <= '3']",
+    "//func//body/stmt//IDENTIFIER",
+    "//unit//decl",
+    "/*/*/*"
+  })
+  void sameResultAsJaxen(String xpath) {
+    var query = CompiledXPathQuery.compile(xpath);
+    assertThat(query).isNotNull();
+    assertThat(select(query, unit)).isEqualTo(AstNodeXPathQuery.create(xpath).selectNodes(unit));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"decl", "stmt/IDENTIFIER", "//decl", "/unit/decl"})
+  void sameResultAsJaxenForInnerContext(String xpath) {
+    var query = CompiledXPathQuery.compile(xpath);
+    assertThat(query).isNotNull();
+    assertThat(select(query, body)).isEqualTo(AstNodeXPathQuery.create(xpath).selectNodes(body));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "",
+    "/",
+    "//",
+    "count(//decl) > 1",
+    "//decl[1]",
+    "//decl[@tokenValue]",
+    "//decl[@tokenLine = 1 or @tokenLine = 5]",
+    "//decl[@name = 'x']",
+    "//decl[@tokenValue = 'x'",
+    "//decl[@tokenValue = 'x]",
+    "//decl[@tokenLine = -1]",
+    "//decl/@tokenValue",
+    "../decl",
+    ".//decl",
+    "descendant::decl",
+    "//decl | //func",
+    "//decl/"
+  })
+  void unsupportedExpression(String xpath) {
+    assertThat(CompiledXPathQuery.compile(xpath)).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"//decl", "/unit/func/body/decl[@tokenValue = 'int']", "body/stmt"})
+  void name(String xpath) {
+    var query = CompiledXPathQuery.compile(xpath);
+    assertThat(query.getName()).isEqualTo(xpath.replaceAll(".*/(\\w+).*", "$1"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"//*", "/unit/*[@tokenLine = 1]"})
+  void anyName(String xpath) {
+    assertThat(CompiledXPathQuery.compile(xpath).getName()).isNull();
+  }
+
+  private List<Object> select(CompiledXPathQuery query, AstNode context) {
+    var result = new ArrayList<Object>();
+    select(query, unit, context, result);
+    return result;
+  }
+
+  private static void select(CompiledXPathQuery query, AstNode node, AstNode context, List<Object> result) {
+    if (query.matches(node, context)) {
+      result.add(node);
+    }
+    for (var child : node.getChildren()) {
+      select(query, child, context, result);
+    }
+  }
+
+  private static AstNode add(AstNode parent, AstNode child) {
+    parent.addChild(child);
+    return child;
+  }
+
+  private static AstNode node(String name, String value, int line) {
+    Token token = null;
+    if (value != null) {
+      token = Token.builder()
+        .setURI(URI.create("tests://unittest"))
+        .setType(GenericTokenType.IDENTIFIER)
+        .setLine(line)
+        .setColumn(value.length())
+        .setValueAndOriginalValue(value)
+        .build();
+    }
+    return new AstNode(new NodeType(), name, token);
+  }
+
+  static class NodeType implements AstNodeType {
+
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2022-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package com.sonar.cxx.sslr.xpath.api;
+
+import com.sonar.cxx.sslr.api.AstNode;
+import com.sonar.cxx.sslr.api.AstNodeType;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AstNodeXPathQueriesTest {
+
+  private AstNode tree;
+  private AstNode branch;
+  private AstNode leaf1;
+  private AstNode leaf2;
+
+  @BeforeEach
+  public void setUp() {
+    tree = new AstNode(new NodeType(), "tree", null);
+    branch = new AstNode(new NodeType(), "branch", null);
+    leaf1 = new AstNode(new NodeType(), "leaf", null);
+    leaf2 = new AstNode(new NodeType(), "leaf", null);
+    tree.addChild(branch);
+    branch.addChild(leaf1);
+    branch.addChild(leaf2);
+  }
+
+  @Test
+  void selectNodesTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("leafs", "//leaf");
+    queries.add("branches", "/tree/branch");
+    queries.add("all", "//*");
+    queries.add("none", "//trunk");
+
+    assertThat(queries.isCompiled("leafs")).isTrue();
+    assertThat(queries.selectNodes("leafs", tree)).containsExactly(leaf1, leaf2);
+    assertThat(queries.selectNodes("branches", tree)).containsExactly(branch);
+    assertThat(queries.selectNodes("all", tree)).containsExactly(tree, branch, leaf1, leaf2);
+    assertThat(queries.selectNodes("none", tree)).isEmpty();
+    assertThat(queries.selectNodes("unknown", tree)).isEmpty();
+  }
+
+  @Test
+  void relativePathTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("leafs", "leaf");
+
+    assertThat(queries.selectNodes("leafs", tree)).isEmpty();
+    assertThat(queries.selectNodes("leafs", branch)).containsExactly(leaf1, leaf2);
+  }
+
+  @Test
+  void jaxenFallbackTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("first", "//leaf[1]");
+    queries.add("count", "count(//leaf)");
+    queries.add("leafs", "//leaf");
+
+    assertThat(queries.isCompiled("first")).isFalse();
+    assertThat(queries.isCompiled("count")).isFalse();
+    assertThat(queries.selectNodes("first", tree)).containsExactly(leaf1);
+    assertThat(queries.selectNodes("count", tree)).containsExactly(2.0);
+    assertThat(queries.selectNodes("leafs", tree)).containsExactly(leaf1, leaf2);
+  }
+
+  @Test
+  void compiledAfterJaxenTest() {
+    // Jaxen adds a document node as parent of the root
+    assertThat(AstNodeXPathQuery.create("//leaf[1]").selectNodes(tree)).containsExactly(leaf1);
+    assertThat(tree.getParent()).isNotNull();
+
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("root", "/tree");
+    queries.add("branches", "/tree/branch");
+    queries.add("all", "//*");
+
+    assertThat(queries.selectNodes("root", tree)).containsExactly(tree);
+    assertThat(queries.selectNodes("branches", tree)).containsExactly(branch);
+    assertThat(queries.selectNodes("all", tree)).containsExactly(tree, branch, leaf1, leaf2);
+    assertThat(queries.selectNodes("branches", leaf2)).containsExactly(branch);
+  }
+
+  @Test
+  void removeTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    assertThat(queries.isEmpty()).isTrue();
+
+    queries.add("leafs", "//leaf");
+    queries.add("first", "//leaf[1]");
+    assertThat(queries.isEmpty()).isFalse();
+
+    queries.remove("leafs");
+    assertThat(queries.selectNodes("leafs", tree)).isEmpty();
+    assertThat(queries.selectNodes("first", tree)).containsExactly(leaf1);
+
+    queries.remove("first");
+    assertThat(queries.isEmpty()).isTrue();
+  }
+
+  @Test
+  void replaceTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("query", "//leaf");
+    assertThat(queries.selectNodes("query", tree)).hasSize(2);
+
+    queries.add("query", "//branch");
+    assertThat(queries.selectNodes("query", tree)).containsExactly(branch);
+  }
+
+  @Test
+  void clearTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    queries.add("leafs", "//leaf");
+    assertThat(queries.selectNodes("leafs", tree)).hasSize(2);
+
+    var leaf3 = new AstNode(new NodeType(), "leaf", null);
+    branch.addChild(leaf3);
+    assertThat(queries.selectNodes("leafs", tree)).hasSize(2);
+
+    queries.clear();
+    assertThat(queries.selectNodes("leafs", tree)).containsExactly(leaf1, leaf2, leaf3);
+  }
+
+  @Test
+  void invalidQueryTest() {
+    var queries = new AstNodeXPathQueries<String>();
+    assertThatThrownBy(() -> queries.add("invalid", "//leaf["))
+      .isInstanceOf(RuntimeException.class);
+    assertThat(queries.isEmpty()).isTrue();
+  }
+
+  static class NodeType implements AstNodeType {
+
+  }
+
+}
@@ -0,0 +1,509 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cxx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.cxx.api.CxxMetric;
+import org.sonar.cxx.squidbridge.api.CheckMessage;
+import org.sonar.cxx.squidbridge.api.SourceFile;
+import org.sonar.cxx.utils.CxxReportIssue;
+import org.sonar.cxx.visitors.CxxCpdVisitor;
+import org.sonar.cxx.visitors.CxxHighlighterVisitor;
+import org.sonar.cxx.visitors.MultiLocatitionSquidCheck;
+
+/**
+ * Persistent cache of the analysis results of translation units.
+ *
+ * The results of a unit (measures, lines data, CPD tokens, highlighting and issues) are stored together with the hash
+ * of its content, the hashes of all files of its include closure and the hash of its settings (effective unit
+ * configuration and active checks). In the next analysis a unit whose hashes are all unchanged is replayed from the
+ * cache instead of being preprocessed, parsed and visited again.
+ *
+ * The cache is written as a whole at the end of the analysis and contains the units of the last analysis only. The
+ * instance is not thread-safe, the sensor serializes the access.
+ */
+public class CxxAnalysisCache {
+
+  static final int FORMAT_VERSION = 1;
+
+  private static final Logger LOG = LoggerFactory.getLogger(CxxAnalysisCache.class);
+  private static final int MAGIC = 0x43585843; // CXXC
+
+  /**
+   * Measures of a unit saved by the sensor.
+   */
+  private static final CxxMetric[] MEASURES = {
+    CxxMetric.LINES_OF_CODE,
+    CxxMetric.STATEMENTS,
+    CxxMetric.FUNCTIONS,
+    CxxMetric.CLASSES,
+    CxxMetric.COMPLEXITY,
+    CxxMetric.COGNITIVE_COMPLEXITY,
+    CxxMetric.COMMENT_LINES,
+    CxxMetric.PUBLIC_API,
+    CxxMetric.PUBLIC_UNDOCUMENTED_API,
+    CxxMetric.COMPLEX_FUNCTIONS,
+    CxxMetric.COMPLEX_FUNCTIONS_LOC,
+    CxxMetric.LOC_IN_FUNCTIONS,
+    CxxMetric.BIG_FUNCTIONS,
+    CxxMetric.BIG_FUNCTIONS_LOC
+  };
+
+  private final Path file;
+  private final Function<InputFile, String> settings;
+  private final Map<String, Entry> previous;
+  private final Map<String, Entry> current = new LinkedHashMap<>();
+  private final Map<Path, String> includeHashes = new HashMap<>();
+  private int hits = 0;
+  private int misses = 0;
+
+  private CxxAnalysisCache(Path file, Function<InputFile, String> settings, Map<String, Entry> previous) {
+    this.file = file;
+    this.settings = settings;
+    this.previous = previous;
+  }
+
+  /**
+   * Open the cache file. A missing, unreadable or outdated cache file results in an empty cache.
+   *
+   * @param file cache file
+   * @param settings returns the settings of a unit which influence its results, e.g. macros, include directories and
+   * active checks
+   * @return the cache
+   */
+  public static CxxAnalysisCache open(Path file, Function<InputFile, String> settings) {
+    Map<String, Entry> entries = new HashMap<>();
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION) {
+        for (int i = in.readInt(); i > 0; i--) {
+          var key = readString(in);
+          entries.put(key, Entry.read(in));
+        }
+      } else {
+        LOG.info("Analysis cache '{}' has an outdated format and is rebuilt", file);
+      }
+    } catch (NoSuchFileException e) {
+      LOG.debug("Analysis cache '{}' does not exist yet", file);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Cannot read analysis cache '{}', the cache is rebuilt: {}", file, e.getMessage());
+      entries.clear();
+    }
+    return new CxxAnalysisCache(file, settings, entries);
+  }
+
+  /**
+   * Returns the cached results of a unit if the unit, its include files and its settings are unchanged.
+   *
+   * @param inputFile unit to search for
+   * @param checks returns the check of a rule key, used for the restored issues
+   * @return source file with the results of the last analysis or null if the unit must be analysed
+   */
+  @CheckForNull
+  public SourceFile get(InputFile inputFile, Function<RuleKey, Object> checks) {
+    var key = key(inputFile);
+    var entry = previous.get(key);
+    SourceFile sourceFile = null;
+    if (entry != null && isValid(entry, inputFile)) {
+      try {
+        sourceFile = entry.restore(key, inputFile.filename(), checks);
+      } catch (IOException | RuntimeException e) {
+        LOG.debug("Cannot restore cached results of '{}': {}", key, e.getMessage());
+      }
+    }
+    if (sourceFile != null) {
+      current.put(key, entry);
+      hits++;
+    } else {
+      misses++;
+    }
+    return sourceFile;
+  }
+
+  /**
+   * Store the results of an analysed unit.
+   *
+   * The include closure of the unit must have been recorded in {@link CxxMetric#INCLUDES_DATA}, otherwise the unit is
+   * not cached.
+   *
+   * @param inputFile analysed unit
+   * @param sourceFile results of the unit
+   * @param ruleKeys returns the rule key of a check, issues of unknown checks are not stored
+   */
+  @SuppressWarnings("unchecked")
+  public void put(InputFile inputFile, SourceFile sourceFile, Function<Object, RuleKey> ruleKeys) {
+    var includes = (Collection<Path>) sourceFile.getData(CxxMetric.INCLUDES_DATA);
+    if (includes == null) {
+      return;
+    }
+    try {
+      var includeHashes = new LinkedHashMap<String, String>();
+      for (var include : new TreeSet<>(includes)) {
+        includeHashes.put(include.toString(), includeHash(include));
+      }
+      var entry = new Entry(hash(settings.apply(inputFile)), contentHash(inputFile), includeHashes,
+        Entry.write(sourceFile, ruleKeys));
+      current.put(key(inputFile), entry);
+    } catch (IOException e) {
+      LOG.debug("Cannot cache results of '{}': {}", inputFile, e.getMessage());
+    }
+  }
+
+  /**
+   * Write the units of the current analysis to the cache file.
+   *
+   * @throws IOException if the cache file cannot be written
+   */
+  public void write() throws IOException {
+    var parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(current.size());
+      for (var item : current.entrySet()) {
+        writeString(out, item.getKey());
+        item.getValue().write(out);
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Number of units replayed from the cache.
+   */
+  public int getHits() {
+    return hits;
+  }
+
+  /**
+   * Number of units not found in the cache or changed since the last analysis.
+   */
+  public int getMisses() {
+    return misses;
+  }
+
+  private boolean isValid(Entry entry, InputFile inputFile) {
+    try {
+      if (!entry.settings.equals(hash(settings.apply(inputFile)))
+        || !entry.content.equals(contentHash(inputFile))) {
+        return false;
+      }
+    } catch (IOException e) {
+      return false;
+    }
+    for (var include : entry.includes.entrySet()) {
+      if (!include.getValue().equals(includeHash(Path.of(include.getKey())))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String key(InputFile inputFile) {
+    return new File(inputFile.uri().getPath()).getAbsolutePath();
+  }
+
+  private static String contentHash(InputFile inputFile) throws IOException {
+    return hash(inputFile.contents().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Hash of an include file, the include files of the units overlap and are therefore read only once per analysis. A
+   * file that cannot be read has an empty hash.
+   */
+  private String includeHash(Path include) {
+    return includeHashes.computeIfAbsent(include, (Path path) -> {
+      try {
+        return hash(Files.readAllBytes(path));
+      } catch (IOException e) {
+        return "";
+      }
+    });
+  }
+
+  private static String hash(String value) {
+    return hash(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String hash(byte[] bytes) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      var result = new StringBuilder(2 * digest.length);
+      for (var b : digest) {
+        result.append(String.format(Locale.ROOT, "%02x", b));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Strings are written with an int length, {@link DataOutputStream#writeUTF} is limited to 64K.
+   */
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    var bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeString(out, value);
+    }
+  }
+
+  @CheckForNull
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  private static void writeInts(DataOutputStream out, Collection<Integer> values) throws IOException {
+    out.writeInt(values.size());
+    for (var value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  private static List<Integer> readInts(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    var result = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(in.readInt());
+    }
+    return result;
+  }
+
+  /**
+   * Cached unit: the hashes to validate the entry and the serialized results.
+   */
+  private static final class Entry {
+
+    private final String settings;
+    private final String content;
+    private final Map<String, String> includes;
+    private final byte[] data;
+
+    private Entry(String settings, String content, Map<String, String> includes, byte[] data) {
+      this.settings = settings;
+      this.content = content;
+      this.includes = includes;
+      this.data = data;
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+      var settings = readString(in);
+      var content = readString(in);
+      var includes = new LinkedHashMap<String, String>();
+      for (int i = in.readInt(); i > 0; i--) {
+        var path = readString(in);
+        includes.put(path, readString(in));
+      }
+      var data = new byte[in.readInt()];
+      in.readFully(data);
+      return new Entry(settings, content, includes, data);
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+      writeString(out, settings);
+      writeString(out, content);
+      out.writeInt(includes.size());
+      for (var include : includes.entrySet()) {
+        writeString(out, include.getKey());
+        writeString(out, include.getValue());
+      }
+      out.writeInt(data.length);
+      out.write(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] write(SourceFile sourceFile, Function<Object, RuleKey> ruleKeys) throws IOException {
+      var bytes = new ByteArrayOutputStream();
+      try (var out = new DataOutputStream(bytes)) {
+        for (var metric : MEASURES) {
+          out.writeDouble(sourceFile.getDouble(metric));
+        }
+        writeInts(out, sourceFile.getNoSonarTagLines());
+        writeInts(out, (List<Integer>) sourceFile.getData(CxxMetric.NCLOC_DATA));
+        writeInts(out, (List<Integer>) sourceFile.getData(CxxMetric.EXECUTABLE_LINES_DATA));
+
+        var cpdTokens = (List<CxxCpdVisitor.CpdToken>) sourceFile.getData(CxxMetric.CPD_TOKENS_DATA);
+        out.writeInt(cpdTokens.size());
+        for (var token : cpdTokens) {
+          out.writeInt(token.startLine);
+          out.writeInt(token.startCol);
+          out.writeInt(token.endLine);
+          out.writeInt(token.endCol);
+          writeString(out, token.token);
+        }
+
+        var highlighting = (List<CxxHighlighterVisitor.Highlight>) sourceFile.getData(CxxMetric.HIGHLIGTHING_DATA);
+        out.writeInt(highlighting.size());
+        for (var item : highlighting) {
+          out.writeInt(item.startLine);
+          out.writeInt(item.startLineOffset);
+          out.writeInt(item.endLine);
+          out.writeInt(item.endLineOffset);
+          writeString(out, item.typeOfText);
+        }
+
+        var messages = new ArrayList<CheckMessage>();
+        var keys = new ArrayList<RuleKey>();
+        if (sourceFile.hasCheckMessages()) {
+          for (var message : sourceFile.getCheckMessages()) {
+            var ruleKey = ruleKeys.apply(message.getCheck());
+            if (ruleKey != null) {
+              messages.add(message);
+              keys.add(ruleKey);
+            }
+          }
+        }
+        out.writeInt(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+          var message = messages.get(i);
+          writeString(out, keys.get(i).toString());
+          out.writeInt(message.getLine() != null ? message.getLine() : 0);
+          writeString(out, message.getText(Locale.ENGLISH));
+        }
+
+        var issues = MultiLocatitionSquidCheck.hasMultiLocationCheckMessages(sourceFile)
+          ? MultiLocatitionSquidCheck.getMultiLocationCheckMessages(sourceFile) : List.<CxxReportIssue>of();
+        out.writeInt(issues.size());
+        for (var issue : issues) {
+          writeString(out, issue.getRuleId());
+          out.writeInt(issue.getLocations().size());
+          for (var location : issue.getLocations()) {
+            writeNullableString(out, location.getFile());
+            writeNullableString(out, location.getLine());
+            writeNullableString(out, location.getColumn());
+            writeString(out, location.getInfo());
+          }
+        }
+      }
+      return bytes.toByteArray();
+    }
+
+    @CheckForNull
+    private SourceFile restore(String key, String fileName, Function<RuleKey, Object> checks) throws IOException {
+      var sourceFile = new SourceFile(key, fileName);
+      try (var in = new DataInputStream(new ByteArrayInputStream(data))) {
+        for (var metric : MEASURES) {
+          sourceFile.setMeasure(metric, in.readDouble());
+        }
+        sourceFile.addNoSonarTagLines(new TreeSet<>(readInts(in)));
+        sourceFile.addData(CxxMetric.NCLOC_DATA, readInts(in));
+        sourceFile.addData(CxxMetric.EXECUTABLE_LINES_DATA, readInts(in));
+
+        int size = in.readInt();
+        var cpdTokens = new ArrayList<CxxCpdVisitor.CpdToken>(size);
+        for (int i = 0; i < size; i++) {
+          cpdTokens.add(new CxxCpdVisitor.CpdToken(in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+            readString(in)));
+        }
+        sourceFile.addData(CxxMetric.CPD_TOKENS_DATA, cpdTokens);
+
+        size = in.readInt();
+        var highlighting = new ArrayList<CxxHighlighterVisitor.Highlight>(size);
+        for (int i = 0; i < size; i++) {
+          highlighting.add(new CxxHighlighterVisitor.Highlight(in.readInt(), in.readInt(), in.readInt(),
+            in.readInt(), readString(in)));
+        }
+        sourceFile.addData(CxxMetric.HIGHLIGTHING_DATA, highlighting);
+
+        for (int i = in.readInt(); i > 0; i--) {
+          var check = checks.apply(RuleKey.parse(readString(in)));
+          if (check == null) {
+            // the check is no longer available: the unit must be analysed again
+            return null;
+          }
+          int line = in.readInt();
+          var message = new CheckMessage(check, readString(in));
+          if (line > 0) {
+            message.setLine(line);
+          }
+          sourceFile.log(message);
+        }
+
+        for (int i = in.readInt(); i > 0; i--) {
+          var ruleId = readString(in);
+          CxxReportIssue issue = null;
+          for (int j = in.readInt(); j > 0; j--) {
+            var locationFile = readNullableString(in);
+            var line = readNullableString(in);
+            var column = readNullableString(in);
+            var info = readString(in);
+            if (issue == null) {
+              issue = new CxxReportIssue(ruleId, locationFile, line, column, info);
+            } else {
+              issue.addLocation(locationFile, line, column, info);
+            }
+          }
+          if (issue != null) {
+            MultiLocatitionSquidCheck.addMultiLocationCheckMessage(sourceFile, issue);
+          }
+        }
+      }
+      return sourceFile;
+    }
+  }
+
+}
@@ -53,6 +53,7 @@ import org.sonar.cxx.sensors.rats.CxxRatsSensor;
 import org.sonar.cxx.sensors.tests.dotnet.CxxUnitTestResultsAggregator;
 import org.sonar.cxx.sensors.tests.dotnet.CxxUnitTestResultsImportSensor;
 import org.sonar.cxx.sensors.tests.xunit.CxxXunitSensor;
+import org.sonar.cxx.sensors.utils.CxxIssuesReportSensor;
 import org.sonar.cxx.sensors.utils.RulesDefinitionXmlLoader;
 import org.sonar.cxx.sensors.valgrind.CxxValgrindRuleRepository;
 import org.sonar.cxx.sensors.valgrind.CxxValgrindSensor;
@@ -99,6 +100,7 @@ public final class CxxPlugin implements Plugin {
     l.addAll(CxxUnitTestResultsImportSensor.properties());
     l.addAll(CxxCompilerVcSensor.properties());
     l.addAll(CxxCompilerGccSensor.properties());
+    l.addAll(CxxIssuesReportSensor.properties());
 
     context.addExtensions(l);
   }
@@ -23,17 +23,25 @@ import com.sonar.cxx.sslr.api.Grammar;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,17 +63,19 @@ import org.sonar.api.measures.Metric;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scanner.sensor.ProjectSensor;
+import org.sonar.cxx.CxxAnalysisRun;
 import org.sonar.cxx.CxxAstScanner;
 import org.sonar.cxx.CxxMetrics;
 import org.sonar.cxx.api.CxxMetric;
 import org.sonar.cxx.checks.CheckList;
 import org.sonar.cxx.config.CxxSquidConfiguration;
 import org.sonar.cxx.config.MsBuild;
+import org.sonar.cxx.parser.CxxParser;
+import org.sonar.cxx.postjobs.FinalReport;
 import org.sonar.cxx.sensors.utils.CxxUtils;
 import org.sonar.cxx.squidbridge.SquidAstVisitor;
-import org.sonar.cxx.squidbridge.api.SourceCode;
 import org.sonar.cxx.squidbridge.api.SourceFile;
-import org.sonar.cxx.squidbridge.indexer.QueryByType;
+import org.sonar.cxx.sslr.parser.ParseProfile;
 import org.sonar.cxx.visitors.CxxCpdVisitor;
 import org.sonar.cxx.visitors.CxxHighlighterVisitor;
 import org.sonar.cxx.visitors.CxxPublicApiVisitor;
@@ -77,6 +87,7 @@ import org.sonar.cxx.visitors.MultiLocatitionSquidCheck;
 public class CxxSquidSensor implements ProjectSensor {
 
   public static final String SQUID_DISABLED_KEY = "sonar.cxx.squid.disabled";
+  public static final String SQUID_THREADS_KEY = "sonar.cxx.squid.threads";
   public static final String DEFINES_KEY = "sonar.cxx.defines";
   public static final String INCLUDE_DIRECTORIES_KEY = "sonar.cxx.includeDirectories";
   public static final String ERROR_RECOVERY_KEY = "sonar.cxx.errorRecoveryEnabled";
@@ -84,6 +95,8 @@ public class CxxSquidSensor implements ProjectSensor {
   public static final String JSON_COMPILATION_DATABASE_KEY = "sonar.cxx.jsonCompilationDatabase";
   public static final String JSON_COMPILATION_DATABASE_ONLY_CONTAINED_FILES_KEY
     = "sonar.cxx.jsonCompilationDatabase.analyzeOnlyContainedFiles";
+  public static final String JSON_COMPILATION_DATABASE_ONLY_INPUT_FILES_KEY
+    = "sonar.cxx.jsonCompilationDatabase.readOnlyInputFiles";
 
   public static final String FUNCTION_COMPLEXITY_THRESHOLD_KEY = "sonar.cxx.metric.func.complexity.threshold";
   public static final String FUNCTION_SIZE_THRESHOLD_KEY = "sonar.cxx.metric.func.size.threshold";
@@ -91,13 +104,46 @@ public class CxxSquidSensor implements ProjectSensor {
   public static final String CPD_IGNORE_LITERALS_KEY = "sonar.cxx.metric.cpd.ignoreLiterals";
   public static final String CPD_IGNORE_IDENTIFIERS_KEY = "sonar.cxx.metric.cpd.ignoreIdentifiers";
 
+  public static final String PARSER_PROFILE_KEY = CxxParser.PROFILE_PROPERTY;
+  public static final String PARSER_PROFILE_FILE = "cxx-parser-profile.json";
+  public static final String PARSER_MEMOIZED_RULES_KEY = "sonar.cxx.parser.memoizedRules";
+  private static final int PARSER_PROFILE_SUMMARY_RULES = 20;
+
+  public static final String CACHE_PATH_KEY = "sonar.cxx.cache.path";
+  public static final String CACHE_FILE = "cxx-analysis-cache.bin";
+
+  /**
+   * Project properties influencing the results of a unit, the unit properties (macros, include directories and forced
+   * includes) are read per unit.
+   */
+  private static final String[] CACHED_PROJECT_PROPERTIES = {
+    CxxSquidConfiguration.ERROR_RECOVERY_ENABLED,
+    CxxSquidConfiguration.CPD_IGNORE_LITERALS,
+    CxxSquidConfiguration.CPD_IGNORE_IDENTIFIERS,
+    CxxSquidConfiguration.FUNCTION_COMPLEXITY_THRESHOLD,
+    CxxSquidConfiguration.FUNCTION_SIZE_THRESHOLD,
+    CxxSquidConfiguration.API_FILE_SUFFIXES,
+    CxxSquidConfiguration.PARSER_MEMOIZED_RULES
+  };
+
+  /**
+   * Version and build time of the plugin, written by the build to 'build.properties'.
+   */
+  static final String PLUGIN_BUILD = readPluginBuild();
+
   private static final Logger LOG = LoggerFactory.getLogger(CxxSquidSensor.class);
 
   private final FileLinesContextFactory fileLinesContextFactory;
+  private final CheckFactory checkFactory;
+  private final CustomCxxRulesDefinition[] customRulesDefinition;
   private final CxxChecks checks;
+  private final List<CxxChecks> workerChecks = new ArrayList<>();
   private final NoSonarFilter noSonarFilter;
+  @Nullable
+  private final FinalReport finalReport;
 
   private SensorContext context;
+  private CxxAnalysisCache analysisCache;
 
   /**
    * {@inheritDoc}
@@ -115,11 +161,25 @@ public class CxxSquidSensor implements ProjectSensor {
     CheckFactory checkFactory,
     NoSonarFilter noSonarFilter,
     @Nullable CustomCxxRulesDefinition[] customRulesDefinition) {
-    this.checks = CxxChecks.createCxxCheck(checkFactory)
-      .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
-      .addCustomChecks(customRulesDefinition);
+    this(fileLinesContextFactory, checkFactory, noSonarFilter, customRulesDefinition, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * The statistics of the analysis are reported by the post job {@link FinalReport}, without it by the sensor.
+   */
+  public CxxSquidSensor(FileLinesContextFactory fileLinesContextFactory,
+    CheckFactory checkFactory,
+    NoSonarFilter noSonarFilter,
+    @Nullable CustomCxxRulesDefinition[] customRulesDefinition,
+    @Nullable FinalReport finalReport) {
+    this.checkFactory = checkFactory;
+    this.customRulesDefinition = customRulesDefinition;
+    this.checks = createChecks();
     this.fileLinesContextFactory = fileLinesContextFactory;
     this.noSonarFilter = noSonarFilter;
+    this.finalReport = finalReport;
   }
 
   public static List<PropertyDefinition> properties() {
@@ -161,6 +221,55 @@ public class CxxSquidSensor implements ProjectSensor {
         .onQualifiers(Qualifiers.PROJECT)
         .type(PropertyType.BOOLEAN)
         .build(),
+      PropertyDefinition.builder(SQUID_THREADS_KEY)
+        .defaultValue("1")
+        .name("Number of Threads")
+        .description("""
+          Number of threads used to parse the source files and to create the metrics. Each thread uses its own \
+          preprocessor, parser and checks. A value of `0` uses one thread per available processor \
+          (default is `1`).""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.INTEGER)
+        .build(),
+      PropertyDefinition.builder(PARSER_PROFILE_KEY)
+        .defaultValue(Boolean.FALSE.toString())
+        .name("Parser Profile")
+        .description("""
+          Collect statistics of the grammar rules while parsing: invocations, matches, backtracks, memo hits and \
+          consumed tokens of each rule. At the end of the analysis the rules are written to \
+          `cxx-parser-profile.json` in the working directory and the most frequently called ones are logged. \
+          Slows down the analysis.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.BOOLEAN)
+        .build(),
+      PropertyDefinition.builder(CACHE_PATH_KEY)
+        .name("Analysis Cache")
+        .description("""
+          Path of a file caching the results of the analysed files between analyses. A file is analysed again only \
+          if its content, one of its include files, its macros or include directories or the active rules changed, \
+          otherwise its results are replayed from the cache. The path may be either absolute or relative to the \
+          project base directory. If the path is a directory, the file `cxx-analysis-cache.bin` is used. \
+          A new include file hiding an unchanged one in the include search path is not detected, delete the cache \
+          file in this case. By default no cache is used.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .build(),
+      PropertyDefinition.builder(PARSER_MEMOIZED_RULES_KEY)
+        .multiValues(true)
+        .name("Parser Memoized Rules")
+        .description("""
+          Comma-separated list of grammar rules whose matches are memoized by the parser. By default all rules are \
+          memoized. Candidates are the rules with many `repeats` in the parser profile (`sonar.cxx.parser.profile`). \
+          In the SonarQube UI, enter one entry per field.""")
+        .category(category)
+        .subCategory("(1) General")
+        .onQualifiers(Qualifiers.PROJECT)
+        .build(),
       PropertyDefinition.builder(DEFINES_KEY)
         .name("(2.1) Macros")
         .description("""
@@ -225,6 +334,18 @@ public class CxxSquidSensor implements ProjectSensor {
         .onQualifiers(Qualifiers.PROJECT)
         .type(PropertyType.BOOLEAN)
         .build(),
+      PropertyDefinition.builder(JSON_COMPILATION_DATABASE_ONLY_INPUT_FILES_KEY)
+        .defaultValue(Boolean.FALSE.toString())
+        .category(category)
+        .subCategory(subcategory)
+        .name("(2.8) JSON Compilation Database read only input files")
+        .description("""
+          If 'readOnlyInputFiles=True' is used, only the entries of the 'JSON Compilation Database' file are read \
+          whose file is part of the files configured via 'sonar.projectBaseDir'. This reduces the memory consumption \
+          for large databases (default is False).""")
+        .onQualifiers(Qualifiers.PROJECT)
+        .type(PropertyType.BOOLEAN)
+        .build(),
       PropertyDefinition.builder(CxxPublicApiVisitor.API_FILE_SUFFIXES_KEY)
         .defaultValue(CxxPublicApiVisitor.API_DEFAULT_FILE_SUFFIXES)
         .name("Public API File suffixes")
@@ -299,24 +420,32 @@ public class CxxSquidSensor implements ProjectSensor {
   @Override
   public void execute(SensorContext context) {
     this.context = context;
-
-    // add visitor only if corresponding rule is active
-    var visitors = new ArrayList<SquidAstVisitor<Grammar>>();
-    for (var check : checks.all()) {
-      RuleKey key = checks.ruleKey(check);
-      if ((key != null) && (context.activeRules().find(key) != null)) {
-        visitors.add(check);
-      }
-    }
+    workerChecks.clear();
 
     var squidConfig = createConfiguration();
-    var scanner = CxxAstScanner.create(squidConfig, visitors.toArray(SquidAstVisitor[]::new));
+    var analysisRun = new CxxAnalysisRun();
+    // the results of each file are saved as soon as the file is scanned
+    var scanner = CxxAstScanner.create(squidConfig, analysisRun, getThreads(), this::save, this::nextActiveChecks);
 
     Iterable<InputFile> inputFiles = getInputFiles(context, squidConfig);
+    analysisCache = openAnalysisCache(squidConfig);
+    if (analysisCache != null) {
+      inputFiles = replayCachedFiles(inputFiles);
+    }
     scanner.scanInputFiles(inputFiles);
 
-    Collection<SourceCode> squidSourceFiles = scanner.getIndex().search(new QueryByType(SourceFile.class));
-    save(squidSourceFiles);
+    if (analysisCache != null) {
+      writeAnalysisCache();
+    }
+
+    if (finalReport != null) {
+      finalReport.add(analysisRun);
+    } else {
+      analysisRun.finalReport();
+    }
+    if (CxxParser.isProfiling(squidConfig)) {
+      reportParserProfile(analysisRun.getParseProfile());
+    }
   }
 
   @Override
@@ -324,6 +453,148 @@ public class CxxSquidSensor implements ProjectSensor {
     return getClass().getSimpleName();
   }
 
+  @CheckForNull
+  private CxxAnalysisCache openAnalysisCache(CxxSquidConfiguration squidConfig) {
+    Optional<String> path = context.config().get(CACHE_PATH_KEY);
+    if (path.isEmpty() || path.get().isBlank()) {
+      return null;
+    }
+    var file = context.fileSystem().resolvePath(path.get().trim()).toPath();
+    if (Files.isDirectory(file)) {
+      file = file.resolve(CACHE_FILE);
+    }
+    return CxxAnalysisCache.open(file, analysisSettings(squidConfig));
+  }
+
+  /**
+   * Settings of a unit which influence its results: the build of the plugin, the project properties, the unit
+   * configuration and the active checks with their parameters.
+   */
+  private Function<InputFile, String> analysisSettings(CxxSquidConfiguration squidConfig) {
+    var settings = new StringBuilder(256);
+    settings.append(PLUGIN_BUILD).append('\n')
+      .append(squidConfig.getCharset()).append('\n');
+    for (var key : CACHED_PROJECT_PROPERTIES) {
+      settings.append(key).append('=')
+        .append(squidConfig.getLevelValues(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, key)).append('\n');
+    }
+    var rules = new TreeSet<String>();
+    for (var check : checks.all()) {
+      RuleKey key = checks.ruleKey(check);
+      var activeRule = key != null ? context.activeRules().find(key) : null;
+      if (activeRule != null) {
+        rules.add(key + new TreeMap<>(activeRule.params()).toString());
+      }
+    }
+    settings.append(rules).append('\n');
+
+    var projectSettings = settings.toString();
+    return (InputFile inputFile) -> {
+      var unit = new File(inputFile.uri().getPath()).getAbsolutePath();
+      return projectSettings
+        + squidConfig.getValues(unit, CxxSquidConfiguration.DEFINES) + '\n'
+        + squidConfig.getValues(unit, CxxSquidConfiguration.INCLUDE_DIRECTORIES) + '\n'
+        + squidConfig.getValues(unit, CxxSquidConfiguration.FORCE_INCLUDES);
+    };
+  }
+
+  /**
+   * Save the results of the unchanged files from the cache.
+   *
+   * @return the files which have to be analysed
+   */
+  private List<InputFile> replayCachedFiles(Iterable<InputFile> inputFiles) {
+    var checksByKey = new HashMap<RuleKey, Object>();
+    for (var check : checks.all()) {
+      RuleKey key = checks.ruleKey(check);
+      if (key != null) {
+        checksByKey.put(key, check);
+      }
+    }
+
+    var changedFiles = new ArrayList<InputFile>();
+    for (var inputFile : inputFiles) {
+      var sourceFile = analysisCache.get(inputFile, checksByKey::get);
+      if (sourceFile != null) {
+        save(inputFile, sourceFile);
+      } else {
+        changedFiles.add(inputFile);
+      }
+    }
+    LOG.info("Analysis cache '{}': {} unchanged files replayed, {} files to analyze", analysisCache.getFile(),
+      analysisCache.getHits(), analysisCache.getMisses());
+    return changedFiles;
+  }
+
+  private void writeAnalysisCache() {
+    try {
+      analysisCache.write();
+    } catch (IOException e) {
+      LOG.warn("Cannot write analysis cache '{}': {}", analysisCache.getFile(), e.getMessage());
+    } finally {
+      analysisCache = null;
+    }
+  }
+
+  private void reportParserProfile(ParseProfile profile) {
+    var file = context.fileSystem().workDir().toPath().resolve(PARSER_PROFILE_FILE);
+    try {
+      profile.writeJson(file);
+      LOG.info("Parser profile of {} files written to '{}'", profile.getParses(), file);
+    } catch (IOException e) {
+      LOG.warn("Cannot write parser profile to '{}': {}", file, e.getMessage());
+    }
+    if (LOG.isInfoEnabled()) {
+      LOG.info("Most frequently called grammar rules:\n{}", profile.summary(PARSER_PROFILE_SUMMARY_RULES));
+      LOG.info("Grammar rules with most repeats, candidates for '{}': {}", PARSER_MEMOIZED_RULES_KEY,
+        String.join(",", profile.getMemoizationCandidates(PARSER_PROFILE_SUMMARY_RULES)));
+    }
+  }
+
+  private CxxChecks createChecks() {
+    return CxxChecks.createCxxCheck(checkFactory)
+      .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
+      .addCustomChecks(customRulesDefinition);
+  }
+
+  /**
+   * Checks have state, so each scanner thread needs its own instances: the first thread uses the checks of the
+   * sensor, further ones get a new set.
+   */
+  private SquidAstVisitor<Grammar>[] nextActiveChecks() {
+    var cxxChecks = workerChecks.isEmpty() ? checks : createChecks();
+    workerChecks.add(cxxChecks);
+
+    // add visitor only if corresponding rule is active
+    var visitors = new ArrayList<SquidAstVisitor<Grammar>>();
+    for (var check : cxxChecks.all()) {
+      RuleKey key = cxxChecks.ruleKey(check);
+      if ((key != null) && (context.activeRules().find(key) != null)) {
+        visitors.add(check);
+      }
+    }
+    return visitors.toArray(SquidAstVisitor[]::new);
+  }
+
+  @CheckForNull
+  private RuleKey ruleKey(SquidAstVisitor<Grammar> check) {
+    for (var cxxChecks : workerChecks) {
+      RuleKey key = cxxChecks.ruleKey(check);
+      if (key != null) {
+        return key;
+      }
+    }
+    return null;
+  }
+
+  private int getThreads() {
+    int threads = context.config().getInt(SQUID_THREADS_KEY).orElse(1);
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    return threads;
+  }
+
   private String[] stripValue(String key, String regex) {
     Optional<String> value = context.config().get(key);
     if (value.isPresent()) {
@@ -351,6 +622,10 @@ public class CxxSquidSensor implements ProjectSensor {
       context.config().getStringArray(CxxPublicApiVisitor.API_FILE_SUFFIXES_KEY));
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.JSON_COMPILATION_DATABASE,
       context.config().get(JSON_COMPILATION_DATABASE_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_PROFILE,
+      context.config().get(PARSER_PROFILE_KEY));
+    squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.PARSER_MEMOIZED_RULES,
+      context.config().getStringArray(PARSER_MEMOIZED_RULES_KEY));
 
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.DEFINES,
       stripValue(DEFINES_KEY, "\\R"));
@@ -359,7 +634,11 @@ public class CxxSquidSensor implements ProjectSensor {
     squidConfig.add(CxxSquidConfiguration.SONAR_PROJECT_PROPERTIES, CxxSquidConfiguration.INCLUDE_DIRECTORIES,
       context.config().getStringArray(INCLUDE_DIRECTORIES_KEY));
 
-    squidConfig.readJsonCompilationDb();
+    if (context.config().getBoolean(JSON_COMPILATION_DATABASE_ONLY_INPUT_FILES_KEY).orElse(Boolean.FALSE)) {
+      squidConfig.readJsonCompilationDb(getInputFileFilter());
+    } else {
+      squidConfig.readJsonCompilationDb();
+    }
 
     if (context.config().hasKey(MsBuild.REPORT_PATH_KEY)) {
       List<File> logFiles = CxxUtils.getFiles(context, MsBuild.REPORT_PATH_KEY);
@@ -370,6 +649,28 @@ public class CxxSquidSensor implements ProjectSensor {
     return squidConfig;
   }
 
+  /**
+   * Filter accepting the paths of the input files. The paths in the JSON Compilation Database are often lowercase or
+   * symbolic links, therefore paths not found directly are compared again as real path.
+   */
+  private Predicate<Path> getInputFileFilter() {
+    var inputPaths = new HashSet<Path>();
+    for (var inputFile : context.fileSystem().inputFiles(context.fileSystem().predicates().hasLanguage(
+      CxxLanguage.KEY))) {
+      inputPaths.add(Path.of(inputFile.uri()));
+    }
+    return (Path path) -> {
+      if (inputPaths.contains(path)) {
+        return true;
+      }
+      try {
+        return inputPaths.contains(path.toRealPath(LinkOption.NOFOLLOW_LINKS));
+      } catch (IOException | RuntimeException e) {
+        return false;
+      }
+    };
+  }
+
   private static Iterable<InputFile> getInputFiles(SensorContext context, CxxSquidConfiguration squidConfig) {
     Iterable<InputFile> inputFiles = context.fileSystem().inputFiles(
       context.fileSystem().predicates().and(
@@ -408,23 +709,56 @@ public class CxxSquidSensor implements ProjectSensor {
     return inputFiles;
   }
 
-  private void save(Collection<SourceCode> sourceCodeFiles) {
-    for (var sourceCodeFile : sourceCodeFiles) {
-      try {
-        var sourceFile = (SourceFile) sourceCodeFile;
-        InputFile inputFile = context.fileSystem().inputFile(
-          context.fileSystem().predicates().hasPath(sourceFile.getKey())
-        );
-        saveMeasures(inputFile, sourceFile);
-        saveViolations(inputFile, sourceFile);
-        saveFileLinesContext(inputFile, sourceFile);
-        saveCpdTokens(inputFile, sourceFile);
-        saveHighlighting(inputFile, sourceFile);
-      } catch (IllegalStateException e) {
-        var msg = "Cannot save all measures for file '" + sourceCodeFile.getKey() + "'";
-        CxxUtils.validateRecovery(msg, e, context.config());
+  /**
+   * Save the results of a scanned file and release the data, which is not needed for the aggregation on project level.
+   * Called from the scanner threads, therefore synchronized.
+   */
+  private synchronized void save(SourceFile sourceFile) {
+    InputFile inputFile = context.fileSystem().inputFile(
+      context.fileSystem().predicates().hasPath(sourceFile.getKey())
+    );
+    if (analysisCache != null && inputFile != null) {
+      analysisCache.put(inputFile, sourceFile, check -> ruleKey((SquidAstVisitor<Grammar>) check));
+    }
+    save(inputFile, sourceFile);
+  }
+
+  private void save(InputFile inputFile, SourceFile sourceFile) {
+    try {
+      saveMeasures(inputFile, sourceFile);
+      saveViolations(inputFile, sourceFile);
+      saveFileLinesContext(inputFile, sourceFile);
+      saveCpdTokens(inputFile, sourceFile);
+      saveHighlighting(inputFile, sourceFile);
+    } catch (IllegalStateException e) {
+      var msg = "Cannot save all measures for file '" + sourceFile.getKey() + "'";
+      CxxUtils.validateRecovery(msg, e, context.config());
+    } finally {
+      release(sourceFile);
+    }
+  }
+
+  private static String readPluginBuild() {
+    var properties = new Properties();
+    try (var input = CxxSquidSensor.class.getResourceAsStream("build.properties")) {
+      if (input == null) {
+        throw new IllegalStateException("Plugin build information 'build.properties' not found");
       }
+      properties.load(input);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read the plugin build information 'build.properties'", e);
     }
+    return properties.getProperty("version") + ' ' + properties.getProperty("build");
+  }
+
+  private static void release(SourceFile sourceFile) {
+    sourceFile.removeMeasure(CxxMetric.NCLOC_DATA);
+    sourceFile.removeMeasure(CxxMetric.EXECUTABLE_LINES_DATA);
+    sourceFile.removeMeasure(CxxMetric.CPD_TOKENS_DATA);
+    sourceFile.removeMeasure(CxxMetric.HIGHLIGTHING_DATA);
+    sourceFile.removeMeasure(CxxMetric.INCLUDES_DATA);
+    sourceFile.getCheckMessages().clear();
+    MultiLocatitionSquidCheck.eraseMultilineCheckMessages(sourceFile);
   }
 
   private void saveMeasures(InputFile inputFile, SourceFile sourceFile) {
@@ -468,7 +802,7 @@ public class CxxSquidSensor implements ProjectSensor {
           line = message.getLine();
         }
 
-        RuleKey ruleKey = checks.ruleKey((SquidAstVisitor<Grammar>) message.getCheck());
+        RuleKey ruleKey = ruleKey((SquidAstVisitor<Grammar>) message.getCheck());
         if (ruleKey != null) {
           var newIssue = context.newIssue().forRule(RuleKey.of(ruleKey.repository(), ruleKey.rule()));
           var location = newIssue.newLocation()
@@ -0,0 +1,200 @@
+/*
+ * C++ Community Plugin (cxx plugin)
+ * Copyright (C) 2010-2025 SonarOpenCommunity
+ * http://github.com/SonarOpenCommunity/sonar-cxx
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.cxx;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.cxx.api.CxxMetric;
+import org.sonar.cxx.squidbridge.api.CheckMessage;
+import org.sonar.cxx.squidbridge.api.SourceFile;
+import org.sonar.cxx.utils.CxxReportIssue;
+import org.sonar.cxx.visitors.CxxCpdVisitor;
+import org.sonar.cxx.visitors.CxxHighlighterVisitor;
+import org.sonar.cxx.visitors.MultiLocatitionSquidCheck;
+
+class CxxAnalysisCacheTest {
+
+  private static final RuleKey RULE = RuleKey.of("cxx", "TooManyLines");
+
+  @TempDir
+  Path tempDir;
+
+  private final Object check = new Object();
+  private Path cacheFile;
+  private Path header;
+  private InputFile inputFile;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    cacheFile = tempDir.resolve("cache.bin");
+    header = Files.writeString(tempDir.resolve("test.h"), "#define A 1\n");
+    var source = Files.writeString(tempDir.resolve("test.cc"), "#include \"test.h\"\nint i = A;\n");
+    inputFile = TestInputFileBuilder.create("ProjectKey", tempDir.toFile(), source.toFile())
+      .setContents(Files.readString(source))
+      .setCharset(StandardCharsets.UTF_8)
+      .setLanguage("cxx")
+      .setType(InputFile.Type.MAIN).build();
+  }
+
+  @Test
+  void restoresCachedResults() throws IOException {
+    writeCache("settings");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    var sourceFile = cache.get(inputFile, checks());
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isZero();
+    assertThat(sourceFile).isNotNull();
+
+    assertThat(sourceFile.getInt(CxxMetric.LINES_OF_CODE)).isEqualTo(2);
+    assertThat(sourceFile.getInt(CxxMetric.COMPLEXITY)).isEqualTo(3);
+    assertThat(sourceFile.getNoSonarTagLines()).containsExactly(2);
+    assertThat(sourceFile.getData(CxxMetric.NCLOC_DATA)).isEqualTo(List.of(1, 2));
+    assertThat(sourceFile.getData(CxxMetric.EXECUTABLE_LINES_DATA)).isEqualTo(List.of(2));
+
+    var cpdTokens = (List<CxxCpdVisitor.CpdToken>) sourceFile.getData(CxxMetric.CPD_TOKENS_DATA);
+    assertThat(cpdTokens).hasSize(1);
+    assertThat(cpdTokens.get(0).token).isEqualTo("int");
+    assertThat(cpdTokens.get(0).endCol).isEqualTo(3);
+
+    var highlighting = (List<CxxHighlighterVisitor.Highlight>) sourceFile.getData(CxxMetric.HIGHLIGTHING_DATA);
+    assertThat(highlighting).hasSize(1);
+    assertThat(highlighting.get(0).typeOfText).isEqualTo("k");
+
+    assertThat(sourceFile.getCheckMessages()).hasSize(1);
+    var message = sourceFile.getCheckMessages().iterator().next();
+    assertThat(message.getCheck()).isSameAs(check);
+    assertThat(message.getLine()).isEqualTo(2);
+    assertThat(message.getText(Locale.ENGLISH)).isEqualTo("Message {0} with argument");
+
+    var issues = MultiLocatitionSquidCheck.getMultiLocationCheckMessages(sourceFile);
+    assertThat(issues).hasSize(1);
+    var issue = issues.iterator().next();
+    assertThat(issue.getRuleId()).isEqualTo("multi");
+    assertThat(issue.getLocations()).hasSize(2);
+    assertThat(issue.getLocations().get(1).getLine()).isEqualTo("1");
+    assertThat(issue.getLocations().get(1).getColumn()).isNull();
+  }
+
+  @Test
+  void changedIncludeFileIsNotReplayed() throws IOException {
+    writeCache("settings");
+    Files.writeString(header, "#define A 2\n");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  void changedSettingsAreNotReplayed() throws IOException {
+    writeCache("settings");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "other settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+  }
+
+  @Test
+  void unknownCheckIsNotReplayed() throws IOException {
+    writeCache("settings");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    assertThat(cache.get(inputFile, key -> null)).isNull();
+  }
+
+  @Test
+  void onlyUnitsOfLastAnalysisAreWritten() throws IOException {
+    writeCache("settings");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "other settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+    cache.write();
+
+    cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+  }
+
+  @Test
+  void invalidCacheFileIsIgnored() throws IOException {
+    Files.writeString(cacheFile, "invalid");
+
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+  }
+
+  @Test
+  void unitWithoutIncludesDataIsNotCached() throws IOException {
+    var sourceFile = createSourceFile();
+    sourceFile.removeMeasure(CxxMetric.INCLUDES_DATA);
+    var cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    cache.put(inputFile, sourceFile, c -> RULE);
+    cache.write();
+
+    cache = CxxAnalysisCache.open(cacheFile, f -> "settings");
+    assertThat(cache.get(inputFile, checks())).isNull();
+  }
+
+  private Function<RuleKey, Object> checks() {
+    return key -> RULE.equals(key) ? check : null;
+  }
+
+  private void writeCache(String settings) throws IOException {
+    var cache = CxxAnalysisCache.open(cacheFile, f -> settings);
+    cache.put(inputFile, createSourceFile(), c -> c == check ? RULE : null);
+    cache.write();
+    assertThat(cacheFile).exists();
+  }
+
+  private SourceFile createSourceFile() {
+    var sourceFile = new SourceFile(inputFile.uri().getPath(), inputFile.filename());
+    sourceFile.setMeasure(CxxMetric.LINES_OF_CODE, 2);
+    sourceFile.setMeasure(CxxMetric.COMPLEXITY, 3);
+    sourceFile.addNoSonarTagLines(Set.of(2));
+    sourceFile.addData(CxxMetric.NCLOC_DATA, List.of(1, 2));
+    sourceFile.addData(CxxMetric.EXECUTABLE_LINES_DATA, List.of(2));
+    sourceFile.addData(CxxMetric.CPD_TOKENS_DATA, List.of(new CxxCpdVisitor.CpdToken(2, 0, 2, 3, "int")));
+    sourceFile.addData(CxxMetric.HIGHLIGTHING_DATA, List.of(new CxxHighlighterVisitor.Highlight(2, 0, 2, 3, "k")));
+    sourceFile.addData(CxxMetric.INCLUDES_DATA, Set.of(header));
+
+    var message = new CheckMessage(check, "Message {0} with argument");
+    message.setLine(2);
+    sourceFile.log(message);
+    sourceFile.log(new CheckMessage(new Object(), "Message of unknown check"));
+
+    var issue = new CxxReportIssue("multi", null, "2", "1", "primary");
+    issue.addLocation(null, "1", null, "secondary");
+    MultiLocatitionSquidCheck.addMultiLocationCheckMessage(sourceFile, issue);
+    return sourceFile;
+  }
+
+}
@@ -20,31 +20,46 @@
 package org.sonar.plugins.cxx;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import org.apache.commons.io.FileUtils;
 import static org.assertj.core.api.Assertions.*;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import org.slf4j.event.Level;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.postjob.PostJobContext;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.sensor.cpd.internal.TokensLine;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.internal.DefaultNoSonarFilter;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.cxx.CxxMetrics;
+import org.sonar.cxx.postjobs.FinalReport;
 
 class CxxSquidSensorTest {
 
   private CxxSquidSensor sensor;
   private final MapSettings settings = new MapSettings();
 
+  @RegisterExtension
+  private final LogTesterJUnit5 logTester = new LogTesterJUnit5();
+
   @BeforeEach
   public void setUp() {
     ActiveRules rules = mock(ActiveRules.class);
@@ -76,6 +91,45 @@ class CxxSquidSensorTest {
     softly.assertAll();
   }
 
+  @Test
+  void testStatisticsReportedByFinalReport() {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/codechunks-project");
+    var context = SensorContextTester.create(baseDir);
+    context.fileSystem().add(TestUtils.buildInputFile(baseDir, "code_chunks.cc"));
+    FileLinesContextFactory fileLinesContextFactory = mock(FileLinesContextFactory.class);
+    when(fileLinesContextFactory.createFor(Mockito.any(InputFile.class))).thenReturn(mock(FileLinesContext.class));
+    var finalReport = new FinalReport();
+    var reportingSensor = new CxxSquidSensor(fileLinesContextFactory, new CheckFactory(mock(ActiveRules.class)),
+      new DefaultNoSonarFilter(), null, finalReport);
+
+    reportingSensor.execute(context);
+    assertThat(logTester.logs(Level.INFO)).noneMatch(log -> log.contains("include file cache"));
+
+    finalReport.execute(mock(PostJobContext.class));
+    assertThat(logTester.logs(Level.INFO)).anyMatch(log -> log.contains("include file cache"));
+  }
+
+  @Test
+  void testCollectingSquidMetricsParallel() {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx");
+    var context = SensorContextTester.create(baseDir);
+    settings.setProperty(CxxSquidSensor.SQUID_THREADS_KEY, 2);
+    context.setSettings(settings);
+
+    var inputFile0 = TestUtils.buildInputFile(baseDir, "complexity-project/complexity.cc");
+    var inputFile1 = TestUtils.buildInputFile(baseDir, "codechunks-project/code_chunks.cc");
+    context.fileSystem().add(inputFile0);
+    context.fileSystem().add(inputFile1);
+    sensor.execute(context);
+
+    var softly = new SoftAssertions();
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.FUNCTIONS).value()).isEqualTo(22);
+    softly.assertThat(context.measure(inputFile0.key(), CoreMetrics.COMPLEXITY).value()).isEqualTo(38);
+    softly.assertThat(context.measure(inputFile1.key(), CoreMetrics.NCLOC).value()).isEqualTo(54);
+    softly.assertThat(context.measure(inputFile1.key(), CoreMetrics.FUNCTIONS).value()).isEqualTo(7);
+    softly.assertAll();
+  }
+
   @Test
   void testCpdTokens() {
     File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx");
@@ -244,4 +298,82 @@ class CxxSquidSensorTest {
     assertThat(context.measure(inputFile.key(), CoreMetrics.NCLOC).value()).isEqualTo(1);
   }
 
+  @Test
+  void testParserProfile(@TempDir Path workDir) throws IOException {
+    File baseDir = TestUtils.loadResource("/org/sonar/plugins/cxx/codechunks-project");
+    var inputFile = TestUtils.buildInputFile(baseDir, "code_chunks.cc");
+
+    var context = SensorContextTester.create(baseDir);
+    context.fileSystem().setWorkDir(workDir);
+    settings.setProperty(CxxSquidSensor.PARSER_PROFILE_KEY, true);
+    context.setSettings(settings);
+    context.fileSystem().add(inputFile);
+    sensor.execute(context);
+
+    var profile = workDir.resolve(CxxSquidSensor.PARSER_PROFILE_FILE);
+    assertThat(profile).exists();
+    assertThat(Files.readString(profile))
+      .contains("\"parses\": 1,")
+      .contains("{\"rule\": \"translationUnit\", \"invocations\": 1, \"matches\": 1,");
+
+    // the profile belongs to the sensor run
+    var nextContext = SensorContextTester.create(baseDir);
+    nextContext.fileSystem().setWorkDir(workDir);
+    nextContext.setSettings(settings);
+    nextContext.fileSystem().add(inputFile);
+    sensor.execute(nextContext);
+    assertThat(Files.readString(profile)).contains("\"parses\": 1,");
+  }
+
+  @Test
+  void testAnalysisCache(@TempDir Path tempDir) throws IOException {
+    var baseDir = tempDir.resolve("project").toFile();
+    FileUtils.copyDirectory(TestUtils.loadResource("/org/sonar/plugins/cxx/include-directories-project"), baseDir);
+    Files.writeString(baseDir.toPath().resolve("src/main.cc"), "\nint main() { return 0; }\n",
+      StandardOpenOption.APPEND);
+    settings.setProperty(CxxSquidSensor.INCLUDE_DIRECTORIES_KEY, "include");
+    settings.setProperty(CxxSquidSensor.CACHE_PATH_KEY, tempDir.toString());
+
+    executeWithCache(baseDir);
+    assertThat(tempDir.resolve(CxxSquidSensor.CACHE_FILE)).exists();
+    assertThat(logTester.logs(Level.INFO)).anyMatch(log -> log.endsWith("0 unchanged files replayed, 1 files to analyze"));
+
+    // unchanged: results are replayed from the cache
+    logTester.clear();
+    var inputFile = TestUtils.buildInputFile(baseDir, "src/main.cc");
+    var context = executeWithCache(baseDir);
+    assertThat(logTester.logs(Level.INFO)).anyMatch(log -> log.endsWith("1 unchanged files replayed, 0 files to analyze"));
+    var softly = new SoftAssertions();
+    softly.assertThat(context.measure(inputFile.key(), CoreMetrics.NCLOC).value()).isEqualTo(10);
+    softly.assertThat(context.measure(inputFile.key(), CoreMetrics.FUNCTIONS).value()).isEqualTo(10);
+    softly.assertThat(context.cpdTokens(inputFile.key())).hasSize(1);
+    softly.assertThat(context.highlightingTypeAt(inputFile.key(), 30, 0)).containsExactly(TypeOfText.KEYWORD);
+    softly.assertAll();
+
+    // changed include file: the unit is analysed again
+    logTester.clear();
+    Files.writeString(baseDir.toPath().resolve("include/include1.hh"),
+      "#define INCLUDE1 void include1(){} void include1b(){}");
+    context = executeWithCache(baseDir);
+    assertThat(logTester.logs(Level.INFO)).anyMatch(log -> log.endsWith("0 unchanged files replayed, 1 files to analyze"));
+    assertThat(context.measure(inputFile.key(), CoreMetrics.FUNCTIONS).value()).isEqualTo(11);
+  }
+
+  @Test
+  void testPluginBuild() {
+    assertThat(CxxSquidSensor.PLUGIN_BUILD)
+      .isNotBlank()
+      .doesNotContain("null")
+      .doesNotContain("${");
+  }
+
+  private SensorContextTester executeWithCache(File baseDir) {
+    var context = SensorContextTester.create(baseDir);
+    context.setSettings(settings);
+    context.fileSystem().add(TestUtils.buildInputFile(baseDir, "src/main.cc"));
+    sensor.execute(context);
+    return context;
+  }
+
 }
+